@@ -1,23 +1,45 @@
 package com.bankmanagement;
 
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.StartupTimer;
 import com.bankmanagement.view.LoginView;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 /**
  * Main application entry point for Bank Management System.
+ * The login window is shown as soon as the look and feel is set; the database
+ * connection and the classes of the main window are prepared meanwhile by
+ * {@link StartupWarmup}.
  */
 public class BankManagementApp {
     public static void main(String[] args) {
+        StartupTimer.mark("main");
+        boolean training = AppConfig.getBoolean("bank.startup.training", false);
+        if (!training) {
+            StartupWarmup.start();
+        }
+        
         // Set system look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             System.err.println("Error setting look and feel: " + e.getMessage());
         }
+        StartupTimer.mark("lookAndFeel");
+        
+        if (training) {
+            // Class list for the AppCDS archive: load what a session loads, without display or database
+            StartupWarmup.preloadClasses();
+            StartupTimer.mark("classesPreloaded");
+            StartupTimer.publish();
+            return;
+        }
         
         // Launch the application on the Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> new LoginView().setVisible(true));
+        SwingUtilities.invokeLater(() -> {
+            new LoginView().setVisible(true);
+            StartupTimer.mark("loginVisible");
+        });
     }
 }
-
@@ -0,0 +1,176 @@
+package com.bankmanagement;
+
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.CustomerPurger;
+import com.bankmanagement.controller.HotAccountConsolidator;
+import com.bankmanagement.controller.StandingOrderScheduler;
+import com.bankmanagement.controller.VelocityLimiter;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.dao.JdbcDataStore;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.StartupTimer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prepares the application in the background while the login window is shown: opens
+ * and validates the database connection and loads the classes of the first screens,
+ * in parallel, so that neither happens on the event dispatch thread when the teller
+ * signs in. After login the background services are started the same way.
+ * With a bank server configured ({@code bank.server.url}) only the server is checked,
+ * and the background services are left to the server.
+ */
+public final class StartupWarmup {
+    /** Classes loaded ahead of use: the main window, the teller screens and what they call. */
+    private static final String[] HOT_CLASSES = {
+        "com.bankmanagement.view.MainView",
+        "com.bankmanagement.view.DepositView",
+        "com.bankmanagement.view.WithdrawView",
+        "com.bankmanagement.view.TransferView",
+        "com.bankmanagement.view.BalanceView",
+        "com.bankmanagement.view.StatementView",
+        "com.bankmanagement.view.CustomerOverviewView",
+        "com.bankmanagement.view.NewAccountView",
+        "com.bankmanagement.view.ModifyCustomerView",
+        "com.bankmanagement.view.ViewCustomersView",
+        "com.bankmanagement.controller.BankController",
+        "com.bankmanagement.controller.TransientFailureRetry",
+        "com.bankmanagement.controller.VelocityLimiter",
+        "com.bankmanagement.controller.HotAccounts",
+        "com.bankmanagement.dao.JdbcUnitOfWork",
+        "com.bankmanagement.dao.AccountDAO",
+        "com.bankmanagement.dao.CustomerDAO",
+        "com.bankmanagement.dao.TransactionDAO",
+        "com.bankmanagement.dao.StandingOrderDAO",
+        "com.bankmanagement.model.Account",
+        "com.bankmanagement.model.Customer",
+        "com.bankmanagement.model.Transaction",
+        "com.bankmanagement.model.StatementPage",
+        "com.bankmanagement.notification.NotificationDispatcher",
+        "javax.swing.JDesktopPane",
+        "javax.swing.JInternalFrame",
+        "javax.swing.JTable",
+        "javax.swing.JSplitPane",
+        "javax.swing.JSpinner",
+        "javax.swing.SwingWorker",
+        "javax.swing.table.DefaultTableModel"
+    };
+    
+    private static ExecutorService executor;
+    private static CompletableFuture<Void> connections = CompletableFuture.completedFuture(null);
+    
+    private StartupWarmup() {
+    }
+    
+    /**
+     * Starts opening the database connection and loading classes in the background.
+     */
+    public static synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connections = CompletableFuture.runAsync(() -> {
+            try {
+                openConnections();
+                StartupTimer.mark("connectionsReady");
+            } catch (SQLException | RuntimeException e) {
+                MetricsRegistry.getInstance().incrementCounter("startup.warmupFailures");
+                System.err.println("Database warm-up failed: " + e.getMessage());
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }, executor);
+        executor.execute(() -> {
+            preloadClasses();
+            StartupTimer.mark("classesPreloaded");
+        });
+    }
+    
+    /**
+     * Returns the background opening of the database connection; completes
+     * exceptionally if the database could not be reached.
+     * 
+     * @return Future completed when the connection is ready
+     */
+    public static synchronized CompletableFuture<Void> connections() {
+        return connections;
+    }
+    
+    /**
+     * Waits until the background opening of the database connection has finished,
+     * successfully or not, so the caller does not open a second one next to it.
+     */
+    public static void awaitConnections() {
+        try {
+            connections().join();
+        } catch (RuntimeException e) {
+            // The caller's own database access reports the failure
+        }
+    }
+    
+    /**
+     * Loads the classes of the first screens. They are not initialised: static
+     * initialisers of Swing classes belong on the event dispatch thread.
+     */
+    public static void preloadClasses() {
+        ClassLoader loader = StartupWarmup.class.getClassLoader();
+        for (String className : HOT_CLASSES) {
+            try {
+                Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Class not preloaded: " + className);
+            }
+        }
+    }
+    
+    /**
+     * Starts the background services of the main window (standing orders, purge,
+     * hot-account consolidation) off the event dispatch thread.
+     */
+    public static synchronized void startBackgroundServices() {
+        if (Backends.isRemote()) {
+            return;
+        }
+        Runnable services = () -> {
+            StandingOrderScheduler.startDefault();
+            CustomerPurger.startDefault();
+            HotAccountConsolidator.startDefault();
+        };
+        if (executor == null || executor.isShutdown()) {
+            services.run();
+            return;
+        }
+        executor.execute(services);
+        executor.shutdown();
+    }
+    
+    /**
+     * Creates the application-wide data store, validates its primary connection and
+     * loads the velocity counters from the ledger. In offline branch mode this opens the embedded database instead, and in remote
+     * mode it checks that the bank server is up.
+     */
+    private static void openConnections() throws SQLException {
+        if (Backends.isRemote()) {
+            Backends.remoteClient().checkHealth();
+            return;
+        }
+        DataStore store = DataStores.getDefault();
+        if (store instanceof JdbcDataStore) {
+            Connection connection = ((JdbcDataStore) store).getConnectionProvider().getConnection();
+            if (!connection.isValid(AppConfig.getInt("bank.startup.validateTimeoutSeconds", 5))) {
+                throw new SQLException("Database connection is not valid");
+            }
+        }
+        VelocityLimiter.forDataStore(store);
+    }
+}
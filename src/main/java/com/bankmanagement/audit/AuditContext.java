@@ -0,0 +1,74 @@
+package com.bankmanagement.audit;
+
+import com.bankmanagement.model.User;
+
+/**
+ * Who the actions of the current thread are done for, as recorded in the
+ * {@link AuditLog}. A terminal running the controllers itself has one signed-in user;
+ * the bank server binds the user of each request's session to the thread handling it.
+ * Background services (standing order runs, purge, hot-account consolidation) run their
+ * threads {@linkplain #asSystem as the system}, so on a terminal they are not recorded
+ * under the signed-in teller's name.
+ */
+public final class AuditContext {
+    private static final ThreadLocal<User> THREAD_USER = new ThreadLocal<>();
+    /** Bound to a thread that acts for the system, whoever is signed in. */
+    private static final User SYSTEM = new User();
+    private static volatile User terminalUser;
+    
+    private AuditContext() {
+    }
+    
+    /**
+     * Sets the user signed in on this terminal.
+     * 
+     * @param user Signed-in user
+     */
+    public static void setTerminalUser(User user) {
+        terminalUser = user;
+    }
+    
+    /**
+     * Binds a user to the current thread until {@link #clearThreadUser()}.
+     * 
+     * @param user User the thread acts for
+     */
+    public static void setThreadUser(User user) {
+        THREAD_USER.set(user);
+    }
+    
+    public static void clearThreadUser() {
+        THREAD_USER.remove();
+    }
+    
+    /**
+     * Wraps the body of a background thread so that everything it does is recorded as
+     * done by the system.
+     * 
+     * @param task Body of the thread
+     * @return Task running with the system bound to its thread
+     */
+    public static Runnable asSystem(Runnable task) {
+        return () -> {
+            THREAD_USER.set(SYSTEM);
+            try {
+                task.run();
+            } finally {
+                THREAD_USER.remove();
+            }
+        };
+    }
+    
+    /**
+     * Returns the user the current thread acts for.
+     * 
+     * @return Thread's user, else the terminal's user; null for the system
+     */
+    public static User currentUser() {
+        User user = THREAD_USER.get();
+        if (user == SYSTEM) {
+            return null;
+        }
+        return user != null ? user : terminalUser;
+    }
+}
@@ -0,0 +1,405 @@
+package com.bankmanagement.audit;
+
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.Json;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only audit trail of who did what: one JSON line per controller action and
+ * login attempt, with the user and role it was done for, its arguments and outcome.
+ * <p>
+ * Every line ends with a SHA-256 hash over the previous line's hash and its own
+ * content, so changing, removing or reordering a line breaks the chain from there on
+ * (see {@link AuditLogVerifier}). After a restart the chain continues from the last
+ * line of the file.
+ * <p>
+ * A single writer thread takes the records queued within one group-commit window of
+ * {@code bank.audit.groupCommitMillis}, appends them with one write and forces them
+ * to disk with one fsync. A caller of {@link #record} returns once the batch holding
+ * its own record is durable, so concurrent callers share the cost of an fsync.
+ */
+public class AuditLog {
+    /** Hash the first record is chained to. */
+    static final String GENESIS_HASH = "0000000000000000000000000000000000000000000000000000000000000000";
+    /** Length of the hash field, {@code ,"hash":"<64 hex digits>"}, and closing brace every line ends with. */
+    static final int HASH_SUFFIX_LENGTH = 75;
+    
+    private static final int MAX_DETAIL_CHARS = 1000;
+    private static volatile AuditLog instance;
+    
+    private final FileChannel channel;
+    private final BlockingQueue<Entry> queue;
+    private final long groupCommitNanos;
+    private final int maxBatch;
+    private final long waitMillis;
+    private final boolean recordReads;
+    private final MessageDigest digest;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final Thread writer;
+    private long sequence;
+    private String lastHash;
+    private volatile boolean running = true;
+    
+    /**
+     * Opens (or creates) an audit file and starts its writer thread.
+     * 
+     * @param file Audit file
+     * @param groupCommitMillis How long records are collected before they are written together
+     * @param capacity Records that may wait for the writer; further callers block
+     * @throws IOException if the file cannot be opened or its last line is not a valid record
+     */
+    public AuditLog(Path file, long groupCommitMillis, int capacity) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        this.maxBatch = Math.max(1, AppConfig.getInt("bank.audit.maxBatch", 1024));
+        this.waitMillis = AppConfig.getLong("bank.audit.waitMillis", 10_000);
+        this.recordReads = AppConfig.getBoolean("bank.audit.reads", true);
+        this.digest = sha256();
+        resumeChain();
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        metrics.registerGauge("audit.queue.depth", queue::size);
+    }
+    
+    /**
+     * Gets the application-wide audit log, configured from {@code bank.audit.*}.
+     * 
+     * @return AuditLog instance, or null if auditing is disabled
+     * @throws IllegalStateException if the audit file cannot be opened
+     */
+    public static AuditLog getInstance() {
+        if (!AppConfig.getBoolean("bank.audit.enabled", true)) {
+            return null;
+        }
+        if (instance == null) {
+            synchronized (AuditLog.class) {
+                if (instance == null) {
+                    try {
+                        instance = new AuditLog(Paths.get(AppConfig.getString("bank.audit.file", "./data/audit.log")),
+                                                AppConfig.getLong("bank.audit.groupCommitMillis", 2),
+                                                AppConfig.getInt("bank.audit.capacity", 65_536));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot open audit log: " + e.getMessage(), e);
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::stop, "audit-shutdown"));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Records an action done for the user of the {@link AuditContext} and waits until
+     * the record is on disk.
+     * 
+     * @param action Action, e.g. the controller operation
+     * @param details Arguments of the action
+     * @param outcome {@code OK} or what went wrong
+     */
+    public void record(String action, String details, String outcome) {
+        User user = AuditContext.currentUser();
+        if (user == null) {
+            record("system", null, action, details, outcome);
+        } else {
+            record(user.getUsername(), user.getRole(), action, details, outcome);
+        }
+    }
+    
+    /**
+     * Records an action done for a given user and waits until the record is on disk.
+     * A failure to write is counted as {@code audit.failures} and reported, but not
+     * thrown: the action itself has already happened.
+     * 
+     * @param username User the action was done for
+     * @param role User's role, or null if unknown
+     * @param action Action
+     * @param details Arguments of the action
+     * @param outcome {@code OK} or what went wrong
+     */
+    public void record(String username, String role, String action, String details, String outcome) {
+        if (!running) {
+            return;
+        }
+        Entry entry = new Entry(username, role, action, truncate(details), truncate(outcome));
+        try {
+            queue.put(entry);
+            if (!entry.durable.await(waitMillis, TimeUnit.MILLISECONDS)) {
+                metrics.incrementCounter("audit.failures");
+                System.err.println("Audit record of " + action + " not written within " + waitMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.incrementCounter("audit.failures");
+        }
+    }
+    
+    /**
+     * Tells whether reads (operations starting with {@code get}) are recorded, as set
+     * by {@code bank.audit.reads}.
+     * 
+     * @param action Action
+     * @return true if the action is to be recorded
+     */
+    public boolean records(String action) {
+        return recordReads || !action.startsWith("get");
+    }
+    
+    /**
+     * Returns the hash of the last record written. Kept somewhere else, it shows
+     * whether the file was later rewritten as a whole.
+     * 
+     * @return Hash in hex
+     */
+    public synchronized String getLastHash() {
+        return lastHash;
+    }
+    
+    /**
+     * Writes the records still queued and closes the file. The writer is not
+     * interrupted, since an interrupt during channel I/O closes the channel; it sees
+     * the cleared flag within one poll timeout and exits once the queue is empty.
+     */
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(groupCommitNanos) + TimeUnit.SECONDS.toMillis(5));
+            if (writer.isAlive()) {
+                System.err.println("Audit writer still busy; audit log left open");
+                return;
+            }
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing audit log: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Reads the sequence number and hash of the last complete line. A last line
+     * without a line break was never acknowledged to its caller and is cut off.
+     */
+    private void resumeChain() throws IOException {
+        long size = channel.size();
+        int tailLength = (int) Math.min(size, 64 * 1024);
+        ByteBuffer tail = ByteBuffer.allocate(tailLength);
+        while (tail.hasRemaining() && channel.read(tail, size - tailLength + tail.position()) >= 0) {
+            // Reads the whole tail
+        }
+        byte[] bytes = tail.array();
+        int end = lastLineBreak(bytes, tailLength - 1);
+        if (end < tailLength - 1) {
+            // Keeps the file a sequence of complete lines
+            channel.truncate(size - (tailLength - end - 1));
+            channel.force(true);
+        }
+        channel.position(channel.size());
+        if (end < 0) {
+            if (tailLength < size) {
+                throw new IOException("Last audit record is too long");
+            }
+            sequence = 0;
+            lastHash = GENESIS_HASH;
+            return;
+        }
+        int start = lastLineBreak(bytes, end - 1) + 1;
+        String lastLine = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        try {
+            Map<String, Object> last = AuditLogVerifier.parse(lastLine);
+            sequence = ((Number) last.get("seq")).longValue();
+            lastHash = (String) last.get("hash");
+        } catch (IllegalArgumentException | ClassCastException | NullPointerException e) {
+            throw new IOException("Last audit record is not valid: " + e.getMessage(), e);
+        }
+    }
+    
+    private static int lastLineBreak(byte[] bytes, int from) {
+        for (int i = from; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                long deadline = System.nanoTime() + groupCommitNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !pollInto(batch, remaining)) {
+                        break;
+                    }
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // stop() never interrupts the writer; should anything else, the batch is still written
+                queue.drainTo(batch, maxBatch - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private boolean pollInto(List<Entry> batch, long timeoutNanos) throws InterruptedException {
+        Entry entry = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (entry == null) {
+            return false;
+        }
+        batch.add(entry);
+        return true;
+    }
+    
+    /**
+     * Chains, appends and forces a batch, then releases its callers.
+     */
+    private void write(List<Entry> batch) {
+        long start = System.nanoTime();
+        boolean success = false;
+        long firstSequence;
+        String firstHash;
+        synchronized (this) {
+            firstSequence = sequence;
+            firstHash = lastHash;
+        }
+        long seq = firstSequence;
+        String hash = firstHash;
+        StringBuilder lines = new StringBuilder(batch.size() * 256);
+        long end = -1;
+        for (Entry entry : batch) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("seq", ++seq);
+            record.put("time", entry.time.toString());
+            record.put("user", entry.username);
+            record.put("role", entry.role);
+            record.put("action", entry.action);
+            record.put("details", entry.details);
+            record.put("outcome", entry.outcome);
+            String body = Json.write(record);
+            hash = chainHash(digest, hash, body);
+            lines.append(body, 0, body.length() - 1).append(",\"hash\":\"").append(hash).append("\"}\n");
+        }
+        try {
+            end = channel.position();
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            synchronized (this) {
+                sequence = seq;
+                lastHash = hash;
+            }
+            success = true;
+            metrics.addToCounter("audit.records", batch.size());
+        } catch (IOException e) {
+            metrics.addToCounter("audit.failures", batch.size());
+            System.err.println("Error writing audit log: " + e.getMessage());
+            if (end >= 0) {
+                try {
+                    // Nothing of a failed batch may stay, or the next batch would fork the chain
+                    channel.truncate(end);
+                    channel.position(end);
+                } catch (IOException ignored) {
+                    // The file is unusable; later batches fail as well
+                }
+            }
+        } finally {
+            metrics.recordOperation("audit.groupCommit", System.nanoTime() - start, success);
+        }
+        for (Entry entry : batch) {
+            entry.durable.countDown();
+        }
+    }
+    
+    /**
+     * Computes the hash of a record: SHA-256 over the previous record's hash, a line
+     * break and the record without its hash field.
+     * 
+     * @param digest SHA-256 digest to use
+     * @param previousHash Hash of the previous record in hex
+     * @param body Record as written, without the hash field
+     * @return Hash in hex
+     */
+    static String chainHash(MessageDigest digest, String previousHash, String body) {
+        digest.reset();
+        digest.update(previousHash.getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) '\n');
+        byte[] bytes = digest.digest(body.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_DETAIL_CHARS ? text.substring(0, MAX_DETAIL_CHARS) : text;
+    }
+    
+    /**
+     * A record waiting to be written, and the latch its caller waits on.
+     */
+    private static final class Entry {
+        private final Instant time = Instant.now();
+        private final String username;
+        private final String role;
+        private final String action;
+        private final String details;
+        private final String outcome;
+        private final CountDownLatch durable = new CountDownLatch(1);
+        
+        private Entry(String username, String role, String action, String details, String outcome) {
+            this.username = username;
+            this.role = role;
+            this.action = action;
+            this.details = details;
+            this.outcome = outcome;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.bankmanagement.audit;
+
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * Checks the hash chain of an {@link AuditLog} file: every line must carry the next
+ * sequence number and the hash of its content chained to the line before. Finds lines
+ * that were changed, removed, inserted or reordered; a file rewritten as a whole is
+ * only found by comparing its last hash with one kept elsewhere.
+ */
+public final class AuditLogVerifier {
+    private static final String HASH_FIELD = ",\"hash\":\"";
+    
+    private AuditLogVerifier() {
+    }
+    
+    /**
+     * Verifies an audit file.
+     * 
+     * @param file Audit file
+     * @return null if the chain is intact, else what is wrong with the first bad line
+     * @throws IOException if the file cannot be read
+     */
+    public static String verify(Path file) throws IOException {
+        MessageDigest digest = AuditLog.sha256();
+        String previousHash = AuditLog.GENESIS_HASH;
+        long expectedSequence = 1;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> record;
+                try {
+                    record = parse(line);
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    return "Line " + expectedSequence + ": " + e.getMessage();
+                }
+                Object sequence = record.get("seq");
+                if (!(sequence instanceof BigDecimal) || ((BigDecimal) sequence).longValue() != expectedSequence) {
+                    return "Line " + expectedSequence + ": sequence " + sequence + ", expected " + expectedSequence;
+                }
+                String body = line.substring(0, line.length() - AuditLog.HASH_SUFFIX_LENGTH) + "}";
+                String hash = AuditLog.chainHash(digest, previousHash, body);
+                if (!hash.equals(record.get("hash"))) {
+                    return "Line " + expectedSequence + ": hash does not match its content and the line before";
+                }
+                previousHash = hash;
+                expectedSequence++;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Parses an audit line, checking that it ends with its hash field.
+     * 
+     * @param line Line without the line break
+     * @return Fields of the record
+     * @throws IllegalArgumentException if the line is not a record
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parse(String line) {
+        int hashField = line.length() - AuditLog.HASH_SUFFIX_LENGTH;
+        if (hashField < 0 || !line.startsWith(HASH_FIELD, hashField)) {
+            throw new IllegalArgumentException("no hash at the end of the line");
+        }
+        Object record = Json.parse(line);
+        if (!(record instanceof Map)) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        return (Map<String, Object>) record;
+    }
+    
+    /**
+     * Verifies the audit file from the command line, by default the configured
+     * {@code bank.audit.file}. Exits with 1 if the chain is broken.
+     * 
+     * @param args Optional audit file
+     */
+    public static void main(String[] args) {
+        Path file = Paths.get(args.length > 0 ? args[0] : AppConfig.getString("bank.audit.file", "./data/audit.log"));
+        try {
+            String problem = verify(file);
+            if (problem != null) {
+                System.out.println(file + " is not intact. " + problem);
+                System.exit(1);
+            }
+            System.out.println(file + " is intact.");
+        } catch (IOException e) {
+            System.err.println("Audit log verification failed: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.LatencyHistogram;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Limits how many controller operations run against the database at once, so that a
+ * burst queues in the application instead of piling onto MySQL, where it would slow
+ * every query down. Interactive operations (teller screens) and batch operations
+ * (payroll chunks, transfer batches, standing order runs, bulk balance inquiries, as
+ * listed in {@code bank.admission.batchOperations}) have separate limits and queues.
+ * <p>
+ * The interactive limit is fixed. The batch limit adapts to interactive latency: every
+ * {@code bank.admission.windowMillis} it is halved if the interactive p99 of the
+ * window exceeded {@code bank.admission.targetLatencyMillis}, and raised by one if batch
+ * work had to queue while latency was on target. Batch work thus takes up what capacity
+ * interactive work leaves, and gives it back as soon as tellers notice.
+ * <p>
+ * An operation that finds its queue full, or waits longer than its class allows, fails
+ * at once with {@link AdmissionRejectedException} instead of adding to the backlog.
+ * Time spent queueing is recorded as the operation {@code admission.<class>.wait}.
+ * Operations called from within an admitted operation are not limited again.
+ */
+public class AdmissionController {
+    private static volatile AdmissionController instance;
+    
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final boolean enabled;
+    private final Limiter interactive;
+    private final Limiter batch;
+    private final Set<String> batchOperations;
+    private final int minBatchLimit;
+    private final int maxBatchLimit;
+    private final long targetLatencyMicros;
+    private final long windowNanos;
+    private final LatencyHistogram interactiveLatency = new LatencyHistogram();
+    private final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+    private long[] windowStartCounts;
+    private volatile long windowStart = System.nanoTime();
+    private volatile long lastP99Micros;
+    
+    /**
+     * Creates a controller configured from {@code bank.admission.*}.
+     */
+    public AdmissionController() {
+        this.enabled = AppConfig.getBoolean("bank.admission.enabled", true);
+        this.interactive = new Limiter("interactive",
+                                       AppConfig.getInt("bank.admission.interactive.limit", 32),
+                                       AppConfig.getInt("bank.admission.interactive.queue", 128),
+                                       AppConfig.getLong("bank.admission.interactive.maxWaitMillis", 1_000));
+        this.minBatchLimit = Math.max(1, AppConfig.getInt("bank.admission.batch.minLimit", 1));
+        this.maxBatchLimit = Math.max(minBatchLimit, AppConfig.getInt("bank.admission.batch.maxLimit", 8));
+        this.batch = new Limiter("batch", maxBatchLimit,
+                                 AppConfig.getInt("bank.admission.batch.queue", 64),
+                                 AppConfig.getLong("bank.admission.batch.maxWaitMillis", 30_000));
+        this.batchOperations = new HashSet<>(Arrays.asList(AppConfig.getString("bank.admission.batchOperations",
+                "payrollChunk,transferBatch,executeStandingOrders,getBalances").split("\\s*,\\s*")));
+        this.targetLatencyMicros = AppConfig.getLong("bank.admission.targetLatencyMillis", 200) * 1_000;
+        this.windowNanos = AppConfig.getLong("bank.admission.windowMillis", 1_000) * 1_000_000;
+        this.windowStartCounts = interactiveLatency.snapshot();
+        metrics.registerGauge("admission.interactive.p99Micros", () -> lastP99Micros);
+    }
+    
+    /**
+     * Gets the controller shared by all operations of this process.
+     * 
+     * @return AdmissionController instance
+     */
+    public static AdmissionController getInstance() {
+        AdmissionController current = instance;
+        if (current == null) {
+            synchronized (AdmissionController.class) {
+                current = instance;
+                if (current == null) {
+                    current = new AdmissionController();
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Runs an operation once its class has room for it.
+     * 
+     * @param operation Operation name, which decides whether it is batch work
+     * @param work Operation body
+     * @return Result of the operation
+     * @throws AdmissionRejectedException if the operation was turned away
+     * @throws SQLException if the operation fails
+     */
+    public <T> T run(String operation, SqlCallable<T> work) throws SQLException {
+        if (!enabled || admitted.get() != null) {
+            return work.call();
+        }
+        boolean isBatch = batchOperations.contains(operation);
+        Limiter limiter = isBatch ? batch : interactive;
+        limiter.acquire();
+        admitted.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            admitted.remove();
+            limiter.release();
+            if (!isBatch) {
+                interactiveLatency.record(System.nanoTime() - start);
+            }
+            adaptIfWindowEnded();
+        }
+    }
+    
+    public int getBatchLimit() {
+        return batch.limit;
+    }
+    
+    /**
+     * Adjusts the batch limit at the end of every window, from the interactive latency
+     * of the window. Runs on whichever operation finishes first after the window ended.
+     */
+    private void adaptIfWindowEnded() {
+        if (System.nanoTime() - windowStart < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now - windowStart < windowNanos) {
+                return;
+            }
+            long[] counts = interactiveLatency.snapshot();
+            long p99 = LatencyHistogram.percentile(LatencyHistogram.difference(counts, windowStartCounts), 99);
+            windowStartCounts = counts;
+            windowStart = now;
+            lastP99Micros = p99;
+            
+            int limit = batch.limit;
+            if (p99 > targetLatencyMicros) {
+                batch.setLimit(Math.max(minBatchLimit, limit / 2));
+            } else if (batch.takeSaturated()) {
+                batch.setLimit(Math.min(maxBatchLimit, limit + 1));
+            }
+            if (batch.limit < limit) {
+                metrics.incrementCounter("admission.batch.decreased");
+            } else if (batch.limit > limit) {
+                metrics.incrementCounter("admission.batch.increased");
+            }
+        }
+    }
+    
+    /**
+     * Concurrency limit and bounded queue of one class of operations.
+     */
+    private final class Limiter {
+        private final String name;
+        private final int maxQueued;
+        private final long maxWaitNanos;
+        private volatile int limit;
+        private int running;
+        private int queued;
+        private boolean saturated;
+        
+        private Limiter(String name, int limit, int maxQueued, long maxWaitMillis) {
+            this.name = name;
+            this.limit = Math.max(1, limit);
+            this.maxQueued = maxQueued;
+            this.maxWaitNanos = maxWaitMillis * 1_000_000;
+            metrics.registerGauge("admission." + name + ".limit", () -> this.limit);
+            metrics.registerGauge("admission." + name + ".running", this::getRunning);
+            metrics.registerGauge("admission." + name + ".queued", this::getQueued);
+        }
+        
+        private synchronized void acquire() throws AdmissionRejectedException {
+            if (running < limit && queued == 0) {
+                running++;
+                return;
+            }
+            saturated = true;
+            if (queued >= maxQueued) {
+                reject("queue full");
+            }
+            long start = System.nanoTime();
+            boolean admittedInTime = false;
+            queued++;
+            try {
+                while (running >= limit) {
+                    long remaining = maxWaitNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        reject("waited " + maxWaitNanos / 1_000_000 + " ms");
+                    }
+                    wait(Math.max(1, remaining / 1_000_000));
+                }
+                running++;
+                admittedInTime = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject("interrupted");
+            } finally {
+                queued--;
+                if (!admittedInTime && running < limit && queued > 0) {
+                    // A release may have woken this waiter just as it gave up: pass the wakeup on
+                    notify();
+                }
+                metrics.recordOperation("admission." + name + ".wait", System.nanoTime() - start, admittedInTime);
+            }
+        }
+        
+        private synchronized void release() {
+            running--;
+            notify();
+        }
+        
+        private synchronized void setLimit(int limit) {
+            this.limit = limit;
+            notifyAll();
+        }
+        
+        /**
+         * Tells whether work had to queue since the last call.
+         */
+        private synchronized boolean takeSaturated() {
+            boolean result = saturated;
+            saturated = false;
+            return result;
+        }
+        
+        private synchronized long getRunning() {
+            return running;
+        }
+        
+        private synchronized long getQueued() {
+            return queued;
+        }
+        
+        private void reject(String reason) throws AdmissionRejectedException {
+            metrics.incrementCounter("admission." + name + ".rejected");
+            throw new AdmissionRejectedException("Server busy (" + name + " " + reason + "), please try again");
+        }
+    }
+}
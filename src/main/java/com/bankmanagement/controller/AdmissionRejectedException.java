@@ -0,0 +1,16 @@
+package com.bankmanagement.controller;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when the {@link AdmissionController} turns an operation away because too many
+ * are running and waiting already. Nothing was done; the caller may try again later.
+ * Uses SQL state {@code 08004}, which MySQL also reports for "too many connections".
+ */
+public class AdmissionRejectedException extends SQLException {
+    public static final String SQL_STATE = "08004";
+    
+    public AdmissionRejectedException(String message) {
+        super(message, SQL_STATE);
+    }
+}
@@ -1,6 +1,9 @@
 package com.bankmanagement.controller;
 
-import com.bankmanagement.dao.UserDAO;
+import com.bankmanagement.audit.AuditLog;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.dao.UserRepository;
 import com.bankmanagement.model.User;
 
 import java.sql.SQLException;
@@ -8,27 +11,46 @@ import java.sql.SQLException;
 /**
  * Controller for authentication operations.
  */
-public class AuthController {
-    private UserDAO userDAO;
+public class AuthController implements AuthOperations {
+    private final UserRepository userRepository;
+    private final AuditLog audit = AuditLog.getInstance();
     
     public AuthController() {
-        this.userDAO = new UserDAO();
+        this(DataStores.getDefault());
     }
     
     /**
-     * Authenticates a user.
+     * Creates a controller on a specific storage backend.
+     * 
+     * @param dataStore Storage backend
+     */
+    public AuthController(DataStore dataStore) {
+        this.userRepository = dataStore.users();
+    }
+    
+    /**
+     * Authenticates a user. Every attempt is recorded in the audit log under the
+     * username given.
      * 
      * @param username Username
      * @param password Password
      * @return User object if authentication successful, null otherwise
      */
+    @Override
     public User authenticate(String username, String password) {
+        User user = null;
+        String outcome;
         try {
-            return userDAO.authenticate(username, password);
+            user = userRepository.authenticate(username, password);
+            outcome = user != null ? "OK" : "DENIED";
         } catch (SQLException e) {
             System.err.println("Authentication error: " + e.getMessage());
-            return null;
+            outcome = "ERROR " + e.getSQLState() + ": " + e.getMessage();
+        }
+        if (audit != null) {
+            audit.record(username, user != null ? user.getRole() : null, "login", null, outcome);
         }
+        return user;
     }
 }
 
@@ -0,0 +1,19 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.User;
+
+/**
+ * Sign-in used by the login screen. Implemented locally by {@link AuthController}
+ * and over HTTP by the bank server's client; see {@link Backends}.
+ */
+public interface AuthOperations {
+    
+    /**
+     * Authenticates a user.
+     * 
+     * @param username Username
+     * @param password Password
+     * @return User object if authentication successful, null otherwise
+     */
+    User authenticate(String username, String password);
+}
@@ -0,0 +1,82 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.server.BinaryBankClient;
+import com.bankmanagement.server.RemoteBankClient;
+import com.bankmanagement.util.AppConfig;
+
+import java.net.URI;
+
+/**
+ * Chooses where the screens' operations run. With {@code bank.server.url} set, they
+ * are sent to a shared {@link com.bankmanagement.server.BankServer}, and this terminal
+ * opens no database connection of its own; otherwise they run locally on the
+ * configured data store. With {@code bank.server.binaryPort} set as well, balance
+ * inquiries, deposits, withdrawals and transfers use the server's binary protocol.
+ */
+public final class Backends {
+    private static RemoteBankClient remoteClient;
+    private static BinaryBankClient binaryClient;
+    
+    private Backends() {
+    }
+    
+    /**
+     * Tells whether the operations run on a bank server.
+     * 
+     * @return true if {@code bank.server.url} is set
+     */
+    public static boolean isRemote() {
+        return AppConfig.getString("bank.server.url", null) != null;
+    }
+    
+    /**
+     * Returns the banking operations for a screen.
+     * 
+     * @return Server client, or a new local controller
+     */
+    public static BankOperations bankOperations() {
+        if (!isRemote()) {
+            return new BankController();
+        }
+        return AppConfig.getInt("bank.server.binaryPort", 0) > 0 ? binaryClient() : remoteClient();
+    }
+    
+    /**
+     * Returns the sign-in operations for the login screen.
+     * 
+     * @return Server client, or a new local controller
+     */
+    public static AuthOperations authOperations() {
+        if (!isRemote()) {
+            return new AuthController();
+        }
+        return AppConfig.getInt("bank.server.binaryPort", 0) > 0 ? binaryClient() : remoteClient();
+    }
+    
+    /**
+     * Returns the application-wide server client, which holds the session of the
+     * signed-in user.
+     * 
+     * @return Server client
+     */
+    public static synchronized RemoteBankClient remoteClient() {
+        if (remoteClient == null) {
+            remoteClient = new RemoteBankClient(AppConfig.getString("bank.server.url", null));
+        }
+        return remoteClient;
+    }
+    
+    /**
+     * Returns the application-wide client of the server's binary protocol, which
+     * shares the session of {@link #remoteClient()}.
+     * 
+     * @return Binary protocol client
+     */
+    public static synchronized BinaryBankClient binaryClient() {
+        if (binaryClient == null) {
+            String host = URI.create(AppConfig.getString("bank.server.url", null)).getHost();
+            binaryClient = new BinaryBankClient(remoteClient(), host, AppConfig.getInt("bank.server.binaryPort", 0));
+        }
+        return binaryClient;
+    }
+}
@@ -1,30 +1,91 @@
 package com.bankmanagement.controller;
 
-import com.bankmanagement.dao.AccountDAO;
-import com.bankmanagement.dao.CustomerDAO;
-import com.bankmanagement.dao.TransactionDAO;
+import com.bankmanagement.audit.AuditLog;
+import com.bankmanagement.dao.AccountRepository;
+import com.bankmanagement.dao.CustomerRepository;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.dao.TransactionRepository;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
 import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransferRequest;
+import com.bankmanagement.notification.NotificationDispatcher;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.IntLongMap;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.Money;
+import com.bankmanagement.util.SqlCallable;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class for banking operations.
  * Handles business logic for account, customer, and transaction operations.
  */
-public class BankController {
-    private CustomerDAO customerDAO;
-    private AccountDAO accountDAO;
-    private TransactionDAO transactionDAO;
+public class BankController implements BankOperations {
+    private final DataStore dataStore;
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final StandingOrderRepository standingOrderRepository;
+    private final NotificationDispatcher notifications;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final TransientFailureRetry retry = new TransientFailureRetry();
+    private final AdmissionController admission = AdmissionController.getInstance();
+    private final AuditLog audit = AuditLog.getInstance();
+    private final HotAccounts hotAccounts;
+    private final VelocityLimiter velocity;
+    private final boolean optimistic;
     
     public BankController() {
-        this.customerDAO = new CustomerDAO();
-        this.accountDAO = new AccountDAO();
-        this.transactionDAO = new TransactionDAO();
+        this(DataStores.getDefault(), NotificationDispatcher.getInstance());
+    }
+    
+    /**
+     * Creates a controller on a specific storage backend.
+     * 
+     * @param dataStore Storage backend
+     */
+    public BankController(DataStore dataStore) {
+        this(dataStore, NotificationDispatcher.getInstance());
+    }
+    
+    /**
+     * Creates a controller on a specific storage backend and notification pipeline.
+     * The first controller of a data store builds its velocity counters from the ledger.
+     * 
+     * @param dataStore Storage backend
+     * @param notifications Dispatcher that receives committed postings
+     * @throws IllegalStateException if the ledger history for velocity limits cannot be read
+     */
+    public BankController(DataStore dataStore, NotificationDispatcher notifications) {
+        this.dataStore = dataStore;
+        this.notifications = notifications;
+        this.customerRepository = dataStore.customers();
+        this.accountRepository = dataStore.accounts();
+        this.transactionRepository = dataStore.transactions();
+        this.standingOrderRepository = dataStore.standingOrders();
+        this.hotAccounts = HotAccounts.forDataStore(dataStore);
+        try {
+            this.velocity = VelocityLimiter.forDataStore(dataStore);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Velocity limits could not be loaded: " + e.getMessage(), e);
+        }
+        this.optimistic = "optimistic".equalsIgnoreCase(AppConfig.getString("bank.concurrency.mode", "pessimistic"));
     }
     
     /**
@@ -41,41 +102,46 @@ public class BankController {
      * @throws SQLException if database operation fails
      * @throws IllegalArgumentException if invalid parameters
      */
+    @Override
     public Account createCustomerAccount(Customer customer, String accountType, 
                                         String modeOfOperation, BigDecimal initialDeposit,
                                         boolean smsAlert, boolean internetBanking, 
                                         boolean atmCard) throws SQLException {
-        // Validate inputs
-        if (customer == null) {
-            throw new IllegalArgumentException("Customer cannot be null");
-        }
-        if (initialDeposit.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Initial deposit cannot be negative");
-        }
-        
-        // Create customer
-        int customerId = customerDAO.createCustomer(customer);
-        customer.setCustomerId(customerId);
-        
-        // Create account
-        Account account = new Account(customerId, accountType, modeOfOperation);
-        account.setBalance(initialDeposit);
-        account.setSmsAlert(smsAlert);
-        account.setInternetBanking(internetBanking);
-        account.setAtmCard(atmCard);
-        account.setCreatedAt(LocalDateTime.now());
-        
-        int accountId = accountDAO.createAccount(account);
-        account.setAccountId(accountId);
-        
-        // Create initial deposit transaction if amount > 0
-        if (initialDeposit.compareTo(BigDecimal.ZERO) > 0) {
-            Transaction transaction = new Transaction(accountId, "DEPOSIT", initialDeposit, initialDeposit);
-            transaction.setDescription("Initial deposit");
-            transactionDAO.createTransaction(transaction);
-        }
-        
-        return account;
+        String details = (customer != null ? describe(customer) : "no customer") + ", " + accountType + " "
+                + modeOfOperation + ", initial deposit " + initialDeposit;
+        return transactional("createCustomerAccount", details, () -> {
+            // Validate inputs
+            if (customer == null) {
+                throw new IllegalArgumentException("Customer cannot be null");
+            }
+            if (initialDeposit.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Initial deposit cannot be negative");
+            }
+            
+            // Create customer
+            int customerId = customerRepository.createCustomer(customer);
+            customer.setCustomerId(customerId);
+            
+            // Create account
+            Account account = new Account(customerId, accountType, modeOfOperation);
+            account.setBalance(initialDeposit);
+            account.setSmsAlert(smsAlert);
+            account.setInternetBanking(internetBanking);
+            account.setAtmCard(atmCard);
+            account.setCreatedAt(LocalDateTime.now());
+            
+            int accountId = accountRepository.createAccount(account);
+            account.setAccountId(accountId);
+            
+            // Create initial deposit transaction if amount > 0
+            if (initialDeposit.compareTo(BigDecimal.ZERO) > 0) {
+                Transaction transaction = new Transaction(accountId, "DEPOSIT", initialDeposit, initialDeposit);
+                transaction.setDescription("Initial deposit");
+                transactionRepository.createTransaction(transaction);
+            }
+            
+            return account;
+        });
     }
     
     /**
@@ -87,25 +153,29 @@ public class BankController {
      * @throws SQLException if database operation fails
      * @throws IllegalArgumentException if invalid parameters
      */
+    @Override
     public Account deposit(int accountId, BigDecimal amount) throws SQLException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Deposit amount must be positive");
-        }
-        
-        Account account = accountDAO.getAccountById(accountId);
-        if (account == null) {
-            throw new IllegalArgumentException("Account not found");
-        }
-        
-        account.deposit(amount);
-        accountDAO.updateBalance(accountId, account.getBalance());
-        
-        // Create transaction record
-        Transaction transaction = new Transaction(accountId, "DEPOSIT", amount, account.getBalance());
-        transaction.setDescription("Deposit");
-        transactionDAO.createTransaction(transaction);
-        
-        return account;
+        Account updated = posting("deposit", "account " + accountId + ", amount " + amount, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Deposit amount must be positive");
+            }
+            
+            Account account = readForCredit(accountId);
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found");
+            }
+            metrics.recordAccountActivity(accountId);
+            
+            // Balance and transaction record
+            Transaction transaction = new Transaction(accountId, "DEPOSIT", amount, null);
+            transaction.setDescription("Deposit");
+            writeCredit(account, amount, transaction);
+            
+            return account;
+        });
+        // Published only after the posting has committed; never blocks
+        notifications.publish(updated, "DEPOSIT", amount);
+        return updated;
     }
     
     /**
@@ -117,25 +187,33 @@ public class BankController {
      * @throws SQLException if database operation fails
      * @throws IllegalArgumentException if invalid parameters or insufficient balance
      */
+    @Override
     public Account withdraw(int accountId, BigDecimal amount) throws SQLException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Withdrawal amount must be positive");
-        }
-        
-        Account account = accountDAO.getAccountById(accountId);
-        if (account == null) {
-            throw new IllegalArgumentException("Account not found");
-        }
-        
-        account.withdraw(amount);
-        accountDAO.updateBalance(accountId, account.getBalance());
-        
-        // Create transaction record
-        Transaction transaction = new Transaction(accountId, "WITHDRAWAL", amount, account.getBalance());
-        transaction.setDescription("Withdrawal");
-        transactionDAO.createTransaction(transaction);
-        
-        return account;
+        Account updated = posting("withdraw", "account " + accountId + ", amount " + amount, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Withdrawal amount must be positive");
+            }
+            
+            Account account = readForPosting(accountId);
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found");
+            }
+            metrics.recordAccountActivity(accountId);
+            velocity.check(accountId, amount);
+            
+            account.withdraw(amount);
+            writeBalance(account);
+            
+            // Create transaction record
+            Transaction transaction = new Transaction(accountId, "WITHDRAWAL", amount, account.getBalance());
+            transaction.setDescription("Withdrawal");
+            transactionRepository.createTransaction(transaction);
+            
+            velocity.record(accountId, amount);
+            return account;
+        });
+        notifications.publish(updated, "WITHDRAWAL", amount);
+        return updated;
     }
     
     /**
@@ -148,43 +226,446 @@ public class BankController {
      * @throws SQLException if database operation fails
      * @throws IllegalArgumentException if invalid parameters or insufficient balance
      */
+    @Override
     public Account transfer(int fromAccountId, int toAccountId, BigDecimal amount) throws SQLException {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Transfer amount must be positive");
+        Account[] credited = new Account[1];
+        Account debited = posting("transfer", "from account " + fromAccountId + " to account " + toAccountId
+                + ", amount " + amount, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Transfer amount must be positive");
+            }
+            if (fromAccountId == toAccountId) {
+                throw new IllegalArgumentException("Source and destination accounts cannot be the same");
+            }
+            
+            // Lock both rows (pessimistic mode) in ascending ID order so concurrent transfers cannot
+            // deadlock; a hot destination is not locked, it is credited through a sub-ledger slot
+            Account fromAccount, toAccount;
+            if (fromAccountId < toAccountId) {
+                fromAccount = readForPosting(fromAccountId);
+                toAccount = readForCredit(toAccountId);
+            } else {
+                toAccount = readForCredit(toAccountId);
+                fromAccount = readForPosting(fromAccountId);
+            }
+            
+            if (fromAccount == null || toAccount == null) {
+                throw new IllegalArgumentException("One or both accounts not found");
+            }
+            metrics.recordAccountActivity(fromAccountId);
+            metrics.recordAccountActivity(toAccountId);
+            velocity.check(fromAccountId, amount);
+            
+            fromAccount.withdraw(amount);
+            
+            // Transaction records
+            Transaction fromTransaction = new Transaction(fromAccountId, "TRANSFER", amount, 
+                                                         fromAccount.getBalance());
+            fromTransaction.setDescription("Transfer to account " + toAccount.getAccountNumber());
+            fromTransaction.setRelatedAccountId(toAccountId);
+            fromTransaction.setDebit(true);
+            
+            Transaction toTransaction = new Transaction(toAccountId, "TRANSFER", amount, null);
+            toTransaction.setDescription("Transfer from account " + fromAccount.getAccountNumber());
+            toTransaction.setRelatedAccountId(fromAccountId);
+            
+            // Write in ascending ID order too: optimistic updates take their row locks here
+            if (fromAccountId < toAccountId) {
+                writeBalance(fromAccount);
+                writeCredit(toAccount, amount, toTransaction);
+            } else {
+                writeCredit(toAccount, amount, toTransaction);
+                writeBalance(fromAccount);
+            }
+            transactionRepository.createTransaction(fromTransaction);
+            
+            velocity.record(fromAccountId, amount);
+            credited[0] = toAccount;
+            return fromAccount;
+        });
+        notifications.publish(debited, "TRANSFER", amount.negate());
+        notifications.publish(credited[0], "TRANSFER", amount);
+        return debited;
+    }
+    
+    /**
+     * Pays many accounts from one debit account, e.g. salaries from a corporate
+     * current account. Lines are posted in chunks of {@code bank.payroll.chunkSize}.
+     * Each chunk locks all of its accounts with one query, debits the source once,
+     * applies the credits as one batched update, writes its ledger rows in one batch
+     * and commits as a whole. A failing chunk is rolled back and stops the run; the
+     * chunks committed before it stay posted.
+     * 
+     * @param debitAccountId Account paying the salaries
+     * @param lines Credits to post
+     * @return Outcome of the run
+     * @throws IllegalArgumentException if a line is invalid (nothing is posted)
+     */
+    @Override
+    public PayrollResult payroll(int debitAccountId, List<PayrollLine> lines) {
+        String details = "debit account " + debitAccountId + ", " + lines.size() + " lines";
+        try {
+            PayrollResult result = postPayroll(debitAccountId, lines);
+            if (audit != null) {
+                audit.record("payroll", details, result.isComplete() ? "OK"
+                        : "PARTIAL: failed at line " + result.getFailedLine() + ": " + result.getFailure());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (audit != null) {
+                audit.record("payroll", details, outcomeOf(e));
+            }
+            throw e;
         }
-        if (fromAccountId == toAccountId) {
-            throw new IllegalArgumentException("Source and destination accounts cannot be the same");
+    }
+    
+    /**
+     * Posts a payroll run chunk by chunk, see {@link #payroll}.
+     */
+    private PayrollResult postPayroll(int debitAccountId, List<PayrollLine> lines) {
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Payroll has no lines");
+        }
+        // Amounts are summed and posted as cents, converted once here
+        long[] amounts = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            PayrollLine line = lines.get(i);
+            if (line.getAmount().signum() <= 0) {
+                throw new IllegalArgumentException("Payroll amount must be positive for account " + line.getAccountId());
+            }
+            if (line.getAccountId() == debitAccountId) {
+                throw new IllegalArgumentException("Payroll cannot credit the debit account");
+            }
+            amounts[i] = Money.toCents(line.getAmount());
         }
         
-        Account fromAccount = accountDAO.getAccountById(fromAccountId);
-        Account toAccount = accountDAO.getAccountById(toAccountId);
+        int chunkSize = Math.max(1, AppConfig.getInt("bank.payroll.chunkSize", 500));
+        PayrollResult result = new PayrollResult(lines.size());
+        for (int from = 0; from < lines.size(); from += chunkSize) {
+            int chunkStart = from;
+            List<PayrollLine> chunk = lines.subList(from, Math.min(lines.size(), from + chunkSize));
+            long totalCents = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                totalCents = Money.add(totalCents, amounts[chunkStart + i]);
+            }
+            long chunkTotalCents = totalCents;
+            BigDecimal chunkTotal = Money.fromCents(totalCents);
+            try {
+                Map<Integer, Account> accounts = transactional("payrollChunk", null,
+                        () -> postPayrollChunk(debitAccountId, chunk, amounts, chunkStart, chunkTotalCents));
+                result.addPostedChunk(chunk.size(), chunkTotal);
+                notifications.publish(accounts.get(debitAccountId), "TRANSFER", chunkTotal.negate());
+                for (PayrollLine line : chunk) {
+                    notifications.publish(accounts.get(line.getAccountId()), "TRANSFER", line.getAmount());
+                }
+            } catch (SQLException | IllegalArgumentException e) {
+                result.setFailure(from, e.getMessage());
+                break;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Posts one payroll chunk inside the current unit of work.
+     * 
+     * @param amounts Amounts in cents of all lines of the run
+     * @param chunkStart Index of the chunk's first line in the run
+     * @return Updated accounts by ID
+     */
+    private Map<Integer, Account> postPayrollChunk(int debitAccountId, List<PayrollLine> chunk, long[] amounts,
+                                                   int chunkStart, long totalCents) throws SQLException {
+        int[] accountIds = new int[chunk.size() + 1];
+        accountIds[0] = debitAccountId;
+        for (int i = 0; i < chunk.size(); i++) {
+            accountIds[i + 1] = chunk.get(i).getAccountId();
+        }
         
-        if (fromAccount == null || toAccount == null) {
-            throw new IllegalArgumentException("One or both accounts not found");
+        // One round-trip locks the debit account and every credited account in ID order
+        Map<Integer, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.getAccountsByIdsForUpdate(accountIds)) {
+            accounts.put(account.getAccountId(), account);
+        }
+        Account debitAccount = accounts.get(debitAccountId);
+        if (debitAccount == null) {
+            throw new IllegalArgumentException("Debit account not found");
         }
+        metrics.recordAccountActivity(debitAccountId);
+        debitAccount.withdraw(totalCents);
         
-        // Withdraw from source account
-        fromAccount.withdraw(amount);
-        accountDAO.updateBalance(fromAccountId, fromAccount.getBalance());
+        Map<Integer, BigDecimal> newBalances = new HashMap<>();
+        List<Transaction> ledger = new ArrayList<>(chunk.size() + 1);
+        newBalances.put(debitAccountId, debitAccount.getBalance());
+        Transaction debit = new Transaction(debitAccountId, "TRANSFER", Money.fromCents(totalCents),
+                                            debitAccount.getBalance());
+        debit.setDescription("Payroll to " + chunk.size() + " accounts");
+        debit.setDebit(true);
+        ledger.add(debit);
         
-        // Deposit to destination account
-        toAccount.deposit(amount);
-        accountDAO.updateBalance(toAccountId, toAccount.getBalance());
+        for (int i = 0; i < chunk.size(); i++) {
+            PayrollLine line = chunk.get(i);
+            Account account = accounts.get(line.getAccountId());
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found: " + line.getAccountId());
+            }
+            account.deposit(amounts[chunkStart + i]);
+            newBalances.put(account.getAccountId(), account.getBalance());
+            
+            Transaction credit = new Transaction(account.getAccountId(), "TRANSFER", line.getAmount(),
+                                                 account.getBalance());
+            credit.setDescription("Payroll from account " + debitAccount.getAccountNumber());
+            credit.setRelatedAccountId(debitAccountId);
+            ledger.add(credit);
+        }
         
-        // Create transaction records
-        Transaction fromTransaction = new Transaction(fromAccountId, "TRANSFER", amount, 
-                                                     fromAccount.getBalance());
-        fromTransaction.setDescription("Transfer to account " + toAccount.getAccountNumber());
-        fromTransaction.setRelatedAccountId(toAccountId);
-        transactionDAO.createTransaction(fromTransaction);
+        accountRepository.updateBalances(newBalances);
+        transactionRepository.createTransactions(ledger);
+        velocity.record(debitAccountId, debit.getAmount());
+        return accounts;
+    }
+    
+    /**
+     * Posts several transfers as one unit of work. All accounts involved are locked with
+     * one query, balances are updated in one batch and ledger rows written in one batch.
+     * A transfer that cannot be posted (e.g. insufficient balance) is skipped and its
+     * failure recorded on the request; the others are still posted.
+     * 
+     * @param requests Transfers to post; outcomes are recorded on them
+     * @throws SQLException if database operation fails (nothing is posted)
+     */
+    public void transferBatch(List<TransferRequest> requests) throws SQLException {
+        Map<Integer, Account> accounts = transactional("transferBatch", requests.size() + " transfers",
+                                                        () -> postTransfers(requests));
+        publishTransfers(requests, accounts);
+    }
+    
+    /**
+     * Posts transfers inside the current unit of work.
+     * 
+     * @return Updated accounts by ID
+     */
+    private Map<Integer, Account> postTransfers(List<TransferRequest> requests) throws SQLException {
+        int[] accountIds = new int[requests.size() * 2];
+        for (int i = 0; i < requests.size(); i++) {
+            accountIds[2 * i] = requests.get(i).getFromAccountId();
+            accountIds[2 * i + 1] = requests.get(i).getToAccountId();
+        }
+        Map<Integer, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.getAccountsByIdsForUpdate(accountIds)) {
+            accounts.put(account.getAccountId(), account);
+        }
         
-        Transaction toTransaction = new Transaction(toAccountId, "TRANSFER", amount, 
-                                                   toAccount.getBalance());
-        toTransaction.setDescription("Transfer from account " + fromAccount.getAccountNumber());
-        toTransaction.setRelatedAccountId(fromAccountId);
-        transactionDAO.createTransaction(toTransaction);
+        Map<Integer, BigDecimal> newBalances = new HashMap<>();
+        List<Transaction> ledger = new ArrayList<>(requests.size() * 2);
+        for (TransferRequest request : requests) {
+            // Outcomes of an earlier attempt that was rolled back do not count
+            request.setPosted(false);
+            request.setFailure(null, false);
+            Account fromAccount = accounts.get(request.getFromAccountId());
+            Account toAccount = accounts.get(request.getToAccountId());
+            BigDecimal amount = request.getAmount();
+            if (fromAccount == null || toAccount == null) {
+                request.setFailure("One or both accounts not found", false);
+                continue;
+            }
+            if (fromAccount == toAccount || amount.signum() <= 0 || !Money.isWholeCents(amount)) {
+                request.setFailure("Invalid transfer", false);
+                continue;
+            }
+            long amountCents = Money.toCents(amount);
+            if (fromAccount.getBalanceCents() < amountCents) {
+                request.setFailure("Insufficient balance", true);
+                continue;
+            }
+            metrics.recordAccountActivity(fromAccount.getAccountId());
+            metrics.recordAccountActivity(toAccount.getAccountId());
+            
+            fromAccount.withdraw(amountCents);
+            toAccount.deposit(amountCents);
+            newBalances.put(fromAccount.getAccountId(), fromAccount.getBalance());
+            newBalances.put(toAccount.getAccountId(), toAccount.getBalance());
+            
+            Transaction debit = new Transaction(fromAccount.getAccountId(), "TRANSFER", amount,
+                                                fromAccount.getBalance());
+            debit.setDescription(request.getDescription() + " to account " + toAccount.getAccountNumber());
+            debit.setRelatedAccountId(toAccount.getAccountId());
+            debit.setDebit(true);
+            ledger.add(debit);
+            
+            Transaction credit = new Transaction(toAccount.getAccountId(), "TRANSFER", amount,
+                                                 toAccount.getBalance());
+            credit.setDescription(request.getDescription() + " from account " + fromAccount.getAccountNumber());
+            credit.setRelatedAccountId(fromAccount.getAccountId());
+            ledger.add(credit);
+            request.setPosted(true);
+        }
+        
+        if (!newBalances.isEmpty()) {
+            accountRepository.updateBalances(newBalances);
+            transactionRepository.createTransactions(ledger);
+            for (TransferRequest request : requests) {
+                if (request.isPosted()) {
+                    velocity.record(request.getFromAccountId(), request.getAmount());
+                }
+            }
+        }
+        return accounts;
+    }
+    
+    private void publishTransfers(List<TransferRequest> requests, Map<Integer, Account> accounts) {
+        for (TransferRequest request : requests) {
+            if (request.isPosted()) {
+                notifications.publish(accounts.get(request.getFromAccountId()), "TRANSFER", request.getAmount().negate());
+                notifications.publish(accounts.get(request.getToAccountId()), "TRANSFER", request.getAmount());
+            }
+        }
+    }
+    
+    /**
+     * Sets up a standing order (recurring or future-dated transfer).
+     * 
+     * @param fromAccountId Account to debit
+     * @param toAccountId Account to credit
+     * @param amount Amount per run
+     * @param frequency ONCE, DAILY, WEEKLY or MONTHLY
+     * @param firstRunAt Time of the first run
+     * @param endDate Last day a run may happen on, or null for no end
+     * @param description Description used in the ledger, or null
+     * @return Created standing order
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters
+     */
+    @Override
+    public StandingOrder createStandingOrder(int fromAccountId, int toAccountId, BigDecimal amount,
+                                             String frequency, LocalDateTime firstRunAt,
+                                             LocalDate endDate, String description) throws SQLException {
+        StandingOrder created = transactional("createStandingOrder", "from account " + fromAccountId
+                + " to account " + toAccountId + ", amount " + amount + ", " + frequency, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Standing order amount must be positive");
+            }
+            if (!StandingOrder.FREQUENCIES.contains(frequency)) {
+                throw new IllegalArgumentException("Frequency must be one of " + StandingOrder.FREQUENCIES);
+            }
+            if (fromAccountId == toAccountId) {
+                throw new IllegalArgumentException("Source and destination accounts cannot be the same");
+            }
+            if (accountRepository.getAccountById(fromAccountId) == null
+                    || accountRepository.getAccountById(toAccountId) == null) {
+                throw new IllegalArgumentException("One or both accounts not found");
+            }
+            
+            StandingOrder order = new StandingOrder(fromAccountId, toAccountId, amount, frequency, firstRunAt);
+            order.setEndDate(endDate);
+            order.setDescription(description);
+            order.setOrderId(standingOrderRepository.createStandingOrder(order));
+            return order;
+        });
+        StandingOrderScheduler.submit(created);
+        return created;
+    }
+    
+    /**
+     * Gets the standing orders debiting an account.
+     * 
+     * @param accountId Account ID
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<StandingOrder> getStandingOrders(int accountId) throws SQLException {
+        return timed("getStandingOrders", "account " + accountId,
+                () -> standingOrderRepository.getStandingOrdersByAccountId(accountId));
+    }
+    
+    /**
+     * Cancels a standing order.
+     * 
+     * @param orderId Order ID
+     * @return true if the order was active and is now cancelled
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        return timed("cancelStandingOrder", "order " + orderId,
+                () -> standingOrderRepository.cancelStandingOrder(orderId));
+    }
+    
+    /**
+     * Runs standing orders that are due, as one unit of work: the orders are locked and
+     * re-read, the transfers of those still active and due are posted as one batch, and
+     * every order is rescheduled. Orders cancelled or already run elsewhere are skipped.
+     * An order that fails for lack of funds is retried with exponential back-off; after
+     * {@code maxAttempts} the run is skipped (one-off orders fail).
+     * 
+     * @param orderIds IDs of the orders to run
+     * @param maxAttempts Attempts per run before giving up
+     * @param retryDelayMillis Delay before the first retry, doubled for each further one
+     * @return Orders that were due, with their new schedule and status
+     * @throws SQLException if database operation fails (nothing is posted)
+     */
+    public List<StandingOrder> executeStandingOrders(int[] orderIds, int maxAttempts,
+                                                     long retryDelayMillis) throws SQLException {
+        List<TransferRequest> requests = new ArrayList<>();
+        Map<Integer, Account> accounts = new HashMap<>();
+        List<StandingOrder> executed = transactional("executeStandingOrders", orderIds.length + " orders", () -> {
+            requests.clear();
+            accounts.clear();
+            LocalDateTime now = LocalDateTime.now();
+            List<StandingOrder> due = new ArrayList<>();
+            for (StandingOrder order : standingOrderRepository.getStandingOrdersByIdsForUpdate(orderIds)) {
+                if ("ACTIVE".equals(order.getStatus()) && !order.getDueAt().isAfter(now)) {
+                    due.add(order);
+                    String description = order.getDescription() != null
+                            ? order.getDescription() : "Standing order " + order.getOrderId();
+                    requests.add(new TransferRequest(order.getFromAccountId(), order.getToAccountId(),
+                                                     order.getAmount(), description));
+                }
+            }
+            if (due.isEmpty()) {
+                return due;
+            }
+            accounts.putAll(postTransfers(requests));
+            
+            for (int i = 0; i < due.size(); i++) {
+                reschedule(due.get(i), requests.get(i), now, maxAttempts, retryDelayMillis);
+            }
+            standingOrderRepository.updateSchedules(due);
+            return due;
+        });
+        publishTransfers(requests, accounts);
+        return executed;
+    }
+    
+    private void reschedule(StandingOrder order, TransferRequest request, LocalDateTime now,
+                            int maxAttempts, long retryDelayMillis) {
+        if (!request.isPosted() && request.isRetryable() && order.getAttempts() + 1 < maxAttempts) {
+            order.setAttempts(order.getAttempts() + 1);
+            order.setLastError(request.getFailure());
+            order.setDueAt(now.plusNanos((retryDelayMillis << (order.getAttempts() - 1)) * 1_000_000L));
+            metrics.incrementCounter("standingOrders.retried");
+            return;
+        }
+        if (request.isPosted()) {
+            order.setLastError(null);
+            metrics.incrementCounter("standingOrders.posted");
+        } else {
+            order.setLastError(request.getFailure());
+            metrics.incrementCounter("standingOrders.failed");
+        }
+        order.setAttempts(0);
         
-        return fromAccount;
+        // Runs missed while nothing was running are not made up for
+        LocalDateTime next = order.followingRun(order.getNextRunAt());
+        while (next != null && !next.isAfter(now)) {
+            next = order.followingRun(next);
+        }
+        if (next == null || (!request.isPosted() && !request.isRetryable())) {
+            order.setStatus(request.isPosted() ? "COMPLETED" : "FAILED");
+        } else {
+            order.setNextRunAt(next);
+            order.setDueAt(next);
+        }
     }
     
     /**
@@ -194,12 +675,62 @@ public class BankController {
      * @return Account balance
      * @throws SQLException if database operation fails
      */
+    @Override
     public BigDecimal getBalance(int accountId) throws SQLException {
-        Account account = accountDAO.getAccountById(accountId);
-        if (account == null) {
-            throw new IllegalArgumentException("Account not found");
+        return timed("getBalance", "account " + accountId, () -> {
+            Account account = accountRepository.getAccountById(accountId);
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found");
+            }
+            return account.getBalance();
+        });
+    }
+    
+    /**
+     * Gets the balances of many accounts at once, e.g. for dashboards and batch jobs.
+     * 
+     * @param accountIds Account IDs
+     * @return Balance in cents per account ID; accounts that do not exist are absent
+     * @throws SQLException if database operation fails
+     */
+    public IntLongMap getBalances(int[] accountIds) throws SQLException {
+        return timed("getBalances", accountIds.length + " accounts", () -> accountRepository.getBalances(accountIds));
+    }
+    
+    /**
+     * Makes an account hot: its balance is split across sub-ledger slots, so concurrent
+     * deposits and incoming transfers do not queue for the account row lock. Debits and
+     * the {@link HotAccountConsolidator} fold the slots back into the balance.
+     * 
+     * @param accountId Account ID
+     * @param slots Number of slots, 0 to make the account normal again
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if the account is not found or the number of slots is invalid
+     */
+    @Override
+    public void setHotAccount(int accountId, int slots) throws SQLException {
+        int maxSlots = AppConfig.getInt("bank.hotAccounts.maxSlots", 64);
+        if (slots < 0 || slots > maxSlots) {
+            throw new IllegalArgumentException("Number of slots must be between 0 and " + maxSlots);
         }
-        return account.getBalance();
+        transactional("setHotAccount", "account " + accountId + ", slots " + slots, () -> {
+            if (!accountRepository.setLedgerSlots(accountId, slots)) {
+                throw new IllegalArgumentException("Account not found");
+            }
+            return null;
+        });
+        hotAccounts.invalidate();
+    }
+    
+    /**
+     * Gets all hot accounts.
+     * 
+     * @return Number of sub-ledger slots per account ID
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public IntLongMap getHotAccounts() throws SQLException {
+        return timed("getHotAccounts", "", accountRepository::getLedgerSlotCounts);
     }
     
     /**
@@ -209,8 +740,28 @@ public class BankController {
      * @return List of transactions
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Transaction> getTransactionHistory(int accountId) throws SQLException {
-        return transactionDAO.getTransactionsByAccountId(accountId);
+        return timed("getTransactionHistory", "account " + accountId,
+                () -> transactionRepository.getTransactionsByAccountId(accountId));
+    }
+    
+    /**
+     * Gets one page of an account statement ({@code bank.statement.pageSize} transactions).
+     * 
+     * @param accountId Account ID
+     * @param from Earliest transaction date (inclusive), or null for no limit
+     * @param until Latest transaction date (exclusive), or null for no limit
+     * @param after Last transaction of the previous page, or null for the first page
+     * @return Page with its totals per transaction type
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after) throws SQLException {
+        int pageSize = Math.max(1, AppConfig.getInt("bank.statement.pageSize", 200));
+        return timed("getStatementPage", "account " + accountId,
+                () -> transactionRepository.getStatementPage(accountId, from, until, after, pageSize));
     }
     
     /**
@@ -220,8 +771,24 @@ public class BankController {
      * @return Customer object
      * @throws SQLException if database operation fails
      */
+    @Override
     public Customer getCustomer(int customerId) throws SQLException {
-        return customerDAO.getCustomerById(customerId);
+        return timed("getCustomer", "customer " + customerId, () -> customerRepository.getCustomerById(customerId));
+    }
+    
+    /**
+     * Gets a customer with their accounts and the latest
+     * {@code bank.customer360.recentTransactions} transactions of each account.
+     * 
+     * @param customerId Customer ID
+     * @return Overview or null if the customer is not found
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId) throws SQLException {
+        int recentTransactions = Math.max(0, AppConfig.getInt("bank.customer360.recentTransactions", 10));
+        return timed("getCustomerOverview", "customer " + customerId,
+                () -> customerRepository.getCustomerOverview(customerId, recentTransactions));
     }
     
     /**
@@ -231,28 +798,37 @@ public class BankController {
      * @return true if update successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean updateCustomer(Customer customer) throws SQLException {
-        return customerDAO.updateCustomer(customer);
+        return timed("updateCustomer", describe(customer), () -> customerRepository.updateCustomer(customer));
     }
     
     /**
      * Deletes a customer and associated accounts.
+     * The customer and accounts are only marked deleted, which takes a few row locks and
+     * makes them invisible at once; their transactions are removed in small chunks by
+     * the {@link CustomerPurger} in the background.
      * 
      * @param customerId Customer ID
      * @return true if deletion successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean deleteCustomer(int customerId) throws SQLException {
-        // Get all accounts for the customer
-        List<Account> accounts = accountDAO.getAccountsByCustomerId(customerId);
-        
-        // Delete all accounts (cascade delete transactions if foreign key constraints are set)
-        for (Account account : accounts) {
-            accountDAO.deleteAccount(account.getAccountId());
-        }
-        
-        // Delete customer
-        return customerDAO.deleteCustomer(customerId);
+        return transactional("deleteCustomer", "customer " + customerId, () -> {
+            List<Account> accounts = accountRepository.getAccountsByCustomerId(customerId);
+            if (!customerRepository.markCustomerDeleted(customerId)) {
+                return false;
+            }
+            // Standing orders from the accounts could only fail from now on
+            for (Account account : accounts) {
+                for (StandingOrder order : standingOrderRepository.getStandingOrdersByAccountId(account.getAccountId())) {
+                    standingOrderRepository.cancelStandingOrder(order.getOrderId());
+                }
+            }
+            accountRepository.markAccountsDeleted(customerId);
+            return true;
+        });
     }
     
     /**
@@ -262,8 +838,9 @@ public class BankController {
      * @return Account object
      * @throws SQLException if database operation fails
      */
+    @Override
     public Account getAccount(int accountId) throws SQLException {
-        return accountDAO.getAccountById(accountId);
+        return timed("getAccount", "account " + accountId, () -> accountRepository.getAccountById(accountId));
     }
     
     /**
@@ -273,8 +850,208 @@ public class BankController {
      * @return List of accounts
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Account> getCustomerAccounts(int customerId) throws SQLException {
-        return accountDAO.getAccountsByCustomerId(customerId);
+        return timed("getCustomerAccounts", "customer " + customerId,
+                () -> accountRepository.getAccountsByCustomerId(customerId));
+    }
+    
+    /**
+     * Gets all customers.
+     * 
+     * @return List of all customers
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<Customer> getAllCustomers() throws SQLException {
+        return timed("getAllCustomers", "", customerRepository::getAllCustomers);
+    }
+    
+    /**
+     * Runs an operation as a single unit of work on the data store, so that all of its
+     * writes commit together or not at all, and records its latency and outcome.
+     * A unit that fails with a transient lock error (deadlock victim, lock wait timeout)
+     * is rolled back and re-run, so contention does not surface as a failed posting.
+     * 
+     * @param operation Operation name
+     * @param details Arguments for the audit log, or null if the operation is not audited
+     * @param work Operation body
+     * @return Result of the operation
+     * @throws SQLException if database operation fails
+     */
+    private <T> T transactional(String operation, String details, SqlCallable<T> work) throws SQLException {
+        return timed(operation, details, () -> retry.run(() -> dataStore.inTransaction(work)));
+    }
+    
+    /**
+     * Runs a single-account posting (deposit, withdrawal or transfer) as one unit of work.
+     * With {@code bank.concurrency.mode=optimistic} the accounts are read without row
+     * locks and written with a version check; if another posting changed one of them in
+     * between, the unit is rolled back and re-run by the {@link TransientFailureRetry} layer.
+     * 
+     * @param operation Operation name
+     * @param details Arguments for the audit log
+     * @param work Posting, using {@link #readForPosting} and {@link #writeBalance}
+     * @return Result of the posting
+     * @throws SQLException if database operation fails or all attempts lost a race
+     */
+    private <T> T posting(String operation, String details, SqlCallable<T> work) throws SQLException {
+        if (!optimistic) {
+            return transactional(operation, details, work);
+        }
+        return timed(operation, details, () -> retry.run(() -> {
+            try {
+                T result = dataStore.inTransaction(work);
+                metrics.incrementCounter("concurrency.optimistic.commits");
+                return result;
+            } catch (StaleAccountException e) {
+                metrics.incrementCounter("concurrency.optimistic.conflicts");
+                throw e;
+            }
+        }));
+    }
+    
+    /**
+     * Reads an account that is about to be posted to: locked in pessimistic mode,
+     * a plain read carrying the version in optimistic mode.
+     */
+    private Account readForPosting(int accountId) throws SQLException {
+        if (!optimistic) {
+            return accountRepository.getAccountByIdForUpdate(accountId);
+        }
+        Account account = accountRepository.getAccountById(accountId);
+        // Its balance includes sub-ledger slots: only a locked read may write it back
+        return account != null && account.getLedgerSlots() > 0
+                ? accountRepository.getAccountByIdForUpdate(accountId)
+                : account;
+    }
+    
+    /**
+     * Reads an account that is about to be credited: a hot account without a lock, any
+     * other account as in {@link #readForPosting}.
+     */
+    private Account readForCredit(int accountId) throws SQLException {
+        if (hotAccounts.slotsOf(accountId) > 0) {
+            Account account = accountRepository.getAccountById(accountId);
+            if (account == null || account.getLedgerSlots() > 0) {
+                return account;
+            }
+        }
+        return readForPosting(accountId);
+    }
+    
+    /**
+     * Credits an account read with {@link #readForCredit} and writes the transaction
+     * record, whose balance after is set here. A hot account is credited through a random
+     * sub-ledger slot; its transaction record is written first, so that its foreign key
+     * check takes the shared lock on the account row before the slot row is locked,
+     * the order in which debits and the consolidator lock them as well.
+     * 
+     * @throws StaleAccountException if the account's slots were changed meanwhile
+     */
+    private void writeCredit(Account account, BigDecimal amount, Transaction transaction) throws SQLException {
+        account.deposit(amount);
+        transaction.setBalanceAfter(account.getBalance());
+        if (account.getLedgerSlots() == 0) {
+            writeBalance(account);
+            transactionRepository.createTransaction(transaction);
+            return;
+        }
+        transactionRepository.createTransaction(transaction);
+        if (!accountRepository.creditSlot(account.getAccountId(), HotAccounts.pickSlot(account.getLedgerSlots()),
+                                          Money.toCents(amount))) {
+            throw new StaleAccountException(account.getAccountId());
+        }
+        metrics.incrementCounter("hotAccounts.slotCredits");
+    }
+    
+    /**
+     * Writes the balance of an account read with {@link #readForPosting}.
+     * 
+     * @throws StaleAccountException if the account changed since it was read (optimistic mode)
+     */
+    private void writeBalance(Account account) throws SQLException {
+        if (!optimistic) {
+            accountRepository.updateBalance(account.getAccountId(), account.getBalance());
+            return;
+        }
+        if (!accountRepository.updateBalanceIfVersion(account.getAccountId(), account.getBalance(),
+                                                      account.getVersion())) {
+            throw new StaleAccountException(account.getAccountId());
+        }
+        account.setVersion(account.getVersion() + 1);
+    }
+    
+    /**
+     * Thrown when an optimistic balance update finds that another posting changed the
+     * account since it was read. Uses the standard serialization-failure SQL state.
+     */
+    private static final class StaleAccountException extends SQLException {
+        StaleAccountException(int accountId) {
+            super("Account " + accountId + " was changed by another posting, please try again", "40001");
+        }
+    }
+    
+    /**
+     * Runs an operation once the {@link AdmissionController} admits it, records its
+     * latency (without the time it queued) and outcome in the metrics registry, and
+     * records it in the {@link AuditLog} for the current user. The audit record is
+     * written after the admission slot is given back, so waiting for its fsync does
+     * not hold up other operations.
+     * 
+     * @param operation Operation name
+     * @param details Arguments for the audit log, or null if the operation is not audited
+     * @param work Operation body
+     * @return Result of the operation
+     * @throws SQLException if database operation fails
+     * @throws AdmissionRejectedException if too many operations are running and waiting
+     */
+    private <T> T timed(String operation, String details, SqlCallable<T> work) throws SQLException {
+        String outcome = "FAILED";
+        try {
+            T result = admission.run(operation, () -> {
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    T value = work.call();
+                    success = true;
+                    return value;
+                } finally {
+                    metrics.recordOperation(operation, System.nanoTime() - start, success);
+                }
+            });
+            outcome = Boolean.FALSE.equals(result) ? "NO CHANGE" : "OK";
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            if (audit != null && details != null && audit.records(operation)) {
+                audit.record(operation, details, outcome);
+            }
+        }
+    }
+    
+    /**
+     * Describes a failure for the audit log.
+     */
+    private static String outcomeOf(Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return "REJECTED: " + e.getMessage();
+        }
+        if (e instanceof SQLException) {
+            return "ERROR " + ((SQLException) e).getSQLState() + ": " + e.getMessage();
+        }
+        return "FAILED: " + e;
+    }
+    
+    /**
+     * Describes a customer for the audit log, with the fields a teller can change.
+     */
+    private static String describe(Customer customer) {
+        String customerId = customer.getCustomerId() > 0 ? String.valueOf(customer.getCustomerId()) : "new";
+        return "customer " + customerId + " (" + customer.getFullName() + ", "
+                + customer.getAddress() + ", " + customer.getCity() + ", " + customer.getState() + ", "
+                + customer.getMobileNumber() + ", " + customer.getEmail() + ")";
     }
 }
-
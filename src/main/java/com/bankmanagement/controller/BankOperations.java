@@ -0,0 +1,239 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.IntLongMap;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Banking operations used by the teller screens. Implemented locally by
+ * {@link BankController} and over HTTP by the bank server's client, so that the
+ * screens work the same against either; see {@link Backends}.
+ */
+public interface BankOperations {
+    
+    /**
+     * Creates a new customer and account.
+     * 
+     * @param customer Customer information
+     * @param accountType Account type (SAVINGS or CURRENT)
+     * @param modeOfOperation Mode of operation (SELF or JOINT)
+     * @param initialDeposit Initial deposit amount
+     * @param smsAlert SMS alert enabled
+     * @param internetBanking Internet banking enabled
+     * @param atmCard ATM card enabled
+     * @return Created account
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters
+     */
+    Account createCustomerAccount(Customer customer, String accountType, 
+                                 String modeOfOperation, BigDecimal initialDeposit,
+                                 boolean smsAlert, boolean internetBanking, 
+                                 boolean atmCard) throws SQLException;
+    
+    /**
+     * Deposits money into an account.
+     * 
+     * @param accountId Account ID
+     * @param amount Amount to deposit
+     * @return Updated account
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters
+     */
+    Account deposit(int accountId, BigDecimal amount) throws SQLException;
+    
+    /**
+     * Withdraws money from an account.
+     * 
+     * @param accountId Account ID
+     * @param amount Amount to withdraw
+     * @return Updated account
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters or insufficient balance
+     */
+    Account withdraw(int accountId, BigDecimal amount) throws SQLException;
+    
+    /**
+     * Transfers money from one account to another.
+     * 
+     * @param fromAccountId Source account ID
+     * @param toAccountId Destination account ID
+     * @param amount Amount to transfer
+     * @return Updated source account
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters or insufficient balance
+     */
+    Account transfer(int fromAccountId, int toAccountId, BigDecimal amount) throws SQLException;
+    
+    /**
+     * Pays many accounts from one debit account, e.g. salaries from a corporate
+     * current account. Lines are posted in chunks; a failing chunk stops the run and
+     * the chunks committed before it stay posted.
+     * 
+     * @param debitAccountId Account paying the salaries
+     * @param lines Credits to post
+     * @return Outcome of the run
+     * @throws IllegalArgumentException if a line is invalid (nothing is posted)
+     */
+    PayrollResult payroll(int debitAccountId, List<PayrollLine> lines);
+    
+    /**
+     * Sets up a standing order (recurring or future-dated transfer).
+     * 
+     * @param fromAccountId Account to debit
+     * @param toAccountId Account to credit
+     * @param amount Amount per run
+     * @param frequency ONCE, DAILY, WEEKLY or MONTHLY
+     * @param firstRunAt Time of the first run
+     * @param endDate Last day a run may happen on, or null for no end
+     * @param description Description used in the ledger, or null
+     * @return Created standing order
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if invalid parameters
+     */
+    StandingOrder createStandingOrder(int fromAccountId, int toAccountId, BigDecimal amount,
+                                      String frequency, LocalDateTime firstRunAt,
+                                      LocalDate endDate, String description) throws SQLException;
+    
+    /**
+     * Gets the standing orders debiting an account.
+     * 
+     * @param accountId Account ID
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    List<StandingOrder> getStandingOrders(int accountId) throws SQLException;
+    
+    /**
+     * Cancels a standing order.
+     * 
+     * @param orderId Order ID
+     * @return true if the order was active and is now cancelled
+     * @throws SQLException if database operation fails
+     */
+    boolean cancelStandingOrder(int orderId) throws SQLException;
+    
+    /**
+     * Gets account balance.
+     * 
+     * @param accountId Account ID
+     * @return Account balance
+     * @throws SQLException if database operation fails
+     */
+    BigDecimal getBalance(int accountId) throws SQLException;
+    
+    /**
+     * Gets account by ID.
+     * 
+     * @param accountId Account ID
+     * @return Account object
+     * @throws SQLException if database operation fails
+     */
+    Account getAccount(int accountId) throws SQLException;
+    
+    /**
+     * Makes an account hot: its balance is split across sub-ledger slots, so concurrent
+     * deposits and incoming transfers do not queue for the account row lock.
+     * 
+     * @param accountId Account ID
+     * @param slots Number of slots, 0 to make the account normal again
+     * @throws SQLException if database operation fails
+     * @throws IllegalArgumentException if the account is not found or the number of slots is invalid
+     */
+    void setHotAccount(int accountId, int slots) throws SQLException;
+    
+    /**
+     * Gets all hot accounts.
+     * 
+     * @return Number of sub-ledger slots per account ID
+     * @throws SQLException if database operation fails
+     */
+    IntLongMap getHotAccounts() throws SQLException;
+    
+    /**
+     * Gets transaction history for an account.
+     * 
+     * @param accountId Account ID
+     * @return List of transactions
+     * @throws SQLException if database operation fails
+     */
+    List<Transaction> getTransactionHistory(int accountId) throws SQLException;
+    
+    /**
+     * Gets one page of an account statement ({@code bank.statement.pageSize} transactions).
+     * 
+     * @param accountId Account ID
+     * @param from Earliest transaction date (inclusive), or null for no limit
+     * @param until Latest transaction date (exclusive), or null for no limit
+     * @param after Last transaction of the previous page, or null for the first page
+     * @return Page with its totals per transaction type
+     * @throws SQLException if database operation fails
+     */
+    StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                   Transaction after) throws SQLException;
+    
+    /**
+     * Gets customer by ID.
+     * 
+     * @param customerId Customer ID
+     * @return Customer object
+     * @throws SQLException if database operation fails
+     */
+    Customer getCustomer(int customerId) throws SQLException;
+    
+    /**
+     * Gets a customer with their accounts and the latest
+     * {@code bank.customer360.recentTransactions} transactions of each account.
+     * 
+     * @param customerId Customer ID
+     * @return Overview or null if the customer is not found
+     * @throws SQLException if database operation fails
+     */
+    CustomerOverview getCustomerOverview(int customerId) throws SQLException;
+    
+    /**
+     * Gets all accounts for a customer.
+     * 
+     * @param customerId Customer ID
+     * @return List of accounts
+     * @throws SQLException if database operation fails
+     */
+    List<Account> getCustomerAccounts(int customerId) throws SQLException;
+    
+    /**
+     * Gets all customers.
+     * 
+     * @return List of all customers
+     * @throws SQLException if database operation fails
+     */
+    List<Customer> getAllCustomers() throws SQLException;
+    
+    /**
+     * Updates customer information.
+     * 
+     * @param customer Customer with updated information
+     * @return true if update successful
+     * @throws SQLException if database operation fails
+     */
+    boolean updateCustomer(Customer customer) throws SQLException;
+    
+    /**
+     * Deletes a customer and associated accounts.
+     * 
+     * @param customerId Customer ID
+     * @return true if deletion successful
+     * @throws SQLException if database operation fails
+     */
+    boolean deleteCustomer(int customerId) throws SQLException;
+}
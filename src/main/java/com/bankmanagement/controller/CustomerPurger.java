@@ -0,0 +1,177 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the rows of deleted customers in the background.
+ * {@link BankController#deleteCustomer} only marks a customer and their accounts
+ * deleted. The purger then detaches the transfer legs of other accounts and deletes
+ * the accounts' transactions in chunks of {@code bank.purge.chunkSize} rows, each in a
+ * short transaction of its own, and pauses {@code bank.purge.pauseMillis} after every
+ * chunk, so it never holds locks for long or competes with tellers for the database.
+ * Progress is kept in the database itself: an interrupted purge continues where it stopped.
+ */
+public class CustomerPurger {
+    private static CustomerPurger running;
+    
+    private final DataStore dataStore;
+    private final TransientFailureRetry retry = new TransientFailureRetry();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+    
+    /**
+     * Creates a purger configured from {@code bank.purge.*}.
+     * 
+     * @param dataStore Storage backend to purge
+     */
+    public CustomerPurger(DataStore dataStore) {
+        this.dataStore = dataStore;
+        this.chunkSize = AppConfig.getInt("bank.purge.chunkSize", 500);
+        this.pauseMillis = AppConfig.getLong("bank.purge.pauseMillis", 100);
+        this.intervalMillis = AppConfig.getLong("bank.purge.intervalMillis", 60_000);
+    }
+    
+    /**
+     * Starts the application-wide purger on a background data store, unless it is
+     * disabled with {@code bank.purge.enabled=false} or already running.
+     */
+    public static synchronized void startDefault() {
+        if (running != null || !AppConfig.getBoolean("bank.purge.enabled", true)
+                || "offline".equalsIgnoreCase(AppConfig.getString("bank.datastore", "mysql"))) {
+            return;
+        }
+        CustomerPurger purger = new CustomerPurger(DataStores.openBackgroundStore());
+        purger.start();
+        running = purger;
+    }
+    
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(AuditContext.asSystem(runnable), "customer-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                purgeNow();
+            } catch (SQLException | RuntimeException e) {
+                metrics.incrementCounter("purge.failures");
+                System.err.println("Customer purge failed, will retry: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Purges all accounts and customers marked deleted.
+     * 
+     * @return Number of accounts purged
+     * @throws SQLException if database operation fails
+     */
+    public int purgeNow() throws SQLException {
+        int purged = 0;
+        for (int accountId : dataStore.inTransaction(() -> dataStore.accounts().getDeletedAccountIds())) {
+            if (!purgeAccount(accountId)) {
+                return purged;
+            }
+            purged++;
+        }
+        int[] customerIds;
+        do {
+            customerIds = dataStore.inTransaction(() -> dataStore.customers().getDeletedCustomerIds(chunkSize));
+            for (int customerId : customerIds) {
+                // Their accounts are gone, so the cascade has nothing left to delete
+                inChunk(() -> dataStore.customers().deleteCustomer(customerId));
+                metrics.incrementCounter("purge.customers");
+            }
+        } while (customerIds.length == chunkSize && pause());
+        return purged;
+    }
+    
+    /**
+     * Purges one account: first the references from other accounts' transfer legs
+     * (which its deletion would clear in one statement), then its own transactions,
+     * and finally the account row, which by then cascades to its standing orders only.
+     * 
+     * @return false if the purge was interrupted
+     */
+    private boolean purgeAccount(int accountId) throws SQLException {
+        if (!inChunks("purge.transfersDetached",
+                      () -> dataStore.transactions().detachTransfersRelatedTo(accountId, chunkSize))
+                || !inChunks("purge.transactions",
+                             () -> dataStore.transactions().deleteTransactionsByAccountId(accountId, chunkSize))) {
+            return false;
+        }
+        inChunk(() -> dataStore.accounts().deleteAccount(accountId));
+        metrics.incrementCounter("purge.accounts");
+        return true;
+    }
+    
+    /**
+     * Repeats a chunk until it affects fewer rows than the chunk size.
+     * 
+     * @return false if the purge was interrupted
+     */
+    private boolean inChunks(String counter, SqlCallable<Integer> chunk) throws SQLException {
+        while (true) {
+            int rows = inChunk(chunk);
+            metrics.addToCounter(counter, rows);
+            if (rows < chunkSize) {
+                return true;
+            }
+            if (!pause()) {
+                return false;
+            }
+        }
+    }
+    
+    private <T> T inChunk(SqlCallable<T> chunk) throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = retry.run(() -> dataStore.inTransaction(chunk));
+            success = true;
+            return result;
+        } finally {
+            metrics.recordOperation("purge.chunk", System.nanoTime() - start, success);
+        }
+    }
+    
+    /**
+     * Waits between chunks, which bounds the purge rate to
+     * {@code chunkSize} rows per {@code pauseMillis}.
+     * 
+     * @return false if the thread was interrupted
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds the sub-ledger slots of hot accounts back into their balance in the background,
+ * every {@code bank.hotAccounts.consolidateIntervalMillis}. Each account is consolidated
+ * in a short transaction of its own, so a credit waits for at most one of them. Balances
+ * are exact without it, because every read sums the slots; consolidating only keeps that
+ * sum small and lets debits find the money in the balance itself.
+ */
+public class HotAccountConsolidator {
+    private static HotAccountConsolidator running;
+    
+    private final DataStore dataStore;
+    private final TransientFailureRetry retry = new TransientFailureRetry();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+    
+    /**
+     * Creates a consolidator configured from {@code bank.hotAccounts.*}.
+     * 
+     * @param dataStore Storage backend to consolidate
+     */
+    public HotAccountConsolidator(DataStore dataStore) {
+        this.dataStore = dataStore;
+        this.intervalMillis = AppConfig.getLong("bank.hotAccounts.consolidateIntervalMillis", 1_000);
+    }
+    
+    /**
+     * Starts the application-wide consolidator on a background data store, unless it is
+     * disabled with {@code bank.hotAccounts.enabled=false} or already running.
+     */
+    public static synchronized void startDefault() {
+        if (running != null || !AppConfig.getBoolean("bank.hotAccounts.enabled", true)
+                || "offline".equalsIgnoreCase(AppConfig.getString("bank.datastore", "mysql"))) {
+            return;
+        }
+        HotAccountConsolidator consolidator = new HotAccountConsolidator(DataStores.openBackgroundStore());
+        consolidator.start();
+        running = consolidator;
+    }
+    
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(AuditContext.asSystem(runnable), "hot-account-consolidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                consolidateNow();
+            } catch (SQLException | RuntimeException e) {
+                metrics.incrementCounter("hotAccounts.failures");
+                System.err.println("Hot account consolidation failed, will retry: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Consolidates the slots of all hot accounts.
+     * 
+     * @return Amount moved into balances, in cents
+     * @throws SQLException if database operation fails
+     */
+    public long consolidateNow() throws SQLException {
+        long moved = 0;
+        for (int accountId : dataStore.inTransaction(() -> dataStore.accounts().getLedgerSlotCounts()).keys()) {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                moved += retry.run(() -> dataStore.inTransaction(() -> dataStore.accounts().consolidateSlots(accountId)));
+                success = true;
+            } finally {
+                metrics.recordOperation("hotAccounts.consolidate", System.nanoTime() - start, success);
+            }
+        }
+        metrics.addToCounter("hotAccounts.consolidatedCents", moved);
+        return moved;
+    }
+}
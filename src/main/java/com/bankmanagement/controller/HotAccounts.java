@@ -0,0 +1,101 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.IntLongMap;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The hot accounts of a data store: accounts whose balance is split across sub-ledger
+ * slots, so that concurrent credits lock one slot row each instead of queueing for the
+ * account row. The list is cached for {@code bank.hotAccounts.refreshMillis}; a stale
+ * entry only sends a posting down the slower path, because every posting checks the
+ * number of slots on the account it read. Hits and misses are recorded as the cache
+ * {@code hotAccounts}.
+ */
+public class HotAccounts {
+    private static final Map<DataStore, HotAccounts> INSTANCES = new WeakHashMap<>();
+    
+    private final DataStore dataStore;
+    private final long refreshMillis;
+    private volatile IntLongMap slots;
+    private volatile long loadedAt;
+    
+    /**
+     * Creates an empty cache.
+     * 
+     * @param dataStore Storage backend
+     * @param refreshMillis How long the list of hot accounts is used before it is read again
+     */
+    public HotAccounts(DataStore dataStore, long refreshMillis) {
+        this.dataStore = dataStore;
+        this.refreshMillis = refreshMillis;
+    }
+    
+    /**
+     * Gets the cache shared by all controllers of a data store.
+     * 
+     * @param dataStore Storage backend
+     * @return HotAccounts instance
+     */
+    public static HotAccounts forDataStore(DataStore dataStore) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(dataStore,
+                    store -> new HotAccounts(store, AppConfig.getLong("bank.hotAccounts.refreshMillis", 10_000)));
+        }
+    }
+    
+    /**
+     * Returns the number of sub-ledger slots of an account.
+     * 
+     * @param accountId Account ID
+     * @return Number of slots, 0 for a normal account
+     * @throws SQLException if the list of hot accounts cannot be read
+     */
+    public int slotsOf(int accountId) throws SQLException {
+        IntLongMap current = slots;
+        if (current == null || System.currentTimeMillis() - loadedAt > refreshMillis) {
+            current = refresh();
+        } else {
+            MetricsRegistry.getInstance().recordCacheHit("hotAccounts");
+        }
+        long count = current.get(accountId);
+        return count == IntLongMap.NOT_FOUND ? 0 : (int) count;
+    }
+    
+    /**
+     * Picks the slot a credit goes to. Random, so concurrent credits spread evenly.
+     * 
+     * @param slots Number of slots of the account
+     * @return Slot number
+     */
+    public static int pickSlot(int slots) {
+        return ThreadLocalRandom.current().nextInt(slots);
+    }
+    
+    /**
+     * Forgets the cached list, e.g. after an account was made hot or normal.
+     */
+    public void invalidate() {
+        slots = null;
+    }
+    
+    private synchronized IntLongMap refresh() throws SQLException {
+        IntLongMap current = slots;
+        if (current != null && System.currentTimeMillis() - loadedAt <= refreshMillis) {
+            // Another thread refreshed the list meanwhile
+            MetricsRegistry.getInstance().recordCacheHit("hotAccounts");
+            return current;
+        }
+        MetricsRegistry.getInstance().recordCacheMiss("hotAccounts");
+        current = dataStore.accounts().getLedgerSlotCounts();
+        loadedAt = System.currentTimeMillis();
+        slots = current;
+        return current;
+    }
+}
@@ -0,0 +1,381 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.model.ReconciliationReport;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.Money;
+import com.bankmanagement.util.OffHeapBalanceTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Ledger reconciliation job. Checks that every account balance equals the net effect
+ * of its transactions and that every transfer leg has its counterpart on the related
+ * account.
+ * The account ID space is split into ranges that are checked in parallel on a fork-join
+ * pool, each worker on a data store of its own. A range is streamed from the database
+ * into primitive per-account accumulators and checked inside one unit of work, so the
+ * balances and both legs of every transfer come from the same snapshot and memory use
+ * depends on the range size, not on the size of the ledger.
+ */
+public class LedgerReconciler {
+    private static final int CREDIT = 1;
+    private static final int DEBIT = -1;
+    private static final int UNKNOWN = 0;
+    private static final String PAYROLL_DEBIT_PREFIX = "Payroll to ";
+    
+    private final Supplier<DataStore> storeOpener;
+    private final Queue<DataStore> idleStores = new ConcurrentLinkedQueue<>();
+    private final List<DataStore> openStores = new ArrayList<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final int parallelism;
+    private final int rangeSize;
+    private final int maxReported;
+    
+    /**
+     * Creates a reconciler configured from {@code bank.reconciliation.*}.
+     * 
+     * @param storeOpener Opens a data store for one worker
+     */
+    public LedgerReconciler(Supplier<DataStore> storeOpener) {
+        this.storeOpener = storeOpener;
+        this.parallelism = AppConfig.getInt("bank.reconciliation.parallelism",
+                                            Runtime.getRuntime().availableProcessors());
+        this.rangeSize = AppConfig.getInt("bank.reconciliation.rangeSize", 50_000);
+        this.maxReported = AppConfig.getInt("bank.reconciliation.maxReportedMismatches", 10_000);
+    }
+    
+    /**
+     * Creates a reconciler on background stores of the configured backend.
+     * 
+     * @return LedgerReconciler instance
+     */
+    public static LedgerReconciler createDefault() {
+        if ("offline".equalsIgnoreCase(AppConfig.getString("bank.datastore", "mysql"))) {
+            throw new IllegalStateException("Ledger reconciliation requires the central database");
+        }
+        return new LedgerReconciler(DataStores::openBackgroundStore);
+    }
+    
+    /**
+     * Reconciles the whole ledger.
+     * 
+     * @return Report of the run
+     * @throws SQLException if database operation fails
+     */
+    public ReconciliationReport run() throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            DataStore store = acquireStore();
+            int[] bounds = store.accounts().getAccountIdBounds();
+            idleStores.offer(store);
+            
+            ReconciliationReport report = bounds == null
+                    ? new ReconciliationReport(maxReported)
+                    : invoke(pool, new RangeTask(bounds[0], bounds[1] + 1));
+            report.sortMismatches();
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            metrics.addToCounter("reconciliation.mismatches", report.getMismatchCount());
+            success = true;
+            return report;
+        } finally {
+            pool.shutdown();
+            closeStores();
+            metrics.recordOperation("reconciliation", System.nanoTime() - start, success);
+        }
+    }
+    
+    /**
+     * Runs the root task, turning a failed range back into its SQLException.
+     */
+    private ReconciliationReport invoke(ForkJoinPool pool, RangeTask task) throws SQLException {
+        try {
+            return pool.invoke(task);
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+    
+    private DataStore acquireStore() {
+        DataStore store = idleStores.poll();
+        if (store == null) {
+            store = storeOpener.get();
+            synchronized (openStores) {
+                openStores.add(store);
+            }
+        }
+        return store;
+    }
+    
+    private void closeStores() {
+        synchronized (openStores) {
+            openStores.forEach(DataStores::closeBackgroundStore);
+            openStores.clear();
+        }
+        idleStores.clear();
+    }
+    
+    /**
+     * Checks one account ID range on a worker's data store.
+     */
+    private ReconciliationReport checkRange(int fromAccountId, int toAccountId) throws SQLException {
+        DataStore store = acquireStore();
+        try {
+            RangeAccumulator range = new RangeAccumulator(fromAccountId, toAccountId);
+            store.inSnapshot(() -> {
+                // Read in the same snapshot as the ledger: accounts being purged are skipped
+                range.setDeletedAccountIds(store.accounts().getDeletedAccountIds());
+                store.accounts().forEachBalanceInRange(fromAccountId, toAccountId, range::acceptBalance);
+                store.transactions().forEachPostingInRange(fromAccountId, toAccountId, range::acceptPosting);
+                store.transactions().forEachTransferRelatedToRange(fromAccountId, toAccountId,
+                                                                   range::acceptCounterpart);
+                return null;
+            });
+            return range.toReport();
+        } finally {
+            idleStores.offer(store);
+        }
+    }
+    
+    /**
+     * Order-independent fingerprint of a transfer leg, summed per paying account so that
+     * the legs and their counterparts can be compared without keeping them in memory.
+     */
+    private static long legHash(int otherAccountId, long amountCents) {
+        long h = ((long) otherAccountId << 32) ^ (amountCents * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+    
+    /**
+     * Writes a report as a tab-separated text file.
+     * 
+     * @param report Report to write
+     * @param path Output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeReport(ReconciliationReport report, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("# Ledger reconciliation " + LocalDateTime.now());
+            writer.newLine();
+            writer.write("# accounts=" + report.getAccountsChecked()
+                    + " transactions=" + report.getTransactionsChecked()
+                    + " ranges=" + report.getRangesChecked()
+                    + " mismatches=" + report.getMismatchCount()
+                    + " elapsedMillis=" + report.getElapsedMillis());
+            writer.newLine();
+            writer.write("account_id\ttype\texpected\tactual\tdetail");
+            writer.newLine();
+            for (ReconciliationReport.Mismatch mismatch : report.getMismatches()) {
+                writer.write(mismatch.getAccountId() + "\t" + mismatch.getType() + "\t"
+                        + mismatch.getExpected() + "\t" + mismatch.getActual() + "\t" + mismatch.getDetail());
+                writer.newLine();
+            }
+        }
+    }
+    
+    /**
+     * Runs the reconciliation from the command line (e.g. from a nightly cron job) and
+     * writes the report to the given file, by default
+     * {@code ./data/reconciliation-<date>.txt}. Exits with 1 if mismatches were found.
+     * 
+     * @param args Optional report file
+     */
+    public static void main(String[] args) {
+        Path output = Paths.get(args.length > 0 ? args[0] : "./data/reconciliation-" + LocalDate.now() + ".txt");
+        try {
+            ReconciliationReport report = createDefault().run();
+            writeReport(report, output);
+            System.out.println(report + " -> " + output);
+            System.exit(report.isClean() ? 0 : 1);
+        } catch (SQLException | IOException | RuntimeException e) {
+            System.err.println("Ledger reconciliation failed: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+    
+    /**
+     * Splits an account ID range in halves until it is small enough to check directly.
+     */
+    private final class RangeTask extends RecursiveTask<ReconciliationReport> {
+        private final int fromAccountId;
+        private final int toAccountId;
+        
+        RangeTask(int fromAccountId, int toAccountId) {
+            this.fromAccountId = fromAccountId;
+            this.toAccountId = toAccountId;
+        }
+        
+        @Override
+        protected ReconciliationReport compute() {
+            if (toAccountId - fromAccountId <= rangeSize) {
+                try {
+                    return checkRange(fromAccountId, toAccountId);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            int middle = fromAccountId + (toAccountId - fromAccountId) / 2;
+            RangeTask lower = new RangeTask(fromAccountId, middle);
+            lower.fork();
+            ReconciliationReport upper = new RangeTask(middle, toAccountId).compute();
+            ReconciliationReport report = lower.join();
+            report.merge(upper);
+            return report;
+        }
+    }
+    
+    /**
+     * Per-account totals of one range, indexed by account ID minus the range start. The
+     * balances read from the accounts table are kept off the heap, keyed by that index plus one.
+     * Transfer legs are checked from the paying side: the outgoing legs of each account
+     * are compared with the credit legs on other accounts that name it as related account.
+     * Accounts marked deleted are ignored, including as counterparty: their ledger rows
+     * are being removed by the {@link CustomerPurger}.
+     */
+    private final class RangeAccumulator {
+        private final int fromAccountId;
+        private final OffHeapBalanceTable balances;
+        private final long[] ledger;
+        private final int[] outgoingCount;
+        private final int[] counterpartCount;
+        private final long[] outgoingHash;
+        private final long[] counterpartHash;
+        private final long[] outgoingAmount;
+        private final long[] counterpartAmount;
+        private final boolean[] payroll;
+        private final ReconciliationReport report = new ReconciliationReport(maxReported);
+        private int[] deletedAccountIds = new int[0];
+        private long accounts;
+        private long transactions;
+        
+        RangeAccumulator(int fromAccountId, int toAccountId) {
+            int size = toAccountId - fromAccountId;
+            this.fromAccountId = fromAccountId;
+            this.balances = new OffHeapBalanceTable(size);
+            this.ledger = new long[size];
+            this.outgoingCount = new int[size];
+            this.counterpartCount = new int[size];
+            this.outgoingHash = new long[size];
+            this.counterpartHash = new long[size];
+            this.outgoingAmount = new long[size];
+            this.counterpartAmount = new long[size];
+            this.payroll = new boolean[size];
+        }
+        
+        void setDeletedAccountIds(int[] deletedAccountIds) {
+            this.deletedAccountIds = deletedAccountIds;
+        }
+        
+        private boolean isDeleted(int accountId) {
+            return accountId != 0 && Arrays.binarySearch(deletedAccountIds, accountId) >= 0;
+        }
+        
+        void acceptBalance(int accountId, long balanceCents) {
+            if (isDeleted(accountId)) {
+                return;
+            }
+            balances.put(accountId - fromAccountId + 1, balanceCents, 0, 0);
+            accounts++;
+        }
+        
+        void acceptPosting(int accountId, String transactionType, long amountCents, boolean debit,
+                           int relatedAccountId, String description) {
+            if (isDeleted(accountId)) {
+                return;
+            }
+            int i = accountId - fromAccountId;
+            transactions++;
+            int direction = "DEPOSIT".equals(transactionType) ? CREDIT
+                    : "WITHDRAWAL".equals(transactionType) ? DEBIT
+                    : "TRANSFER".equals(transactionType) ? (debit ? DEBIT : CREDIT) : UNKNOWN;
+            if (direction == UNKNOWN) {
+                report.addMismatch(new ReconciliationReport.Mismatch(accountId,
+                        ReconciliationReport.UNCLASSIFIED_TRANSACTION, null, Money.fromCents(amountCents),
+                        "Unknown transaction type " + transactionType + " cannot be classified as credit or debit"));
+                return;
+            }
+            ledger[i] += direction * amountCents;
+            if (direction == CREDIT || !"TRANSFER".equals(transactionType)) {
+                return;
+            }
+            if (relatedAccountId != 0 && !isDeleted(relatedAccountId)) {
+                outgoingCount[i]++;
+                outgoingHash[i] += legHash(relatedAccountId, amountCents);
+                outgoingAmount[i] += amountCents;
+            } else if (description != null && description.startsWith(PAYROLL_DEBIT_PREFIX)) {
+                // One debit for many credits: only the total can be compared. A payroll debit
+                // has never had a related account, unlike a leg whose counterparty was purged
+                payroll[i] = true;
+                outgoingAmount[i] += amountCents;
+            }
+            // Otherwise the counterparty was deleted or is being purged
+        }
+        
+        void acceptCounterpart(int accountId, String transactionType, long amountCents, boolean debit,
+                               int relatedAccountId, String description) {
+            if (debit || isDeleted(accountId) || isDeleted(relatedAccountId)) {
+                return;
+            }
+            int i = relatedAccountId - fromAccountId;
+            counterpartCount[i]++;
+            counterpartHash[i] += legHash(accountId, amountCents);
+            counterpartAmount[i] += amountCents;
+        }
+        
+        ReconciliationReport toReport() {
+            for (int i = 0; i < ledger.length; i++) {
+                int accountId = fromAccountId + i;
+                long balanceCents = balances.balanceCents(i + 1);
+                if (balanceCents != OffHeapBalanceTable.NOT_FOUND && balanceCents != ledger[i]) {
+                    report.addMismatch(new ReconciliationReport.Mismatch(accountId, ReconciliationReport.BALANCE,
+                            Money.fromCents(ledger[i]), Money.fromCents(balanceCents),
+                            "Balance differs from the net of its transactions"));
+                }
+                boolean matched = outgoingAmount[i] == counterpartAmount[i]
+                        && (payroll[i] || (outgoingCount[i] == counterpartCount[i]
+                                           && outgoingHash[i] == counterpartHash[i]));
+                if (!matched) {
+                    report.addMismatch(new ReconciliationReport.Mismatch(accountId,
+                            ReconciliationReport.TRANSFER_COUNTERPART,
+                            Money.fromCents(outgoingAmount[i]), Money.fromCents(counterpartAmount[i]),
+                            outgoingCount[i] + " outgoing transfer legs, " + counterpartCount[i]
+                                    + " counterpart legs on other accounts"));
+                }
+            }
+            report.addCheckedRange(accounts, transactions);
+            return report;
+        }
+    }
+}
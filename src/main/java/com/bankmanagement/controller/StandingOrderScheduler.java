@@ -0,0 +1,226 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.HierarchicalTimerWheel;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs standing orders when they fall due.
+ * Instead of polling the table, the scheduler loads the orders due within a loading
+ * horizon (one indexed range read, in keyset pages) into a hierarchical timer wheel
+ * and extends the horizon before it runs out, so the table is never scanned and no
+ * thread is needed per order. Orders due in the same tick are run together, in chunks,
+ * through {@link BankController#executeStandingOrders}, which also makes a run safe
+ * against concurrent schedulers: orders are locked and re-checked before posting.
+ * Orders created in this application are handed over directly; orders created by other
+ * terminals or servers inside the loaded horizon are found by re-reading the horizon
+ * every {@code bank.standingOrders.rescanMillis}.
+ */
+public class StandingOrderScheduler {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static volatile StandingOrderScheduler running;
+    
+    private final StandingOrderRepository standingOrderRepository;
+    private final BankController bankController;
+    private final HierarchicalTimerWheel<Integer> wheel;
+    private final Set<Integer> scheduled = new HashSet<>();
+    private final Queue<StandingOrder> submitted = new ConcurrentLinkedQueue<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final long tickMillis;
+    private final long horizonMillis;
+    private final int chunkSize;
+    private final int pageSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long rescanMillis;
+    private volatile long loadedUntilMillis = Long.MIN_VALUE;
+    private long nextRescanMillis;
+    private ScheduledExecutorService executor;
+    
+    /**
+     * Creates a scheduler configured from {@code bank.standingOrders.*}.
+     * 
+     * @param dataStore Storage backend the orders are read from and run against
+     */
+    public StandingOrderScheduler(DataStore dataStore) {
+        this.standingOrderRepository = dataStore.standingOrders();
+        this.bankController = new BankController(dataStore);
+        this.tickMillis = AppConfig.getLong("bank.standingOrders.tickMillis", 1000);
+        this.horizonMillis = AppConfig.getLong("bank.standingOrders.horizonMillis", 60 * 60 * 1000L);
+        this.chunkSize = AppConfig.getInt("bank.standingOrders.chunkSize", 500);
+        this.pageSize = AppConfig.getInt("bank.standingOrders.pageSize", 10_000);
+        this.maxAttempts = AppConfig.getInt("bank.standingOrders.maxAttempts", 5);
+        this.retryDelayMillis = AppConfig.getLong("bank.standingOrders.retryDelayMillis", 15 * 60 * 1000L);
+        this.rescanMillis = AppConfig.getLong("bank.standingOrders.rescanMillis", 60 * 1000L);
+        this.wheel = new HierarchicalTimerWheel<>(tickMillis, 4, System.currentTimeMillis());
+    }
+    
+    /**
+     * Starts the application-wide scheduler on a background data store, unless it is
+     * disabled with {@code bank.standingOrders.enabled=false} or already running.
+     */
+    public static synchronized void startDefault() {
+        if (running != null || !AppConfig.getBoolean("bank.standingOrders.enabled", true)
+                || "offline".equalsIgnoreCase(AppConfig.getString("bank.datastore", "mysql"))) {
+            return;
+        }
+        StandingOrderScheduler scheduler = new StandingOrderScheduler(DataStores.openBackgroundStore());
+        scheduler.start();
+        running = scheduler;
+    }
+    
+    /**
+     * Hands a newly created order to the running scheduler, if any. Orders due after
+     * the loading horizon are picked up when the horizon reaches them.
+     * 
+     * @param order Created standing order
+     */
+    static void submit(StandingOrder order) {
+        StandingOrderScheduler scheduler = running;
+        if (scheduler != null && toMillis(order.getDueAt()) < scheduler.loadedUntilMillis) {
+            scheduler.submitted.add(order);
+        }
+    }
+    
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(AuditContext.asSystem(runnable), "standing-orders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.registerGauge("standingOrders.scheduled", wheel::size);
+        executor.scheduleWithFixedDelay(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (now + horizonMillis / 2 >= loadedUntilMillis) {
+                extendHorizon(now + horizonMillis);
+                nextRescanMillis = now + rescanMillis;
+            } else if (now >= nextRescanMillis) {
+                rescan();
+                nextRescanMillis = now + rescanMillis;
+            }
+            StandingOrder order;
+            while ((order = submitted.poll()) != null) {
+                schedule(order);
+            }
+            wheel.advanceTo(now, this::runGroup);
+        } catch (SQLException | RuntimeException e) {
+            metrics.incrementCounter("standingOrders.schedulerErrors");
+            System.err.println("Standing order scheduler error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Loads the active orders due between the previous and a new horizon into the
+     * wheel. The first load also picks up orders that became due while nothing was
+     * running.
+     */
+    private void extendHorizon(long untilMillis) throws SQLException {
+        long start = System.nanoTime();
+        long previous = loadedUntilMillis;
+        // Published before reading, so orders created meanwhile are submitted rather than missed
+        loadedUntilMillis = untilMillis;
+        load(previous == Long.MIN_VALUE ? null : toDateTime(previous - 1), toDateTime(untilMillis));
+        metrics.recordOperation("standingOrders.load", System.nanoTime() - start, true);
+    }
+    
+    /**
+     * Re-reads every active order due before the loaded horizon. Orders already on the
+     * wheel are skipped, so this only adds orders that were created, or moved into the
+     * horizon, by another application instance since they were last read.
+     */
+    private void rescan() throws SQLException {
+        long start = System.nanoTime();
+        int before = wheel.size();
+        load(null, toDateTime(loadedUntilMillis));
+        metrics.addToCounter("standingOrders.rescanFound", wheel.size() - before);
+        metrics.recordOperation("standingOrders.rescan", System.nanoTime() - start, true);
+    }
+    
+    /** Schedules the active orders due after {@code afterDueAt} (all if null) and before {@code until}. */
+    private void load(LocalDateTime afterDueAt, LocalDateTime until) throws SQLException {
+        int afterOrderId = 0;
+        List<StandingOrder> page;
+        do {
+            page = standingOrderRepository.getDueStandingOrders(until, afterDueAt, afterOrderId, pageSize);
+            for (StandingOrder order : page) {
+                schedule(order);
+            }
+            if (!page.isEmpty()) {
+                StandingOrder last = page.get(page.size() - 1);
+                afterDueAt = last.getDueAt();
+                afterOrderId = last.getOrderId();
+            }
+        } while (page.size() == pageSize);
+    }
+    
+    private void schedule(StandingOrder order) {
+        if (scheduled.add(order.getOrderId())) {
+            wheel.schedule(toMillis(order.getDueAt()), order.getOrderId());
+        }
+    }
+    
+    private void runGroup(List<Integer> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Integer> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + chunkSize));
+            int[] ids = chunk.stream().mapToInt(Integer::intValue).toArray();
+            chunk.forEach(scheduled::remove);
+            try {
+                for (StandingOrder order : bankController.executeStandingOrders(ids, maxAttempts, retryDelayMillis)) {
+                    if ("ACTIVE".equals(order.getStatus()) && toMillis(order.getDueAt()) < loadedUntilMillis) {
+                        schedule(order);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Nothing was posted; the orders stay due and are retried after a back-off
+                metrics.incrementCounter("standingOrders.schedulerErrors");
+                System.err.println("Error running standing orders: " + e.getMessage());
+                long retryAt = System.currentTimeMillis() + retryDelayMillis;
+                for (int orderId : ids) {
+                    if (scheduled.add(orderId)) {
+                        wheel.schedule(retryAt, orderId);
+                    }
+                }
+            }
+        }
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+    
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs units of work that failed because of transient lock contention: deadlock
+ * victims (MySQL 1213), lock wait timeouts (MySQL 1205) and other serialization
+ * failures (SQL state 40001, e.g. a lost optimistic update). The unit must have been
+ * rolled back completely before the failure reaches this class, which is what
+ * {@link com.bankmanagement.dao.DataStore#inTransaction} does.
+ * Attempts are separated by a random pause of up to {@code backoffMillis * 2^(attempt - 1)}
+ * ("full jitter"), so transactions that collided do not collide again in lockstep.
+ * Connection failures are never retried: the outcome of the commit is unknown.
+ */
+public class TransientFailureRetry {
+    public static final String DEADLOCK = "deadlock";
+    public static final String LOCK_TIMEOUT = "lockTimeout";
+    public static final String SERIALIZATION = "serialization";
+    
+    private static final int MYSQL_DEADLOCK = 1213;
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int H2_DEADLOCK = 40001;
+    private static final int H2_LOCK_TIMEOUT = 50200;
+    
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    
+    /**
+     * Creates a retry layer configured from {@code bank.retry.*}.
+     */
+    public TransientFailureRetry() {
+        this(AppConfig.getInt("bank.retry.maxAttempts", 5),
+             AppConfig.getLong("bank.retry.backoffMillis", 5),
+             AppConfig.getLong("bank.retry.maxBackoffMillis", 1000));
+    }
+    
+    /**
+     * Creates a retry layer.
+     * 
+     * @param maxAttempts Attempts before the failure is passed on (1 = no retries)
+     * @param backoffMillis Upper bound of the pause before the first retry
+     * @param maxBackoffMillis Upper bound of any pause
+     */
+    public TransientFailureRetry(int maxAttempts, long backoffMillis, long maxBackoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+    
+    /**
+     * Runs a unit of work, re-running it while it fails with a transient error.
+     * Every transient failure increments {@code retry.<class>}; one that is passed on
+     * after the last attempt also increments {@code retry.<class>.exhausted}.
+     * 
+     * @param unitOfWork Complete unit of work (not nested in another one)
+     * @return Result of the first successful attempt
+     * @throws SQLException the last failure, if it is not transient or attempts ran out
+     */
+    public <T> T run(SqlCallable<T> unitOfWork) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return unitOfWork.call();
+            } catch (SQLException e) {
+                String errorClass = classify(e);
+                if (errorClass == null) {
+                    throw e;
+                }
+                metrics.incrementCounter("retry." + errorClass);
+                if (attempt >= maxAttempts) {
+                    metrics.incrementCounter("retry." + errorClass + ".exhausted");
+                    throw e;
+                }
+                pause(attempt, e);
+            }
+        }
+    }
+    
+    /**
+     * Returns the transient error class of a failure.
+     * 
+     * @param e Failure, possibly wrapping the driver's exception
+     * @return {@link #DEADLOCK}, {@link #LOCK_TIMEOUT}, {@link #SERIALIZATION} or null if not transient
+     */
+    public static String classify(SQLException e) {
+        for (Throwable cause = e; cause instanceof SQLException; cause = cause.getCause()) {
+            SQLException sqlException = (SQLException) cause;
+            int code = sqlException.getErrorCode();
+            if (code == MYSQL_DEADLOCK || code == H2_DEADLOCK) {
+                return DEADLOCK;
+            }
+            if (code == MYSQL_LOCK_WAIT_TIMEOUT || code == H2_LOCK_TIMEOUT) {
+                return LOCK_TIMEOUT;
+            }
+            if ("40001".equals(sqlException.getSQLState())) {
+                return SERIALIZATION;
+            }
+        }
+        return null;
+    }
+    
+    private void pause(int attempt, SQLException failure) throws SQLException {
+        long bound = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
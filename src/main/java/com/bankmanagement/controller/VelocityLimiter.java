@@ -0,0 +1,173 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.TransactionRepository;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.ConcurrentIntObjectMap;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.Money;
+import com.bankmanagement.util.SlidingWindowCounter;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-account velocity limits on debits (withdrawals and outgoing transfers): the
+ * number of debits and the debited amount per rolling hour and per rolling day.
+ * Counters are kept in memory in bucketed rings, so a check never queries the ledger;
+ * they are built from the last day of ledger history (rows flagged as debits) when the
+ * first controller of a data store is created, before any posting runs. Teller
+ * withdrawals and transfers are checked against the limits; the debits of payroll runs,
+ * transfer batches and standing orders are not refused, but they are recorded like the
+ * rebuild counts them, so the counters do not change when they are rebuilt. A limit of
+ * zero disables it.
+ */
+public class VelocityLimiter {
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final Map<DataStore, VelocityLimiter> INSTANCES = new WeakHashMap<>();
+    
+    private final long maxDebitsPerHour;
+    private final long maxAmountPerHour;
+    private final long maxDebitsPerDay;
+    private final long maxAmountPerDay;
+    private final ConcurrentIntObjectMap<AccountWindows> windows = new ConcurrentIntObjectMap<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    
+    /**
+     * Creates a limiter with empty counters.
+     * 
+     * @param maxDebitsPerHour Maximum debits per rolling hour, 0 for no limit
+     * @param maxAmountPerHour Maximum debited amount per rolling hour, 0 for no limit
+     * @param maxDebitsPerDay Maximum debits per rolling day, 0 for no limit
+     * @param maxAmountPerDay Maximum debited amount per rolling day, 0 for no limit
+     */
+    public VelocityLimiter(int maxDebitsPerHour, BigDecimal maxAmountPerHour,
+                           int maxDebitsPerDay, BigDecimal maxAmountPerDay) {
+        this.maxDebitsPerHour = maxDebitsPerHour;
+        this.maxAmountPerHour = Money.toCents(maxAmountPerHour);
+        this.maxDebitsPerDay = maxDebitsPerDay;
+        this.maxAmountPerDay = Money.toCents(maxAmountPerDay);
+    }
+    
+    /**
+     * Gets the limiter shared by all controllers of a data store, configured from
+     * {@code bank.velocity.*}. The first call reads the last day of the ledger, so it
+     * belongs at startup or in a controller's constructor, never inside a unit of work.
+     * 
+     * @param dataStore Storage backend
+     * @return VelocityLimiter instance
+     * @throws SQLException if the ledger history cannot be read
+     */
+    public static VelocityLimiter forDataStore(DataStore dataStore) throws SQLException {
+        synchronized (INSTANCES) {
+            VelocityLimiter limiter = INSTANCES.get(dataStore);
+            if (limiter == null) {
+                limiter = new VelocityLimiter(
+                        AppConfig.getInt("bank.velocity.maxDebitsPerHour", 0),
+                        new BigDecimal(AppConfig.getString("bank.velocity.maxAmountPerHour", "0")),
+                        AppConfig.getInt("bank.velocity.maxDebitsPerDay", 0),
+                        new BigDecimal(AppConfig.getString("bank.velocity.maxAmountPerDay", "0")));
+                if (limiter.isEnabled()) {
+                    limiter.rebuild(dataStore.transactions());
+                }
+                INSTANCES.put(dataStore, limiter);
+            }
+            return limiter;
+        }
+    }
+    
+    public boolean isEnabled() {
+        return maxDebitsPerHour > 0 || maxAmountPerHour > 0 || maxDebitsPerDay > 0 || maxAmountPerDay > 0;
+    }
+    
+    /**
+     * Replaces the counters with the debits of the last day.
+     * 
+     * @param transactionRepository Ledger to read
+     * @throws SQLException if database operation fails
+     */
+    public void rebuild(TransactionRepository transactionRepository) throws SQLException {
+        long start = System.nanoTime();
+        ZoneId zone = ZoneId.systemDefault();
+        windows.clear();
+        transactionRepository.forEachDebitSince(LocalDateTime.now().minusDays(1), (accountId, amount, date) ->
+                record(accountId, Money.toCents(amount), date.atZone(zone).toInstant().toEpochMilli()));
+        metrics.recordOperation("velocity.rebuild", System.nanoTime() - start, true);
+    }
+    
+    /**
+     * Checks whether one more debit would exceed a limit of the account. Callers hold
+     * the account row lock until the debit has been {@linkplain #record recorded}.
+     * 
+     * @param accountId Account ID
+     * @param amount Amount to debit
+     * @throws IllegalArgumentException if a limit would be exceeded
+     */
+    public void check(int accountId, BigDecimal amount) {
+        if (!isEnabled()) {
+            return;
+        }
+        long cents = Money.toCents(amount);
+        long now = System.currentTimeMillis();
+        long hourDebits = 0, hourAmount = 0, dayDebits = 0, dayAmount = 0;
+        AccountWindows account = windows.get(accountId);
+        if (account != null) {
+            synchronized (account) {
+                hourDebits = account.hour.count(now);
+                hourAmount = account.hour.sum(now);
+                dayDebits = account.day.count(now);
+                dayAmount = account.day.sum(now);
+            }
+        }
+        
+        String violation;
+        if (maxDebitsPerHour > 0 && hourDebits + 1 > maxDebitsPerHour) {
+            violation = "at most " + maxDebitsPerHour + " debits per hour";
+        } else if (maxAmountPerHour > 0 && hourAmount + cents > maxAmountPerHour) {
+            violation = "at most " + Money.fromCents(maxAmountPerHour) + " debited per hour";
+        } else if (maxDebitsPerDay > 0 && dayDebits + 1 > maxDebitsPerDay) {
+            violation = "at most " + maxDebitsPerDay + " debits per day";
+        } else if (maxAmountPerDay > 0 && dayAmount + cents > maxAmountPerDay) {
+            violation = "at most " + Money.fromCents(maxAmountPerDay) + " debited per day";
+        } else {
+            return;
+        }
+        metrics.incrementCounter("velocity.rejections");
+        throw new IllegalArgumentException("Velocity limit exceeded: " + violation);
+    }
+    
+    /**
+     * Counts a debit that passed {@link #check}. A debit whose commit fails afterwards
+     * still counts until it leaves the window, which errs on the safe side.
+     * 
+     * @param accountId Account ID
+     * @param amount Debited amount
+     */
+    public void record(int accountId, BigDecimal amount) {
+        if (isEnabled()) {
+            record(accountId, Money.toCents(amount), System.currentTimeMillis());
+        }
+    }
+    
+    private void record(int accountId, long cents, long timeMillis) {
+        AccountWindows account = windows.computeIfAbsent(accountId, id -> new AccountWindows());
+        synchronized (account) {
+            account.hour.add(timeMillis, cents);
+            account.day.add(timeMillis, cents);
+        }
+    }
+    
+    /**
+     * Rolling windows of one account: the hour in one-minute buckets, the day in
+     * fifteen-minute buckets.
+     */
+    private static class AccountWindows {
+        final SlidingWindowCounter hour = new SlidingWindowCounter(HOUR_MILLIS, 60);
+        final SlidingWindowCounter day = new SlidingWindowCounter(DAY_MILLIS, 96);
+    }
+}
@@ -1,22 +1,46 @@
 package com.bankmanagement.dao;
 
 import com.bankmanagement.model.Account;
+import com.bankmanagement.util.ConnectionProvider;
 import com.bankmanagement.util.DatabaseConnection;
+import com.bankmanagement.util.IntLongMap;
+import com.bankmanagement.util.Money;
+import com.bankmanagement.util.ResultStreaming;
+import com.bankmanagement.util.SingleFlight;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Account operations.
  */
-public class AccountDAO {
-    private Connection connection;
+public class AccountDAO implements AccountRepository {
+    /** Account IDs per IN-list of {@link #getBalances}; every chunk has this size. */
+    private static final int BALANCE_CHUNK_SIZE = 1000;
+    
+    /**
+     * Sum of the sub-ledger slots of an account selected as {@code a}; evaluated only
+     * for hot accounts, so normal accounts cost no extra lookup.
+     */
+    public static final String SLOT_BALANCE = "CASE WHEN a.ledger_slots > 0 THEN COALESCE((SELECT SUM(s.balance) " +
+                                       "FROM account_balance_slots s WHERE s.account_id = a.account_id), 0) " +
+                                       "ELSE 0 END";
+    
+    private final ConnectionProvider connectionProvider;
+    private final SingleFlight<Account> accountsById = new SingleFlight<>("accounts.byId", Account::new);
     
     public AccountDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this(DatabaseConnection.getInstance());
+    }
+    
+    public AccountDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
     }
     
     /**
@@ -26,10 +50,12 @@ public class AccountDAO {
      * @return Generated account ID
      * @throws SQLException if database operation fails
      */
+    @Override
     public int createAccount(Account account) throws SQLException {
         String sql = "INSERT INTO accounts (customer_id, account_number, account_type, " +
                      "mode_of_operation, balance, sms_alert, internet_banking, atm_card, created_at) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
         
         String accountNumber = generateAccountNumber();
         
@@ -38,7 +64,7 @@ public class AccountDAO {
             pstmt.setString(2, accountNumber);
             pstmt.setString(3, account.getAccountType());
             pstmt.setString(4, account.getModeOfOperation());
-            pstmt.setBigDecimal(5, account.getBalance());
+            Money.setCents(pstmt, 5, account.getBalanceCents());
             pstmt.setBoolean(6, account.isSmsAlert());
             pstmt.setBoolean(7, account.isInternetBanking());
             pstmt.setBoolean(8, account.isAtmCard());
@@ -53,14 +79,14 @@ public class AccountDAO {
                 if (generatedKeys.next()) {
                     int accountId = generatedKeys.getInt(1);
                     account.setAccountNumber(accountNumber);
-                    connection.commit();
+                    JdbcUnitOfWork.commit(connection);
                     return accountId;
                 } else {
                     throw new SQLException("Creating account failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
@@ -73,27 +99,140 @@ public class AccountDAO {
     }
     
     /**
-     * Retrieves an account by ID.
+     * Retrieves an account by ID. Concurrent reads of the same account outside a unit
+     * of work share one query.
      * 
      * @param accountId Account ID
      * @return Account object or null if not found
      * @throws SQLException if database operation fails
      */
+    @Override
     public Account getAccountById(int accountId) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE account_id = ?";
+        return JdbcUnitOfWork.coalesced(accountsById, accountId, () -> queryAccountById(accountId));
+    }
+    
+    private Account queryAccountById(int accountId) throws SQLException {
+        String sql = "SELECT a.*, " + SLOT_BALANCE + " AS slot_balance FROM accounts a " +
+                     "WHERE a.account_id = ? AND a.status = 'ACTIVE'";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, accountId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAccount(rs);
+                    return mapAccountWithSlots(rs, "");
                 }
             }
         }
         return null;
     }
     
+    /**
+     * Retrieves an account by ID and locks its row until the surrounding unit of work ends.
+     * 
+     * @param accountId Account ID
+     * @return Account object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public Account getAccountByIdForUpdate(int accountId) throws SQLException {
+        String sql = "SELECT * FROM accounts WHERE account_id = ? AND status = 'ACTIVE' FOR UPDATE";
+        Connection connection = connectionProvider.getConnection();
+        Account account = null;
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, accountId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    account = mapResultSetToAccount(rs);
+                }
+            }
+        }
+        if (account != null && account.getLedgerSlots() > 0) {
+            foldSlots(connection, account);
+        }
+        return account;
+    }
+    
+    /**
+     * Retrieves the balances of many accounts with one query per chunk of
+     * {@value #BALANCE_CHUNK_SIZE} IDs. The last chunk is padded by repeating its
+     * highest ID, so every query has the same text and the server parses it only once.
+     * 
+     * @param accountIds Account IDs, in any order and possibly repeated
+     * @return Balance in cents per account ID
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public IntLongMap getBalances(int[] accountIds) throws SQLException {
+        int[] ids = Arrays.stream(accountIds).distinct().sorted().toArray();
+        IntLongMap balances = new IntLongMap(ids.length);
+        if (ids.length == 0) {
+            return balances;
+        }
+        int chunkSize = Math.min(ids.length, BALANCE_CHUNK_SIZE);
+        String placeholders = String.join(", ", Collections.nCopies(chunkSize, "?"));
+        String sql = "SELECT a.account_id, a.balance + " + SLOT_BALANCE + " AS balance FROM accounts a " +
+                     "WHERE a.account_id IN (" + placeholders + ") AND a.status = 'ACTIVE'";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int start = 0; start < ids.length; start += chunkSize) {
+                for (int i = 0; i < chunkSize; i++) {
+                    pstmt.setInt(i + 1, ids[Math.min(start + i, ids.length - 1)]);
+                }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        balances.put(rs.getInt(1), Money.getCents(rs, "balance"));
+                    }
+                }
+            }
+        }
+        return balances;
+    }
+    
+    /**
+     * Retrieves and locks several accounts with a single SELECT ... FOR UPDATE.
+     * 
+     * @param accountIds Account IDs, in any order and possibly repeated
+     * @return Locked accounts in ascending ID order
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<Account> getAccountsByIdsForUpdate(int[] accountIds) throws SQLException {
+        int[] ids = Arrays.stream(accountIds).distinct().sorted().toArray();
+        List<Account> accounts = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return accounts;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        String sql = "SELECT * FROM accounts WHERE account_id IN (" + placeholders + ") " +
+                     "AND status = 'ACTIVE' ORDER BY account_id FOR UPDATE";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 1, ids[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(mapResultSetToAccount(rs));
+                }
+            }
+        }
+        // Slot rows are locked after all account rows, in the same ID order
+        for (Account account : accounts) {
+            if (account.getLedgerSlots() > 0) {
+                foldSlots(connection, account);
+            }
+        }
+        return accounts;
+    }
+    
     /**
      * Retrieves an account by account number.
      * 
@@ -101,15 +240,18 @@ public class AccountDAO {
      * @return Account object or null if not found
      * @throws SQLException if database operation fails
      */
+    @Override
     public Account getAccountByNumber(String accountNumber) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE account_number = ?";
+        String sql = "SELECT a.*, " + SLOT_BALANCE + " AS slot_balance FROM accounts a " +
+                     "WHERE a.account_number = ? AND a.status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, accountNumber);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAccount(rs);
+                    return mapAccountWithSlots(rs, "");
                 }
             }
         }
@@ -123,8 +265,11 @@ public class AccountDAO {
      * @return List of accounts
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Account> getAccountsByCustomerId(int customerId) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE customer_id = ? ORDER BY account_id";
+        String sql = "SELECT a.*, " + SLOT_BALANCE + " AS slot_balance FROM accounts a " +
+                     "WHERE a.customer_id = ? AND a.status = 'ACTIVE' ORDER BY a.account_id";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
         List<Account> accounts = new ArrayList<>();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -132,7 +277,7 @@ public class AccountDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    accounts.add(mapResultSetToAccount(rs));
+                    accounts.add(mapAccountWithSlots(rs, ""));
                 }
             }
         }
@@ -147,18 +292,73 @@ public class AccountDAO {
      * @return true if update successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean updateBalance(int accountId, BigDecimal newBalance) throws SQLException {
-        String sql = "UPDATE accounts SET balance = ? WHERE account_id = ?";
+        String sql = "UPDATE accounts SET balance = ?, version = version + 1 WHERE account_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setBigDecimal(1, newBalance);
+            pstmt.setInt(2, accountId);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Updates account balance only if the account still has the version it was read with.
+     * 
+     * @param accountId Account ID
+     * @param newBalance New balance
+     * @param expectedVersion Version the balance was computed from
+     * @return true if updated, false if the account was changed or deleted meanwhile
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean updateBalanceIfVersion(int accountId, BigDecimal newBalance, long expectedVersion) throws SQLException {
+        String sql = "UPDATE accounts SET balance = ?, version = version + 1 WHERE account_id = ? AND version = ?";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setBigDecimal(1, newBalance);
             pstmt.setInt(2, accountId);
+            pstmt.setLong(3, expectedVersion);
             
             int affectedRows = pstmt.executeUpdate();
-            connection.commit();
+            JdbcUnitOfWork.commit(connection);
             return affectedRows > 0;
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Updates the balances of several accounts in one JDBC batch.
+     * 
+     * @param newBalances New balance per account ID
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void updateBalances(Map<Integer, BigDecimal> newBalances) throws SQLException {
+        String sql = "UPDATE accounts SET balance = ?, version = version + 1 WHERE account_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Map.Entry<Integer, BigDecimal> entry : newBalances.entrySet()) {
+                pstmt.setBigDecimal(1, entry.getValue());
+                pstmt.setInt(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            JdbcUnitOfWork.commit(connection);
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
@@ -170,39 +370,327 @@ public class AccountDAO {
      * @return true if deletion successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean deleteAccount(int accountId) throws SQLException {
         String sql = "DELETE FROM accounts WHERE account_id = ?";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, accountId);
             
             int affectedRows = pstmt.executeUpdate();
-            connection.commit();
+            JdbcUnitOfWork.commit(connection);
             return affectedRows > 0;
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
     
+    /**
+     * Marks all accounts of a customer deleted; the background purge removes the rows later.
+     * 
+     * @param customerId Customer ID
+     * @return Number of accounts marked
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int markAccountsDeleted(int customerId) throws SQLException {
+        String sql = "UPDATE accounts SET status = 'DELETED' WHERE customer_id = ? AND status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, customerId);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Retrieves accounts marked deleted whose rows have not been purged yet.
+     * 
+     * @return Account IDs in ascending order
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int[] getDeletedAccountIds() throws SQLException {
+        String sql = "SELECT account_id FROM accounts WHERE status = 'DELETED' ORDER BY account_id";
+        Connection connection = connectionProvider.getConnection();
+        List<Integer> accountIds = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                accountIds.add(rs.getInt(1));
+            }
+        }
+        return accountIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Turns an account into a hot account with the given number of sub-ledger slots, or
+     * back into a normal account with 0 slots. The account row is locked and its existing
+     * slots consolidated before the slot rows are replaced.
+     * 
+     * @param accountId Account ID
+     * @param slots Number of slots
+     * @return true if the account exists
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean setLedgerSlots(int accountId, int slots) throws SQLException {
+        String deleteSql = "DELETE FROM account_balance_slots WHERE account_id = ?";
+        String insertSql = "INSERT INTO account_balance_slots (account_id, slot, balance) VALUES (?, ?, 0)";
+        String updateSql = "UPDATE accounts SET ledger_slots = ? WHERE account_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try {
+            if (getAccountByIdForUpdate(accountId) == null) {
+                return false;
+            }
+            try (PreparedStatement delete = connection.prepareStatement(deleteSql);
+                 PreparedStatement insert = connection.prepareStatement(insertSql);
+                 PreparedStatement update = connection.prepareStatement(updateSql)) {
+                delete.setInt(1, accountId);
+                delete.executeUpdate();
+                for (int slot = 0; slot < slots; slot++) {
+                    insert.setInt(1, accountId);
+                    insert.setInt(2, slot);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                update.setInt(1, slots);
+                update.setInt(2, accountId);
+                update.executeUpdate();
+            }
+            JdbcUnitOfWork.commit(connection);
+            return true;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Retrieves all hot accounts.
+     * 
+     * @return Number of sub-ledger slots per account ID
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public IntLongMap getLedgerSlotCounts() throws SQLException {
+        String sql = "SELECT account_id, ledger_slots FROM accounts WHERE ledger_slots > 0 AND status = 'ACTIVE'";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
+        IntLongMap slots = new IntLongMap();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                slots.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return slots;
+    }
+    
+    /**
+     * Adds a credit to one sub-ledger slot of a hot account. Only the slot row is
+     * locked, so concurrent credits to other slots of the account do not wait.
+     * 
+     * @param accountId Account ID
+     * @param slot Slot number
+     * @param amountCents Amount in cents
+     * @return true if credited, false if the account has no such slot
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean creditSlot(int accountId, int slot, long amountCents) throws SQLException {
+        String sql = "UPDATE account_balance_slots SET balance = balance + ? WHERE account_id = ? AND slot = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            Money.setCents(pstmt, 1, amountCents);
+            pstmt.setInt(2, accountId);
+            pstmt.setInt(3, slot);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Locks a hot account and moves its sub-ledger slots into its balance.
+     * 
+     * @param accountId Account ID
+     * @return Amount moved in cents
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public long consolidateSlots(int accountId) throws SQLException {
+        String sql = "SELECT * FROM accounts WHERE account_id = ? FOR UPDATE";
+        Connection connection = connectionProvider.getConnection();
+        Account account = null;
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, accountId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    account = mapResultSetToAccount(rs);
+                }
+            }
+        }
+        return account == null ? 0 : foldSlots(connection, account);
+    }
+    
+    /**
+     * Moves the sub-ledger slots of a locked hot account into its balance and updates the
+     * account object. The slot rows stay locked until the unit of work ends, so no credit
+     * can land in them while the caller relies on the balance.
+     * 
+     * @return Amount moved in cents
+     */
+    private long foldSlots(Connection connection, Account account) throws SQLException {
+        String lockSql = "SELECT balance FROM account_balance_slots WHERE account_id = ? FOR UPDATE";
+        String clearSql = "UPDATE account_balance_slots SET balance = 0 WHERE account_id = ? AND balance <> 0";
+        String addSql = "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE account_id = ?";
+        int accountId = account.getAccountId();
+        long folded = 0;
+        
+        try {
+            try (PreparedStatement lock = connection.prepareStatement(lockSql)) {
+                lock.setInt(1, accountId);
+                try (ResultSet rs = lock.executeQuery()) {
+                    while (rs.next()) {
+                        folded = Money.add(folded, Money.getCents(rs, "balance"));
+                    }
+                }
+            }
+            if (folded == 0) {
+                return 0;
+            }
+            try (PreparedStatement clear = connection.prepareStatement(clearSql);
+                 PreparedStatement add = connection.prepareStatement(addSql)) {
+                clear.setInt(1, accountId);
+                clear.executeUpdate();
+                Money.setCents(add, 1, folded);
+                add.setInt(2, accountId);
+                add.executeUpdate();
+            }
+            JdbcUnitOfWork.commit(connection);
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+        account.setBalanceCents(Money.add(account.getBalanceCents(), folded));
+        account.setVersion(account.getVersion() + 1);
+        return folded;
+    }
+    
+    /**
+     * Returns the lowest and the highest account ID in use.
+     * 
+     * @return Array of {lowest, highest}, or null if there are no accounts
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int[] getAccountIdBounds() throws SQLException {
+        String sql = "SELECT MIN(account_id), MAX(account_id) FROM accounts";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                int lowest = rs.getInt(1);
+                if (!rs.wasNull()) {
+                    return new int[]{lowest, rs.getInt(2)};
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Streams the balances of all accounts in an ID range.
+     * 
+     * @param fromAccountId First account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each balance
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void forEachBalanceInRange(int fromAccountId, int toAccountId, BalanceConsumer consumer) throws SQLException {
+        String sql = "SELECT a.account_id, (a.balance + " + SLOT_BALANCE + ") * 100 AS balance_cents " +
+                     "FROM accounts a WHERE a.account_id >= ? AND a.account_id < ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                   ResultSet.CONCUR_READ_ONLY)) {
+            ResultStreaming.enable(pstmt);
+            pstmt.setInt(1, fromAccountId);
+            pstmt.setInt(2, toAccountId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+    }
+    
     /**
      * Maps a ResultSet row to an Account object.
      */
     private Account mapResultSetToAccount(ResultSet rs) throws SQLException {
+        return mapResultSetToAccount(rs, "");
+    }
+    
+    /**
+     * Maps the account columns of a ResultSet row, e.g. of a join, to an Account object.
+     * 
+     * @param prefix Prefix of the column labels
+     */
+    static Account mapResultSetToAccount(ResultSet rs, String prefix) throws SQLException {
         Account account = new Account();
-        account.setAccountId(rs.getInt("account_id"));
-        account.setCustomerId(rs.getInt("customer_id"));
-        account.setAccountNumber(rs.getString("account_number"));
-        account.setAccountType(rs.getString("account_type"));
-        account.setModeOfOperation(rs.getString("mode_of_operation"));
-        account.setBalance(rs.getBigDecimal("balance"));
-        Timestamp createdAt = rs.getTimestamp("created_at");
+        account.setAccountId(rs.getInt(prefix + "account_id"));
+        account.setCustomerId(rs.getInt(prefix + "customer_id"));
+        account.setAccountNumber(rs.getString(prefix + "account_number"));
+        account.setAccountType(rs.getString(prefix + "account_type"));
+        account.setModeOfOperation(rs.getString(prefix + "mode_of_operation"));
+        account.setBalanceCents(Money.getCents(rs, prefix + "balance"));
+        account.setVersion(rs.getLong(prefix + "version"));
+        account.setLedgerSlots(rs.getInt(prefix + "ledger_slots"));
+        Timestamp createdAt = rs.getTimestamp(prefix + "created_at");
         if (createdAt != null) {
             account.setCreatedAt(createdAt.toLocalDateTime());
         }
-        account.setSmsAlert(rs.getBoolean("sms_alert"));
-        account.setInternetBanking(rs.getBoolean("internet_banking"));
-        account.setAtmCard(rs.getBoolean("atm_card"));
+        account.setSmsAlert(rs.getBoolean(prefix + "sms_alert"));
+        account.setInternetBanking(rs.getBoolean(prefix + "internet_banking"));
+        account.setAtmCard(rs.getBoolean(prefix + "atm_card"));
+        return account;
+    }
+    
+    /**
+     * Maps account columns selected together with {@link #SLOT_BALANCE}, so the balance
+     * of a hot account includes its sub-ledger slots.
+     * 
+     * @param prefix Prefix of the column labels
+     */
+    static Account mapAccountWithSlots(ResultSet rs, String prefix) throws SQLException {
+        Account account = mapResultSetToAccount(rs, prefix);
+        if (account.getLedgerSlots() > 0) {
+            account.setBalanceCents(Money.add(account.getBalanceCents(), Money.getCents(rs, prefix + "slot_balance")));
+        }
         return account;
     }
 }
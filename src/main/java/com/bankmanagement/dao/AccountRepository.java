@@ -0,0 +1,207 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.util.IntLongMap;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage contract for accounts.
+ * Each write commits on its own unless it runs inside {@link DataStore#inTransaction}.
+ */
+public interface AccountRepository {
+    
+    /**
+     * Creates a new account and assigns its account number.
+     * 
+     * @param account Account object to create
+     * @return Generated account ID
+     * @throws SQLException if database operation fails
+     */
+    int createAccount(Account account) throws SQLException;
+    
+    /**
+     * Retrieves an account by ID.
+     * 
+     * @param accountId Account ID
+     * @return Account object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    Account getAccountById(int accountId) throws SQLException;
+    
+    /**
+     * Retrieves an account by ID and locks it until the surrounding unit of work ends.
+     * The sub-ledger slots of a hot account are consolidated into its balance first and
+     * stay locked as well, so the balance is exact until the unit of work ends.
+     * 
+     * @param accountId Account ID
+     * @return Account object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    Account getAccountByIdForUpdate(int accountId) throws SQLException;
+    
+    /**
+     * Retrieves the balances of many accounts at once, reading only the balance column.
+     * IDs that do not exist are skipped.
+     * 
+     * @param accountIds Account IDs, in any order and possibly repeated
+     * @return Balance in cents per account ID
+     * @throws SQLException if database operation fails
+     */
+    IntLongMap getBalances(int[] accountIds) throws SQLException;
+    
+    /**
+     * Retrieves several accounts and locks them, in ascending ID order, until the
+     * surrounding unit of work ends. IDs that do not exist are skipped. Hot accounts are
+     * consolidated as in {@link #getAccountByIdForUpdate}.
+     * 
+     * @param accountIds Account IDs, in any order and possibly repeated
+     * @return Locked accounts in ascending ID order
+     * @throws SQLException if database operation fails
+     */
+    List<Account> getAccountsByIdsForUpdate(int[] accountIds) throws SQLException;
+    
+    /**
+     * Retrieves an account by account number.
+     * 
+     * @param accountNumber Account number
+     * @return Account object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    Account getAccountByNumber(String accountNumber) throws SQLException;
+    
+    /**
+     * Retrieves all accounts for a customer.
+     * 
+     * @param customerId Customer ID
+     * @return List of accounts
+     * @throws SQLException if database operation fails
+     */
+    List<Account> getAccountsByCustomerId(int customerId) throws SQLException;
+    
+    /**
+     * Updates account balance.
+     * 
+     * @param accountId Account ID
+     * @param newBalance New balance
+     * @return true if update successful
+     * @throws SQLException if database operation fails
+     */
+    boolean updateBalance(int accountId, BigDecimal newBalance) throws SQLException;
+    
+    /**
+     * Updates account balance only if the account still has the version it was read
+     * with (optimistic concurrency). Like every balance update, it increments the version.
+     * 
+     * @param accountId Account ID
+     * @param newBalance New balance
+     * @param expectedVersion Version the balance was computed from
+     * @return true if updated, false if the account was changed or deleted meanwhile
+     * @throws SQLException if database operation fails
+     */
+    boolean updateBalanceIfVersion(int accountId, BigDecimal newBalance, long expectedVersion) throws SQLException;
+    
+    /**
+     * Updates the balances of several accounts in one batch.
+     * 
+     * @param newBalances New balance per account ID
+     * @throws SQLException if database operation fails
+     */
+    void updateBalances(Map<Integer, BigDecimal> newBalances) throws SQLException;
+    
+    /**
+     * Deletes an account by ID, together with its transactions.
+     * 
+     * @param accountId Account ID to delete
+     * @return true if deletion successful
+     * @throws SQLException if database operation fails
+     */
+    boolean deleteAccount(int accountId) throws SQLException;
+    
+    /**
+     * Marks all accounts of a customer deleted. They disappear from all lookups at
+     * once, so nothing can be posted to them; their rows are removed later by the
+     * background purge.
+     * 
+     * @param customerId Customer ID
+     * @return Number of accounts marked
+     * @throws SQLException if database operation fails
+     */
+    int markAccountsDeleted(int customerId) throws SQLException;
+    
+    /**
+     * Retrieves accounts marked deleted whose rows have not been purged yet.
+     * 
+     * @return Account IDs in ascending order
+     * @throws SQLException if database operation fails
+     */
+    int[] getDeletedAccountIds() throws SQLException;
+    
+    /**
+     * Turns an account into a hot account with the given number of sub-ledger slots, or
+     * back into a normal account with 0 slots. Existing slots are consolidated first.
+     * 
+     * @param accountId Account ID
+     * @param slots Number of slots
+     * @return true if the account exists
+     * @throws SQLException if database operation fails
+     */
+    boolean setLedgerSlots(int accountId, int slots) throws SQLException;
+    
+    /**
+     * Retrieves all hot accounts.
+     * 
+     * @return Number of sub-ledger slots per account ID
+     * @throws SQLException if database operation fails
+     */
+    IntLongMap getLedgerSlotCounts() throws SQLException;
+    
+    /**
+     * Adds a credit to one sub-ledger slot of a hot account without locking the account.
+     * 
+     * @param accountId Account ID
+     * @param slot Slot number, below the account's number of slots
+     * @param amountCents Amount in cents
+     * @return true if credited, false if the account has no such slot (anymore)
+     * @throws SQLException if database operation fails
+     */
+    boolean creditSlot(int accountId, int slot, long amountCents) throws SQLException;
+    
+    /**
+     * Moves the sub-ledger slots of a hot account into its balance.
+     * 
+     * @param accountId Account ID
+     * @return Amount moved in cents
+     * @throws SQLException if database operation fails
+     */
+    long consolidateSlots(int accountId) throws SQLException;
+    
+    /**
+     * Returns the lowest and the highest account ID in use.
+     * 
+     * @return Array of {lowest, highest}, or null if there are no accounts
+     * @throws SQLException if database operation fails
+     */
+    int[] getAccountIdBounds() throws SQLException;
+    
+    /**
+     * Streams the balances of all accounts in an ID range without loading them into a list.
+     * 
+     * @param fromAccountId First account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each balance
+     * @throws SQLException if database operation fails
+     */
+    void forEachBalanceInRange(int fromAccountId, int toAccountId, BalanceConsumer consumer) throws SQLException;
+    
+    /**
+     * Receives balances from {@link #forEachBalanceInRange}.
+     */
+    @FunctionalInterface
+    interface BalanceConsumer {
+        void accept(int accountId, long balanceCents);
+    }
+}
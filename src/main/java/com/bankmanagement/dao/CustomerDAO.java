@@ -1,21 +1,33 @@
 package com.bankmanagement.dao;
 
+import com.bankmanagement.model.Account;
 import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.ConnectionProvider;
 import com.bankmanagement.util.DatabaseConnection;
+import com.bankmanagement.util.SingleFlight;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Customer operations.
  */
-public class CustomerDAO {
-    private Connection connection;
+public class CustomerDAO implements CustomerRepository {
+    private final ConnectionProvider connectionProvider;
+    private final SingleFlight<Customer> customersById = new SingleFlight<>("customers.byId", Customer::new);
     
     public CustomerDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this(DatabaseConnection.getInstance());
+    }
+    
+    public CustomerDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
     }
     
     /**
@@ -25,10 +37,12 @@ public class CustomerDAO {
      * @return Generated customer ID
      * @throws SQLException if database operation fails
      */
+    @Override
     public int createCustomer(Customer customer) throws SQLException {
         String sql = "INSERT INTO customers (full_name, father_name, date_of_birth, gender, " +
                      "marital_status, address, city, state, mobile_number, email, nationality, customer_type) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, customer.getFullName());
@@ -52,27 +66,34 @@ public class CustomerDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     int customerId = generatedKeys.getInt(1);
-                    connection.commit();
+                    JdbcUnitOfWork.commit(connection);
                     return customerId;
                 } else {
                     throw new SQLException("Creating customer failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
     
     /**
-     * Retrieves a customer by ID.
+     * Retrieves a customer by ID. Concurrent reads of the same customer outside a unit
+     * of work share one query.
      * 
      * @param customerId Customer ID
      * @return Customer object or null if not found
      * @throws SQLException if database operation fails
      */
+    @Override
     public Customer getCustomerById(int customerId) throws SQLException {
-        String sql = "SELECT * FROM customers WHERE customer_id = ?";
+        return JdbcUnitOfWork.coalesced(customersById, customerId, () -> queryCustomerById(customerId));
+    }
+    
+    private Customer queryCustomerById(int customerId) throws SQLException {
+        String sql = "SELECT * FROM customers WHERE customer_id = ? AND status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, customerId);
@@ -86,6 +107,81 @@ public class CustomerDAO {
         return null;
     }
     
+    /**
+     * Retrieves a customer with their accounts and the latest transactions of each account
+     * in two round-trips: the customer joined with the accounts, then one UNION ALL with a
+     * branch per account. Each branch reads only its newest rows from {@code idx_account_date},
+     * unlike a window function, which would rank the whole history of busy accounts.
+     * 
+     * @param customerId Customer ID
+     * @param recentTransactions Maximum number of transactions per account
+     * @return Overview or null if the customer is not found
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId, int recentTransactions) throws SQLException {
+        String sql = "SELECT c.*, a.account_id AS a_account_id, a.customer_id AS a_customer_id, " +
+                     "a.account_number AS a_account_number, a.account_type AS a_account_type, " +
+                     "a.mode_of_operation AS a_mode_of_operation, a.balance AS a_balance, " +
+                     "a.version AS a_version, a.sms_alert AS a_sms_alert, " +
+                     "a.internet_banking AS a_internet_banking, a.atm_card AS a_atm_card, " +
+                     "a.created_at AS a_created_at, a.ledger_slots AS a_ledger_slots, " +
+                     AccountDAO.SLOT_BALANCE + " AS a_slot_balance " +
+                     "FROM customers c LEFT JOIN accounts a " +
+                     "ON a.customer_id = c.customer_id AND a.status = 'ACTIVE' " +
+                     "WHERE c.customer_id = ? AND c.status = 'ACTIVE'";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
+        Customer customer = null;
+        List<Account> accounts = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, customerId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (customer == null) {
+                        customer = mapResultSetToCustomer(rs);
+                    }
+                    rs.getInt("a_account_id");
+                    if (!rs.wasNull()) {
+                        accounts.add(AccountDAO.mapAccountWithSlots(rs, "a_"));
+                    }
+                }
+            }
+        }
+        if (customer == null) {
+            return null;
+        }
+        accounts.sort((a, b) -> Integer.compare(a.getAccountId(), b.getAccountId()));
+        
+        Map<Integer, List<Transaction>> transactions = new HashMap<>();
+        if (!accounts.isEmpty() && recentTransactions > 0) {
+            StringBuilder union = new StringBuilder();
+            for (int i = 0; i < accounts.size(); i++) {
+                if (i > 0) {
+                    union.append(" UNION ALL ");
+                }
+                union.append("(SELECT * FROM transactions WHERE account_id = ? ")
+                     .append("ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?)");
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement(union.toString())) {
+                for (int i = 0; i < accounts.size(); i++) {
+                    pstmt.setInt(2 * i + 1, accounts.get(i).getAccountId());
+                    pstmt.setInt(2 * i + 2, recentTransactions);
+                }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Transaction transaction = TransactionDAO.mapResultSetToTransaction(rs);
+                        transactions.computeIfAbsent(transaction.getAccountId(), id -> new ArrayList<>())
+                                    .add(transaction);
+                    }
+                }
+            }
+        }
+        return new CustomerOverview(customer, accounts, transactions);
+    }
+    
     /**
      * Updates customer information.
      * 
@@ -93,11 +189,13 @@ public class CustomerDAO {
      * @return true if update successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean updateCustomer(Customer customer) throws SQLException {
         String sql = "UPDATE customers SET full_name = ?, father_name = ?, date_of_birth = ?, " +
                      "gender = ?, marital_status = ?, address = ?, city = ?, state = ?, " +
                      "mobile_number = ?, email = ?, nationality = ?, customer_type = ? " +
-                     "WHERE customer_id = ?";
+                     "WHERE customer_id = ? AND status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, customer.getFullName());
@@ -115,10 +213,10 @@ public class CustomerDAO {
             pstmt.setInt(13, customer.getCustomerId());
             
             int affectedRows = pstmt.executeUpdate();
-            connection.commit();
+            JdbcUnitOfWork.commit(connection);
             return affectedRows > 0;
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
@@ -130,29 +228,82 @@ public class CustomerDAO {
      * @return true if deletion successful
      * @throws SQLException if database operation fails
      */
+    @Override
     public boolean deleteCustomer(int customerId) throws SQLException {
         String sql = "DELETE FROM customers WHERE customer_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, customerId);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Marks a customer deleted; the background purge removes the rows later.
+     * 
+     * @param customerId Customer ID to delete
+     * @return true if the customer existed and was not deleted yet
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean markCustomerDeleted(int customerId) throws SQLException {
+        String sql = "UPDATE customers SET status = 'DELETED' WHERE customer_id = ? AND status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, customerId);
             
             int affectedRows = pstmt.executeUpdate();
-            connection.commit();
+            JdbcUnitOfWork.commit(connection);
             return affectedRows > 0;
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
     
+    /**
+     * Retrieves customers marked deleted whose rows have not been purged yet.
+     * 
+     * @param limit Maximum number of IDs
+     * @return Customer IDs in ascending order
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int[] getDeletedCustomerIds(int limit) throws SQLException {
+        String sql = "SELECT customer_id FROM customers WHERE status = 'DELETED' ORDER BY customer_id LIMIT ?";
+        Connection connection = connectionProvider.getConnection();
+        List<Integer> customerIds = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    customerIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return customerIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
     /**
      * Retrieves all customers.
      * 
      * @return List of all customers
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Customer> getAllCustomers() throws SQLException {
-        String sql = "SELECT * FROM customers ORDER BY customer_id";
+        String sql = "SELECT * FROM customers WHERE status = 'ACTIVE' ORDER BY customer_id";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
         List<Customer> customers = new ArrayList<>();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql);
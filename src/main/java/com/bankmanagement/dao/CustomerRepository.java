@@ -0,0 +1,87 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Storage contract for customers.
+ * Each write commits on its own unless it runs inside {@link DataStore#inTransaction}.
+ */
+public interface CustomerRepository {
+    
+    /**
+     * Creates a new customer.
+     * 
+     * @param customer Customer object to create
+     * @return Generated customer ID
+     * @throws SQLException if database operation fails
+     */
+    int createCustomer(Customer customer) throws SQLException;
+    
+    /**
+     * Retrieves a customer by ID.
+     * 
+     * @param customerId Customer ID
+     * @return Customer object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    Customer getCustomerById(int customerId) throws SQLException;
+    
+    /**
+     * Retrieves a customer with their accounts and the latest transactions of each account.
+     * 
+     * @param customerId Customer ID
+     * @param recentTransactions Maximum number of transactions per account
+     * @return Overview or null if the customer is not found
+     * @throws SQLException if database operation fails
+     */
+    CustomerOverview getCustomerOverview(int customerId, int recentTransactions) throws SQLException;
+    
+    /**
+     * Updates customer information.
+     * 
+     * @param customer Customer object with updated information
+     * @return true if update successful
+     * @throws SQLException if database operation fails
+     */
+    boolean updateCustomer(Customer customer) throws SQLException;
+    
+    /**
+     * Deletes a customer by ID, together with their accounts.
+     * 
+     * @param customerId Customer ID to delete
+     * @return true if deletion successful
+     * @throws SQLException if database operation fails
+     */
+    boolean deleteCustomer(int customerId) throws SQLException;
+    
+    /**
+     * Marks a customer deleted. The customer disappears from all lookups at once;
+     * the rows are removed later by the background purge.
+     * 
+     * @param customerId Customer ID to delete
+     * @return true if the customer existed and was not deleted yet
+     * @throws SQLException if database operation fails
+     */
+    boolean markCustomerDeleted(int customerId) throws SQLException;
+    
+    /**
+     * Retrieves customers marked deleted whose rows have not been purged yet.
+     * 
+     * @param limit Maximum number of IDs
+     * @return Customer IDs in ascending order
+     * @throws SQLException if database operation fails
+     */
+    int[] getDeletedCustomerIds(int limit) throws SQLException;
+    
+    /**
+     * Retrieves all customers.
+     * 
+     * @return List of all customers
+     * @throws SQLException if database operation fails
+     */
+    List<Customer> getAllCustomers() throws SQLException;
+}
@@ -0,0 +1,48 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+
+/**
+ * A storage backend: one repository per table plus unit-of-work boundaries.
+ * Controllers depend only on this interface, so the backend can be swapped
+ * (MySQL, in-memory) without touching controllers or views.
+ */
+public interface DataStore {
+    
+    AccountRepository accounts();
+    
+    CustomerRepository customers();
+    
+    TransactionRepository transactions();
+    
+    UserRepository users();
+    
+    StandingOrderRepository standingOrders();
+    
+    /**
+     * Runs work as one atomic unit: every repository write inside it commits together
+     * or not at all, and row locks taken with
+     * {@link AccountRepository#getAccountByIdForUpdate(int)} are held until it ends.
+     * Nested calls join the outer unit of work.
+     * 
+     * @param work Unit of work
+     * @return Result of the work
+     * @throws SQLException if database operation fails (the unit of work is rolled back)
+     */
+    <T> T inTransaction(SqlCallable<T> work) throws SQLException;
+    
+    /**
+     * Runs read-only work that must see all tables in one consistent state, e.g. a
+     * reconciliation comparing balances with the ledger. By default a unit of work,
+     * whose reads on MySQL (REPEATABLE READ) all come from one snapshot.
+     * 
+     * @param work Read-only work
+     * @return Result of the work
+     * @throws SQLException if database operation fails
+     */
+    default <T> T inSnapshot(SqlCallable<T> work) throws SQLException {
+        return inTransaction(work);
+    }
+}
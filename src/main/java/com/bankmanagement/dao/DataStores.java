@@ -0,0 +1,139 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.dao.memory.InMemoryDataStore;
+import com.bankmanagement.dao.offline.OfflineDataStore;
+import com.bankmanagement.dao.offline.StoreAndForwardSync;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.DatabaseConnection;
+import com.bankmanagement.util.DedicatedConnectionProvider;
+import com.bankmanagement.util.EmbeddedDatabase;
+import com.bankmanagement.util.ReplicaRouter;
+
+import java.sql.SQLException;
+
+/**
+ * Creates the application-wide {@link DataStore}.
+ * The backend is chosen with the {@code bank.datastore} setting:
+ * {@code mysql} (default), {@code memory} or {@code offline}.
+ */
+public final class DataStores {
+    private static volatile DataStore defaultStore;
+    
+    private DataStores() {
+    }
+    
+    /**
+     * Returns the configured data store, creating it on first use.
+     * 
+     * @return DataStore instance
+     */
+    public static DataStore getDefault() {
+        if (defaultStore == null) {
+            synchronized (DataStores.class) {
+                if (defaultStore == null) {
+                    defaultStore = create(AppConfig.getString("bank.datastore", "mysql"));
+                }
+            }
+        }
+        return defaultStore;
+    }
+    
+    /**
+     * Replaces the application-wide data store (e.g. for demos or benchmarks).
+     * 
+     * @param dataStore Data store to use from now on
+     */
+    public static void setDefault(DataStore dataStore) {
+        synchronized (DataStores.class) {
+            defaultStore = dataStore;
+        }
+    }
+    
+    /**
+     * Returns a data store for a background job. On MySQL and in offline mode it gets a
+     * connection of its own, because units of work of different threads on the shared
+     * connection would commit each other's writes; the in-memory backend is thread-safe
+     * and is shared.
+     * 
+     * @return DataStore instance
+     */
+    public static DataStore openBackgroundStore() {
+        DataStore store = getDefault();
+        if (store instanceof JdbcDataStore && usesSharedConnection((JdbcDataStore) store)) {
+            return new JdbcDataStore(new DedicatedConnectionProvider(DatabaseConnection.getInstance()::openConnection));
+        }
+        if (store instanceof OfflineDataStore
+                && ((OfflineDataStore) store).getLocalProvider() == EmbeddedDatabase.getInstance()) {
+            return ((OfflineDataStore) store).onConnection(
+                    new DedicatedConnectionProvider(EmbeddedDatabase.getInstance()::openConnection));
+        }
+        return store;
+    }
+    
+    /**
+     * Tells whether a JDBC store runs on the shared primary connection, directly or
+     * behind a replica router.
+     */
+    private static boolean usesSharedConnection(JdbcDataStore store) {
+        ConnectionProvider provider = store.getConnectionProvider();
+        if (provider instanceof ReplicaRouter) {
+            provider = ((ReplicaRouter) provider).getPrimary();
+        }
+        return provider == DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Releases a data store obtained from {@link #openBackgroundStore()}, closing its
+     * connection if it has one of its own.
+     * 
+     * @param store Data store to release
+     */
+    public static void closeBackgroundStore(DataStore store) {
+        ConnectionProvider provider = null;
+        if (store instanceof JdbcDataStore) {
+            provider = ((JdbcDataStore) store).getConnectionProvider();
+        } else if (store instanceof OfflineDataStore) {
+            provider = ((OfflineDataStore) store).getLocalProvider();
+        }
+        if (provider instanceof DedicatedConnectionProvider) {
+            ((DedicatedConnectionProvider) provider).close();
+        }
+    }
+    
+    /**
+     * Creates a data store by backend name.
+     * 
+     * @param backend Backend name ({@code mysql}, {@code memory} or {@code offline})
+     * @return New DataStore instance
+     */
+    public static DataStore create(String backend) {
+        switch (backend.toLowerCase()) {
+            case "mysql":
+                return new JdbcDataStore(ReplicaRouter.createDefault(DatabaseConnection.getInstance()));
+            case "memory":
+                return new InMemoryDataStore();
+            case "offline":
+                return createOfflineStore();
+            default:
+                throw new IllegalArgumentException("Unknown data store: " + backend);
+        }
+    }
+    
+    /**
+     * Creates the offline branch store on the embedded database and starts replaying
+     * its change log to the central database in the background.
+     */
+    private static DataStore createOfflineStore() {
+        try {
+            EmbeddedDatabase local = EmbeddedDatabase.getInstance();
+            OfflineDataStore store = new OfflineDataStore(local);
+            OfflineDataStore syncStore = store.onConnection(new DedicatedConnectionProvider(local::openConnection));
+            new StoreAndForwardSync(syncStore, DatabaseConnection.getInstance())
+                    .start(AppConfig.getLong("bank.offline.syncIntervalMillis", 30_000));
+            return store;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to open offline branch database: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * JDBC (MySQL) storage backend built on the DAO classes.
+ */
+public class JdbcDataStore implements DataStore {
+    private final ConnectionProvider connectionProvider;
+    private final AccountDAO accountDAO;
+    private final CustomerDAO customerDAO;
+    private final TransactionDAO transactionDAO;
+    private final UserDAO userDAO;
+    private final StandingOrderDAO standingOrderDAO;
+    
+    public JdbcDataStore(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+        this.accountDAO = new AccountDAO(connectionProvider);
+        this.customerDAO = new CustomerDAO(connectionProvider);
+        this.transactionDAO = new TransactionDAO(connectionProvider);
+        this.userDAO = new UserDAO(connectionProvider);
+        this.standingOrderDAO = new StandingOrderDAO(connectionProvider);
+    }
+    
+    @Override
+    public AccountRepository accounts() {
+        return accountDAO;
+    }
+    
+    @Override
+    public CustomerRepository customers() {
+        return customerDAO;
+    }
+    
+    @Override
+    public TransactionRepository transactions() {
+        return transactionDAO;
+    }
+    
+    @Override
+    public UserRepository users() {
+        return userDAO;
+    }
+    
+    @Override
+    public StandingOrderRepository standingOrders() {
+        return standingOrderDAO;
+    }
+    
+    @Override
+    public <T> T inTransaction(SqlCallable<T> work) throws SQLException {
+        if (JdbcUnitOfWork.isActive()) {
+            return work.call();
+        }
+        Connection connection = connectionProvider.getConnection();
+        JdbcUnitOfWork.begin();
+        try {
+            T result = work.call();
+            connection.commit();
+            JdbcUnitOfWork.committed();
+            return result;
+        } catch (Throwable t) {
+            connection.rollback();
+            throw t;
+        } finally {
+            JdbcUnitOfWork.end();
+        }
+    }
+    
+    /**
+     * Returns the connection provider backing this store.
+     * 
+     * @return Connection provider
+     */
+    public ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+}
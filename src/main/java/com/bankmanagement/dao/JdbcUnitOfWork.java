@@ -0,0 +1,81 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.SingleFlight;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether the current thread is inside a JDBC unit of work.
+ * DAO methods commit and roll back through this class so that they commit
+ * individually when called on their own, but defer to {@link JdbcDataStore}
+ * when called inside {@link DataStore#inTransaction}.
+ */
+final class JdbcUnitOfWork {
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    /** Time of the latest commit on any thread; a user's next read may run on another thread. */
+    private static final AtomicLong LAST_COMMIT = new AtomicLong(SingleFlight.ANY_START);
+    
+    private JdbcUnitOfWork() {
+    }
+    
+    static boolean isActive() {
+        return DEPTH.get()[0] > 0;
+    }
+    
+    static void begin() {
+        DEPTH.get()[0]++;
+    }
+    
+    static void end() {
+        DEPTH.get()[0]--;
+    }
+    
+    /**
+     * Returns the connection for a read-only DAO method: a replica connection may be
+     * used on its own, but inside a unit of work the read must see the unit's writes.
+     */
+    static Connection readConnection(ConnectionProvider connectionProvider) throws SQLException {
+        return isActive() ? connectionProvider.getConnection() : connectionProvider.getReadConnection();
+    }
+    
+    /**
+     * Records that a commit completed, for {@link #coalesced}.
+     */
+    static void committed() {
+        LAST_COMMIT.accumulateAndGet(System.nanoTime(), Math::max);
+    }
+    
+    /**
+     * Runs a read-only query so that concurrent identical reads share one execution.
+     * Inside a unit of work the query runs on its own: it must see the unit's writes.
+     * Outside, only a query started after the latest commit of any thread is shared, so
+     * a read sees every write committed before it began, whichever thread (e.g. server
+     * request thread) committed it.
+     */
+    static <V> V coalesced(SingleFlight<V> flights, int key, SqlCallable<V> query) throws SQLException {
+        return isActive() ? query.call() : flights.load(key, LAST_COMMIT.get(), query);
+    }
+    
+    /**
+     * Commits unless an outer unit of work will commit instead.
+     */
+    static void commit(Connection connection) throws SQLException {
+        if (!isActive()) {
+            connection.commit();
+            committed();
+        }
+    }
+    
+    /**
+     * Rolls back unless an outer unit of work will roll back instead.
+     */
+    static void rollback(Connection connection) throws SQLException {
+        if (!isActive()) {
+            connection.rollback();
+        }
+    }
+}
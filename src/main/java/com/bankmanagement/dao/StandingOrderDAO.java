@@ -0,0 +1,282 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data Access Object for StandingOrder operations.
+ */
+public class StandingOrderDAO implements StandingOrderRepository {
+    private final ConnectionProvider connectionProvider;
+    
+    public StandingOrderDAO() {
+        this(DatabaseConnection.getInstance());
+    }
+    
+    public StandingOrderDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+    
+    /**
+     * Creates a new standing order in the database.
+     * 
+     * @param order Standing order to create
+     * @return Generated order ID
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int createStandingOrder(StandingOrder order) throws SQLException {
+        String sql = "INSERT INTO standing_orders (from_account_id, to_account_id, amount, frequency, " +
+                     "first_run_at, next_run_at, due_at, end_date, description, status) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, order.getFromAccountId());
+            pstmt.setInt(2, order.getToAccountId());
+            pstmt.setBigDecimal(3, order.getAmount());
+            pstmt.setString(4, order.getFrequency());
+            pstmt.setTimestamp(5, Timestamp.valueOf(order.getFirstRunAt()));
+            pstmt.setTimestamp(6, Timestamp.valueOf(order.getNextRunAt()));
+            pstmt.setTimestamp(7, Timestamp.valueOf(order.getDueAt()));
+            if (order.getEndDate() != null) {
+                pstmt.setDate(8, Date.valueOf(order.getEndDate()));
+            } else {
+                pstmt.setNull(8, Types.DATE);
+            }
+            pstmt.setString(9, order.getDescription());
+            pstmt.setString(10, order.getStatus());
+            
+            int affectedRows = pstmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new SQLException("Creating standing order failed, no rows affected.");
+            }
+            
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int orderId = generatedKeys.getInt(1);
+                    JdbcUnitOfWork.commit(connection);
+                    return orderId;
+                } else {
+                    throw new SQLException("Creating standing order failed, no ID obtained.");
+                }
+            }
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Retrieves a standing order by ID.
+     * 
+     * @param orderId Order ID
+     * @return Standing order or null if not found
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public StandingOrder getStandingOrderById(int orderId) throws SQLException {
+        String sql = "SELECT * FROM standing_orders WHERE order_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, orderId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToStandingOrder(rs);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Retrieves the standing orders debiting an account.
+     * 
+     * @param accountId Debited account ID
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<StandingOrder> getStandingOrdersByAccountId(int accountId) throws SQLException {
+        String sql = "SELECT * FROM standing_orders WHERE from_account_id = ? ORDER BY order_id";
+        Connection connection = connectionProvider.getConnection();
+        List<StandingOrder> orders = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, accountId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToStandingOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+    
+    /**
+     * Retrieves one keyset page of active standing orders due before a point in time.
+     * Served by the (status, due_at, order_id) index without scanning the table.
+     * 
+     * @param dueBefore Exclusive upper bound of the due time
+     * @param afterDueAt Due time of the last order already read, or null for the first page
+     * @param afterOrderId ID of the last order already read
+     * @param limit Maximum number of orders
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<StandingOrder> getDueStandingOrders(LocalDateTime dueBefore, LocalDateTime afterDueAt,
+                                                    int afterOrderId, int limit) throws SQLException {
+        String sql = afterDueAt == null
+                ? "SELECT * FROM standing_orders WHERE status = 'ACTIVE' AND due_at < ? " +
+                  "ORDER BY due_at, order_id LIMIT ?"
+                : "SELECT * FROM standing_orders WHERE status = 'ACTIVE' AND due_at < ? " +
+                  "AND (due_at > ? OR (due_at = ? AND order_id > ?)) ORDER BY due_at, order_id LIMIT ?";
+        Connection connection = connectionProvider.getConnection();
+        List<StandingOrder> orders = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            pstmt.setTimestamp(index++, Timestamp.valueOf(dueBefore));
+            if (afterDueAt != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(afterDueAt));
+                pstmt.setTimestamp(index++, Timestamp.valueOf(afterDueAt));
+                pstmt.setInt(index++, afterOrderId);
+            }
+            pstmt.setInt(index, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToStandingOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+    
+    /**
+     * Retrieves and locks several standing orders with a single SELECT ... FOR UPDATE.
+     * 
+     * @param orderIds Order IDs
+     * @return Locked standing orders in ascending ID order
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public List<StandingOrder> getStandingOrdersByIdsForUpdate(int[] orderIds) throws SQLException {
+        int[] ids = Arrays.stream(orderIds).distinct().sorted().toArray();
+        List<StandingOrder> orders = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return orders;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        String sql = "SELECT * FROM standing_orders WHERE order_id IN (" + placeholders + ") " +
+                     "ORDER BY order_id FOR UPDATE";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 1, ids[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToStandingOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+    
+    /**
+     * Stores the schedule and status of several standing orders in one JDBC batch.
+     * 
+     * @param orders Standing orders to update
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void updateSchedules(List<StandingOrder> orders) throws SQLException {
+        String sql = "UPDATE standing_orders SET next_run_at = ?, due_at = ?, status = ?, " +
+                     "attempts = ?, last_error = ? WHERE order_id = ?";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (StandingOrder order : orders) {
+                pstmt.setTimestamp(1, Timestamp.valueOf(order.getNextRunAt()));
+                pstmt.setTimestamp(2, Timestamp.valueOf(order.getDueAt()));
+                pstmt.setString(3, order.getStatus());
+                pstmt.setInt(4, order.getAttempts());
+                pstmt.setString(5, order.getLastError());
+                pstmt.setInt(6, order.getOrderId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            JdbcUnitOfWork.commit(connection);
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Cancels an active standing order.
+     * 
+     * @param orderId Order ID
+     * @return true if the order was active and is now cancelled
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        String sql = "UPDATE standing_orders SET status = 'CANCELLED' WHERE order_id = ? AND status = 'ACTIVE'";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, orderId);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Maps a ResultSet row to a StandingOrder object.
+     */
+    private StandingOrder mapResultSetToStandingOrder(ResultSet rs) throws SQLException {
+        StandingOrder order = new StandingOrder();
+        order.setOrderId(rs.getInt("order_id"));
+        order.setFromAccountId(rs.getInt("from_account_id"));
+        order.setToAccountId(rs.getInt("to_account_id"));
+        order.setAmount(rs.getBigDecimal("amount"));
+        order.setFrequency(rs.getString("frequency"));
+        order.setFirstRunAt(rs.getTimestamp("first_run_at").toLocalDateTime());
+        order.setNextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime());
+        order.setDueAt(rs.getTimestamp("due_at").toLocalDateTime());
+        Date endDate = rs.getDate("end_date");
+        if (endDate != null) {
+            order.setEndDate(endDate.toLocalDate());
+        }
+        order.setDescription(rs.getString("description"));
+        order.setStatus(rs.getString("status"));
+        order.setAttempts(rs.getInt("attempts"));
+        order.setLastError(rs.getString("last_error"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            order.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.StandingOrder;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Storage contract for standing orders.
+ * Each write commits on its own unless it runs inside {@link DataStore#inTransaction}.
+ */
+public interface StandingOrderRepository {
+    
+    /**
+     * Creates a new standing order.
+     * 
+     * @param order Standing order to create
+     * @return Generated order ID
+     * @throws SQLException if database operation fails
+     */
+    int createStandingOrder(StandingOrder order) throws SQLException;
+    
+    /**
+     * Retrieves a standing order by ID.
+     * 
+     * @param orderId Order ID
+     * @return Standing order or null if not found
+     * @throws SQLException if database operation fails
+     */
+    StandingOrder getStandingOrderById(int orderId) throws SQLException;
+    
+    /**
+     * Retrieves the standing orders debiting an account, ordered by ID.
+     * 
+     * @param accountId Debited account ID
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    List<StandingOrder> getStandingOrdersByAccountId(int accountId) throws SQLException;
+    
+    /**
+     * Retrieves one page of active standing orders due before a point in time, ordered
+     * by due time and ID. Pages are chained by passing the due time and ID of the last
+     * order of the previous page (keyset paging).
+     * 
+     * @param dueBefore Exclusive upper bound of the due time
+     * @param afterDueAt Due time of the last order already read, or null for the first page
+     * @param afterOrderId ID of the last order already read
+     * @param limit Maximum number of orders
+     * @return List of standing orders
+     * @throws SQLException if database operation fails
+     */
+    List<StandingOrder> getDueStandingOrders(LocalDateTime dueBefore, LocalDateTime afterDueAt,
+                                             int afterOrderId, int limit) throws SQLException;
+    
+    /**
+     * Retrieves several standing orders and locks them until the surrounding unit of
+     * work ends. IDs that do not exist are skipped.
+     * 
+     * @param orderIds Order IDs
+     * @return Locked standing orders in ascending ID order
+     * @throws SQLException if database operation fails
+     */
+    List<StandingOrder> getStandingOrdersByIdsForUpdate(int[] orderIds) throws SQLException;
+    
+    /**
+     * Stores the schedule and status of several standing orders in one batch.
+     * 
+     * @param orders Standing orders with updated schedule, status, attempts and error
+     * @throws SQLException if database operation fails
+     */
+    void updateSchedules(List<StandingOrder> orders) throws SQLException;
+    
+    /**
+     * Cancels an active standing order.
+     * 
+     * @param orderId Order ID
+     * @return true if the order was active and is now cancelled
+     * @throws SQLException if database operation fails
+     */
+    boolean cancelStandingOrder(int orderId) throws SQLException;
+}
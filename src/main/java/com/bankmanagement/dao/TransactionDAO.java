@@ -1,7 +1,11 @@
 package com.bankmanagement.dao;
 
+import com.bankmanagement.model.StatementPage;
 import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.ConnectionProvider;
 import com.bankmanagement.util.DatabaseConnection;
+import com.bankmanagement.util.ResultStreaming;
+import com.bankmanagement.util.SingleFlight;
 
 import java.math.BigDecimal;
 import java.sql.*;
@@ -12,11 +16,17 @@ import java.util.List;
 /**
  * Data Access Object for Transaction operations.
  */
-public class TransactionDAO {
-    private Connection connection;
+public class TransactionDAO implements TransactionRepository {
+    private final ConnectionProvider connectionProvider;
+    private final SingleFlight<List<Transaction>> transactionsByAccount =
+            new SingleFlight<>("transactions.byAccount", TransactionDAO::copyOf);
     
     public TransactionDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this(DatabaseConnection.getInstance());
+    }
+    
+    public TransactionDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
     }
     
     /**
@@ -26,10 +36,12 @@ public class TransactionDAO {
      * @return Generated transaction ID
      * @throws SQLException if database operation fails
      */
+    @Override
     public int createTransaction(Transaction transaction) throws SQLException {
         String sql = "INSERT INTO transactions (account_id, transaction_type, amount, " +
-                     "balance_after, description, transaction_date, related_account_id) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+                     "balance_after, description, transaction_date, related_account_id, debit) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setInt(1, transaction.getAccountId());
@@ -43,6 +55,7 @@ public class TransactionDAO {
             } else {
                 pstmt.setNull(7, Types.INTEGER);
             }
+            pstmt.setBoolean(8, transaction.isDebit());
             
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -52,27 +65,71 @@ public class TransactionDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     int transactionId = generatedKeys.getInt(1);
-                    connection.commit();
+                    JdbcUnitOfWork.commit(connection);
                     return transactionId;
                 } else {
                     throw new SQLException("Creating transaction failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
+    /**
+     * Creates several transactions in one JDBC batch.
+     * 
+     * @param transactions Transactions to create
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void createTransactions(List<Transaction> transactions) throws SQLException {
+        String sql = "INSERT INTO transactions (account_id, transaction_type, amount, " +
+                     "balance_after, description, transaction_date, related_account_id, debit) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Transaction transaction : transactions) {
+                pstmt.setInt(1, transaction.getAccountId());
+                pstmt.setString(2, transaction.getTransactionType());
+                pstmt.setBigDecimal(3, transaction.getAmount());
+                pstmt.setBigDecimal(4, transaction.getBalanceAfter());
+                pstmt.setString(5, transaction.getDescription());
+                pstmt.setTimestamp(6, Timestamp.valueOf(transaction.getTransactionDate()));
+                if (transaction.getRelatedAccountId() != null) {
+                    pstmt.setInt(7, transaction.getRelatedAccountId());
+                } else {
+                    pstmt.setNull(7, Types.INTEGER);
+                }
+                pstmt.setBoolean(8, transaction.isDebit());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            JdbcUnitOfWork.commit(connection);
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
     
     /**
-     * Retrieves all transactions for an account.
+     * Retrieves all transactions for an account. Concurrent reads of the same account's
+     * transactions outside a unit of work share one query.
      * 
      * @param accountId Account ID
      * @return List of transactions
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Transaction> getTransactionsByAccountId(int accountId) throws SQLException {
+        return JdbcUnitOfWork.coalesced(transactionsByAccount, accountId, () -> queryTransactionsByAccountId(accountId));
+    }
+    
+    private List<Transaction> queryTransactionsByAccountId(int accountId) throws SQLException {
         String sql = "SELECT * FROM transactions WHERE account_id = ? ORDER BY transaction_date DESC";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
         List<Transaction> transactions = new ArrayList<>();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -96,10 +153,12 @@ public class TransactionDAO {
      * @return List of transactions
      * @throws SQLException if database operation fails
      */
+    @Override
     public List<Transaction> getTransactionsByDateRange(int accountId, LocalDateTime startDate, 
                                                          LocalDateTime endDate) throws SQLException {
         String sql = "SELECT * FROM transactions WHERE account_id = ? " +
                      "AND transaction_date BETWEEN ? AND ? ORDER BY transaction_date DESC";
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
         List<Transaction> transactions = new ArrayList<>();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
@@ -116,6 +175,190 @@ public class TransactionDAO {
         return transactions;
     }
     
+    /**
+     * Retrieves one page of an account statement, newest first. The date bounds and the
+     * continuation point are conditions on {@code idx_account_date}, so MySQL reads only
+     * the rows of the page (plus one to find out whether more follow).
+     * 
+     * @param accountId Account ID
+     * @param from Earliest transaction date (inclusive), or null for no limit
+     * @param until Latest transaction date (exclusive), or null for no limit
+     * @param after Last transaction of the previous page, or null for the first page
+     * @param pageSize Maximum number of transactions
+     * @return Page with its totals per transaction type
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after, int pageSize) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM transactions WHERE account_id = ?");
+        if (from != null) {
+            sql.append(" AND transaction_date >= ?");
+        }
+        if (until != null) {
+            sql.append(" AND transaction_date < ?");
+        }
+        if (after != null) {
+            sql.append(" AND (transaction_date, transaction_id) < (?, ?)");
+        }
+        sql.append(" ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?");
+        Connection connection = JdbcUnitOfWork.readConnection(connectionProvider);
+        List<Transaction> transactions = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setInt(index++, accountId);
+            if (from != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(from));
+            }
+            if (until != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(until));
+            }
+            if (after != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(after.getTransactionDate()));
+                pstmt.setInt(index++, after.getTransactionId());
+            }
+            pstmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (transactions.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+        return new StatementPage(transactions, hasMore);
+    }
+    
+    /**
+     * Streams withdrawals and outgoing transfer legs posted since a point in time.
+     * 
+     * @param since Earliest transaction date
+     * @param consumer Receives each debit
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void forEachDebitSince(LocalDateTime since, DebitConsumer consumer) throws SQLException {
+        String sql = "SELECT account_id, amount, transaction_date FROM transactions " +
+                     "WHERE transaction_date >= ? AND debit = TRUE ORDER BY transaction_date";
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                   ResultSet.CONCUR_READ_ONLY)) {
+            ResultStreaming.enable(pstmt);
+            pstmt.setTimestamp(1, Timestamp.valueOf(since));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt("account_id"), rs.getBigDecimal("amount"),
+                                    rs.getTimestamp("transaction_date").toLocalDateTime());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Streams all transactions of the accounts in an ID range.
+     * 
+     * @param fromAccountId First account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each transaction
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void forEachPostingInRange(int fromAccountId, int toAccountId, PostingConsumer consumer) throws SQLException {
+        streamPostings("SELECT account_id, transaction_type, amount * 100 AS amount_cents, debit, " +
+                       "related_account_id, description FROM transactions " +
+                       "WHERE account_id >= ? AND account_id < ?", fromAccountId, toAccountId, consumer);
+    }
+    
+    /**
+     * Streams the credited transfer legs whose related account lies in an ID range.
+     * 
+     * @param fromAccountId First related account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each transfer leg
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void forEachTransferRelatedToRange(int fromAccountId, int toAccountId,
+                                              PostingConsumer consumer) throws SQLException {
+        streamPostings("SELECT account_id, transaction_type, amount * 100 AS amount_cents, debit, " +
+                       "related_account_id, description FROM transactions " +
+                       "WHERE related_account_id >= ? AND related_account_id < ? " +
+                       "AND transaction_type = 'TRANSFER' AND debit = FALSE", fromAccountId, toAccountId, consumer);
+    }
+    
+    /**
+     * Runs a range query with a streaming cursor and passes each row to the consumer.
+     */
+    private void streamPostings(String sql, int fromAccountId, int toAccountId,
+                                PostingConsumer consumer) throws SQLException {
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                   ResultSet.CONCUR_READ_ONLY)) {
+            ResultStreaming.enable(pstmt);
+            pstmt.setInt(1, fromAccountId);
+            pstmt.setInt(2, toAccountId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getString(2), rs.getLong(3), rs.getBoolean(4),
+                                    rs.getInt(5), rs.getString(6));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Deletes some of the transactions of an account.
+     * 
+     * @param accountId Account ID
+     * @param limit Maximum number of transactions to delete
+     * @return Number of transactions deleted
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int deleteTransactionsByAccountId(int accountId, int limit) throws SQLException {
+        String sql = "DELETE FROM transactions WHERE account_id = ? LIMIT ?";
+        return executeLimitedUpdate(sql, accountId, limit);
+    }
+    
+    /**
+     * Clears the related account of some transfer legs that name an account.
+     * 
+     * @param accountId Related account ID
+     * @param limit Maximum number of transactions to update
+     * @return Number of transactions updated
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int detachTransfersRelatedTo(int accountId, int limit) throws SQLException {
+        String sql = "UPDATE transactions SET related_account_id = NULL WHERE related_account_id = ? LIMIT ?";
+        return executeLimitedUpdate(sql, accountId, limit);
+    }
+    
+    private int executeLimitedUpdate(String sql, int accountId, int limit) throws SQLException {
+        Connection connection = connectionProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, accountId);
+            pstmt.setInt(2, limit);
+            
+            int affectedRows = pstmt.executeUpdate();
+            JdbcUnitOfWork.commit(connection);
+            return affectedRows;
+        } catch (SQLException e) {
+            JdbcUnitOfWork.rollback(connection);
+            throw e;
+        }
+    }
+    
     /**
      * Retrieves a transaction by ID.
      * 
@@ -123,8 +366,10 @@ public class TransactionDAO {
      * @return Transaction object or null if not found
      * @throws SQLException if database operation fails
      */
+    @Override
     public Transaction getTransactionById(int transactionId) throws SQLException {
         String sql = "SELECT * FROM transactions WHERE transaction_id = ?";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, transactionId);
@@ -138,10 +383,21 @@ public class TransactionDAO {
         return null;
     }
     
+    /**
+     * Copies a shared result for another caller of a coalesced read.
+     */
+    private static List<Transaction> copyOf(List<Transaction> transactions) {
+        List<Transaction> copy = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            copy.add(new Transaction(transaction));
+        }
+        return copy;
+    }
+    
     /**
      * Maps a ResultSet row to a Transaction object.
      */
-    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
+    static Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(rs.getInt("transaction_id"));
         transaction.setAccountId(rs.getInt("account_id"));
@@ -157,6 +413,7 @@ public class TransactionDAO {
         if (!rs.wasNull()) {
             transaction.setRelatedAccountId(relatedAccountId);
         }
+        transaction.setDebit(rs.getBoolean("debit"));
         return transaction;
     }
 }
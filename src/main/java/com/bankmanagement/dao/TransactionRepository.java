@@ -0,0 +1,153 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Storage contract for ledger transactions.
+ * Each write commits on its own unless it runs inside {@link DataStore#inTransaction}.
+ */
+public interface TransactionRepository {
+    
+    /**
+     * Creates a new transaction.
+     * 
+     * @param transaction Transaction object to create
+     * @return Generated transaction ID
+     * @throws SQLException if database operation fails
+     */
+    int createTransaction(Transaction transaction) throws SQLException;
+    
+    /**
+     * Creates several transactions in one batch. Generated IDs are not returned.
+     * 
+     * @param transactions Transactions to create
+     * @throws SQLException if database operation fails
+     */
+    void createTransactions(List<Transaction> transactions) throws SQLException;
+    
+    /**
+     * Retrieves all transactions for an account, newest first.
+     * 
+     * @param accountId Account ID
+     * @return List of transactions
+     * @throws SQLException if database operation fails
+     */
+    List<Transaction> getTransactionsByAccountId(int accountId) throws SQLException;
+    
+    /**
+     * Retrieves transactions for an account within a date range, newest first.
+     * 
+     * @param accountId Account ID
+     * @param startDate Start date
+     * @param endDate End date
+     * @return List of transactions
+     * @throws SQLException if database operation fails
+     */
+    List<Transaction> getTransactionsByDateRange(int accountId, LocalDateTime startDate,
+                                                 LocalDateTime endDate) throws SQLException;
+    
+    /**
+     * Retrieves one page of an account statement, newest first. Pages continue after
+     * the last transaction of the previous page, so each page costs the same however
+     * far the user has scrolled.
+     * 
+     * @param accountId Account ID
+     * @param from Earliest transaction date (inclusive), or null for no limit
+     * @param until Latest transaction date (exclusive), or null for no limit
+     * @param after Last transaction of the previous page, or null for the first page
+     * @param pageSize Maximum number of transactions
+     * @return Page with its totals per transaction type
+     * @throws SQLException if database operation fails
+     */
+    StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                   Transaction after, int pageSize) throws SQLException;
+    
+    /**
+     * Retrieves a transaction by ID.
+     * 
+     * @param transactionId Transaction ID
+     * @return Transaction object or null if not found
+     * @throws SQLException if database operation fails
+     */
+    Transaction getTransactionById(int transactionId) throws SQLException;
+    
+    /**
+     * Streams the debits posted since a point in time, oldest first, without loading
+     * them into a list. Debits are the rows flagged with {@link Transaction#isDebit()}:
+     * withdrawals and the outgoing legs of transfers and payroll.
+     * 
+     * @param since Earliest transaction date
+     * @param consumer Receives each debit
+     * @throws SQLException if database operation fails
+     */
+    void forEachDebitSince(LocalDateTime since, DebitConsumer consumer) throws SQLException;
+    
+    /**
+     * Streams all transactions of the accounts in an ID range, in no particular order,
+     * without loading them into a list.
+     * 
+     * @param fromAccountId First account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each transaction
+     * @throws SQLException if database operation fails
+     */
+    void forEachPostingInRange(int fromAccountId, int toAccountId, PostingConsumer consumer) throws SQLException;
+    
+    /**
+     * Streams the credited transfer legs whose related account lies in an ID range, i.e.
+     * the counterparts of the transfers debited from those accounts.
+     * 
+     * @param fromAccountId First related account ID of the range (inclusive)
+     * @param toAccountId End of the range (exclusive)
+     * @param consumer Receives each transfer leg
+     * @throws SQLException if database operation fails
+     */
+    void forEachTransferRelatedToRange(int fromAccountId, int toAccountId,
+                                       PostingConsumer consumer) throws SQLException;
+    
+    /**
+     * Deletes some of the transactions of an account, so that a long history can be
+     * removed in short transactions instead of one long-locking statement.
+     * 
+     * @param accountId Account ID
+     * @param limit Maximum number of transactions to delete
+     * @return Number of transactions deleted (less than the limit when none are left)
+     * @throws SQLException if database operation fails
+     */
+    int deleteTransactionsByAccountId(int accountId, int limit) throws SQLException;
+    
+    /**
+     * Clears the related account of some transfer legs of other accounts that name an
+     * account, as its deletion would (ON DELETE SET NULL), in bounded steps.
+     * 
+     * @param accountId Related account ID
+     * @param limit Maximum number of transactions to update
+     * @return Number of transactions updated (less than the limit when none are left)
+     * @throws SQLException if database operation fails
+     */
+    int detachTransfersRelatedTo(int accountId, int limit) throws SQLException;
+    
+    /**
+     * Receives debits from {@link #forEachDebitSince}.
+     */
+    @FunctionalInterface
+    interface DebitConsumer {
+        void accept(int accountId, BigDecimal amount, LocalDateTime transactionDate);
+    }
+    
+    /**
+     * Receives transactions from {@link #forEachPostingInRange} and
+     * {@link #forEachTransferRelatedToRange}. The related account ID is 0 if there is none.
+     */
+    @FunctionalInterface
+    interface PostingConsumer {
+        void accept(int accountId, String transactionType, long amountCents, boolean debit,
+                    int relatedAccountId, String description);
+    }
+}
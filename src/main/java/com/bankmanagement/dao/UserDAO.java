@@ -1,6 +1,7 @@
 package com.bankmanagement.dao;
 
 import com.bankmanagement.model.User;
+import com.bankmanagement.util.ConnectionProvider;
 import com.bankmanagement.util.DatabaseConnection;
 
 import java.sql.*;
@@ -8,11 +9,15 @@ import java.sql.*;
 /**
  * Data Access Object for User operations (authentication).
  */
-public class UserDAO {
-    private Connection connection;
+public class UserDAO implements UserRepository {
+    private final ConnectionProvider connectionProvider;
     
     public UserDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this(DatabaseConnection.getInstance());
+    }
+    
+    public UserDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
     }
     
     /**
@@ -23,8 +28,10 @@ public class UserDAO {
      * @return User object if authentication successful, null otherwise
      * @throws SQLException if database operation fails
      */
+    @Override
     public User authenticate(String username, String password) throws SQLException {
         String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, username);
@@ -46,8 +53,10 @@ public class UserDAO {
      * @return Generated user ID
      * @throws SQLException if database operation fails
      */
+    @Override
     public int createUser(User user) throws SQLException {
         String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+        Connection connection = connectionProvider.getConnection();
         
         try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, user.getUsername());
@@ -62,14 +71,14 @@ public class UserDAO {
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     int userId = generatedKeys.getInt(1);
-                    connection.commit();
+                    JdbcUnitOfWork.commit(connection);
                     return userId;
                 } else {
                     throw new SQLException("Creating user failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            connection.rollback();
+            JdbcUnitOfWork.rollback(connection);
             throw e;
         }
     }
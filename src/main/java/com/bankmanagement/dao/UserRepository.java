@@ -0,0 +1,30 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.User;
+
+import java.sql.SQLException;
+
+/**
+ * Storage contract for system users.
+ */
+public interface UserRepository {
+    
+    /**
+     * Authenticates a user by username and password.
+     * 
+     * @param username Username
+     * @param password Password
+     * @return User object if authentication successful, null otherwise
+     * @throws SQLException if database operation fails
+     */
+    User authenticate(String username, String password) throws SQLException;
+    
+    /**
+     * Creates a new user.
+     * 
+     * @param user User object to create
+     * @return Generated user ID
+     * @throws SQLException if database operation fails
+     */
+    int createUser(User user) throws SQLException;
+}
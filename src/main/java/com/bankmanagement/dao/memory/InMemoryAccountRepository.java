@@ -0,0 +1,238 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.AccountRepository;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.IntLongMap;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory account repository.
+ */
+public class InMemoryAccountRepository implements AccountRepository {
+    private static final AtomicLong LAST_ACCOUNT_NUMBER = new AtomicLong();
+    
+    private final InMemoryDataStore store;
+    private final InMemoryTable<Account> accounts;
+    private final InMemoryTable<Transaction> transactions;
+    private final InMemoryTable<StandingOrder> standingOrders;
+    
+    InMemoryAccountRepository(InMemoryDataStore store, InMemoryTable<Account> accounts,
+                              InMemoryTable<Transaction> transactions,
+                              InMemoryTable<StandingOrder> standingOrders) {
+        this.store = store;
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.standingOrders = standingOrders;
+    }
+    
+    @Override
+    public int createAccount(Account account) throws SQLException {
+        int accountId = accounts.nextId();
+        Account row = new Account(account);
+        row.setAccountId(accountId);
+        row.setAccountNumber(generateAccountNumber());
+        accounts.put(accountId, row);
+        account.setAccountNumber(row.getAccountNumber());
+        return accountId;
+    }
+    
+    /**
+     * Generates a unique account number in the same format as the MySQL backend.
+     */
+    private String generateAccountNumber() {
+        long candidate = System.currentTimeMillis();
+        long number = LAST_ACCOUNT_NUMBER.accumulateAndGet(candidate, (last, now) -> now > last ? now : last + 1);
+        return "ACC" + number;
+    }
+    
+    @Override
+    public Account getAccountById(int accountId) throws SQLException {
+        return accounts.get(accountId);
+    }
+    
+    @Override
+    public Account getAccountByIdForUpdate(int accountId) throws SQLException {
+        return store.withAccountLock(accountId, () -> accounts.get(accountId));
+    }
+    
+    @Override
+    public IntLongMap getBalances(int[] accountIds) throws SQLException {
+        IntLongMap balances = new IntLongMap(accountIds.length);
+        for (int accountId : accountIds) {
+            Account account = accounts.get(accountId);
+            if (account != null) {
+                balances.put(accountId, account.getBalanceCents());
+            }
+        }
+        return balances;
+    }
+    
+    @Override
+    public List<Account> getAccountsByIdsForUpdate(int[] accountIds) throws SQLException {
+        List<Account> result = new ArrayList<>(accountIds.length);
+        for (int accountId : Arrays.stream(accountIds).distinct().sorted().toArray()) {
+            Account account = getAccountByIdForUpdate(accountId);
+            if (account != null) {
+                result.add(account);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Account getAccountByNumber(String accountNumber) throws SQLException {
+        List<Account> matches = accounts.find(account -> accountNumber.equals(account.getAccountNumber()));
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+    
+    @Override
+    public List<Account> getAccountsByCustomerId(int customerId) throws SQLException {
+        return accounts.findByGroup(customerId);
+    }
+    
+    @Override
+    public boolean updateBalance(int accountId, BigDecimal newBalance) throws SQLException {
+        return store.withAccountLock(accountId, () -> {
+            Account account = accounts.get(accountId);
+            if (account == null) {
+                return false;
+            }
+            account.setBalance(newBalance);
+            account.setVersion(account.getVersion() + 1);
+            accounts.put(accountId, account);
+            return true;
+        });
+    }
+    
+    @Override
+    public boolean updateBalanceIfVersion(int accountId, BigDecimal newBalance, long expectedVersion) throws SQLException {
+        return store.withAccountLock(accountId, () -> {
+            Account account = accounts.get(accountId);
+            if (account == null || account.getVersion() != expectedVersion) {
+                return false;
+            }
+            account.setBalance(newBalance);
+            account.setVersion(expectedVersion + 1);
+            accounts.put(accountId, account);
+            return true;
+        });
+    }
+    
+    @Override
+    public void updateBalances(Map<Integer, BigDecimal> newBalances) throws SQLException {
+        for (Map.Entry<Integer, BigDecimal> entry : newBalances.entrySet()) {
+            updateBalance(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    @Override
+    public boolean deleteAccount(int accountId) throws SQLException {
+        return store.withAccountLock(accountId, () -> {
+            if (accounts.get(accountId) == null) {
+                return false;
+            }
+            // ON DELETE CASCADE for the account's own ledger rows
+            for (Transaction transaction : transactions.findByGroup(accountId)) {
+                transactions.delete(transaction.getTransactionId());
+            }
+            // ON DELETE SET NULL for transfer legs of other accounts
+            for (Transaction transaction : transactions.find(t -> t.getRelatedAccountId() != null
+                    && t.getRelatedAccountId() == accountId)) {
+                transaction.setRelatedAccountId(null);
+                transactions.put(transaction.getTransactionId(), transaction);
+            }
+            // ON DELETE CASCADE for standing orders from or to the account
+            for (StandingOrder order : standingOrders.find(o -> o.getFromAccountId() == accountId
+                    || o.getToAccountId() == accountId)) {
+                standingOrders.delete(order.getOrderId());
+            }
+            accounts.delete(accountId);
+            return true;
+        });
+    }
+    
+    /**
+     * Deletes the accounts at once: in memory nothing holds locks while they are removed.
+     */
+    @Override
+    public int markAccountsDeleted(int customerId) throws SQLException {
+        int count = 0;
+        for (Account account : getAccountsByCustomerId(customerId)) {
+            if (deleteAccount(account.getAccountId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    @Override
+    public int[] getDeletedAccountIds() throws SQLException {
+        return new int[0];
+    }
+    
+    /**
+     * Records the number of slots only: in memory the account lock is held for
+     * microseconds, so credits keep going to the balance itself.
+     */
+    @Override
+    public boolean setLedgerSlots(int accountId, int slots) throws SQLException {
+        return store.withAccountLock(accountId, () -> {
+            Account account = accounts.get(accountId);
+            if (account == null) {
+                return false;
+            }
+            account.setLedgerSlots(slots);
+            accounts.put(accountId, account);
+            return true;
+        });
+    }
+    
+    @Override
+    public IntLongMap getLedgerSlotCounts() throws SQLException {
+        return new IntLongMap();
+    }
+    
+    @Override
+    public boolean creditSlot(int accountId, int slot, long amountCents) throws SQLException {
+        return false;
+    }
+    
+    @Override
+    public long consolidateSlots(int accountId) throws SQLException {
+        return 0;
+    }
+    
+    @Override
+    public int[] getAccountIdBounds() throws SQLException {
+        int[] bounds = null;
+        for (Account account : accounts.findAll()) {
+            int accountId = account.getAccountId();
+            if (bounds == null) {
+                bounds = new int[]{accountId, accountId};
+            } else {
+                bounds[0] = Math.min(bounds[0], accountId);
+                bounds[1] = Math.max(bounds[1], accountId);
+            }
+        }
+        return bounds;
+    }
+    
+    @Override
+    public void forEachBalanceInRange(int fromAccountId, int toAccountId, BalanceConsumer consumer) throws SQLException {
+        for (int accountId = fromAccountId; accountId < toAccountId; accountId++) {
+            Account account = accounts.get(accountId);
+            if (account != null) {
+                consumer.accept(accountId, account.getBalanceCents());
+            }
+        }
+    }
+}
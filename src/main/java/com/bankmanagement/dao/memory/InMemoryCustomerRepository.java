@@ -0,0 +1,98 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.CustomerRepository;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.Transaction;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory customer repository.
+ */
+public class InMemoryCustomerRepository implements CustomerRepository {
+    private final InMemoryTable<Customer> customers;
+    private final InMemoryAccountRepository accountRepository;
+    private final InMemoryTransactionRepository transactionRepository;
+    
+    InMemoryCustomerRepository(InMemoryTable<Customer> customers, InMemoryAccountRepository accountRepository,
+                               InMemoryTransactionRepository transactionRepository) {
+        this.customers = customers;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+    }
+    
+    @Override
+    public int createCustomer(Customer customer) throws SQLException {
+        int customerId = customers.nextId();
+        Customer row = new Customer(customer);
+        row.setCustomerId(customerId);
+        customers.put(customerId, row);
+        return customerId;
+    }
+    
+    @Override
+    public Customer getCustomerById(int customerId) throws SQLException {
+        return customers.get(customerId);
+    }
+    
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId, int recentTransactions) throws SQLException {
+        Customer customer = customers.get(customerId);
+        if (customer == null) {
+            return null;
+        }
+        List<Account> accounts = accountRepository.getAccountsByCustomerId(customerId);
+        accounts.sort((a, b) -> Integer.compare(a.getAccountId(), b.getAccountId()));
+        Map<Integer, List<Transaction>> transactions = new HashMap<>();
+        for (Account account : accounts) {
+            transactions.put(account.getAccountId(), transactionRepository.getStatementPage(
+                    account.getAccountId(), null, null, null, recentTransactions).getTransactions());
+        }
+        return new CustomerOverview(customer, accounts, transactions);
+    }
+    
+    @Override
+    public boolean updateCustomer(Customer customer) throws SQLException {
+        if (customers.get(customer.getCustomerId()) == null) {
+            return false;
+        }
+        customers.put(customer.getCustomerId(), customer);
+        return true;
+    }
+    
+    @Override
+    public boolean deleteCustomer(int customerId) throws SQLException {
+        if (customers.get(customerId) == null) {
+            return false;
+        }
+        // ON DELETE CASCADE for the customer's accounts
+        for (Account account : accountRepository.getAccountsByCustomerId(customerId)) {
+            accountRepository.deleteAccount(account.getAccountId());
+        }
+        customers.delete(customerId);
+        return true;
+    }
+    
+    /**
+     * Deletes the customer at once: in memory nothing holds locks while the rows are removed.
+     */
+    @Override
+    public boolean markCustomerDeleted(int customerId) throws SQLException {
+        return deleteCustomer(customerId);
+    }
+    
+    @Override
+    public int[] getDeletedCustomerIds(int limit) throws SQLException {
+        return new int[0];
+    }
+    
+    @Override
+    public List<Customer> getAllCustomers() throws SQLException {
+        return customers.findAll();
+    }
+}
@@ -0,0 +1,227 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.AccountRepository;
+import com.bankmanagement.dao.CustomerRepository;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.dao.TransactionRepository;
+import com.bankmanagement.dao.UserRepository;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.ConcurrentIntObjectMap;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Pure in-memory storage backend with the same transactional semantics as the
+ * MySQL backend: writes outside a unit of work commit individually, writes inside
+ * {@link #inTransaction} commit atomically or not at all, other threads only see
+ * committed rows and never part of a commit (both sides of a transfer, or a balance
+ * and its ledger row, become visible to a read together), and account rows are locked by writers until the unit ends
+ * (failing with MySQL error 1205 after the lock wait timeout).
+ * Starts with the same default users as {@code database_schema.sql}.
+ */
+public class InMemoryDataStore implements DataStore {
+    private final ThreadLocal<UnitOfWork> currentUnit = new ThreadLocal<>();
+    /** Write side held while a commit is applied, read side while committed rows are read. */
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final ConcurrentIntObjectMap<ReentrantLock> accountLocks = new ConcurrentIntObjectMap<>(64);
+    private final ConcurrentIntObjectMap<ReentrantLock> standingOrderLocks = new ConcurrentIntObjectMap<>(64);
+    private final long lockWaitTimeoutMillis;
+    
+    private final InMemoryAccountRepository accountRepository;
+    private final InMemoryCustomerRepository customerRepository;
+    private final InMemoryTransactionRepository transactionRepository;
+    private final InMemoryUserRepository userRepository;
+    private final InMemoryStandingOrderRepository standingOrderRepository;
+    
+    public InMemoryDataStore() {
+        this(AppConfig.getLong("bank.memory.lockWaitTimeoutMillis", 50_000));
+    }
+    
+    /**
+     * Creates an empty store (apart from the default users).
+     * 
+     * @param lockWaitTimeoutMillis How long a writer waits for a locked account row
+     */
+    public InMemoryDataStore(long lockWaitTimeoutMillis) {
+        this.lockWaitTimeoutMillis = lockWaitTimeoutMillis;
+        InMemoryTable<Transaction> transactionTable =
+                new InMemoryTable<>(this, Transaction::new, Transaction::getAccountId);
+        InMemoryTable<Account> accountTable = new InMemoryTable<>(this, Account::new, Account::getCustomerId);
+        InMemoryTable<StandingOrder> standingOrderTable =
+                new InMemoryTable<>(this, StandingOrder::new, StandingOrder::getFromAccountId);
+        this.transactionRepository = new InMemoryTransactionRepository(transactionTable);
+        this.accountRepository = new InMemoryAccountRepository(this, accountTable, transactionTable,
+                                                                standingOrderTable);
+        this.standingOrderRepository = new InMemoryStandingOrderRepository(this, standingOrderTable);
+        this.customerRepository = new InMemoryCustomerRepository(
+                new InMemoryTable<>(this, Customer::new, null), accountRepository, transactionRepository);
+        this.userRepository = new InMemoryUserRepository(new InMemoryTable<>(this, User::new, null));
+        
+        userRepository.seed(new User("admin", "admin123", "ADMIN"));
+        userRepository.seed(new User("teller", "teller123", "TELLER"));
+    }
+    
+    @Override
+    public AccountRepository accounts() {
+        return accountRepository;
+    }
+    
+    @Override
+    public CustomerRepository customers() {
+        return customerRepository;
+    }
+    
+    @Override
+    public TransactionRepository transactions() {
+        return transactionRepository;
+    }
+    
+    @Override
+    public UserRepository users() {
+        return userRepository;
+    }
+    
+    @Override
+    public StandingOrderRepository standingOrders() {
+        return standingOrderRepository;
+    }
+    
+    @Override
+    public <T> T inTransaction(SqlCallable<T> work) throws SQLException {
+        if (currentUnit.get() != null) {
+            return work.call();
+        }
+        UnitOfWork unit = new UnitOfWork();
+        currentUnit.set(unit);
+        try {
+            T result = work.call();
+            lockForCommit();
+            try {
+                unit.applyAll();
+            } finally {
+                commitLock.writeLock().unlock();
+            }
+            return result;
+        } finally {
+            // Discarding the staged writes of a failed unit is the rollback
+            currentUnit.remove();
+            unit.releaseLocks();
+        }
+    }
+    
+    /**
+     * Holds off commits while the work reads, so that all of its reads see the same
+     * committed state.
+     */
+    @Override
+    public <T> T inSnapshot(SqlCallable<T> work) throws SQLException {
+        commitLock.readLock().lock();
+        try {
+            return work.call();
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+    
+    private void lockForCommit() {
+        if (commitLock.getReadHoldCount() > 0) {
+            // Waiting for the write lock while holding the read lock would never end
+            throw new IllegalStateException("Writes are not allowed inside inSnapshot");
+        }
+        commitLock.writeLock().lock();
+    }
+    
+    UnitOfWork currentUnit() {
+        return currentUnit.get();
+    }
+    
+    /**
+     * Applies a single auto-committed write.
+     */
+    void applyAutonomously(Runnable write) {
+        lockForCommit();
+        try {
+            write.run();
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Reads committed rows while no commit is being applied, so that the read sees
+     * every commit either whole or not at all.
+     * 
+     * @param read Read of committed rows
+     * @return Result of the read
+     */
+    <T> T readCommitted(Supplier<T> read) {
+        commitLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Runs work while holding the row lock of an account. Inside a unit of work the
+     * lock is kept until the unit ends; otherwise it is released when the work returns.
+     * 
+     * @param accountId Account ID
+     * @param work Work to run
+     * @return Result of the work
+     * @throws SQLException if the lock wait times out
+     */
+    <T> T withAccountLock(int accountId, SqlCallable<T> work) throws SQLException {
+        return withRowLock(accountLocks, accountId, work);
+    }
+    
+    /**
+     * Runs work while holding the row lock of a standing order, like
+     * {@link #withAccountLock}.
+     */
+    <T> T withStandingOrderLock(int orderId, SqlCallable<T> work) throws SQLException {
+        return withRowLock(standingOrderLocks, orderId, work);
+    }
+    
+    private <T> T withRowLock(ConcurrentIntObjectMap<ReentrantLock> locks, int id,
+                              SqlCallable<T> work) throws SQLException {
+        ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null && lock.isHeldByCurrentThread()) {
+            return work.call();
+        }
+        acquire(lock);
+        if (unit != null) {
+            unit.hold(lock);
+            return work.call();
+        }
+        try {
+            return work.call();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void acquire(ReentrantLock lock) throws SQLException {
+        try {
+            if (!lock.tryLock(lockWaitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Lock wait timeout exceeded; try restarting transaction", "HY000", 1205);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for row lock", "HY000", 1317, e);
+        }
+    }
+}
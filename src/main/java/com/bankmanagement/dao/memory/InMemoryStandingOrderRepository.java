@@ -0,0 +1,103 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.model.StandingOrder;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory standing order repository.
+ */
+public class InMemoryStandingOrderRepository implements StandingOrderRepository {
+    private static final Comparator<StandingOrder> BY_DUE_AT =
+            Comparator.comparing(StandingOrder::getDueAt).thenComparingInt(StandingOrder::getOrderId);
+    
+    private final InMemoryDataStore store;
+    private final InMemoryTable<StandingOrder> standingOrders;
+    
+    InMemoryStandingOrderRepository(InMemoryDataStore store, InMemoryTable<StandingOrder> standingOrders) {
+        this.store = store;
+        this.standingOrders = standingOrders;
+    }
+    
+    @Override
+    public int createStandingOrder(StandingOrder order) throws SQLException {
+        int orderId = standingOrders.nextId();
+        StandingOrder row = new StandingOrder(order);
+        row.setOrderId(orderId);
+        if (row.getCreatedAt() == null) {
+            row.setCreatedAt(LocalDateTime.now());
+        }
+        standingOrders.put(orderId, row);
+        return orderId;
+    }
+    
+    @Override
+    public StandingOrder getStandingOrderById(int orderId) throws SQLException {
+        return standingOrders.get(orderId);
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrdersByAccountId(int accountId) throws SQLException {
+        return standingOrders.findByGroup(accountId);
+    }
+    
+    @Override
+    public List<StandingOrder> getDueStandingOrders(LocalDateTime dueBefore, LocalDateTime afterDueAt,
+                                                    int afterOrderId, int limit) throws SQLException {
+        List<StandingOrder> due = standingOrders.find(order -> "ACTIVE".equals(order.getStatus())
+                && order.getDueAt().isBefore(dueBefore)
+                && (afterDueAt == null || order.getDueAt().isAfter(afterDueAt)
+                    || (order.getDueAt().isEqual(afterDueAt) && order.getOrderId() > afterOrderId)));
+        due.sort(BY_DUE_AT);
+        return due.size() > limit ? new ArrayList<>(due.subList(0, limit)) : due;
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrdersByIdsForUpdate(int[] orderIds) throws SQLException {
+        List<StandingOrder> result = new ArrayList<>(orderIds.length);
+        for (int orderId : Arrays.stream(orderIds).distinct().sorted().toArray()) {
+            StandingOrder order = store.withStandingOrderLock(orderId, () -> standingOrders.get(orderId));
+            if (order != null) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public void updateSchedules(List<StandingOrder> orders) throws SQLException {
+        for (StandingOrder order : orders) {
+            store.withStandingOrderLock(order.getOrderId(), () -> {
+                StandingOrder row = standingOrders.get(order.getOrderId());
+                if (row != null) {
+                    row.setNextRunAt(order.getNextRunAt());
+                    row.setDueAt(order.getDueAt());
+                    row.setStatus(order.getStatus());
+                    row.setAttempts(order.getAttempts());
+                    row.setLastError(order.getLastError());
+                    standingOrders.put(row.getOrderId(), row);
+                }
+                return null;
+            });
+        }
+    }
+    
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        return store.withStandingOrderLock(orderId, () -> {
+            StandingOrder order = standingOrders.get(orderId);
+            if (order == null || !"ACTIVE".equals(order.getStatus())) {
+                return false;
+            }
+            order.setStatus("CANCELLED");
+            standingOrders.put(orderId, order);
+            return true;
+        });
+    }
+}
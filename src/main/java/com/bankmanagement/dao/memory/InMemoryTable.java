@@ -0,0 +1,218 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.util.ConcurrentIntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * One in-memory table: committed rows keyed by primary key, an AUTO_INCREMENT-style
+ * sequence and an optional secondary index on an int column (e.g. customer_id).
+ * Rows are stored and returned as copies so callers can never modify committed state.
+ * Committed rows are read under the read side of the store's commit lock, so a read
+ * never sees part of a commit.
+ *
+ * @param <T> Row type
+ */
+final class InMemoryTable<T> {
+    static final Object DELETED = new Object();
+    
+    private final InMemoryDataStore store;
+    private final UnaryOperator<T> copier;
+    private final ToIntFunction<T> groupKey;
+    private final ConcurrentIntObjectMap<T> rows = new ConcurrentIntObjectMap<>(64);
+    private final ConcurrentIntObjectMap<IdList> groups = new ConcurrentIntObjectMap<>(64);
+    private final AtomicInteger sequence = new AtomicInteger();
+    
+    /**
+     * Creates a table.
+     * 
+     * @param store Owning store
+     * @param copier Copies a row
+     * @param groupKey Secondary index column, or null for none
+     */
+    InMemoryTable(InMemoryDataStore store, UnaryOperator<T> copier, ToIntFunction<T> groupKey) {
+        this.store = store;
+        this.copier = copier;
+        this.groupKey = groupKey;
+    }
+    
+    /**
+     * Allocates the next primary key. Like AUTO_INCREMENT, keys are not reused on rollback.
+     */
+    int nextId() {
+        return sequence.incrementAndGet();
+    }
+    
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        UnitOfWork unit = store.currentUnit();
+        if (unit != null) {
+            Object staged = unit.staged(this, id);
+            if (staged != null) {
+                return staged == DELETED ? null : copier.apply((T) staged);
+            }
+        }
+        T row = store.readCommitted(() -> rows.get(id));
+        return row == null ? null : copier.apply(row);
+    }
+    
+    void put(int id, T row) {
+        stage(id, copier.apply(row));
+    }
+    
+    void delete(int id) {
+        stage(id, DELETED);
+    }
+    
+    /**
+     * Returns all rows, ordered by primary key.
+     */
+    List<T> findAll() {
+        Map<Integer, T> visible = new HashMap<>();
+        store.readCommitted(() -> {
+            rows.forEach(visible::put);
+            return null;
+        });
+        return overlay(visible, null);
+    }
+    
+    /**
+     * Returns all rows matching a predicate, ordered by primary key.
+     */
+    List<T> find(Predicate<T> predicate) {
+        List<T> matches = new ArrayList<>();
+        for (T row : findAll()) {
+            if (predicate.test(row)) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Returns the rows whose secondary index column equals a key, ordered by primary key.
+     */
+    List<T> findByGroup(int key) {
+        Map<Integer, T> visible = new HashMap<>();
+        store.readCommitted(() -> {
+            IdList group = groups.get(key);
+            if (group != null) {
+                for (int id : group.toArray()) {
+                    T row = rows.get(id);
+                    if (row != null) {
+                        visible.put(id, row);
+                    }
+                }
+            }
+            return null;
+        });
+        return overlay(visible, key);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<T> overlay(Map<Integer, T> visible, Integer group) {
+        UnitOfWork unit = store.currentUnit();
+        if (unit != null) {
+            for (Map.Entry<Integer, Object> staged : unit.stagedRows(this).entrySet()) {
+                Object value = staged.getValue();
+                if (value == DELETED || (group != null && groupKey.applyAsInt((T) value) != group)) {
+                    visible.remove(staged.getKey());
+                } else {
+                    visible.put(staged.getKey(), (T) value);
+                }
+            }
+        }
+        int[] ids = new int[visible.size()];
+        int i = 0;
+        for (Integer id : visible.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(copier.apply(visible.get(id)));
+        }
+        return result;
+    }
+    
+    private void stage(int id, Object value) {
+        UnitOfWork unit = store.currentUnit();
+        if (unit != null) {
+            unit.stage(this, id, value);
+        } else {
+            store.applyAutonomously(() -> apply(id, value));
+        }
+    }
+    
+    /**
+     * Makes a write visible. Called only while holding the store's commit lock,
+     * so index maintenance needs no further synchronization.
+     */
+    @SuppressWarnings("unchecked")
+    void apply(int id, Object value) {
+        T previous = value == DELETED ? rows.remove(id) : rows.put(id, (T) value);
+        if (groupKey == null) {
+            return;
+        }
+        if (previous != null) {
+            removeFromGroup(groupKey.applyAsInt(previous), id);
+        }
+        if (value != DELETED) {
+            addToGroup(groupKey.applyAsInt((T) value), id);
+        }
+    }
+    
+    private void addToGroup(int key, int id) {
+        groups.computeIfAbsent(key, k -> new IdList()).add(id);
+    }
+    
+    private void removeFromGroup(int key, int id) {
+        IdList group = groups.get(key);
+        if (group != null && group.remove(id)) {
+            groups.remove(key);
+        }
+    }
+    
+    /**
+     * Growable list of primary keys for one secondary index value.
+     */
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int size;
+        
+        synchronized void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+        
+        /**
+         * Removes an ID.
+         * 
+         * @return true if the list is now empty
+         */
+        synchronized boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+            return size == 0;
+        }
+        
+        synchronized int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.TransactionRepository;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.Money;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory transaction repository.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getTransactionDate)
+                    .thenComparingInt(Transaction::getTransactionId)
+                    .reversed();
+    
+    private final InMemoryTable<Transaction> transactions;
+    
+    InMemoryTransactionRepository(InMemoryTable<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+    
+    @Override
+    public int createTransaction(Transaction transaction) throws SQLException {
+        int transactionId = transactions.nextId();
+        Transaction row = new Transaction(transaction);
+        row.setTransactionId(transactionId);
+        transactions.put(transactionId, row);
+        return transactionId;
+    }
+    
+    @Override
+    public void createTransactions(List<Transaction> transactions) throws SQLException {
+        for (Transaction transaction : transactions) {
+            createTransaction(transaction);
+        }
+    }
+    
+    @Override
+    public List<Transaction> getTransactionsByAccountId(int accountId) throws SQLException {
+        List<Transaction> result = transactions.findByGroup(accountId);
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+    
+    @Override
+    public List<Transaction> getTransactionsByDateRange(int accountId, LocalDateTime startDate,
+                                                        LocalDateTime endDate) throws SQLException {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction transaction : transactions.findByGroup(accountId)) {
+            LocalDateTime date = transaction.getTransactionDate();
+            if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                result.add(transaction);
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+    
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after, int pageSize) throws SQLException {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction transaction : transactions.findByGroup(accountId)) {
+            LocalDateTime date = transaction.getTransactionDate();
+            if ((from == null || !date.isBefore(from)) && (until == null || date.isBefore(until))
+                    && (after == null || NEWEST_FIRST.compare(transaction, after) > 0)) {
+                result.add(transaction);
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        boolean hasMore = result.size() > pageSize;
+        return new StatementPage(new ArrayList<>(result.subList(0, Math.min(pageSize, result.size()))), hasMore);
+    }
+    
+    @Override
+    public Transaction getTransactionById(int transactionId) throws SQLException {
+        return transactions.get(transactionId);
+    }
+    
+    @Override
+    public void forEachDebitSince(LocalDateTime since, DebitConsumer consumer) throws SQLException {
+        List<Transaction> debits = new ArrayList<>();
+        for (Transaction transaction : transactions.findAll()) {
+            if (!transaction.getTransactionDate().isBefore(since) && transaction.isDebit()) {
+                debits.add(transaction);
+            }
+        }
+        debits.sort(Comparator.comparing(Transaction::getTransactionDate));
+        for (Transaction debit : debits) {
+            consumer.accept(debit.getAccountId(), debit.getAmount(), debit.getTransactionDate());
+        }
+    }
+    
+    @Override
+    public void forEachPostingInRange(int fromAccountId, int toAccountId, PostingConsumer consumer) throws SQLException {
+        for (int accountId = fromAccountId; accountId < toAccountId; accountId++) {
+            for (Transaction transaction : transactions.findByGroup(accountId)) {
+                accept(transaction, consumer);
+            }
+        }
+    }
+    
+    @Override
+    public void forEachTransferRelatedToRange(int fromAccountId, int toAccountId,
+                                              PostingConsumer consumer) throws SQLException {
+        for (Transaction transaction : transactions.find(t -> "TRANSFER".equals(t.getTransactionType())
+                && !t.isDebit() && t.getRelatedAccountId() != null
+                && t.getRelatedAccountId() >= fromAccountId && t.getRelatedAccountId() < toAccountId)) {
+            accept(transaction, consumer);
+        }
+    }
+    
+    @Override
+    public int deleteTransactionsByAccountId(int accountId, int limit) throws SQLException {
+        List<Transaction> rows = transactions.findByGroup(accountId);
+        int count = Math.min(limit, rows.size());
+        for (int i = 0; i < count; i++) {
+            transactions.delete(rows.get(i).getTransactionId());
+        }
+        return count;
+    }
+    
+    @Override
+    public int detachTransfersRelatedTo(int accountId, int limit) throws SQLException {
+        List<Transaction> rows = transactions.find(t -> t.getRelatedAccountId() != null
+                && t.getRelatedAccountId() == accountId);
+        int count = Math.min(limit, rows.size());
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = rows.get(i);
+            transaction.setRelatedAccountId(null);
+            transactions.put(transaction.getTransactionId(), transaction);
+        }
+        return count;
+    }
+    
+    private static void accept(Transaction transaction, PostingConsumer consumer) {
+        Integer relatedAccountId = transaction.getRelatedAccountId();
+        consumer.accept(transaction.getAccountId(), transaction.getTransactionType(),
+                        Money.toCents(transaction.getAmount()), transaction.isDebit(),
+                        relatedAccountId != null ? relatedAccountId : 0, transaction.getDescription());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.dao.UserRepository;
+import com.bankmanagement.model.User;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * In-memory user repository.
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private final InMemoryTable<User> users;
+    
+    InMemoryUserRepository(InMemoryTable<User> users) {
+        this.users = users;
+    }
+    
+    @Override
+    public User authenticate(String username, String password) throws SQLException {
+        List<User> matches = users.find(user -> user.getUsername().equals(username)
+                && user.getPassword().equals(password));
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+    
+    @Override
+    public synchronized int createUser(User user) throws SQLException {
+        if (!users.find(existing -> existing.getUsername().equals(user.getUsername())).isEmpty()) {
+            throw new SQLException("Duplicate entry '" + user.getUsername() + "' for key 'users.username'",
+                                   "23000", 1062);
+        }
+        int userId = users.nextId();
+        User row = new User(user);
+        row.setUserId(userId);
+        users.put(userId, row);
+        return userId;
+    }
+    
+    /**
+     * Inserts a default user at construction time.
+     */
+    void seed(User user) {
+        try {
+            createUser(user);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
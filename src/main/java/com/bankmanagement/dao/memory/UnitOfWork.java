@@ -0,0 +1,58 @@
+package com.bankmanagement.dao.memory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pending writes and held row locks of one in-memory unit of work.
+ * Writes are staged here and become visible to other threads only when the
+ * unit commits; discarding the unit is the rollback.
+ */
+final class UnitOfWork {
+    private final Map<InMemoryTable<?>, Map<Integer, Object>> staged = new LinkedHashMap<>();
+    private final List<ReentrantLock> heldLocks = new ArrayList<>();
+    
+    /**
+     * Returns the staged value for a row: a row copy, {@link InMemoryTable#DELETED},
+     * or null if this unit has not written the row.
+     */
+    Object staged(InMemoryTable<?> table, int id) {
+        Map<Integer, Object> rows = staged.get(table);
+        return rows == null ? null : rows.get(id);
+    }
+    
+    Map<Integer, Object> stagedRows(InMemoryTable<?> table) {
+        Map<Integer, Object> rows = staged.get(table);
+        return rows == null ? Collections.emptyMap() : rows;
+    }
+    
+    void stage(InMemoryTable<?> table, int id, Object value) {
+        staged.computeIfAbsent(table, key -> new LinkedHashMap<>()).put(id, value);
+    }
+    
+    void hold(ReentrantLock lock) {
+        heldLocks.add(lock);
+    }
+    
+    /**
+     * Applies all staged writes. Must be called while holding the store's commit lock.
+     */
+    void applyAll() {
+        for (Map.Entry<InMemoryTable<?>, Map<Integer, Object>> table : staged.entrySet()) {
+            for (Map.Entry<Integer, Object> row : table.getValue().entrySet()) {
+                table.getKey().apply(row.getKey(), row.getValue());
+            }
+        }
+    }
+    
+    void releaseLocks() {
+        for (int i = heldLocks.size() - 1; i >= 0; i--) {
+            heldLocks.get(i).unlock();
+        }
+        heldLocks.clear();
+    }
+}
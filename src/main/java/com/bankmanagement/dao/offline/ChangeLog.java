@@ -0,0 +1,242 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.ConnectionProvider;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound change log of the embedded database ({@code outbound_changes}).
+ * Every offline posting appends its balance changes and ledger rows here, in the
+ * same local transaction as the posting itself. The stores of background threads each
+ * have a change log on their own connection, sharing the count of pending changes.
+ */
+class ChangeLog {
+    static final String BALANCE = "BALANCE";
+    static final String LEDGER = "LEDGER";
+    
+    private final ConnectionProvider localProvider;
+    private final AtomicLong pendingChanges;
+    
+    ChangeLog(ConnectionProvider localProvider) {
+        this(localProvider, new AtomicLong());
+    }
+    
+    private ChangeLog(ConnectionProvider localProvider, AtomicLong pendingChanges) {
+        this.localProvider = localProvider;
+        this.pendingChanges = pendingChanges;
+    }
+    
+    /**
+     * Returns the same change log on another connection to the local database.
+     */
+    ChangeLog onConnection(ConnectionProvider otherProvider) {
+        return new ChangeLog(otherProvider, pendingChanges);
+    }
+    
+    /**
+     * Loads the number of pending changes after a restart. Runs inside a unit of work.
+     */
+    void initialize() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM outbound_changes WHERE status = 'PENDING'";
+        Connection connection = localProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            pendingChanges.set(rs.getLong(1));
+        }
+    }
+    
+    long getPendingChanges() {
+        return pendingChanges.get();
+    }
+    
+    /**
+     * Records a balance change.
+     * 
+     * @param unitId Unit of work the change belongs to
+     * @param accountId Account ID
+     * @param expectedBalance Local balance before the change
+     * @param delta Signed balance change
+     */
+    void recordBalance(long unitId, int accountId, BigDecimal expectedBalance, BigDecimal delta) throws SQLException {
+        String sql = "INSERT INTO outbound_changes (unit_id, change_type, account_id, amount, expected_balance) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+        Connection connection = localProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, unitId);
+            pstmt.setString(2, BALANCE);
+            pstmt.setInt(3, accountId);
+            pstmt.setBigDecimal(4, delta);
+            pstmt.setBigDecimal(5, expectedBalance);
+            pstmt.executeUpdate();
+        }
+        pendingChanges.incrementAndGet();
+    }
+    
+    /**
+     * Records a ledger row.
+     * 
+     * @param unitId Unit of work the change belongs to
+     * @param transaction Transaction written locally
+     */
+    void recordLedger(long unitId, Transaction transaction) throws SQLException {
+        String sql = "INSERT INTO outbound_changes (unit_id, change_type, account_id, amount, transaction_type, " +
+                     "balance_after, description, transaction_date, related_account_id, debit) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection connection = localProvider.getConnection();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, unitId);
+            pstmt.setString(2, LEDGER);
+            pstmt.setInt(3, transaction.getAccountId());
+            pstmt.setBigDecimal(4, transaction.getAmount());
+            pstmt.setString(5, transaction.getTransactionType());
+            pstmt.setBigDecimal(6, transaction.getBalanceAfter());
+            pstmt.setString(7, transaction.getDescription());
+            pstmt.setTimestamp(8, Timestamp.valueOf(transaction.getTransactionDate()));
+            if (transaction.getRelatedAccountId() != null) {
+                pstmt.setInt(9, transaction.getRelatedAccountId());
+            } else {
+                pstmt.setNull(9, Types.INTEGER);
+            }
+            pstmt.setBoolean(10, transaction.isDebit());
+            pstmt.executeUpdate();
+        }
+        pendingChanges.incrementAndGet();
+    }
+    
+    /**
+     * Loads the oldest pending units, each with all of its changes in order.
+     * 
+     * @param maxUnits Maximum number of units
+     * @return Pending units, oldest first
+     */
+    List<ChangeUnit> loadPendingUnits(int maxUnits) throws SQLException {
+        String sql = "SELECT * FROM outbound_changes WHERE status = 'PENDING' AND unit_id IN " +
+                     "(SELECT unit_id FROM (SELECT DISTINCT unit_id FROM outbound_changes " +
+                     "WHERE status = 'PENDING' ORDER BY unit_id LIMIT ?) oldest) " +
+                     "ORDER BY unit_id, change_id";
+        Connection connection = localProvider.getConnection();
+        List<ChangeUnit> units = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, maxUnits);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ChangeUnit unit = null;
+                while (rs.next()) {
+                    long unitId = rs.getLong("unit_id");
+                    if (unit == null || unit.unitId != unitId) {
+                        unit = new ChangeUnit(unitId);
+                        units.add(unit);
+                    }
+                    unit.changes.add(mapResultSetToChange(rs));
+                }
+            }
+        }
+        connection.commit();
+        return units;
+    }
+    
+    /**
+     * Marks a replayed unit as sent or conflicting and re-bases the local balances of
+     * its accounts on the central balances plus any changes still pending. The accounts
+     * are locked first, so a posting in progress on one of them finishes before its
+     * pending changes are summed.
+     * 
+     * @param unit Replayed unit
+     */
+    void complete(ChangeUnit unit) throws SQLException {
+        String lockSql = "SELECT account_id FROM accounts WHERE account_id = ? FOR UPDATE";
+        String statusSql = "UPDATE outbound_changes SET status = ?, status_detail = ? WHERE unit_id = ?";
+        String rebaseSql = "UPDATE accounts SET version = version + 1, " +
+                           "balance = ? + COALESCE((SELECT SUM(amount) FROM outbound_changes " +
+                           "WHERE account_id = ? AND change_type = 'BALANCE' AND status = 'PENDING'), 0) " +
+                           "WHERE account_id = ?";
+        Connection connection = localProvider.getConnection();
+        
+        try (PreparedStatement lock = connection.prepareStatement(lockSql);
+             PreparedStatement status = connection.prepareStatement(statusSql);
+             PreparedStatement rebase = connection.prepareStatement(rebaseSql)) {
+            // In ID order, the order postings lock accounts in
+            for (int accountId : new TreeMap<>(unit.centralBalances).keySet()) {
+                lock.setInt(1, accountId);
+                lock.executeQuery().close();
+            }
+            status.setString(1, unit.conflict ? "CONFLICT" : "SENT");
+            status.setString(2, unit.detail);
+            status.setLong(3, unit.unitId);
+            status.executeUpdate();
+            
+            for (Map.Entry<Integer, BigDecimal> central : unit.centralBalances.entrySet()) {
+                rebase.setBigDecimal(1, central.getValue());
+                rebase.setInt(2, central.getKey());
+                rebase.setInt(3, central.getKey());
+                rebase.addBatch();
+            }
+            rebase.executeBatch();
+            connection.commit();
+            pendingChanges.addAndGet(-unit.changes.size());
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+    
+    private Change mapResultSetToChange(ResultSet rs) throws SQLException {
+        Change change = new Change();
+        change.type = rs.getString("change_type");
+        change.accountId = rs.getInt("account_id");
+        change.amount = rs.getBigDecimal("amount");
+        change.expectedBalance = rs.getBigDecimal("expected_balance");
+        change.transactionType = rs.getString("transaction_type");
+        change.balanceAfter = rs.getBigDecimal("balance_after");
+        change.description = rs.getString("description");
+        change.transactionDate = rs.getTimestamp("transaction_date");
+        int relatedAccountId = rs.getInt("related_account_id");
+        change.relatedAccountId = rs.wasNull() ? null : relatedAccountId;
+        change.debit = rs.getBoolean("debit");
+        return change;
+    }
+    
+    /**
+     * All changes written by one offline unit of work.
+     */
+    static class ChangeUnit {
+        final long unitId;
+        final List<Change> changes = new ArrayList<>();
+        final Map<Integer, BigDecimal> centralBalances = new HashMap<>();
+        boolean conflict;
+        String detail;
+        
+        ChangeUnit(long unitId) {
+            this.unitId = unitId;
+        }
+    }
+    
+    /**
+     * One row of the change log.
+     */
+    static class Change {
+        String type;
+        int accountId;
+        BigDecimal amount;
+        BigDecimal expectedBalance;
+        String transactionType;
+        BigDecimal balanceAfter;
+        String description;
+        Timestamp transactionDate;
+        Integer relatedAccountId;
+        boolean debit;
+    }
+}
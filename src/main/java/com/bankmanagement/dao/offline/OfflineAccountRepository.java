@@ -0,0 +1,147 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.AccountRepository;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.util.IntLongMap;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Account repository of offline branch mode: local reads, logged balance updates.
+ */
+public class OfflineAccountRepository implements AccountRepository {
+    private final OfflineDataStore store;
+    private final AccountRepository local;
+    private final ChangeLog changeLog;
+    
+    OfflineAccountRepository(OfflineDataStore store, AccountRepository local, ChangeLog changeLog) {
+        this.store = store;
+        this.local = local;
+        this.changeLog = changeLog;
+    }
+    
+    @Override
+    public int createAccount(Account account) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Opening an account");
+    }
+    
+    @Override
+    public Account getAccountById(int accountId) throws SQLException {
+        return local.getAccountById(accountId);
+    }
+    
+    @Override
+    public Account getAccountByIdForUpdate(int accountId) throws SQLException {
+        return local.getAccountByIdForUpdate(accountId);
+    }
+    
+    @Override
+    public IntLongMap getBalances(int[] accountIds) throws SQLException {
+        return local.getBalances(accountIds);
+    }
+    
+    @Override
+    public List<Account> getAccountsByIdsForUpdate(int[] accountIds) throws SQLException {
+        return local.getAccountsByIdsForUpdate(accountIds);
+    }
+    
+    @Override
+    public Account getAccountByNumber(String accountNumber) throws SQLException {
+        return local.getAccountByNumber(accountNumber);
+    }
+    
+    @Override
+    public List<Account> getAccountsByCustomerId(int customerId) throws SQLException {
+        return local.getAccountsByCustomerId(customerId);
+    }
+    
+    @Override
+    public boolean updateBalance(int accountId, BigDecimal newBalance) throws SQLException {
+        return store.inTransaction(() -> {
+            Account account = local.getAccountByIdForUpdate(accountId);
+            if (account == null) {
+                return false;
+            }
+            BigDecimal delta = newBalance.subtract(account.getBalance());
+            changeLog.recordBalance(store.currentUnitId(), accountId, account.getBalance(), delta);
+            return local.updateBalance(accountId, newBalance);
+        });
+    }
+    
+    @Override
+    public boolean updateBalanceIfVersion(int accountId, BigDecimal newBalance, long expectedVersion) throws SQLException {
+        return store.inTransaction(() -> {
+            Account account = local.getAccountByIdForUpdate(accountId);
+            if (account == null || account.getVersion() != expectedVersion) {
+                return false;
+            }
+            BigDecimal delta = newBalance.subtract(account.getBalance());
+            changeLog.recordBalance(store.currentUnitId(), accountId, account.getBalance(), delta);
+            return local.updateBalanceIfVersion(accountId, newBalance, expectedVersion);
+        });
+    }
+    
+    @Override
+    public void updateBalances(Map<Integer, BigDecimal> newBalances) throws SQLException {
+        store.inTransaction(() -> {
+            int[] accountIds = newBalances.keySet().stream().mapToInt(Integer::intValue).toArray();
+            for (Account account : local.getAccountsByIdsForUpdate(accountIds)) {
+                BigDecimal delta = newBalances.get(account.getAccountId()).subtract(account.getBalance());
+                changeLog.recordBalance(store.currentUnitId(), account.getAccountId(), account.getBalance(), delta);
+            }
+            local.updateBalances(newBalances);
+            return null;
+        });
+    }
+    
+    @Override
+    public boolean deleteAccount(int accountId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Closing an account");
+    }
+    
+    @Override
+    public int markAccountsDeleted(int customerId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Closing an account");
+    }
+    
+    @Override
+    public int[] getDeletedAccountIds() throws SQLException {
+        return local.getDeletedAccountIds();
+    }
+    
+    @Override
+    public boolean setLedgerSlots(int accountId, int slots) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Changing hot accounts");
+    }
+    
+    /**
+     * Offline postings always go to the account balance, so they are logged for the sync.
+     */
+    @Override
+    public IntLongMap getLedgerSlotCounts() throws SQLException {
+        return new IntLongMap();
+    }
+    
+    @Override
+    public boolean creditSlot(int accountId, int slot, long amountCents) throws SQLException {
+        return false;
+    }
+    
+    @Override
+    public long consolidateSlots(int accountId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Consolidating hot accounts");
+    }
+    
+    @Override
+    public int[] getAccountIdBounds() throws SQLException {
+        return local.getAccountIdBounds();
+    }
+    
+    @Override
+    public void forEachBalanceInRange(int fromAccountId, int toAccountId, BalanceConsumer consumer) throws SQLException {
+        local.forEachBalanceInRange(fromAccountId, toAccountId, consumer);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.CustomerRepository;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Customer repository of offline branch mode: read-only view of the local snapshot.
+ */
+public class OfflineCustomerRepository implements CustomerRepository {
+    private final CustomerRepository local;
+    
+    OfflineCustomerRepository(CustomerRepository local) {
+        this.local = local;
+    }
+    
+    @Override
+    public int createCustomer(Customer customer) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Creating a customer");
+    }
+    
+    @Override
+    public Customer getCustomerById(int customerId) throws SQLException {
+        return local.getCustomerById(customerId);
+    }
+    
+    @Override
+    public boolean updateCustomer(Customer customer) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Modifying a customer");
+    }
+    
+    @Override
+    public boolean deleteCustomer(int customerId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Deleting a customer");
+    }
+    
+    @Override
+    public boolean markCustomerDeleted(int customerId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Deleting a customer");
+    }
+    
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId, int recentTransactions) throws SQLException {
+        return local.getCustomerOverview(customerId, recentTransactions);
+    }
+    
+    @Override
+    public int[] getDeletedCustomerIds(int limit) throws SQLException {
+        return local.getDeletedCustomerIds(limit);
+    }
+    
+    @Override
+    public List<Customer> getAllCustomers() throws SQLException {
+        return local.getAllCustomers();
+    }
+}
@@ -0,0 +1,141 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.AccountRepository;
+import com.bankmanagement.dao.CustomerRepository;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.JdbcDataStore;
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.dao.TransactionRepository;
+import com.bankmanagement.dao.UserRepository;
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline branch storage backend.
+ * All reads and postings run against the local embedded database, so teller latency
+ * depends on the local disk rather than the WAN. Every posting is also appended to
+ * the outbound change log in the same local transaction; {@link StoreAndForwardSync}
+ * replays the log to the central database once it is reachable.
+ * Customer and account maintenance needs the central database and is rejected.
+ * Background threads (the sync, purger and consolidator) work on stores of their own
+ * from {@link #onConnection}, so that their commits never end a teller's unit of work.
+ */
+public class OfflineDataStore implements DataStore {
+    private final JdbcDataStore local;
+    private final ChangeLog changeLog;
+    private final ThreadLocal<long[]> currentUnit = new ThreadLocal<>();
+    private final AtomicLong unitSequence;
+    
+    private final OfflineAccountRepository accountRepository;
+    private final OfflineCustomerRepository customerRepository;
+    private final OfflineTransactionRepository transactionRepository;
+    private final OfflineStandingOrderRepository standingOrderRepository;
+    
+    /**
+     * Creates the store on a local database.
+     * 
+     * @param localProvider Connection provider of the embedded database
+     * @throws SQLException if the local database cannot be opened
+     */
+    public OfflineDataStore(ConnectionProvider localProvider) throws SQLException {
+        this(localProvider, new ChangeLog(localProvider), new AtomicLong(System.currentTimeMillis() * 1000));
+        local.inTransaction(() -> {
+            changeLog.initialize();
+            return null;
+        });
+        MetricsRegistry.getInstance().registerGauge("offline.outbound.pending", changeLog::getPendingChanges);
+    }
+    
+    private OfflineDataStore(ConnectionProvider localProvider, ChangeLog changeLog, AtomicLong unitSequence) {
+        this.local = new JdbcDataStore(localProvider);
+        this.changeLog = changeLog;
+        this.unitSequence = unitSequence;
+        this.accountRepository = new OfflineAccountRepository(this, local.accounts(), changeLog);
+        this.customerRepository = new OfflineCustomerRepository(local.customers());
+        this.transactionRepository = new OfflineTransactionRepository(this, local.transactions(), changeLog);
+        this.standingOrderRepository = new OfflineStandingOrderRepository(local.standingOrders());
+    }
+    
+    /**
+     * Returns a store on another connection to the same local database, sharing the
+     * change log. Its units of work commit and roll back independently of this store's,
+     * and its row locks conflict with this store's.
+     * 
+     * @param otherProvider Connection provider of its own, e.g. for a background thread
+     * @return OfflineDataStore on that connection
+     */
+    public OfflineDataStore onConnection(ConnectionProvider otherProvider) {
+        return new OfflineDataStore(otherProvider, changeLog.onConnection(otherProvider), unitSequence);
+    }
+    
+    @Override
+    public AccountRepository accounts() {
+        return accountRepository;
+    }
+    
+    @Override
+    public CustomerRepository customers() {
+        return customerRepository;
+    }
+    
+    @Override
+    public TransactionRepository transactions() {
+        return transactionRepository;
+    }
+    
+    @Override
+    public UserRepository users() {
+        return local.users();
+    }
+    
+    @Override
+    public StandingOrderRepository standingOrders() {
+        return standingOrderRepository;
+    }
+    
+    @Override
+    public <T> T inTransaction(SqlCallable<T> work) throws SQLException {
+        return local.inTransaction(() -> {
+            if (currentUnit.get() != null) {
+                return work.call();
+            }
+            currentUnit.set(new long[]{unitSequence.incrementAndGet()});
+            try {
+                return work.call();
+            } finally {
+                currentUnit.remove();
+            }
+        });
+    }
+    
+    /**
+     * Returns the change log unit of the current unit of work.
+     */
+    long currentUnitId() {
+        return currentUnit.get()[0];
+    }
+    
+    /**
+     * Returns the connection provider of the local database backing this store.
+     * 
+     * @return Connection provider
+     */
+    public ConnectionProvider getLocalProvider() {
+        return local.getConnectionProvider();
+    }
+    
+    ChangeLog getChangeLog() {
+        return changeLog;
+    }
+    
+    /**
+     * Error for operations that require the central database.
+     */
+    static SQLException unavailableOffline(String operation) {
+        return new SQLException(operation + " is not available in offline branch mode", "0A000");
+    }
+}
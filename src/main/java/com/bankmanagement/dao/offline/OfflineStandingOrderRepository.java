@@ -0,0 +1,56 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.StandingOrderRepository;
+import com.bankmanagement.model.StandingOrder;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Standing order repository of offline branch mode: local reads only. Standing orders
+ * are executed by the central installation, so they cannot be maintained offline.
+ */
+public class OfflineStandingOrderRepository implements StandingOrderRepository {
+    private final StandingOrderRepository local;
+    
+    OfflineStandingOrderRepository(StandingOrderRepository local) {
+        this.local = local;
+    }
+    
+    @Override
+    public int createStandingOrder(StandingOrder order) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Setting up a standing order");
+    }
+    
+    @Override
+    public StandingOrder getStandingOrderById(int orderId) throws SQLException {
+        return local.getStandingOrderById(orderId);
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrdersByAccountId(int accountId) throws SQLException {
+        return local.getStandingOrdersByAccountId(accountId);
+    }
+    
+    @Override
+    public List<StandingOrder> getDueStandingOrders(LocalDateTime dueBefore, LocalDateTime afterDueAt,
+                                                    int afterOrderId, int limit) throws SQLException {
+        return local.getDueStandingOrders(dueBefore, afterDueAt, afterOrderId, limit);
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrdersByIdsForUpdate(int[] orderIds) throws SQLException {
+        return local.getStandingOrdersByIdsForUpdate(orderIds);
+    }
+    
+    @Override
+    public void updateSchedules(List<StandingOrder> orders) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Running standing orders");
+    }
+    
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Cancelling a standing order");
+    }
+}
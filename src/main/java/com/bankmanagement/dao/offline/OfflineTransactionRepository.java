@@ -0,0 +1,92 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.TransactionRepository;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transaction repository of offline branch mode: local ledger with logged inserts.
+ */
+public class OfflineTransactionRepository implements TransactionRepository {
+    private final OfflineDataStore store;
+    private final TransactionRepository local;
+    private final ChangeLog changeLog;
+    
+    OfflineTransactionRepository(OfflineDataStore store, TransactionRepository local, ChangeLog changeLog) {
+        this.store = store;
+        this.local = local;
+        this.changeLog = changeLog;
+    }
+    
+    @Override
+    public int createTransaction(Transaction transaction) throws SQLException {
+        return store.inTransaction(() -> {
+            int transactionId = local.createTransaction(transaction);
+            changeLog.recordLedger(store.currentUnitId(), transaction);
+            return transactionId;
+        });
+    }
+    
+    @Override
+    public void createTransactions(List<Transaction> transactions) throws SQLException {
+        store.inTransaction(() -> {
+            local.createTransactions(transactions);
+            for (Transaction transaction : transactions) {
+                changeLog.recordLedger(store.currentUnitId(), transaction);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public List<Transaction> getTransactionsByAccountId(int accountId) throws SQLException {
+        return local.getTransactionsByAccountId(accountId);
+    }
+    
+    @Override
+    public List<Transaction> getTransactionsByDateRange(int accountId, LocalDateTime startDate,
+                                                        LocalDateTime endDate) throws SQLException {
+        return local.getTransactionsByDateRange(accountId, startDate, endDate);
+    }
+    
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after, int pageSize) throws SQLException {
+        return local.getStatementPage(accountId, from, until, after, pageSize);
+    }
+    
+    @Override
+    public Transaction getTransactionById(int transactionId) throws SQLException {
+        return local.getTransactionById(transactionId);
+    }
+    
+    @Override
+    public void forEachDebitSince(LocalDateTime since, DebitConsumer consumer) throws SQLException {
+        local.forEachDebitSince(since, consumer);
+    }
+    
+    @Override
+    public void forEachPostingInRange(int fromAccountId, int toAccountId, PostingConsumer consumer) throws SQLException {
+        local.forEachPostingInRange(fromAccountId, toAccountId, consumer);
+    }
+    
+    @Override
+    public void forEachTransferRelatedToRange(int fromAccountId, int toAccountId,
+                                              PostingConsumer consumer) throws SQLException {
+        local.forEachTransferRelatedToRange(fromAccountId, toAccountId, consumer);
+    }
+    
+    @Override
+    public int deleteTransactionsByAccountId(int accountId, int limit) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Purging deleted accounts");
+    }
+    
+    @Override
+    public int detachTransfersRelatedTo(int accountId, int limit) throws SQLException {
+        throw OfflineDataStore.unavailableOffline("Purging deleted accounts");
+    }
+}
@@ -0,0 +1,322 @@
+package com.bankmanagement.dao.offline;
+
+import com.bankmanagement.dao.AccountDAO;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.ConnectionProvider;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.ResultStreaming;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the outbound change log of an {@link OfflineDataStore} to the central database.
+ * Units are sent in batches, one central transaction per batch and one savepoint per
+ * unit, so a conflicting unit is set aside without blocking the rest. A unit conflicts
+ * when it debits an account that no longer exists centrally or whose central balance
+ * would go negative; credits and covered debits are applied as deltas even if the
+ * central balance has moved since the branch went offline. Applied units are recorded
+ * in {@code replicated_units}, which makes a replay after a crash idempotent.
+ * <p>
+ * Balances are compared and rebased including the sub-ledger slots of hot accounts;
+ * the branch itself keeps no slots, its snapshot holds each hot account's full balance.
+ * <p>
+ * The sync commits and rolls back its local work as it goes, so it must be given a
+ * store on a local connection of its own ({@link OfflineDataStore#onConnection}).
+ */
+public class StoreAndForwardSync {
+    private static final String[] SNAPSHOT_TABLES = {"users", "customers", "accounts"};
+    
+    private final OfflineDataStore store;
+    private final ConnectionProvider centralProvider;
+    private final String branchId;
+    private final int batchUnits;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private ScheduledExecutorService executor;
+    private boolean primed;
+    
+    public StoreAndForwardSync(OfflineDataStore store, ConnectionProvider centralProvider) {
+        this.store = store;
+        this.centralProvider = centralProvider;
+        this.branchId = AppConfig.getString("bank.offline.branchId", "BRANCH");
+        this.batchUnits = AppConfig.getInt("bank.offline.syncBatchUnits", 200);
+    }
+    
+    /**
+     * Starts syncing in the background at a fixed interval.
+     * 
+     * @param intervalMillis Delay between sync attempts
+     */
+    public synchronized void start(long intervalMillis) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "offline-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                syncNow();
+            } catch (SQLException e) {
+                metrics.incrementCounter("offline.sync.failures");
+                System.err.println("Offline sync failed, will retry: " + e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Attempts one sync: refreshes the local snapshot on the first successful contact,
+     * then replays all pending units.
+     * 
+     * @return Number of units replayed (sent or set aside as conflicts)
+     * @throws SQLException if the central database is unreachable or a batch fails
+     */
+    public synchronized int syncNow() throws SQLException {
+        Connection central = centralProvider.getConnection();
+        if (!central.isValid(5)) {
+            throw new SQLException("Central database is not reachable", "08S01");
+        }
+        if (!primed) {
+            primeFromCentral(central);
+            primed = true;
+        }
+        
+        int replayed = 0;
+        List<ChangeLog.ChangeUnit> units;
+        while (!(units = store.getChangeLog().loadPendingUnits(batchUnits)).isEmpty()) {
+            replayBatch(central, units);
+            for (ChangeLog.ChangeUnit unit : units) {
+                store.getChangeLog().complete(unit);
+            }
+            replayed += units.size();
+        }
+        return replayed;
+    }
+    
+    private void replayBatch(Connection central, List<ChangeLog.ChangeUnit> units) throws SQLException {
+        String claimSql = "INSERT IGNORE INTO replicated_units (branch_id, unit_id) VALUES (?, ?)";
+        
+        try (PreparedStatement claim = central.prepareStatement(claimSql)) {
+            for (ChangeLog.ChangeUnit unit : units) {
+                Savepoint savepoint = central.setSavepoint();
+                claim.setString(1, branchId);
+                claim.setLong(2, unit.unitId);
+                if (claim.executeUpdate() == 0) {
+                    unit.detail = "Already applied";
+                    continue;
+                }
+                applyUnit(central, unit);
+                if (unit.conflict) {
+                    central.rollback(savepoint);
+                    metrics.incrementCounter("offline.sync.conflicts");
+                }
+                metrics.incrementCounter("offline.sync.units");
+            }
+            central.commit();
+        } catch (SQLException e) {
+            central.rollback();
+            throw e;
+        }
+    }
+    
+    private void applyUnit(Connection central, ChangeLog.ChangeUnit unit) throws SQLException {
+        String lockSql = "SELECT a.balance, " + AccountDAO.SLOT_BALANCE + " AS slot_balance " +
+                         "FROM accounts a WHERE a.account_id = ? FOR UPDATE";
+        String updateSql = "UPDATE accounts SET balance = ?, version = version + 1 WHERE account_id = ?";
+        String insertSql = "INSERT INTO transactions (account_id, transaction_type, amount, " +
+                           "balance_after, description, transaction_date, related_account_id, debit) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Map<Integer, BigDecimal> before = new HashMap<>();
+        Map<Integer, BigDecimal> after = unit.centralBalances;
+        Map<Integer, BigDecimal> slotBalances = new HashMap<>();
+        boolean drift = false;
+        
+        try (PreparedStatement lock = central.prepareStatement(lockSql)) {
+            for (ChangeLog.Change change : unit.changes) {
+                if (!ChangeLog.BALANCE.equals(change.type)) {
+                    continue;
+                }
+                BigDecimal current = after.get(change.accountId);
+                if (current == null) {
+                    lock.setInt(1, change.accountId);
+                    try (ResultSet rs = lock.executeQuery()) {
+                        if (!rs.next()) {
+                            markConflict(lock, unit, before, "Account " + change.accountId + " not found centrally");
+                            return;
+                        }
+                        slotBalances.put(change.accountId, rs.getBigDecimal(2));
+                        current = rs.getBigDecimal(1).add(rs.getBigDecimal(2));
+                    }
+                    before.put(change.accountId, current);
+                }
+                drift |= change.expectedBalance.compareTo(current) != 0;
+                BigDecimal next = current.add(change.amount);
+                if (change.amount.signum() < 0 && next.signum() < 0) {
+                    markConflict(lock, unit, before, "Insufficient central balance on account " + change.accountId);
+                    return;
+                }
+                after.put(change.accountId, next);
+            }
+        }
+        
+        try (PreparedStatement update = central.prepareStatement(updateSql);
+             PreparedStatement insert = central.prepareStatement(insertSql)) {
+            for (Map.Entry<Integer, BigDecimal> balance : after.entrySet()) {
+                // The slots keep their share; the account row takes the rest
+                update.setBigDecimal(1, balance.getValue().subtract(slotBalances.get(balance.getKey())));
+                update.setInt(2, balance.getKey());
+                update.addBatch();
+            }
+            update.executeBatch();
+            
+            for (ChangeLog.Change change : unit.changes) {
+                if (!ChangeLog.LEDGER.equals(change.type)) {
+                    continue;
+                }
+                insert.setInt(1, change.accountId);
+                insert.setString(2, change.transactionType);
+                insert.setBigDecimal(3, change.amount);
+                insert.setBigDecimal(4, after.getOrDefault(change.accountId, change.balanceAfter));
+                insert.setString(5, change.description);
+                insert.setTimestamp(6, change.transactionDate);
+                if (change.relatedAccountId != null) {
+                    insert.setInt(7, change.relatedAccountId);
+                } else {
+                    insert.setNull(7, Types.INTEGER);
+                }
+                insert.setBoolean(8, change.debit);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        
+        if (drift) {
+            unit.detail = "Applied; central balance had changed since the branch went offline";
+            metrics.incrementCounter("offline.sync.drift");
+        }
+    }
+    
+    private void markConflict(PreparedStatement lock, ChangeLog.ChangeUnit unit,
+                              Map<Integer, BigDecimal> before, String detail) throws SQLException {
+        unit.conflict = true;
+        unit.detail = detail;
+        // The unit is rolled back centrally, so every account it touched re-bases locally
+        // on the untouched central value
+        for (ChangeLog.Change change : unit.changes) {
+            if (ChangeLog.BALANCE.equals(change.type) && !before.containsKey(change.accountId)) {
+                lock.setInt(1, change.accountId);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (rs.next()) {
+                        before.put(change.accountId, rs.getBigDecimal(1).add(rs.getBigDecimal(2)));
+                    }
+                }
+            }
+        }
+        unit.centralBalances.clear();
+        unit.centralBalances.putAll(before);
+    }
+    
+    /**
+     * Refreshes users, customers and accounts in the local database from the central one.
+     * Hot accounts arrive with their sub-ledger slots folded into the balance and without
+     * slots, since offline postings always go to the account balance. Local account
+     * balances become the central balance plus any change still pending.
+     */
+    private void primeFromCentral(Connection central) throws SQLException {
+        Connection local = store.getLocalProvider().getConnection();
+        try {
+            for (String table : SNAPSHOT_TABLES) {
+                copyTable(central, local, table);
+            }
+            foldSlotsIntoSnapshot(central, local);
+            String rebaseSql = "UPDATE accounts SET version = version + 1, " +
+                               "balance = balance + (SELECT SUM(amount) FROM outbound_changes " +
+                               "WHERE outbound_changes.account_id = accounts.account_id " +
+                               "AND change_type = 'BALANCE' AND status = 'PENDING') " +
+                               "WHERE account_id IN (SELECT account_id FROM outbound_changes " +
+                               "WHERE change_type = 'BALANCE' AND status = 'PENDING')";
+            try (Statement stmt = local.createStatement()) {
+                stmt.executeUpdate(rebaseSql);
+            }
+            local.commit();
+            central.commit();
+        } catch (SQLException e) {
+            local.rollback();
+            central.rollback();
+            throw e;
+        }
+    }
+    
+    private void foldSlotsIntoSnapshot(Connection central, Connection local) throws SQLException {
+        String slotsSql = "SELECT a.account_id, " + AccountDAO.SLOT_BALANCE + " AS slot_balance " +
+                          "FROM accounts a WHERE a.ledger_slots > 0";
+        String foldSql = "UPDATE accounts SET balance = balance + ? WHERE account_id = ?";
+        try (Statement select = central.createStatement();
+             ResultSet rs = select.executeQuery(slotsSql);
+             PreparedStatement fold = local.prepareStatement(foldSql)) {
+            while (rs.next()) {
+                fold.setBigDecimal(1, rs.getBigDecimal(2));
+                fold.setInt(2, rs.getInt(1));
+                fold.addBatch();
+            }
+            fold.executeBatch();
+        }
+        try (Statement stmt = local.createStatement()) {
+            stmt.executeUpdate("UPDATE accounts SET ledger_slots = 0 WHERE ledger_slots <> 0");
+            stmt.executeUpdate("DELETE FROM account_balance_slots");
+        }
+    }
+    
+    private void copyTable(Connection central, Connection local, String table) throws SQLException {
+        try (Statement select = central.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ResultStreaming.enable(select);
+            try (ResultSet rs = select.executeQuery("SELECT * FROM " + table)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                StringBuilder names = new StringBuilder();
+                StringBuilder params = new StringBuilder();
+                StringBuilder updates = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    String column = meta.getColumnName(i);
+                    names.append(i > 1 ? ", " : "").append(column);
+                    params.append(i > 1 ? ", ?" : "?");
+                    updates.append(i > 1 ? ", " : "").append(column).append(" = VALUES(").append(column).append(")");
+                }
+                String upsertSql = "INSERT INTO " + table + " (" + names + ") VALUES (" + params + ") " +
+                                   "ON DUPLICATE KEY UPDATE " + updates;
+                
+                try (PreparedStatement upsert = local.prepareStatement(upsertSql)) {
+                    int pending = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            upsert.setObject(i, rs.getObject(i));
+                        }
+                        upsert.addBatch();
+                        if (++pending == 500) {
+                            upsert.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        upsert.executeBatch();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.bankmanagement.model;
 
+import com.bankmanagement.util.Money;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -12,25 +14,47 @@ public class Account {
     private String accountNumber;
     private String accountType; // SAVINGS or CURRENT
     private String modeOfOperation; // SELF or JOINT
-    private BigDecimal balance;
+    private long balanceCents;
+    private BigDecimal balance; // built from balanceCents on demand, null until then
     private LocalDateTime createdAt;
     private boolean smsAlert;
     private boolean internetBanking;
     private boolean atmCard;
+    private long version; // incremented by every balance update
+    private int ledgerSlots; // sub-ledger slots of a hot account, 0 for a normal account
     
     // Constructors
     public Account() {
-        this.balance = BigDecimal.ZERO;
     }
     
     public Account(int customerId, String accountType, String modeOfOperation) {
         this.customerId = customerId;
         this.accountType = accountType;
         this.modeOfOperation = modeOfOperation;
-        this.balance = BigDecimal.ZERO;
         this.createdAt = LocalDateTime.now();
     }
     
+    /**
+     * Creates a copy of another account.
+     * 
+     * @param other Account to copy
+     */
+    public Account(Account other) {
+        this.accountId = other.accountId;
+        this.customerId = other.customerId;
+        this.accountNumber = other.accountNumber;
+        this.accountType = other.accountType;
+        this.modeOfOperation = other.modeOfOperation;
+        this.balanceCents = other.balanceCents;
+        this.balance = other.balance;
+        this.createdAt = other.createdAt;
+        this.smsAlert = other.smsAlert;
+        this.internetBanking = other.internetBanking;
+        this.atmCard = other.atmCard;
+        this.version = other.version;
+        this.ledgerSlots = other.ledgerSlots;
+    }
+    
     // Getters and Setters
     public int getAccountId() {
         return accountId;
@@ -73,11 +97,23 @@ public class Account {
     }
     
     public BigDecimal getBalance() {
+        if (balance == null) {
+            balance = Money.fromCents(balanceCents);
+        }
         return balance;
     }
     
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        setBalanceCents(Money.toCents(balance));
+    }
+    
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+    
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
+        this.balance = null;
     }
     
     public LocalDateTime getCreatedAt() {
@@ -116,29 +152,65 @@ public class Account {
      * Deposits money into the account.
      * 
      * @param amount Amount to deposit
-     * @throws IllegalArgumentException if amount is negative
+     * @throws IllegalArgumentException if amount is negative or has fractions of a cent
      */
     public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        deposit(Money.toCents(amount));
+    }
+    
+    /**
+     * Deposits money into the account without allocating.
+     * 
+     * @param amountCents Amount to deposit in cents
+     * @throws IllegalArgumentException if amount is negative
+     */
+    public void deposit(long amountCents) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        this.balance = this.balance.add(amount);
+        setBalanceCents(Money.add(balanceCents, amountCents));
     }
     
     /**
      * Withdraws money from the account.
      * 
      * @param amount Amount to withdraw
-     * @throws IllegalArgumentException if amount is negative or exceeds balance
+     * @throws IllegalArgumentException if amount is negative, exceeds balance or has fractions of a cent
      */
     public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        withdraw(Money.toCents(amount));
+    }
+    
+    /**
+     * Withdraws money from the account without allocating.
+     * 
+     * @param amountCents Amount to withdraw in cents
+     * @throws IllegalArgumentException if amount is negative or exceeds balance
+     */
+    public void withdraw(long amountCents) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
-        if (amount.compareTo(this.balance) > 0) {
+        if (amountCents > balanceCents) {
             throw new IllegalArgumentException("Insufficient balance");
         }
-        this.balance = this.balance.subtract(amount);
+        setBalanceCents(balanceCents - amountCents);
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public int getLedgerSlots() {
+        return ledgerSlots;
+    }
+    
+    public void setLedgerSlots(int ledgerSlots) {
+        this.ledgerSlots = ledgerSlots;
     }
     
     @Override
@@ -147,7 +219,7 @@ public class Account {
                 "accountId=" + accountId +
                 ", accountNumber='" + accountNumber + '\'' +
                 ", accountType='" + accountType + '\'' +
-                ", balance=" + balance +
+                ", balance=" + getBalance() +
                 '}';
     }
 }
@@ -42,6 +42,27 @@ public class Customer {
         this.customerType = customerType;
     }
     
+    /**
+     * Creates a copy of another customer.
+     * 
+     * @param other Customer to copy
+     */
+    public Customer(Customer other) {
+        this.customerId = other.customerId;
+        this.fullName = other.fullName;
+        this.fatherName = other.fatherName;
+        this.dateOfBirth = other.dateOfBirth;
+        this.gender = other.gender;
+        this.maritalStatus = other.maritalStatus;
+        this.address = other.address;
+        this.city = other.city;
+        this.state = other.state;
+        this.mobileNumber = other.mobileNumber;
+        this.email = other.email;
+        this.nationality = other.nationality;
+        this.customerType = other.customerType;
+    }
+    
     // Getters and Setters
     public int getCustomerId() {
         return customerId;
@@ -0,0 +1,72 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model class representing everything a teller sees of one customer at once:
+ * the customer, their accounts with balances and the latest transactions per account.
+ */
+public class CustomerOverview {
+    private final Customer customer;
+    private final List<Account> accounts;
+    private final Map<Integer, List<Transaction>> recentTransactions;
+    private final LocalDateTime loadedAt;
+    
+    /**
+     * Creates an overview.
+     * 
+     * @param customer Customer
+     * @param accounts Customer's accounts in ID order
+     * @param recentTransactions Latest transactions by account ID, newest first
+     */
+    public CustomerOverview(Customer customer, List<Account> accounts,
+                            Map<Integer, List<Transaction>> recentTransactions) {
+        this.customer = customer;
+        this.accounts = Collections.unmodifiableList(accounts);
+        this.recentTransactions = Collections.unmodifiableMap(recentTransactions);
+        this.loadedAt = LocalDateTime.now();
+    }
+    
+    public Customer getCustomer() {
+        return customer;
+    }
+    
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+    
+    /**
+     * Returns the latest transactions of one of the customer's accounts.
+     * 
+     * @param accountId Account ID
+     * @return Transactions, newest first; empty if there are none
+     */
+    public List<Transaction> getRecentTransactions(int accountId) {
+        return recentTransactions.getOrDefault(accountId, Collections.emptyList());
+    }
+    
+    public BigDecimal getTotalBalance() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            total = total.add(account.getBalance());
+        }
+        return total;
+    }
+    
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "CustomerOverview{" +
+                "customerId=" + customer.getCustomerId() +
+                ", accounts=" + accounts.size() +
+                ", loadedAt=" + loadedAt +
+                '}';
+    }
+}
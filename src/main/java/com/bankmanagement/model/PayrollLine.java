@@ -0,0 +1,32 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing one credit of a payroll run.
+ */
+public class PayrollLine {
+    private final int accountId;
+    private final BigDecimal amount;
+    
+    public PayrollLine(int accountId, BigDecimal amount) {
+        this.accountId = accountId;
+        this.amount = amount;
+    }
+    
+    public int getAccountId() {
+        return accountId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    @Override
+    public String toString() {
+        return "PayrollLine{" +
+                "accountId=" + accountId +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing the outcome of a payroll run.
+ * Lines are posted in chunks; if a chunk fails, the lines before it stay posted and
+ * the run stops at the first line of the failed chunk.
+ */
+public class PayrollResult {
+    private final int totalLines;
+    private int postedLines;
+    private BigDecimal postedAmount = BigDecimal.ZERO;
+    private int failedLine = -1;
+    private String failure;
+    
+    public PayrollResult(int totalLines) {
+        this.totalLines = totalLines;
+    }
+    
+    /**
+     * Records a committed chunk.
+     * 
+     * @param lines Number of lines in the chunk
+     * @param amount Total credited by the chunk
+     */
+    public void addPostedChunk(int lines, BigDecimal amount) {
+        this.postedLines += lines;
+        this.postedAmount = postedAmount.add(amount);
+    }
+    
+    /**
+     * Records the chunk that stopped the run.
+     * 
+     * @param firstLine Index of the first line of the failed chunk
+     * @param failure Reason
+     */
+    public void setFailure(int firstLine, String failure) {
+        this.failedLine = firstLine;
+        this.failure = failure;
+    }
+    
+    public int getTotalLines() {
+        return totalLines;
+    }
+    
+    public int getPostedLines() {
+        return postedLines;
+    }
+    
+    public BigDecimal getPostedAmount() {
+        return postedAmount;
+    }
+    
+    /**
+     * Returns the index of the first line that was not posted.
+     * 
+     * @return Line index, or -1 if all lines were posted
+     */
+    public int getFailedLine() {
+        return failedLine;
+    }
+    
+    public String getFailure() {
+        return failure;
+    }
+    
+    public boolean isComplete() {
+        return postedLines == totalLines;
+    }
+    
+    @Override
+    public String toString() {
+        return "PayrollResult{" +
+                "postedLines=" + postedLines +
+                ", totalLines=" + totalLines +
+                ", postedAmount=" + postedAmount +
+                ", failure='" + failure + '\'' +
+                '}';
+    }
+}
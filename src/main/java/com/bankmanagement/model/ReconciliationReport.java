@@ -0,0 +1,174 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Model class representing the outcome of a ledger reconciliation run.
+ * Only the first mismatches up to a limit are kept; all of them are counted.
+ */
+public class ReconciliationReport {
+    public static final String BALANCE = "BALANCE";
+    public static final String TRANSFER_COUNTERPART = "TRANSFER_COUNTERPART";
+    public static final String UNCLASSIFIED_TRANSACTION = "UNCLASSIFIED_TRANSACTION";
+    
+    private final int maxReported;
+    private final List<Mismatch> mismatches = new ArrayList<>();
+    private long mismatchCount;
+    private long accountsChecked;
+    private long transactionsChecked;
+    private int rangesChecked;
+    private long elapsedMillis;
+    
+    /**
+     * Creates an empty report.
+     * 
+     * @param maxReported Maximum number of mismatches kept in detail
+     */
+    public ReconciliationReport(int maxReported) {
+        this.maxReported = maxReported;
+    }
+    
+    /**
+     * Records a mismatch.
+     * 
+     * @param mismatch Mismatch found
+     */
+    public void addMismatch(Mismatch mismatch) {
+        mismatchCount++;
+        if (mismatches.size() < maxReported) {
+            mismatches.add(mismatch);
+        }
+    }
+    
+    /**
+     * Records a checked account ID range.
+     * 
+     * @param accounts Accounts in the range
+     * @param transactions Transactions posted on them
+     */
+    public void addCheckedRange(long accounts, long transactions) {
+        this.accountsChecked += accounts;
+        this.transactionsChecked += transactions;
+        this.rangesChecked++;
+    }
+    
+    /**
+     * Adds the results of another (partial) report to this one.
+     * 
+     * @param other Report to merge
+     */
+    public void merge(ReconciliationReport other) {
+        for (Mismatch mismatch : other.mismatches) {
+            if (mismatches.size() < maxReported) {
+                mismatches.add(mismatch);
+            }
+        }
+        this.mismatchCount += other.mismatchCount;
+        this.accountsChecked += other.accountsChecked;
+        this.transactionsChecked += other.transactionsChecked;
+        this.rangesChecked += other.rangesChecked;
+    }
+    
+    /**
+     * Orders the reported mismatches by account ID.
+     */
+    public void sortMismatches() {
+        mismatches.sort(Comparator.comparingInt(Mismatch::getAccountId));
+    }
+    
+    public boolean isClean() {
+        return mismatchCount == 0;
+    }
+    
+    public List<Mismatch> getMismatches() {
+        return mismatches;
+    }
+    
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+    
+    public long getAccountsChecked() {
+        return accountsChecked;
+    }
+    
+    public long getTransactionsChecked() {
+        return transactionsChecked;
+    }
+    
+    public int getRangesChecked() {
+        return rangesChecked;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReconciliationReport{" +
+                "accountsChecked=" + accountsChecked +
+                ", transactionsChecked=" + transactionsChecked +
+                ", rangesChecked=" + rangesChecked +
+                ", mismatchCount=" + mismatchCount +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+    
+    /**
+     * One difference found by the reconciliation.
+     */
+    public static class Mismatch {
+        private final int accountId;
+        private final String type;
+        private final BigDecimal expected;
+        private final BigDecimal actual;
+        private final String detail;
+        
+        public Mismatch(int accountId, String type, BigDecimal expected, BigDecimal actual, String detail) {
+            this.accountId = accountId;
+            this.type = type;
+            this.expected = expected;
+            this.actual = actual;
+            this.detail = detail;
+        }
+        
+        public int getAccountId() {
+            return accountId;
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public BigDecimal getExpected() {
+            return expected;
+        }
+        
+        public BigDecimal getActual() {
+            return actual;
+        }
+        
+        public String getDetail() {
+            return detail;
+        }
+        
+        @Override
+        public String toString() {
+            return "Mismatch{" +
+                    "accountId=" + accountId +
+                    ", type='" + type + '\'' +
+                    ", expected=" + expected +
+                    ", actual=" + actual +
+                    ", detail='" + detail + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Model class representing a standing order (recurring or future-dated transfer).
+ */
+public class StandingOrder {
+    public static final List<String> FREQUENCIES = Arrays.asList("ONCE", "DAILY", "WEEKLY", "MONTHLY");
+    
+    private int orderId;
+    private int fromAccountId;
+    private int toAccountId;
+    private BigDecimal amount;
+    private String frequency; // ONCE, DAILY, WEEKLY or MONTHLY
+    private LocalDateTime firstRunAt; // anchors the day of monthly runs
+    private LocalDateTime nextRunAt;
+    private LocalDateTime dueAt;
+    private LocalDate endDate;
+    private String description;
+    private String status; // ACTIVE, COMPLETED, FAILED or CANCELLED
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public StandingOrder() {
+        this.status = "ACTIVE";
+    }
+    
+    public StandingOrder(int fromAccountId, int toAccountId, BigDecimal amount,
+                         String frequency, LocalDateTime firstRunAt) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.frequency = frequency;
+        this.firstRunAt = firstRunAt;
+        this.nextRunAt = firstRunAt;
+        this.dueAt = firstRunAt;
+        this.status = "ACTIVE";
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Creates a copy of another standing order.
+     * 
+     * @param other Standing order to copy
+     */
+    public StandingOrder(StandingOrder other) {
+        this.orderId = other.orderId;
+        this.fromAccountId = other.fromAccountId;
+        this.toAccountId = other.toAccountId;
+        this.amount = other.amount;
+        this.frequency = other.frequency;
+        this.firstRunAt = other.firstRunAt;
+        this.nextRunAt = other.nextRunAt;
+        this.dueAt = other.dueAt;
+        this.endDate = other.endDate;
+        this.description = other.description;
+        this.status = other.status;
+        this.attempts = other.attempts;
+        this.lastError = other.lastError;
+        this.createdAt = other.createdAt;
+    }
+    
+    /**
+     * Returns the regular run after a given one, or null for one-off orders and
+     * when the end date has passed. Monthly runs are counted from the first run, so an
+     * order first run on the 31st runs on the last day of shorter months and on the
+     * 31st again afterwards.
+     * 
+     * @param runAt A regular run time
+     * @return Following run time or null
+     */
+    public LocalDateTime followingRun(LocalDateTime runAt) {
+        LocalDateTime next;
+        switch (frequency) {
+            case "DAILY":
+                next = runAt.plusDays(1);
+                break;
+            case "WEEKLY":
+                next = runAt.plusWeeks(1);
+                break;
+            case "MONTHLY":
+                if (firstRunAt == null) {
+                    next = runAt.plusMonths(1);
+                } else {
+                    long months = ChronoUnit.MONTHS.between(YearMonth.from(firstRunAt), YearMonth.from(runAt));
+                    next = firstRunAt.plusMonths(months + 1);
+                }
+                break;
+            default:
+                return null;
+        }
+        return endDate != null && next.toLocalDate().isAfter(endDate) ? null : next;
+    }
+    
+    // Getters and Setters
+    public int getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+    
+    public int getFromAccountId() {
+        return fromAccountId;
+    }
+    
+    public void setFromAccountId(int fromAccountId) {
+        this.fromAccountId = fromAccountId;
+    }
+    
+    public int getToAccountId() {
+        return toAccountId;
+    }
+    
+    public void setToAccountId(int toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public String getFrequency() {
+        return frequency;
+    }
+    
+    public void setFrequency(String frequency) {
+        this.frequency = frequency;
+    }
+    
+    public LocalDateTime getFirstRunAt() {
+        return firstRunAt;
+    }
+    
+    public void setFirstRunAt(LocalDateTime firstRunAt) {
+        this.firstRunAt = firstRunAt;
+    }
+    
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+    
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+    
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+    
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "StandingOrder{" +
+                "orderId=" + orderId +
+                ", fromAccountId=" + fromAccountId +
+                ", toAccountId=" + toAccountId +
+                ", amount=" + amount +
+                ", frequency='" + frequency + '\'' +
+                ", dueAt=" + dueAt +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.bankmanagement.model;
+
+import com.bankmanagement.util.Money;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model class representing one page of an account statement, newest transaction first,
+ * with the totals of the page per transaction type.
+ */
+public class StatementPage {
+    private final List<Transaction> transactions;
+    private final boolean hasMore;
+    private final Map<String, BigDecimal> totalsByType;
+    
+    /**
+     * Creates a page and totals its transactions.
+     * 
+     * @param transactions Transactions of the page, newest first
+     * @param hasMore Whether older transactions follow
+     */
+    public StatementPage(List<Transaction> transactions, boolean hasMore) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.hasMore = hasMore;
+        Map<String, long[]> cents = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] total = cents.computeIfAbsent(transaction.getTransactionType(), type -> new long[1]);
+            total[0] = Money.add(total[0], Money.toCents(transaction.getAmount()));
+        }
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        cents.forEach((type, total) -> totals.put(type, Money.fromCents(total[0])));
+        this.totalsByType = Collections.unmodifiableMap(totals);
+    }
+    
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+    
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    public Map<String, BigDecimal> getTotalsByType() {
+        return totalsByType;
+    }
+    
+    /**
+     * Returns the oldest transaction of the page, where the next page continues.
+     * 
+     * @return Last transaction, or null if the page is empty
+     */
+    public Transaction getLastTransaction() {
+        return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1);
+    }
+    
+    @Override
+    public String toString() {
+        return "StatementPage{" +
+                "transactions=" + transactions.size() +
+                ", hasMore=" + hasMore +
+                ", totalsByType=" + totalsByType +
+                '}';
+    }
+}
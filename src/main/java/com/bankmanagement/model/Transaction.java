@@ -15,6 +15,7 @@ public class Transaction {
     private String description;
     private LocalDateTime transactionDate;
     private Integer relatedAccountId; // For transfer transactions
+    private boolean debit; // Money left the account: withdrawals and outgoing transfer legs
     
     // Constructors
     public Transaction() {
@@ -28,6 +29,24 @@ public class Transaction {
         this.amount = amount;
         this.balanceAfter = balanceAfter;
         this.transactionDate = LocalDateTime.now();
+        this.debit = "WITHDRAWAL".equals(transactionType);
+    }
+    
+    /**
+     * Creates a copy of another transaction.
+     * 
+     * @param other Transaction to copy
+     */
+    public Transaction(Transaction other) {
+        this.transactionId = other.transactionId;
+        this.accountId = other.accountId;
+        this.transactionType = other.transactionType;
+        this.amount = other.amount;
+        this.balanceAfter = other.balanceAfter;
+        this.description = other.description;
+        this.transactionDate = other.transactionDate;
+        this.relatedAccountId = other.relatedAccountId;
+        this.debit = other.debit;
     }
     
     // Getters and Setters
@@ -95,6 +114,14 @@ public class Transaction {
         this.relatedAccountId = relatedAccountId;
     }
     
+    public boolean isDebit() {
+        return debit;
+    }
+    
+    public void setDebit(boolean debit) {
+        this.debit = debit;
+    }
+    
     @Override
     public String toString() {
         return "Transaction{" +
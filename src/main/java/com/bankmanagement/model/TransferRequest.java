@@ -0,0 +1,71 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing one transfer of a batch, together with its outcome.
+ */
+public class TransferRequest {
+    private final int fromAccountId;
+    private final int toAccountId;
+    private final BigDecimal amount;
+    private final String description;
+    private boolean posted;
+    private String failure;
+    private boolean retryable;
+    
+    public TransferRequest(int fromAccountId, int toAccountId, BigDecimal amount, String description) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.description = description;
+    }
+    
+    public int getFromAccountId() {
+        return fromAccountId;
+    }
+    
+    public int getToAccountId() {
+        return toAccountId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public boolean isPosted() {
+        return posted;
+    }
+    
+    public void setPosted(boolean posted) {
+        this.posted = posted;
+    }
+    
+    /**
+     * Returns why the transfer was not posted.
+     * 
+     * @return Reason, or null if posted or not yet attempted
+     */
+    public String getFailure() {
+        return failure;
+    }
+    
+    /**
+     * Records why the transfer was not posted.
+     * 
+     * @param failure Reason
+     * @param retryable Whether a later attempt may succeed (e.g. insufficient balance)
+     */
+    public void setFailure(String failure, boolean retryable) {
+        this.failure = failure;
+        this.retryable = retryable;
+    }
+    
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -19,6 +19,18 @@ public class User {
         this.role = role;
     }
     
+    /**
+     * Creates a copy of another user.
+     * 
+     * @param other User to copy
+     */
+    public User(User other) {
+        this.userId = other.userId;
+        this.username = other.username;
+        this.password = other.password;
+        this.role = other.role;
+    }
+    
     // Getters and Setters
     public int getUserId() {
         return userId;
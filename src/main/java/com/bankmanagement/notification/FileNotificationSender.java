@@ -0,0 +1,33 @@
+package com.bankmanagement.notification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends one line per delivered message to a local file. Used for branches without an
+ * SMS gateway and for inspecting what customers would receive.
+ */
+public class FileNotificationSender implements NotificationSender {
+    private final Path file;
+    
+    public FileNotificationSender(Path file) {
+        this.file = file;
+    }
+    
+    @Override
+    public void send(String destination, List<NotificationEvent> events) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(NotificationMessages.format(destination, events));
+            writer.newLine();
+        }
+    }
+}
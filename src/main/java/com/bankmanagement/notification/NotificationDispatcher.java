@@ -0,0 +1,181 @@
+package com.bankmanagement.notification;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous customer notification pipeline.
+ * Postings publish events into a bounded lock-free ring buffer and return immediately;
+ * if the buffer is full the event is dropped and counted rather than slowing the
+ * posting down. A single dispatcher thread collects events for one batch window,
+ * groups them per destination, coalesces each group into one message and hands it
+ * to the configured {@link NotificationSender}.
+ */
+public class NotificationDispatcher {
+    private static volatile NotificationDispatcher instance;
+    
+    private final NotificationRingBuffer buffer;
+    private final NotificationSender sender;
+    private final long batchWindowNanos;
+    private final int maxBatchEvents;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final Thread worker;
+    private volatile boolean running = true;
+    
+    /**
+     * Creates and starts a dispatcher.
+     * 
+     * @param sender Sender that delivers coalesced messages
+     * @param capacity Maximum number of events waiting for dispatch
+     * @param batchWindowMillis How long events are collected before they are sent
+     */
+    public NotificationDispatcher(NotificationSender sender, int capacity, long batchWindowMillis) {
+        this.buffer = new NotificationRingBuffer(capacity);
+        this.sender = sender;
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+        this.maxBatchEvents = Math.max(1, buffer.capacity() / 4);
+        this.worker = new Thread(this::dispatchLoop, "notification-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        
+        metrics.registerGauge("notifications.queue.depth", buffer::size);
+        metrics.registerGauge("notifications.queue.capacity", buffer::capacity);
+    }
+    
+    /**
+     * Gets the application-wide dispatcher, configured from {@code bank.notifications.*}.
+     * 
+     * @return NotificationDispatcher instance
+     */
+    public static NotificationDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (NotificationDispatcher.class) {
+                if (instance == null) {
+                    instance = new NotificationDispatcher(createSender(),
+                            AppConfig.getInt("bank.notifications.capacity", 8192),
+                            AppConfig.getLong("bank.notifications.batchWindowMillis", 500));
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::stop, "notification-shutdown"));
+                }
+            }
+        }
+        return instance;
+    }
+    
+    private static NotificationSender createSender() {
+        String type = AppConfig.getString("bank.notifications.sender", "file").toLowerCase();
+        switch (type) {
+            case "file":
+                return new FileNotificationSender(Paths.get(
+                        AppConfig.getString("bank.notifications.file", "./data/notifications.log")));
+            case "stub":
+                return new StubNotificationSender();
+            default:
+                throw new IllegalStateException("Unknown notification sender: " + type);
+        }
+    }
+    
+    /**
+     * Publishes a posting for every channel the account has subscribed to. Never blocks.
+     * 
+     * @param account Account after the posting
+     * @param transactionType Transaction type
+     * @param amount Posted amount
+     */
+    public void publish(Account account, String transactionType, BigDecimal amount) {
+        if (!running || (!account.isSmsAlert() && !account.isInternetBanking())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (account.isSmsAlert()) {
+            offer(new NotificationEvent(NotificationEvent.CHANNEL_SMS, account.getAccountId(),
+                    account.getAccountNumber(), transactionType, amount, account.getBalance(), now));
+        }
+        if (account.isInternetBanking()) {
+            offer(new NotificationEvent(NotificationEvent.CHANNEL_INTERNET_BANKING, account.getAccountId(),
+                    account.getAccountNumber(), transactionType, amount, account.getBalance(), now));
+        }
+    }
+    
+    private void offer(NotificationEvent event) {
+        if (buffer.offer(event)) {
+            metrics.incrementCounter("notifications.published");
+        } else {
+            metrics.incrementCounter("notifications.dropped");
+        }
+    }
+    
+    /**
+     * Stops accepting events and waits briefly for the events already queued to be sent.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void dispatchLoop() {
+        Map<String, List<NotificationEvent>> batch = new LinkedHashMap<>();
+        int batchEvents = 0;
+        long batchStart = 0;
+        
+        while (running || buffer.size() > 0 || batchEvents > 0) {
+            NotificationEvent event = buffer.poll();
+            if (event != null) {
+                if (batchEvents == 0) {
+                    batchStart = System.nanoTime();
+                }
+                batch.computeIfAbsent(event.getDestination(), key -> new ArrayList<>()).add(event);
+                if (++batchEvents < maxBatchEvents) {
+                    continue;
+                }
+            } else if (batchEvents == 0) {
+                LockSupport.parkNanos(batchWindowNanos);
+                continue;
+            } else {
+                long remaining = batchStart + batchWindowNanos - System.nanoTime();
+                if (remaining > 0 && running) {
+                    // Producers never wake the dispatcher, so posting latency is unaffected
+                    LockSupport.parkNanos(Math.min(remaining, batchWindowNanos / 4 + 1));
+                    continue;
+                }
+            }
+            flush(batch, batchEvents);
+            batch.clear();
+            batchEvents = 0;
+        }
+    }
+    
+    private void flush(Map<String, List<NotificationEvent>> batch, int batchEvents) {
+        metrics.addToCounter("notifications.coalesced", batchEvents - batch.size());
+        for (Map.Entry<String, List<NotificationEvent>> entry : batch.entrySet()) {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                sender.send(entry.getKey(), entry.getValue());
+                success = true;
+                metrics.incrementCounter("notifications.sent");
+            } catch (IOException | RuntimeException e) {
+                metrics.incrementCounter("notifications.failed");
+                System.err.println("Error sending notification to " + entry.getKey() + ": " + e.getMessage());
+            } finally {
+                metrics.recordOperation("notification.send", System.nanoTime() - start, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.bankmanagement.notification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable notification about one posting on an account.
+ */
+public final class NotificationEvent {
+    public static final String CHANNEL_SMS = "SMS";
+    public static final String CHANNEL_INTERNET_BANKING = "INTERNET_BANKING";
+    
+    private final String channel;
+    private final int accountId;
+    private final String accountNumber;
+    private final String transactionType;
+    private final BigDecimal amount;
+    private final BigDecimal balanceAfter;
+    private final LocalDateTime postedAt;
+    
+    public NotificationEvent(String channel, int accountId, String accountNumber, String transactionType,
+                             BigDecimal amount, BigDecimal balanceAfter, LocalDateTime postedAt) {
+        this.channel = channel;
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.transactionType = transactionType;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.postedAt = postedAt;
+    }
+    
+    /**
+     * Returns the key events are batched and coalesced by: one destination per
+     * channel and account.
+     * 
+     * @return Destination key
+     */
+    public String getDestination() {
+        return channel + ":" + accountNumber;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public int getAccountId() {
+        return accountId;
+    }
+    
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+    
+    public String getTransactionType() {
+        return transactionType;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+    
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return transactionType + " " + amount + " on " + accountNumber + ", balance " + balanceAfter;
+    }
+}
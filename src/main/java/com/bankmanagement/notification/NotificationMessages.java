@@ -0,0 +1,36 @@
+package com.bankmanagement.notification;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders coalesced notifications as customer-facing text.
+ */
+final class NotificationMessages {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private NotificationMessages() {
+    }
+    
+    /**
+     * Formats the postings of one batch window as a single message. A burst of postings
+     * is summarised with the final balance instead of one message per posting.
+     * 
+     * @param destination Destination key
+     * @param events Postings, oldest first
+     * @return Message text
+     */
+    static String format(String destination, List<NotificationEvent> events) {
+        NotificationEvent last = events.get(events.size() - 1);
+        StringBuilder message = new StringBuilder();
+        message.append(TIME_FORMAT.format(last.getPostedAt())).append(' ').append(destination).append(": ");
+        if (events.size() == 1) {
+            message.append(last.getTransactionType()).append(" of ").append(last.getAmount());
+        } else {
+            message.append(events.size()).append(" transactions");
+        }
+        message.append(" on account ").append(last.getAccountNumber())
+               .append(". Available balance: ").append(last.getBalanceAfter());
+        return message.toString();
+    }
+}
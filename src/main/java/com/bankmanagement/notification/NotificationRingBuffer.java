@@ -0,0 +1,86 @@
+package com.bankmanagement.notification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * Each slot carries a sequence number that tells producers whether it is free and the
+ * consumer whether it is published, so neither side ever blocks: {@link #offer} fails
+ * immediately when the buffer is full and {@link #poll} returns {@code null} when it
+ * is empty.
+ */
+class NotificationRingBuffer {
+    private final NotificationEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    /**
+     * Creates a buffer.
+     * 
+     * @param capacity Requested capacity, rounded up to a power of two
+     */
+    NotificationRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new NotificationEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Publishes an event without blocking. Safe to call from any thread.
+     * 
+     * @param event Event to publish
+     * @return false if the buffer is full
+     */
+    boolean offer(NotificationEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Takes the oldest published event. Must only be called from the consumer thread.
+     * 
+     * @return Event, or null if none is published
+     */
+    NotificationEvent poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        NotificationEvent event = slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, position + mask + 1);
+        head = position + 1;
+        return event;
+    }
+    
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+}
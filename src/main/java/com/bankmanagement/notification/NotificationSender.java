@@ -0,0 +1,19 @@
+package com.bankmanagement.notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Delivers coalesced notifications to one destination (SMS gateway, internet banking
+ * inbox, ...). Called only from the dispatcher thread, so implementations may block.
+ */
+public interface NotificationSender {
+    /**
+     * Sends all postings collected for a destination during one batch window.
+     * 
+     * @param destination Destination key (channel and account number)
+     * @param events Postings in the order they were published, never empty
+     * @throws IOException if delivery fails
+     */
+    void send(String destination, List<NotificationEvent> events) throws IOException;
+}
@@ -0,0 +1,26 @@
+package com.bankmanagement.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered messages in memory instead of sending them. Intended for tests,
+ * benchmarks and demos.
+ */
+public class StubNotificationSender implements NotificationSender {
+    private final List<String> messages = new ArrayList<>();
+    
+    @Override
+    public synchronized void send(String destination, List<NotificationEvent> events) {
+        messages.add(NotificationMessages.format(destination, events));
+    }
+    
+    /**
+     * Returns the messages delivered so far.
+     * 
+     * @return Copy of the delivered messages
+     */
+    public synchronized List<String> getMessages() {
+        return new ArrayList<>(messages);
+    }
+}
@@ -0,0 +1,462 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.StartupWarmup;
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.controller.AdmissionRejectedException;
+import com.bankmanagement.controller.AuthController;
+import com.bankmanagement.controller.BankController;
+import com.bankmanagement.dao.DataStore;
+import com.bankmanagement.dao.DataStores;
+import com.bankmanagement.dao.JdbcDataStore;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.DatabaseConnection;
+import com.bankmanagement.util.Json;
+import com.bankmanagement.util.MetricsRegistry;
+import com.bankmanagement.util.PerThreadConnectionProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless server exposing the {@link BankController} and {@link AuthController}
+ * operations as a JSON API on the JDK's built-in HTTP server, so that many teller
+ * terminals share one backend (its connections, single-flight reads, velocity limits
+ * and hot-account cache) instead of each opening its own database connection.
+ * <p>
+ * Every operation is a {@code POST /api/<operation>} whose body is a JSON object of
+ * named arguments; the response is {@code {"result": ...}} or, on failure,
+ * {@code {"error": ..., "sqlState": ...}} with status 400 (invalid request), 401 (not
+ * signed in), 503 (server busy, see {@link com.bankmanagement.controller.AdmissionController})
+ * or 500. {@code login} returns a session token that the other operations expect as
+ * {@code Authorization: Bearer <token>}. {@code GET /health} answers without one.
+ * Request bodies larger than {@code bank.server.maxRequestBytes} (a few kilobytes for
+ * {@code login}, which is read before anyone is signed in) are refused with 413.
+ * <p>
+ * The server listens on {@code bank.server.host}, loopback by default. With
+ * {@code bank.server.keyStore} set it serves HTTPS with that PKCS12 key store; otherwise
+ * it speaks plain HTTP and has to be reached through a TLS-terminating proxy.
+ * <p>
+ * Requests run on a fixed pool of {@code bank.server.threads} threads, each with a
+ * database connection of its own, so the number of database sessions is bounded
+ * however many terminals are connected. With {@code bank.server.binaryPort} set, a
+ * {@link BinaryServer} also serves the most frequent operations on that port.
+ */
+public class BankServer {
+    private final BankController bank;
+    private final AuthController auth;
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final Map<String, Operation> operations = new HashMap<>();
+    private static final int MAX_LOGIN_BYTES = 4096;
+    
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final long sessionMillis;
+    private final int maxRequestBytes;
+    
+    /**
+     * Creates a server; it accepts requests once started.
+     * 
+     * @param dataStore Storage backend, shared by all request threads
+     * @param address Address to listen on
+     * @param threads Number of request threads
+     * @throws IOException if the address cannot be bound
+     */
+    public BankServer(DataStore dataStore, InetSocketAddress address, int threads) throws IOException {
+        this.bank = new BankController(dataStore);
+        this.auth = new AuthController(dataStore);
+        this.sessionMillis = AppConfig.getLong("bank.server.sessionMinutes", 12 * 60) * 60_000;
+        this.maxRequestBytes = AppConfig.getInt("bank.server.maxRequestBytes", 4 * 1024 * 1024);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bank-server-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer = createHttpServer(address, AppConfig.getInt("bank.server.backlog", 256));
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/api/", this::handle);
+        httpServer.createContext("/health",
+                exchange -> respond(exchange, 200, Collections.singletonMap("status", "UP")));
+        metrics.registerGauge("server.sessions", sessions::size);
+        registerOperations();
+    }
+    
+    /**
+     * Creates an HTTPS server if {@code bank.server.keyStore} is set, a plain HTTP server
+     * otherwise.
+     */
+    private static HttpServer createHttpServer(InetSocketAddress address, int backlog) throws IOException {
+        String keyStorePath = AppConfig.getString("bank.server.keyStore", null);
+        if (keyStorePath == null) {
+            return HttpServer.create(address, backlog);
+        }
+        char[] password = AppConfig.getString("bank.server.keyStorePassword", "").toCharArray();
+        try (InputStream in = Files.newInputStream(Paths.get(keyStorePath))) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(keyStore, password);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagers.getKeyManagers(), null, null);
+            HttpsServer httpsServer = HttpsServer.create(address, backlog);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+            return httpsServer;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot load key store " + keyStorePath + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Runs the server on MySQL (or {@code bank.datastore=memory} for demos) until the
+     * process is stopped. Also runs the background services, which the terminals do not
+     * run in remote mode.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : AppConfig.getInt("bank.server.port", 8080);
+        int threads = AppConfig.getInt("bank.server.threads", 32);
+        String host = AppConfig.getString("bank.server.host", "127.0.0.1");
+        String backend = AppConfig.getString("bank.datastore", "mysql");
+        PerThreadConnectionProvider connections = null;
+        DataStore dataStore;
+        if ("mysql".equalsIgnoreCase(backend)) {
+            connections = new PerThreadConnectionProvider(DatabaseConnection.getInstance()::openConnection);
+            dataStore = new JdbcDataStore(connections);
+        } else {
+            dataStore = DataStores.create(backend);
+        }
+        DataStores.setDefault(dataStore);
+        
+        BankServer server = new BankServer(dataStore, new InetSocketAddress(host, port), threads);
+        server.start();
+        int binaryPort = AppConfig.getInt("bank.server.binaryPort", 0);
+        BinaryServer binary = binaryPort > 0 ? new BinaryServer(server, new InetSocketAddress(host, binaryPort))
+                                                   : null;
+        if (binary != null) {
+            binary.start();
+        }
+        StartupWarmup.startBackgroundServices();
+        PerThreadConnectionProvider pool = connections;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (binary != null) {
+                binary.stop();
+            }
+            server.stop();
+            if (pool != null) {
+                pool.close();
+            }
+        }, "bank-server-shutdown"));
+        System.out.println("Bank server listening on " + host + ":" + server.getPort() + " with " + threads
+                           + " threads");
+        boolean loopback = server.httpServer.getAddress().getAddress().isLoopbackAddress();
+        if (!(server.httpServer instanceof HttpsServer) && !loopback) {
+            System.err.println("Warning: plain HTTP on a non-loopback address; put a TLS-terminating proxy in front"
+                               + " of the server or set bank.server.keyStore");
+        }
+        if (binary != null) {
+            System.out.println("Binary protocol listening on port " + binary.getPort());
+        }
+    }
+    
+    public void start() {
+        httpServer.start();
+    }
+    
+    /**
+     * Stops accepting requests, lets running ones finish for up to a second and stops
+     * the request threads.
+     */
+    public void stop() {
+        httpServer.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+    
+    BankController bank() {
+        return bank;
+    }
+    
+    ExecutorService executor() {
+        return executor;
+    }
+    
+    private void registerOperations() {
+        operations.put("login", this::login);
+        operations.put("createCustomerAccount", args -> JsonMapping.account(bank.createCustomerAccount(
+                JsonMapping.toCustomer(args.get("customer")), args.string("accountType"),
+                args.string("modeOfOperation"), args.decimal("initialDeposit"), args.bool("smsAlert"),
+                args.bool("internetBanking"), args.bool("atmCard"))));
+        operations.put("deposit", args -> JsonMapping.account(
+                bank.deposit(args.integer("accountId"), args.decimal("amount"))));
+        operations.put("withdraw", args -> JsonMapping.account(
+                bank.withdraw(args.integer("accountId"), args.decimal("amount"))));
+        operations.put("transfer", args -> JsonMapping.account(
+                bank.transfer(args.integer("fromAccountId"), args.integer("toAccountId"), args.decimal("amount"))));
+        operations.put("payroll", args -> JsonMapping.payrollResult(bank.payroll(args.integer("debitAccountId"),
+                JsonMapping.toList(args.get("lines"), JsonMapping::toPayrollLine))));
+        operations.put("createStandingOrder", args -> JsonMapping.standingOrder(bank.createStandingOrder(
+                args.integer("fromAccountId"), args.integer("toAccountId"), args.decimal("amount"),
+                args.string("frequency"), args.dateTime("firstRunAt"), args.date("endDate"),
+                args.string("description"))));
+        operations.put("getStandingOrders", args -> JsonMapping.list(
+                bank.getStandingOrders(args.integer("accountId")), JsonMapping::standingOrder));
+        operations.put("cancelStandingOrder", args -> bank.cancelStandingOrder(args.integer("orderId")));
+        operations.put("getBalance", args -> bank.getBalance(args.integer("accountId")));
+        operations.put("getAccount", args -> JsonMapping.account(bank.getAccount(args.integer("accountId"))));
+        operations.put("setHotAccount", args -> {
+            bank.setHotAccount(args.integer("accountId"), args.integer("slots"));
+            return null;
+        });
+        operations.put("getHotAccounts", args -> JsonMapping.intLongMap(bank.getHotAccounts()));
+        operations.put("getTransactionHistory", args -> JsonMapping.list(
+                bank.getTransactionHistory(args.integer("accountId")), JsonMapping::transaction));
+        operations.put("getStatementPage", args -> JsonMapping.statementPage(bank.getStatementPage(
+                args.integer("accountId"), args.dateTime("from"), args.dateTime("until"),
+                JsonMapping.toTransaction(args.get("after")))));
+        operations.put("getCustomer", args -> JsonMapping.customer(bank.getCustomer(args.integer("customerId"))));
+        operations.put("getCustomerOverview", args -> JsonMapping.customerOverview(
+                bank.getCustomerOverview(args.integer("customerId"))));
+        operations.put("getCustomerAccounts", args -> JsonMapping.list(
+                bank.getCustomerAccounts(args.integer("customerId")), JsonMapping::account));
+        operations.put("getAllCustomers", args -> JsonMapping.list(bank.getAllCustomers(), JsonMapping::customer));
+        operations.put("updateCustomer", args -> bank.updateCustomer(JsonMapping.toCustomer(args.get("customer"))));
+        operations.put("deleteCustomer", args -> bank.deleteCustomer(args.integer("customerId")));
+    }
+    
+    /**
+     * Signs a user in and opens a session.
+     * 
+     * @return Session token and user, or null if the credentials are wrong
+     */
+    private Object login(Arguments args) {
+        User user = auth.authenticate(args.string("username"), args.string("password"));
+        if (user == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> now - session.lastUsed > sessionMillis);
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, now));
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", token);
+        result.put("user", JsonMapping.user(user));
+        return result;
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        String name = exchange.getRequestURI().getPath().substring("/api/".length());
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Operation operation = operations.get(name);
+            if (operation == null) {
+                respondError(exchange, 404, "Unknown operation: " + name, null);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respondError(exchange, 405, "Operations must be called with POST", null);
+                return;
+            }
+            User user = sessionUser(exchange);
+            if (!"login".equals(name) && user == null) {
+                respondError(exchange, 401, "Not signed in or session expired", "28000");
+                return;
+            }
+            // The controllers record their actions in the audit log for this user
+            AuditContext.setThreadUser(user);
+            String body = readBody(exchange, user == null ? Math.min(MAX_LOGIN_BYTES, maxRequestBytes)
+                                                          : maxRequestBytes);
+            if (body == null) {
+                respondError(exchange, 413, "Request body too large", null);
+                return;
+            }
+            Map<String, Object> args = body.trim().isEmpty()
+                    ? Collections.emptyMap()
+                    : JsonMapping.object(Json.parse(body));
+            Object result = operation.call(new Arguments(args));
+            respond(exchange, 200, Collections.singletonMap("result", result));
+            success = true;
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            respondError(exchange, 400, e.getMessage(), null);
+        } catch (AdmissionRejectedException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respondError(exchange, 503, e.getMessage(), e.getSQLState());
+        } catch (SQLException e) {
+            respondError(exchange, 500, e.getMessage(), e.getSQLState());
+        } catch (RuntimeException e) {
+            System.err.println("Bank server operation " + name + " failed: " + e);
+            respondError(exchange, 500, e.getMessage(), null);
+        } finally {
+            AuditContext.clearThreadUser();
+            exchange.close();
+            metrics.recordOperation("server." + name, System.nanoTime() - start, success);
+        }
+    }
+    
+    private User sessionUser(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return sessionUser(header.substring("Bearer ".length()).trim());
+    }
+    
+    /**
+     * Returns the user of a session and marks the session as used.
+     * 
+     * @param token Session token returned by {@code login}
+     * @return Signed-in user, or null if the session does not exist or expired
+     */
+    User sessionUser(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        long now = System.currentTimeMillis();
+        if (session == null || now - session.lastUsed > sessionMillis) {
+            if (token != null) {
+                sessions.remove(token);
+            }
+            return null;
+        }
+        session.lastUsed = now;
+        return session.user;
+    }
+    
+    /**
+     * Reads the request body, or returns null without reading it all if it is longer than
+     * the limit.
+     */
+    private static String readBody(HttpExchange exchange, int maxBytes) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxBytes) {
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid Content-Length: " + contentLength);
+            }
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(maxBytes + 1);
+            return body.length > maxBytes ? null : new String(body, StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static void respondError(HttpExchange exchange, int status, String message, String sqlState)
+            throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", message);
+        error.put("sqlState", sqlState);
+        respond(exchange, status, error);
+    }
+    
+    private static void respond(HttpExchange exchange, int status, Object json) throws IOException {
+        byte[] body = Json.write(json).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    /**
+     * An operation of the API, called with the request's named arguments.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        Object call(Arguments args) throws SQLException;
+    }
+    
+    /**
+     * The named arguments of a request.
+     */
+    private static final class Arguments {
+        private final Map<String, Object> json;
+        
+        private Arguments(Map<String, Object> json) {
+            this.json = json;
+        }
+        
+        Object get(String name) {
+            return json.get(name);
+        }
+        
+        int integer(String name) {
+            return JsonMapping.integer(json, name);
+        }
+        
+        BigDecimal decimal(String name) {
+            return JsonMapping.decimal(json, name);
+        }
+        
+        String string(String name) {
+            return JsonMapping.string(json, name);
+        }
+        
+        boolean bool(String name) {
+            return JsonMapping.bool(json, name);
+        }
+        
+        LocalDateTime dateTime(String name) {
+            return JsonMapping.dateTime(json, name);
+        }
+        
+        LocalDate date(String name) {
+            return JsonMapping.date(json, name);
+        }
+    }
+    
+    /**
+     * A signed-in user and when their session was last used.
+     */
+    private static final class Session {
+        private final User user;
+        private volatile long lastUsed;
+        
+        private Session(User user, long lastUsed) {
+            this.user = user;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.controller.AdmissionRejectedException;
+import com.bankmanagement.controller.AuthOperations;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.IntLongMap;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs balance inquiries, deposits, withdrawals and transfers on a {@link BinaryServer}
+ * and all other operations through a {@link RemoteBankClient}, whose session the
+ * binary connection signs in with. Failures come back as the same exceptions as from
+ * the HTTP client.
+ * <p>
+ * All calls share one connection. Requests are written as soon as they are made,
+ * without waiting for earlier answers, and a reader thread hands every answer to its
+ * caller, so a screen or batch can pipeline many requests with the {@code ...Async}
+ * methods and pay the link's round trip once. A broken connection fails the calls
+ * waiting on it and is reopened by the next call.
+ */
+public class BinaryBankClient implements BankOperations, AuthOperations {
+    private final RemoteBankClient http;
+    private final String host;
+    private final int port;
+    private final int connectTimeoutMillis;
+    private final long timeoutMillis;
+    private final Object writeLock = new Object();
+    private final ByteBuffer requestBuffer = ByteBuffer.allocateDirect(1024);
+    private Link link;
+    
+    /**
+     * Creates a client; it connects on its first call.
+     * 
+     * @param http Client for the other operations and the session
+     * @param host Host of the server
+     * @param port Port of the server's binary protocol ({@code bank.server.binaryPort})
+     */
+    public BinaryBankClient(RemoteBankClient http, String host, int port) {
+        this.http = http;
+        this.host = host;
+        this.port = port;
+        this.connectTimeoutMillis = AppConfig.getInt("bank.server.connectTimeoutMillis", 5_000);
+        this.timeoutMillis = AppConfig.getLong("bank.server.timeoutMillis", 30_000);
+    }
+    
+    @Override
+    public User authenticate(String username, String password) {
+        User user = http.authenticate(username, password);
+        if (user != null) {
+            // The next call connects again and signs in with the new session
+            synchronized (writeLock) {
+                if (link != null) {
+                    link.fail(new EOFException("Signed in again"));
+                    link = null;
+                }
+            }
+        }
+        return user;
+    }
+    
+    /**
+     * Asks for the balance of an account without waiting for the answer.
+     * 
+     * @param accountId Account ID
+     * @return Balance; fails like {@link #getBalance}
+     */
+    public CompletableFuture<BigDecimal> getBalanceAsync(int accountId) {
+        return send(BinaryProtocol.GET_BALANCE, out -> BinaryProtocol.putInt(out, accountId),
+                    BinaryProtocol::getDecimal);
+    }
+    
+    /**
+     * Deposits without waiting for the answer.
+     * 
+     * @param accountId Account ID
+     * @param amount Amount to deposit
+     * @return Updated account; fails like {@link #deposit}
+     */
+    public CompletableFuture<Account> depositAsync(int accountId, BigDecimal amount) {
+        return send(BinaryProtocol.DEPOSIT, out -> {
+            BinaryProtocol.putInt(out, accountId);
+            BinaryProtocol.putDecimal(out, amount);
+        }, BinaryProtocol::getAccount);
+    }
+    
+    /**
+     * Withdraws without waiting for the answer.
+     * 
+     * @param accountId Account ID
+     * @param amount Amount to withdraw
+     * @return Updated account; fails like {@link #withdraw}
+     */
+    public CompletableFuture<Account> withdrawAsync(int accountId, BigDecimal amount) {
+        return send(BinaryProtocol.WITHDRAW, out -> {
+            BinaryProtocol.putInt(out, accountId);
+            BinaryProtocol.putDecimal(out, amount);
+        }, BinaryProtocol::getAccount);
+    }
+    
+    /**
+     * Transfers without waiting for the answer.
+     * 
+     * @param fromAccountId Source account ID
+     * @param toAccountId Destination account ID
+     * @param amount Amount to transfer
+     * @return Updated source account; fails like {@link #transfer}
+     */
+    public CompletableFuture<Account> transferAsync(int fromAccountId, int toAccountId, BigDecimal amount) {
+        return send(BinaryProtocol.TRANSFER, out -> {
+            BinaryProtocol.putInt(out, fromAccountId);
+            BinaryProtocol.putInt(out, toAccountId);
+            BinaryProtocol.putDecimal(out, amount);
+        }, BinaryProtocol::getAccount);
+    }
+    
+    @Override
+    public BigDecimal getBalance(int accountId) throws SQLException {
+        return await(getBalanceAsync(accountId));
+    }
+    
+    @Override
+    public Account deposit(int accountId, BigDecimal amount) throws SQLException {
+        return await(depositAsync(accountId, amount));
+    }
+    
+    @Override
+    public Account withdraw(int accountId, BigDecimal amount) throws SQLException {
+        return await(withdrawAsync(accountId, amount));
+    }
+    
+    @Override
+    public Account transfer(int fromAccountId, int toAccountId, BigDecimal amount) throws SQLException {
+        return await(transferAsync(fromAccountId, toAccountId, amount));
+    }
+    
+    @Override
+    public Account createCustomerAccount(Customer customer, String accountType,
+                                         String modeOfOperation, BigDecimal initialDeposit,
+                                         boolean smsAlert, boolean internetBanking,
+                                         boolean atmCard) throws SQLException {
+        return http.createCustomerAccount(customer, accountType, modeOfOperation, initialDeposit,
+                                          smsAlert, internetBanking, atmCard);
+    }
+    
+    @Override
+    public PayrollResult payroll(int debitAccountId, List<PayrollLine> lines) {
+        return http.payroll(debitAccountId, lines);
+    }
+    
+    @Override
+    public StandingOrder createStandingOrder(int fromAccountId, int toAccountId, BigDecimal amount,
+                                             String frequency, LocalDateTime firstRunAt,
+                                             LocalDate endDate, String description) throws SQLException {
+        return http.createStandingOrder(fromAccountId, toAccountId, amount, frequency, firstRunAt,
+                                        endDate, description);
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrders(int accountId) throws SQLException {
+        return http.getStandingOrders(accountId);
+    }
+    
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        return http.cancelStandingOrder(orderId);
+    }
+    
+    @Override
+    public Account getAccount(int accountId) throws SQLException {
+        return http.getAccount(accountId);
+    }
+    
+    @Override
+    public void setHotAccount(int accountId, int slots) throws SQLException {
+        http.setHotAccount(accountId, slots);
+    }
+    
+    @Override
+    public IntLongMap getHotAccounts() throws SQLException {
+        return http.getHotAccounts();
+    }
+    
+    @Override
+    public List<Transaction> getTransactionHistory(int accountId) throws SQLException {
+        return http.getTransactionHistory(accountId);
+    }
+    
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after) throws SQLException {
+        return http.getStatementPage(accountId, from, until, after);
+    }
+    
+    @Override
+    public Customer getCustomer(int customerId) throws SQLException {
+        return http.getCustomer(customerId);
+    }
+    
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId) throws SQLException {
+        return http.getCustomerOverview(customerId);
+    }
+    
+    @Override
+    public List<Account> getCustomerAccounts(int customerId) throws SQLException {
+        return http.getCustomerAccounts(customerId);
+    }
+    
+    @Override
+    public List<Customer> getAllCustomers() throws SQLException {
+        return http.getAllCustomers();
+    }
+    
+    @Override
+    public boolean updateCustomer(Customer customer) throws SQLException {
+        return http.updateCustomer(customer);
+    }
+    
+    @Override
+    public boolean deleteCustomer(int customerId) throws SQLException {
+        return http.deleteCustomer(customerId);
+    }
+    
+    /**
+     * Closes the connection; calls waiting for an answer fail.
+     */
+    public void close() {
+        synchronized (writeLock) {
+            if (link != null) {
+                link.fail(new EOFException("Client closed"));
+                link = null;
+            }
+        }
+    }
+    
+    /**
+     * Writes a request and registers for its answer, which arrives in request order.
+     */
+    private <T> CompletableFuture<T> send(int code, Consumer<ByteBuffer> arguments, Function<ByteBuffer, T> result) {
+        Call<T> call = new Call<>(result);
+        synchronized (writeLock) {
+            Link current = null;
+            try {
+                // Connects first: signing in uses the request buffer
+                current = connect();
+                requestBuffer.clear();
+                int frame = BinaryProtocol.beginFrame(requestBuffer, code);
+                try {
+                    arguments.accept(requestBuffer);
+                } catch (ArithmeticException e) {
+                    call.completeExceptionally(new IllegalArgumentException("Amount out of range"));
+                    return call;
+                }
+                BinaryProtocol.endFrame(requestBuffer, frame);
+                requestBuffer.flip();
+                current.pending.add(call);
+                while (requestBuffer.hasRemaining()) {
+                    current.channel.write(requestBuffer);
+                }
+            } catch (IOException e) {
+                if (current != null) {
+                    current.fail(e);
+                }
+                call.completeExceptionally(unreachable(e));
+            }
+        }
+        return call;
+    }
+    
+    /**
+     * Returns the open connection, or opens one and signs it in. Called holding the write lock.
+     */
+    private Link connect() throws IOException {
+        if (link != null && !link.broken) {
+            return link;
+        }
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        link = new Link(channel);
+        link.start();
+        
+        // Pipelined like any request: if the session is not valid, the calls after it say so
+        requestBuffer.clear();
+        int frame = BinaryProtocol.beginFrame(requestBuffer, BinaryProtocol.LOGIN);
+        BinaryProtocol.putString(requestBuffer, http.token());
+        BinaryProtocol.endFrame(requestBuffer, frame);
+        requestBuffer.flip();
+        link.pending.add(new Call<>(in -> null));
+        while (requestBuffer.hasRemaining()) {
+            channel.write(requestBuffer);
+        }
+        return link;
+    }
+    
+    /**
+     * Waits for an answer and throws the failure the local controller would have thrown.
+     */
+    private <T> T await(CompletableFuture<T> call) throws SQLException {
+        try {
+            return call.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                // A new exception, so the caller's stack trace is kept
+                SQLException failure = (SQLException) cause;
+                throw new SQLException(failure.getMessage(), failure.getSQLState(), failure.getErrorCode(), failure);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause.getMessage(), "08S01", cause);
+        } catch (TimeoutException e) {
+            throw new SQLException("Bank server did not answer within " + timeoutMillis + " ms", "08S01", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the bank server", "08S01", e);
+        }
+    }
+    
+    private static SQLException unreachable(IOException e) {
+        return new SQLException("Bank server not reachable: " + e.getMessage(), "08S01", e);
+    }
+    
+    /**
+     * An open connection, the calls waiting for answers on it in request order, and
+     * the thread reading the answers.
+     */
+    private static final class Link {
+        private final SocketChannel channel;
+        private final Queue<Call<?>> pending = new ConcurrentLinkedQueue<>();
+        private final Thread reader;
+        private volatile boolean broken;
+        
+        private Link(SocketChannel channel) {
+            this.channel = channel;
+            this.reader = new Thread(this::read, "bank-binary-client-reader");
+            reader.setDaemon(true);
+        }
+        
+        private void start() {
+            reader.start();
+        }
+        
+        private void read() {
+            ByteBuffer in = ByteBuffer.allocateDirect(BinaryProtocol.LENGTH_BYTES + BinaryProtocol.MAX_FRAME_BYTES);
+            try {
+                while (true) {
+                    if (channel.read(in) < 0) {
+                        throw new EOFException("Connection closed by the bank server");
+                    }
+                    in.flip();
+                    int length;
+                    while ((length = BinaryProtocol.completeFrameLength(in)) >= 0) {
+                        int end = in.position() + BinaryProtocol.LENGTH_BYTES + length;
+                        int limit = in.limit();
+                        in.position(in.position() + BinaryProtocol.LENGTH_BYTES).limit(end);
+                        Call<?> call = pending.poll();
+                        if (call == null) {
+                            throw new IOException("Answer without a request");
+                        }
+                        call.answer(in);
+                        in.limit(limit).position(end);
+                    }
+                    in.compact();
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        
+        /**
+         * Closes the connection and fails every call still waiting on it.
+         */
+        private void fail(IOException cause) {
+            broken = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already failing
+            }
+            Call<?> call;
+            while ((call = pending.poll()) != null) {
+                call.completeExceptionally(unreachable(cause));
+            }
+        }
+    }
+    
+    /**
+     * A request waiting for its answer, and how to decode the result.
+     */
+    private static final class Call<T> extends CompletableFuture<T> {
+        private final Function<ByteBuffer, T> result;
+        
+        private Call(Function<ByteBuffer, T> result) {
+            this.result = result;
+        }
+        
+        /**
+         * Completes the call from its response frame.
+         * 
+         * @throws IOException if the frame cannot be decoded; the link is then out of
+         *                     step with the server and must be closed
+         */
+        private void answer(ByteBuffer frame) throws IOException {
+            try {
+                int status = frame.get();
+                switch (status) {
+                    case BinaryProtocol.OK:
+                        complete(result.apply(frame));
+                        break;
+                    case BinaryProtocol.REJECTED:
+                        completeExceptionally(new IllegalArgumentException(BinaryProtocol.getString(frame)));
+                        break;
+                    case BinaryProtocol.DATABASE_ERROR:
+                        String sqlState = BinaryProtocol.getString(frame);
+                        String message = BinaryProtocol.getString(frame);
+                        completeExceptionally(AdmissionRejectedException.SQL_STATE.equals(sqlState)
+                                ? new AdmissionRejectedException(message)
+                                : new SQLException(message, sqlState != null ? sqlState : "HY000"));
+                        break;
+                    case BinaryProtocol.NOT_SIGNED_IN:
+                        completeExceptionally(new SQLException(BinaryProtocol.getString(frame), "28000"));
+                        break;
+                    default:
+                        completeExceptionally(new SQLException(BinaryProtocol.getString(frame), "08P01"));
+                        break;
+                }
+            } catch (RuntimeException e) {
+                completeExceptionally(new SQLException("Invalid response from bank server", "08S01", e));
+                throw new IOException("Invalid response from bank server: " + e, e);
+            }
+        }
+    }
+}
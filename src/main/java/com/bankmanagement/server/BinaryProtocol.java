@@ -0,0 +1,245 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.model.Account;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The compact binary protocol of {@link BinaryServer} for the operations that dominate
+ * terminal traffic. Every frame is a 2-byte unsigned length, counting the bytes after
+ * it, then a code byte and the payload: an operation code in requests, a status in
+ * responses. A client may send many requests without waiting; the server answers
+ * the requests of a connection one after another, in the order they were sent.
+ * <p>
+ * Integers are zigzag variable-length (1 byte up to 63, 2 bytes up to 8191, ...),
+ * amounts are a scale byte and the unscaled value as such an integer, strings are
+ * their UTF-8 length plus one followed by the bytes (0 for null), and nullable values
+ * are preceded by a presence byte. A deposit request is about 10 bytes.
+ * <table>
+ *   <caption>Operations</caption>
+ *   <tr><th>Code</th><th>Request</th><th>Result</th></tr>
+ *   <tr><td>{@link #LOGIN}</td><td>session token of the HTTP API</td><td>none</td></tr>
+ *   <tr><td>{@link #GET_BALANCE}</td><td>account ID</td><td>amount</td></tr>
+ *   <tr><td>{@link #DEPOSIT}, {@link #WITHDRAW}</td><td>account ID, amount</td><td>nullable account</td></tr>
+ *   <tr><td>{@link #TRANSFER}</td><td>from and to account IDs, amount</td><td>nullable account</td></tr>
+ * </table>
+ * Failures carry a message; {@link #DATABASE_ERROR} the SQL state before it. After a
+ * {@link #PROTOCOL_ERROR} the server closes the connection.
+ */
+final class BinaryProtocol {
+    static final int LOGIN = 1;
+    static final int GET_BALANCE = 2;
+    static final int DEPOSIT = 3;
+    static final int WITHDRAW = 4;
+    static final int TRANSFER = 5;
+    
+    static final int OK = 0;
+    static final int REJECTED = 1;
+    static final int DATABASE_ERROR = 2;
+    static final int NOT_SIGNED_IN = 3;
+    static final int PROTOCOL_ERROR = 4;
+    
+    /** Bytes of the length prefix. */
+    static final int LENGTH_BYTES = 2;
+    static final int MAX_FRAME_BYTES = 0xFFFF;
+    
+    /** Longest error message sent; longer ones are cut, so that responses stay small. */
+    private static final int MAX_MESSAGE_CHARS = 500;
+    
+    private static final int SMS_ALERT = 1;
+    private static final int INTERNET_BANKING = 1 << 1;
+    private static final int ATM_CARD = 1 << 2;
+    private static final int CREATED_AT = 1 << 3;
+    
+    private BinaryProtocol() {
+    }
+    
+    static String operationName(int code) {
+        switch (code) {
+            case LOGIN:
+                return "login";
+            case GET_BALANCE:
+                return "getBalance";
+            case DEPOSIT:
+                return "deposit";
+            case WITHDRAW:
+                return "withdraw";
+            case TRANSFER:
+                return "transfer";
+            default:
+                return "unknown";
+        }
+    }
+    
+    /**
+     * Starts a frame: leaves room for the length and puts the code.
+     * 
+     * @param buffer Buffer to write to
+     * @param code Operation code or status
+     * @return Position of the frame, for {@link #endFrame}
+     */
+    static int beginFrame(ByteBuffer buffer, int code) {
+        int start = buffer.position();
+        buffer.position(start + LENGTH_BYTES);
+        buffer.put((byte) code);
+        return start;
+    }
+    
+    /**
+     * Ends a frame by filling in its length.
+     * 
+     * @param buffer Buffer written to
+     * @param start Position returned by {@link #beginFrame}
+     */
+    static void endFrame(ByteBuffer buffer, int start) {
+        int length = buffer.position() - start - LENGTH_BYTES;
+        if (length > MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("Frame too long: " + length + " bytes");
+        }
+        buffer.putShort(start, (short) length);
+    }
+    
+    /**
+     * Returns the length of the complete frame at the buffer's position, without
+     * consuming anything.
+     * 
+     * @param buffer Buffer in read mode
+     * @return Length after the prefix, or -1 if the buffer does not hold the whole frame yet
+     */
+    static int completeFrameLength(ByteBuffer buffer) {
+        if (buffer.remaining() < LENGTH_BYTES) {
+            return -1;
+        }
+        int length = buffer.getShort(buffer.position()) & 0xFFFF;
+        return buffer.remaining() - LENGTH_BYTES < length ? -1 : length;
+    }
+    
+    static void putInt(ByteBuffer buffer, int value) {
+        putLong(buffer, value);
+    }
+    
+    static int getInt(ByteBuffer buffer) {
+        return Math.toIntExact(getLong(buffer));
+    }
+    
+    static void putLong(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+    
+    static long getLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed integer");
+            }
+            byte b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+    
+    /**
+     * Writes an amount.
+     * 
+     * @throws ArithmeticException if its unscaled value does not fit in a long
+     */
+    static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        buffer.put((byte) value.scale());
+        putLong(buffer, value.unscaledValue().longValueExact());
+    }
+    
+    static BigDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.get();
+        return new BigDecimal(BigInteger.valueOf(getLong(buffer)), scale);
+    }
+    
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            putInt(buffer, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(buffer, bytes.length + 1);
+        buffer.put(bytes);
+    }
+    
+    static String getString(ByteBuffer buffer) {
+        int length = getInt(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed string");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static void putMessage(ByteBuffer buffer, String message) {
+        putString(buffer, message != null && message.length() > MAX_MESSAGE_CHARS
+                ? message.substring(0, MAX_MESSAGE_CHARS) : message);
+    }
+    
+    static void putAccount(ByteBuffer buffer, Account account) {
+        if (account == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        int flags = (account.isSmsAlert() ? SMS_ALERT : 0)
+                | (account.isInternetBanking() ? INTERNET_BANKING : 0)
+                | (account.isAtmCard() ? ATM_CARD : 0)
+                | (account.getCreatedAt() != null ? CREATED_AT : 0);
+        buffer.put((byte) flags);
+        putInt(buffer, account.getAccountId());
+        putInt(buffer, account.getCustomerId());
+        putString(buffer, account.getAccountNumber());
+        putString(buffer, account.getAccountType());
+        putString(buffer, account.getModeOfOperation());
+        putLong(buffer, account.getBalanceCents());
+        if (account.getCreatedAt() != null) {
+            putLong(buffer, account.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            putInt(buffer, account.getCreatedAt().getNano());
+        }
+        putLong(buffer, account.getVersion());
+        putInt(buffer, account.getLedgerSlots());
+    }
+    
+    static Account getAccount(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        int flags = buffer.get();
+        Account account = new Account();
+        account.setAccountId(getInt(buffer));
+        account.setCustomerId(getInt(buffer));
+        account.setAccountNumber(getString(buffer));
+        account.setAccountType(getString(buffer));
+        account.setModeOfOperation(getString(buffer));
+        account.setBalanceCents(getLong(buffer));
+        if ((flags & CREATED_AT) != 0) {
+            long epochSecond = getLong(buffer);
+            account.setCreatedAt(LocalDateTime.ofEpochSecond(epochSecond, getInt(buffer), ZoneOffset.UTC));
+        }
+        account.setSmsAlert((flags & SMS_ALERT) != 0);
+        account.setInternetBanking((flags & INTERNET_BANKING) != 0);
+        account.setAtmCard((flags & ATM_CARD) != 0);
+        account.setVersion(getLong(buffer));
+        account.setLedgerSlots(getInt(buffer));
+        return account;
+    }
+}
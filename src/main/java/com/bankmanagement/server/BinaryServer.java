@@ -0,0 +1,468 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.controller.BankController;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.DirectBufferPool;
+import com.bankmanagement.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves balance inquiries, deposits, withdrawals and transfers over the compact
+ * {@link BinaryProtocol}, for terminals on slow links where JSON over HTTP costs too
+ * many bytes and round trips. Runs beside the {@link BankServer}, whose sessions
+ * (a connection signs in with its HTTP session token) and request threads it shares.
+ * <p>
+ * One selector thread accepts connections, reads and writes them without blocking.
+ * It decodes requests in place from the connection's read buffer, and hands them to
+ * the request threads one connection at a time, so the requests a terminal pipelines
+ * run in the order it sent them. Responses are encoded into pooled direct buffers
+ * and written back together, as many as are ready, with one gathering write. A
+ * connection with {@code bank.server.binaryMaxPipelined} requests waiting is not read
+ * until they are answered.
+ */
+public class BinaryServer {
+    private final BankServer server;
+    private final BankController bank;
+    private final Executor executor;
+    private final DirectBufferPool buffers;
+    private final int maxPipelined;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread selectorThread;
+    private final Queue<Connection> changed = new ConcurrentLinkedQueue<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ByteBuffer[] writeBatch = new ByteBuffer[16];
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private volatile boolean running;
+    
+    /**
+     * Creates a server; it accepts connections once started.
+     * 
+     * @param server HTTP server whose sessions, controller and request threads are used
+     * @param address Address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public BinaryServer(BankServer server, InetSocketAddress address) throws IOException {
+        this.server = server;
+        this.bank = server.bank();
+        this.executor = server.executor();
+        this.buffers = new DirectBufferPool("binaryServer", AppConfig.getInt("bank.server.binaryBufferBytes", 8192),
+                                            AppConfig.getInt("bank.server.binaryPooledBuffers", 1024));
+        this.maxPipelined = AppConfig.getInt("bank.server.binaryMaxPipelined", 64);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, AppConfig.getInt("bank.server.backlog", 256));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::run, "bank-binary-selector");
+        selectorThread.setDaemon(true);
+        metrics.registerGauge("server.binary.connections", connections::size);
+    }
+    
+    public void start() {
+        running = true;
+        selectorThread.start();
+    }
+    
+    /**
+     * Stops accepting and closes all connections; requests still running are not answered.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+    
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Connection connection;
+                while ((connection = changed.poll()) != null) {
+                    update(connection);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isAcceptable()) {
+                        accept();
+                    } else if (key.isValid()) {
+                        handle((Connection) key.attachment(), key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("Binary server stopped: " + e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                close(connection);
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("Error closing binary server: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            // Responses are small and answered at once; waiting to fill a packet only adds latency
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel, buffers.acquire());
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+        }
+    }
+    
+    private void handle(Connection connection, SelectionKey key) {
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                update(connection);
+            }
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+    
+    /**
+     * Reads what arrived and queues every complete request.
+     */
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        int read = connection.channel.read(in);
+        if (read < 0) {
+            close(connection);
+            return;
+        }
+        metrics.addToCounter("server.binary.bytesIn", read);
+        in.flip();
+        int length;
+        while ((length = BinaryProtocol.completeFrameLength(in)) >= 0) {
+            int end = in.position() + BinaryProtocol.LENGTH_BYTES + length;
+            int limit = in.limit();
+            in.position(in.position() + BinaryProtocol.LENGTH_BYTES).limit(end);
+            connection.enqueue(decode(in));
+            in.limit(limit).position(end);
+        }
+        if (in.remaining() >= BinaryProtocol.LENGTH_BYTES
+                && (in.getShort(in.position()) & 0xFFFF) > in.capacity() - BinaryProtocol.LENGTH_BYTES) {
+            in.position(in.limit());
+            connection.enqueue(Request.error("Frame larger than " + in.capacity() + " bytes"));
+        }
+        in.compact();
+        dispatch(connection);
+        update(connection);
+    }
+    
+    /**
+     * Decodes a request directly from the read buffer, limited to its frame.
+     */
+    private static Request decode(ByteBuffer frame) {
+        try {
+            Request request = new Request(frame.get());
+            switch (request.code) {
+                case BinaryProtocol.LOGIN:
+                    request.token = BinaryProtocol.getString(frame);
+                    break;
+                case BinaryProtocol.GET_BALANCE:
+                    request.accountId = BinaryProtocol.getInt(frame);
+                    break;
+                case BinaryProtocol.DEPOSIT:
+                case BinaryProtocol.WITHDRAW:
+                    request.accountId = BinaryProtocol.getInt(frame);
+                    request.amount = BinaryProtocol.getDecimal(frame);
+                    break;
+                case BinaryProtocol.TRANSFER:
+                    request.accountId = BinaryProtocol.getInt(frame);
+                    request.toAccountId = BinaryProtocol.getInt(frame);
+                    request.amount = BinaryProtocol.getDecimal(frame);
+                    break;
+                default:
+                    return Request.error("Unknown operation: " + request.code);
+            }
+            if (frame.hasRemaining()) {
+                return Request.error("Unexpected bytes after " + BinaryProtocol.operationName(request.code));
+            }
+            return request;
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            return Request.error("Malformed request");
+        }
+    }
+    
+    private void dispatch(Connection connection) {
+        if (!connection.requests.isEmpty() && connection.processing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> process(connection));
+            } catch (RejectedExecutionException e) {
+                // The request threads are shut down, so the queued requests would never be
+                // answered; the selector thread closes the connection instead
+                connection.processing.set(false);
+                connection.closing = true;
+                connection.requests.clear();
+                changed.add(connection);
+                selector.wakeup();
+            }
+        }
+    }
+    
+    /**
+     * Answers a connection's queued requests in order, on a request thread.
+     */
+    private void process(Connection connection) {
+        try {
+            Request request;
+            while ((request = connection.requests.poll()) != null) {
+                connection.waiting.decrementAndGet();
+                ByteBuffer response = execute(connection, request);
+                if (connection.closed) {
+                    buffers.release(response);
+                    return;
+                }
+                connection.out.add(response);
+                if (request.error != null) {
+                    connection.closing = true;
+                    connection.requests.clear();
+                }
+                changed.add(connection);
+                selector.wakeup();
+            }
+        } finally {
+            connection.processing.set(false);
+        }
+        // A request may have been queued after the loop saw none
+        dispatch(connection);
+    }
+    
+    private ByteBuffer execute(Connection connection, Request request) {
+        ByteBuffer out = buffers.acquire();
+        String name = BinaryProtocol.operationName(request.code);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            int frame;
+            if (request.error != null) {
+                frame = BinaryProtocol.beginFrame(out, BinaryProtocol.PROTOCOL_ERROR);
+                BinaryProtocol.putMessage(out, request.error);
+            } else if (request.code == BinaryProtocol.LOGIN) {
+                connection.token = request.token;
+                success = server.sessionUser(request.token) != null;
+                frame = success ? BinaryProtocol.beginFrame(out, BinaryProtocol.OK) : notSignedIn(out);
+            } else {
+                User user = connection.token == null ? null : server.sessionUser(connection.token);
+                if (user == null) {
+                    frame = notSignedIn(out);
+                } else {
+                    AuditContext.setThreadUser(user);
+                    frame = BinaryProtocol.beginFrame(out, BinaryProtocol.OK);
+                    switch (request.code) {
+                        case BinaryProtocol.GET_BALANCE:
+                            BinaryProtocol.putDecimal(out, bank.getBalance(request.accountId));
+                            break;
+                        case BinaryProtocol.DEPOSIT:
+                            BinaryProtocol.putAccount(out, bank.deposit(request.accountId, request.amount));
+                            break;
+                        case BinaryProtocol.WITHDRAW:
+                            BinaryProtocol.putAccount(out, bank.withdraw(request.accountId, request.amount));
+                            break;
+                        default:
+                            BinaryProtocol.putAccount(out, bank.transfer(request.accountId, request.toAccountId,
+                                                                         request.amount));
+                            break;
+                    }
+                    success = true;
+                }
+            }
+            BinaryProtocol.endFrame(out, frame);
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            out.clear();
+            int frame = BinaryProtocol.beginFrame(out, BinaryProtocol.REJECTED);
+            BinaryProtocol.putMessage(out, e.getMessage());
+            BinaryProtocol.endFrame(out, frame);
+        } catch (SQLException e) {
+            databaseError(out, e.getSQLState(), e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Binary server operation " + name + " failed: " + e);
+            databaseError(out, null, e.getMessage());
+        } finally {
+            AuditContext.clearThreadUser();
+            metrics.recordOperation("server.binary." + name, System.nanoTime() - start, success);
+        }
+        out.flip();
+        return out;
+    }
+    
+    private static int notSignedIn(ByteBuffer out) {
+        int frame = BinaryProtocol.beginFrame(out, BinaryProtocol.NOT_SIGNED_IN);
+        BinaryProtocol.putMessage(out, "Not signed in or session expired");
+        return frame;
+    }
+    
+    private static void databaseError(ByteBuffer out, String sqlState, String message) {
+        out.clear();
+        int frame = BinaryProtocol.beginFrame(out, BinaryProtocol.DATABASE_ERROR);
+        BinaryProtocol.putString(out, sqlState);
+        BinaryProtocol.putMessage(out, message);
+        BinaryProtocol.endFrame(out, frame);
+    }
+    
+    /**
+     * Writes pending responses and sets what the selector waits for, on the selector thread.
+     */
+    private void update(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        try {
+            write(connection);
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+        if (connection.closing && connection.out.isEmpty()) {
+            close(connection);
+            return;
+        }
+        int ops = connection.out.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+        if (!connection.closing && connection.waiting.get() < maxPipelined) {
+            ops |= SelectionKey.OP_READ;
+        }
+        connection.key.interestOps(ops);
+    }
+    
+    private void write(Connection connection) throws IOException {
+        while (true) {
+            int count = 0;
+            for (ByteBuffer buffer : connection.out) {
+                if (count == writeBatch.length) {
+                    break;
+                }
+                writeBatch[count++] = buffer;
+            }
+            if (count == 0) {
+                return;
+            }
+            long written = connection.channel.write(writeBatch, 0, count);
+            boolean full = writeBatch[count - 1].hasRemaining();
+            Arrays.fill(writeBatch, 0, count, null);
+            metrics.addToCounter("server.binary.bytesOut", written);
+            ByteBuffer head;
+            while ((head = connection.out.peek()) != null && !head.hasRemaining()) {
+                connection.out.poll();
+                buffers.release(head);
+            }
+            if (full) {
+                // The socket's send buffer is full; wait until it is writable
+                return;
+            }
+        }
+    }
+    
+    private void close(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        connections.remove(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing binary connection: " + e.getMessage());
+        }
+        buffers.release(connection.in);
+        ByteBuffer buffer;
+        while ((buffer = connection.out.poll()) != null) {
+            buffers.release(buffer);
+        }
+    }
+    
+    /**
+     * A terminal's connection: its read buffer, requests waiting to run and responses
+     * waiting to be written.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in;
+        private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicBoolean processing = new AtomicBoolean();
+        private final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        private SelectionKey key;
+        private volatile String token;
+        private volatile boolean closing;
+        private volatile boolean closed;
+        
+        private Connection(SocketChannel channel, ByteBuffer in) {
+            this.channel = channel;
+            this.in = in;
+        }
+        
+        private void enqueue(Request request) {
+            waiting.incrementAndGet();
+            requests.add(request);
+        }
+    }
+    
+    /**
+     * A decoded request, or a protocol error in its place.
+     */
+    private static final class Request {
+        private final int code;
+        private int accountId;
+        private int toAccountId;
+        private BigDecimal amount;
+        private String token;
+        private String error;
+        
+        private Request(int code) {
+            this.code = code;
+        }
+        
+        private static Request error(String message) {
+            Request request = new Request(0);
+            request.error = message;
+            return request;
+        }
+    }
+}
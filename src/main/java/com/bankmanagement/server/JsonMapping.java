@@ -0,0 +1,394 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.IntLongMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts the model classes to and from the JSON objects of the server API, as read
+ * and written by {@link com.bankmanagement.util.Json}. Amounts are JSON numbers with
+ * their exact decimal value; dates and times are ISO-8601 strings.
+ */
+final class JsonMapping {
+    
+    private JsonMapping() {
+    }
+    
+    static Map<String, Object> account(Account account) {
+        if (account == null) {
+            return null;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("accountId", account.getAccountId());
+        json.put("customerId", account.getCustomerId());
+        json.put("accountNumber", account.getAccountNumber());
+        json.put("accountType", account.getAccountType());
+        json.put("modeOfOperation", account.getModeOfOperation());
+        json.put("balance", account.getBalance());
+        json.put("createdAt", text(account.getCreatedAt()));
+        json.put("smsAlert", account.isSmsAlert());
+        json.put("internetBanking", account.isInternetBanking());
+        json.put("atmCard", account.isAtmCard());
+        json.put("version", account.getVersion());
+        json.put("ledgerSlots", account.getLedgerSlots());
+        return json;
+    }
+    
+    static Account toAccount(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        Account account = new Account();
+        account.setAccountId(integer(json, "accountId"));
+        account.setCustomerId(integer(json, "customerId"));
+        account.setAccountNumber(string(json, "accountNumber"));
+        account.setAccountType(string(json, "accountType"));
+        account.setModeOfOperation(string(json, "modeOfOperation"));
+        account.setBalance(decimal(json, "balance"));
+        account.setCreatedAt(dateTime(json, "createdAt"));
+        account.setSmsAlert(bool(json, "smsAlert"));
+        account.setInternetBanking(bool(json, "internetBanking"));
+        account.setAtmCard(bool(json, "atmCard"));
+        account.setVersion(longValue(json, "version"));
+        account.setLedgerSlots(integer(json, "ledgerSlots"));
+        return account;
+    }
+    
+    static Map<String, Object> customer(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("customerId", customer.getCustomerId());
+        json.put("fullName", customer.getFullName());
+        json.put("fatherName", customer.getFatherName());
+        json.put("dateOfBirth", text(customer.getDateOfBirth()));
+        json.put("gender", customer.getGender());
+        json.put("maritalStatus", customer.getMaritalStatus());
+        json.put("address", customer.getAddress());
+        json.put("city", customer.getCity());
+        json.put("state", customer.getState());
+        json.put("mobileNumber", customer.getMobileNumber());
+        json.put("email", customer.getEmail());
+        json.put("nationality", customer.getNationality());
+        json.put("customerType", customer.getCustomerType());
+        return json;
+    }
+    
+    static Customer toCustomer(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        Customer customer = new Customer();
+        customer.setCustomerId(integer(json, "customerId"));
+        customer.setFullName(string(json, "fullName"));
+        customer.setFatherName(string(json, "fatherName"));
+        customer.setDateOfBirth(date(json, "dateOfBirth"));
+        customer.setGender(string(json, "gender"));
+        customer.setMaritalStatus(string(json, "maritalStatus"));
+        customer.setAddress(string(json, "address"));
+        customer.setCity(string(json, "city"));
+        customer.setState(string(json, "state"));
+        customer.setMobileNumber(string(json, "mobileNumber"));
+        customer.setEmail(string(json, "email"));
+        customer.setNationality(string(json, "nationality"));
+        customer.setCustomerType(string(json, "customerType"));
+        return customer;
+    }
+    
+    static Map<String, Object> transaction(Transaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("transactionId", transaction.getTransactionId());
+        json.put("accountId", transaction.getAccountId());
+        json.put("transactionType", transaction.getTransactionType());
+        json.put("amount", transaction.getAmount());
+        json.put("balanceAfter", transaction.getBalanceAfter());
+        json.put("description", transaction.getDescription());
+        json.put("transactionDate", text(transaction.getTransactionDate()));
+        json.put("relatedAccountId", transaction.getRelatedAccountId());
+        json.put("debit", transaction.isDebit());
+        return json;
+    }
+    
+    static Transaction toTransaction(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(integer(json, "transactionId"));
+        transaction.setAccountId(integer(json, "accountId"));
+        transaction.setTransactionType(string(json, "transactionType"));
+        transaction.setAmount(decimal(json, "amount"));
+        transaction.setBalanceAfter(decimal(json, "balanceAfter"));
+        transaction.setDescription(string(json, "description"));
+        transaction.setTransactionDate(dateTime(json, "transactionDate"));
+        if (json.get("relatedAccountId") != null) {
+            transaction.setRelatedAccountId(integer(json, "relatedAccountId"));
+        }
+        transaction.setDebit(bool(json, "debit"));
+        return transaction;
+    }
+    
+    static Map<String, Object> standingOrder(StandingOrder order) {
+        if (order == null) {
+            return null;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("orderId", order.getOrderId());
+        json.put("fromAccountId", order.getFromAccountId());
+        json.put("toAccountId", order.getToAccountId());
+        json.put("amount", order.getAmount());
+        json.put("frequency", order.getFrequency());
+        json.put("firstRunAt", text(order.getFirstRunAt()));
+        json.put("nextRunAt", text(order.getNextRunAt()));
+        json.put("dueAt", text(order.getDueAt()));
+        json.put("endDate", text(order.getEndDate()));
+        json.put("description", order.getDescription());
+        json.put("status", order.getStatus());
+        json.put("attempts", order.getAttempts());
+        json.put("lastError", order.getLastError());
+        json.put("createdAt", text(order.getCreatedAt()));
+        return json;
+    }
+    
+    static StandingOrder toStandingOrder(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        StandingOrder order = new StandingOrder();
+        order.setOrderId(integer(json, "orderId"));
+        order.setFromAccountId(integer(json, "fromAccountId"));
+        order.setToAccountId(integer(json, "toAccountId"));
+        order.setAmount(decimal(json, "amount"));
+        order.setFrequency(string(json, "frequency"));
+        order.setFirstRunAt(dateTime(json, "firstRunAt"));
+        order.setNextRunAt(dateTime(json, "nextRunAt"));
+        order.setDueAt(dateTime(json, "dueAt"));
+        order.setEndDate(date(json, "endDate"));
+        order.setDescription(string(json, "description"));
+        order.setStatus(string(json, "status"));
+        order.setAttempts(integer(json, "attempts"));
+        order.setLastError(string(json, "lastError"));
+        order.setCreatedAt(dateTime(json, "createdAt"));
+        return order;
+    }
+    
+    static Map<String, Object> user(User user) {
+        if (user == null) {
+            return null;
+        }
+        // The password never leaves the server
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("userId", user.getUserId());
+        json.put("username", user.getUsername());
+        json.put("role", user.getRole());
+        return json;
+    }
+    
+    static User toUser(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        User user = new User();
+        user.setUserId(integer(json, "userId"));
+        user.setUsername(string(json, "username"));
+        user.setRole(string(json, "role"));
+        return user;
+    }
+    
+    static Map<String, Object> statementPage(StatementPage page) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("transactions", list(page.getTransactions(), JsonMapping::transaction));
+        json.put("hasMore", page.hasMore());
+        return json;
+    }
+    
+    static StatementPage toStatementPage(Object value) {
+        Map<String, Object> json = object(value);
+        // The totals per type are derived from the transactions again
+        return new StatementPage(toList(json.get("transactions"), JsonMapping::toTransaction), bool(json, "hasMore"));
+    }
+    
+    static Map<String, Object> customerOverview(CustomerOverview overview) {
+        if (overview == null) {
+            return null;
+        }
+        Map<String, Object> recent = new LinkedHashMap<>();
+        for (Account account : overview.getAccounts()) {
+            recent.put(String.valueOf(account.getAccountId()),
+                       list(overview.getRecentTransactions(account.getAccountId()), JsonMapping::transaction));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("customer", customer(overview.getCustomer()));
+        json.put("accounts", list(overview.getAccounts(), JsonMapping::account));
+        json.put("recentTransactions", recent);
+        return json;
+    }
+    
+    static CustomerOverview toCustomerOverview(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> json = object(value);
+        Map<Integer, List<Transaction>> recent = new HashMap<>();
+        object(json.get("recentTransactions")).forEach((accountId, transactions) ->
+                recent.put(Integer.parseInt(accountId), toList(transactions, JsonMapping::toTransaction)));
+        return new CustomerOverview(toCustomer(json.get("customer")),
+                                    toList(json.get("accounts"), JsonMapping::toAccount), recent);
+    }
+    
+    static Map<String, Object> payrollResult(PayrollResult result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("totalLines", result.getTotalLines());
+        json.put("postedLines", result.getPostedLines());
+        json.put("postedAmount", result.getPostedAmount());
+        json.put("failedLine", result.getFailedLine());
+        json.put("failure", result.getFailure());
+        return json;
+    }
+    
+    static PayrollResult toPayrollResult(Object value) {
+        Map<String, Object> json = object(value);
+        PayrollResult result = new PayrollResult(integer(json, "totalLines"));
+        result.addPostedChunk(integer(json, "postedLines"), decimal(json, "postedAmount"));
+        if (integer(json, "failedLine") >= 0) {
+            result.setFailure(integer(json, "failedLine"), string(json, "failure"));
+        }
+        return result;
+    }
+    
+    static Map<String, Object> payrollLine(PayrollLine line) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("accountId", line.getAccountId());
+        json.put("amount", line.getAmount());
+        return json;
+    }
+    
+    static PayrollLine toPayrollLine(Object value) {
+        Map<String, Object> json = object(value);
+        return new PayrollLine(integer(json, "accountId"), decimal(json, "amount"));
+    }
+    
+    /**
+     * Writes a map of account IDs to longs as a JSON object keyed by the ID.
+     */
+    static Map<String, Object> intLongMap(IntLongMap map) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (int key : map.keys()) {
+            json.put(String.valueOf(key), map.get(key));
+        }
+        return json;
+    }
+    
+    static IntLongMap toIntLongMap(Object value) {
+        Map<String, Object> json = object(value);
+        IntLongMap map = new IntLongMap(json.size());
+        json.forEach((key, entry) -> map.put(Integer.parseInt(key), ((BigDecimal) entry).longValueExact()));
+        return map;
+    }
+    
+    static <T> List<Object> list(List<T> items, Function<T, Object> mapper) {
+        List<Object> json = new ArrayList<>(items.size());
+        for (T item : items) {
+            json.add(mapper.apply(item));
+        }
+        return json;
+    }
+    
+    static <T> List<T> toList(Object value, Function<Object, T> mapper) {
+        List<T> items = new ArrayList<>();
+        if (value == null) {
+            return items;
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Expected a JSON array");
+        }
+        for (Object item : (List<?>) value) {
+            items.add(mapper.apply(item));
+        }
+        return items;
+    }
+    
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> object(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+    
+    static int integer(Map<String, Object> json, String name) {
+        return number(json, name).intValueExact();
+    }
+    
+    static long longValue(Map<String, Object> json, String name) {
+        return number(json, name).longValueExact();
+    }
+    
+    static BigDecimal decimal(Map<String, Object> json, String name) {
+        return json.get(name) == null ? null : number(json, name);
+    }
+    
+    static String string(Map<String, Object> json, String name) {
+        Object value = json.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("'" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+    
+    static boolean bool(Map<String, Object> json, String name) {
+        Object value = json.get(name);
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("'" + name + "' must be true or false");
+        }
+        return (Boolean) value;
+    }
+    
+    static LocalDateTime dateTime(Map<String, Object> json, String name) {
+        String value = string(json, name);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+    
+    static LocalDate date(Map<String, Object> json, String name) {
+        String value = string(json, name);
+        return value == null ? null : LocalDate.parse(value);
+    }
+    
+    private static BigDecimal number(Map<String, Object> json, String name) {
+        Object value = json.get(name);
+        if (!(value instanceof BigDecimal)) {
+            throw new IllegalArgumentException("'" + name + "' must be a number");
+        }
+        return (BigDecimal) value;
+    }
+    
+    private static String text(Object temporal) {
+        return temporal == null ? null : temporal.toString();
+    }
+}
@@ -0,0 +1,294 @@
+package com.bankmanagement.server;
+
+import com.bankmanagement.controller.AdmissionRejectedException;
+import com.bankmanagement.controller.AuthOperations;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.IntLongMap;
+import com.bankmanagement.util.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the teller screens' operations on a {@link BankServer}. Failures come back as
+ * the exceptions the local controller would throw: {@link IllegalArgumentException}
+ * for rejected requests and {@link SQLException} (with the server's SQL state) for
+ * database errors. A server that cannot be reached is reported with SQL state
+ * {@code 08S01}, like a broken database connection. One client holds the session
+ * of the user signed in with {@link #authenticate}.
+ */
+public class RemoteBankClient implements BankOperations, AuthOperations {
+    private final URI apiUri;
+    private final URI healthUri;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private volatile String token;
+    
+    /**
+     * Creates a client.
+     * 
+     * @param serverUrl Base URL of the server, e.g. {@code http://bank-server:8080/}
+     */
+    public RemoteBankClient(String serverUrl) {
+        URI base = URI.create(serverUrl.endsWith("/") ? serverUrl : serverUrl + "/");
+        this.apiUri = base.resolve("api/");
+        this.healthUri = base.resolve("health");
+        this.timeout = Duration.ofMillis(AppConfig.getLong("bank.server.timeoutMillis", 30_000));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(AppConfig.getLong("bank.server.connectTimeoutMillis", 5_000)))
+                .build();
+    }
+    
+    /**
+     * Checks that the server is up.
+     * 
+     * @throws SQLException if the server cannot be reached or is not healthy
+     */
+    public void checkHealth() throws SQLException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(healthUri).timeout(timeout).GET().build());
+        if (response.statusCode() != 200) {
+            throw new SQLException("Bank server is not healthy: HTTP " + response.statusCode(), "08S01");
+        }
+    }
+    
+    /**
+     * Returns the token of the current session.
+     * 
+     * @return Session token, or null before signing in
+     */
+    String token() {
+        return token;
+    }
+    
+    @Override
+    public User authenticate(String username, String password) {
+        try {
+            Object result = call("login", args("username", username, "password", password));
+            if (result == null) {
+                return null;
+            }
+            Map<String, Object> session = JsonMapping.object(result);
+            token = JsonMapping.string(session, "token");
+            return JsonMapping.toUser(session.get("user"));
+        } catch (SQLException e) {
+            System.err.println("Authentication error: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    @Override
+    public Account createCustomerAccount(Customer customer, String accountType, 
+                                         String modeOfOperation, BigDecimal initialDeposit,
+                                         boolean smsAlert, boolean internetBanking, 
+                                         boolean atmCard) throws SQLException {
+        Map<String, Object> args = args("customer", JsonMapping.customer(customer), "accountType", accountType,
+                                        "modeOfOperation", modeOfOperation, "initialDeposit", initialDeposit);
+        args.put("smsAlert", smsAlert);
+        args.put("internetBanking", internetBanking);
+        args.put("atmCard", atmCard);
+        return JsonMapping.toAccount(call("createCustomerAccount", args));
+    }
+    
+    @Override
+    public Account deposit(int accountId, BigDecimal amount) throws SQLException {
+        return JsonMapping.toAccount(call("deposit", args("accountId", accountId, "amount", amount)));
+    }
+    
+    @Override
+    public Account withdraw(int accountId, BigDecimal amount) throws SQLException {
+        return JsonMapping.toAccount(call("withdraw", args("accountId", accountId, "amount", amount)));
+    }
+    
+    @Override
+    public Account transfer(int fromAccountId, int toAccountId, BigDecimal amount) throws SQLException {
+        return JsonMapping.toAccount(call("transfer", args("fromAccountId", fromAccountId,
+                                                           "toAccountId", toAccountId, "amount", amount)));
+    }
+    
+    /**
+     * Runs a payroll on the server. Unlike the local controller this can fail as a
+     * whole, if the server cannot be reached; whether chunks were posted is then unknown.
+     * 
+     * @throws IllegalStateException if the server cannot be reached or fails
+     */
+    @Override
+    public PayrollResult payroll(int debitAccountId, List<PayrollLine> lines) {
+        try {
+            return JsonMapping.toPayrollResult(call("payroll", args("debitAccountId", debitAccountId,
+                    "lines", JsonMapping.list(lines, JsonMapping::payrollLine))));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public StandingOrder createStandingOrder(int fromAccountId, int toAccountId, BigDecimal amount,
+                                             String frequency, LocalDateTime firstRunAt,
+                                             LocalDate endDate, String description) throws SQLException {
+        Map<String, Object> args = args("fromAccountId", fromAccountId, "toAccountId", toAccountId,
+                                        "amount", amount, "frequency", frequency);
+        args.put("firstRunAt", text(firstRunAt));
+        args.put("endDate", text(endDate));
+        args.put("description", description);
+        return JsonMapping.toStandingOrder(call("createStandingOrder", args));
+    }
+    
+    @Override
+    public List<StandingOrder> getStandingOrders(int accountId) throws SQLException {
+        return JsonMapping.toList(call("getStandingOrders", args("accountId", accountId)),
+                                  JsonMapping::toStandingOrder);
+    }
+    
+    @Override
+    public boolean cancelStandingOrder(int orderId) throws SQLException {
+        return (Boolean) call("cancelStandingOrder", args("orderId", orderId));
+    }
+    
+    @Override
+    public BigDecimal getBalance(int accountId) throws SQLException {
+        return (BigDecimal) call("getBalance", args("accountId", accountId));
+    }
+    
+    @Override
+    public Account getAccount(int accountId) throws SQLException {
+        return JsonMapping.toAccount(call("getAccount", args("accountId", accountId)));
+    }
+    
+    @Override
+    public void setHotAccount(int accountId, int slots) throws SQLException {
+        call("setHotAccount", args("accountId", accountId, "slots", slots));
+    }
+    
+    @Override
+    public IntLongMap getHotAccounts() throws SQLException {
+        return JsonMapping.toIntLongMap(call("getHotAccounts", args()));
+    }
+    
+    @Override
+    public List<Transaction> getTransactionHistory(int accountId) throws SQLException {
+        return JsonMapping.toList(call("getTransactionHistory", args("accountId", accountId)),
+                                  JsonMapping::toTransaction);
+    }
+    
+    @Override
+    public StatementPage getStatementPage(int accountId, LocalDateTime from, LocalDateTime until,
+                                          Transaction after) throws SQLException {
+        Map<String, Object> args = args("accountId", accountId, "from", text(from), "until", text(until));
+        args.put("after", JsonMapping.transaction(after));
+        return JsonMapping.toStatementPage(call("getStatementPage", args));
+    }
+    
+    @Override
+    public Customer getCustomer(int customerId) throws SQLException {
+        return JsonMapping.toCustomer(call("getCustomer", args("customerId", customerId)));
+    }
+    
+    @Override
+    public CustomerOverview getCustomerOverview(int customerId) throws SQLException {
+        return JsonMapping.toCustomerOverview(call("getCustomerOverview", args("customerId", customerId)));
+    }
+    
+    @Override
+    public List<Account> getCustomerAccounts(int customerId) throws SQLException {
+        return JsonMapping.toList(call("getCustomerAccounts", args("customerId", customerId)),
+                                  JsonMapping::toAccount);
+    }
+    
+    @Override
+    public List<Customer> getAllCustomers() throws SQLException {
+        return JsonMapping.toList(call("getAllCustomers", args()), JsonMapping::toCustomer);
+    }
+    
+    @Override
+    public boolean updateCustomer(Customer customer) throws SQLException {
+        return (Boolean) call("updateCustomer", args("customer", JsonMapping.customer(customer)));
+    }
+    
+    @Override
+    public boolean deleteCustomer(int customerId) throws SQLException {
+        return (Boolean) call("deleteCustomer", args("customerId", customerId));
+    }
+    
+    /**
+     * Calls an operation and returns its result, turning error responses back into
+     * the exceptions thrown on the server.
+     */
+    private Object call(String operation, Map<String, Object> args) throws SQLException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(apiUri.resolve(operation))
+                .timeout(timeout)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(Json.write(args), StandardCharsets.UTF_8));
+        String session = token;
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session);
+        }
+        HttpResponse<String> response = send(request.build());
+        
+        Map<String, Object> body;
+        try {
+            body = JsonMapping.object(Json.parse(response.body()));
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Invalid response from bank server: HTTP " + response.statusCode(), "08S01", e);
+        }
+        if (response.statusCode() == 200) {
+            return body.get("result");
+        }
+        String error = JsonMapping.string(body, "error");
+        if (response.statusCode() == 400) {
+            throw new IllegalArgumentException(error);
+        }
+        String sqlState = JsonMapping.string(body, "sqlState");
+        if (AdmissionRejectedException.SQL_STATE.equals(sqlState)) {
+            throw new AdmissionRejectedException(error);
+        }
+        throw new SQLException(error, sqlState != null ? sqlState : "HY000");
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws SQLException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SQLException("Bank server not reachable: " + e.getMessage(), "08S01", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the bank server", "08S01", e);
+        }
+    }
+    
+    /**
+     * Builds the named arguments of a call from name/value pairs.
+     */
+    private static Map<String, Object> args(Object... namesAndValues) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            args.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return args;
+    }
+    
+    private static String text(Object temporal) {
+        return temporal == null ? null : temporal.toString();
+    }
+}
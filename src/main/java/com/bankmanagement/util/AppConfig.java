@@ -0,0 +1,74 @@
+package com.bankmanagement.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Application configuration.
+ * Values are read from {@code bank.properties} on the classpath, then from a
+ * {@code bank.properties} file in the working directory, and finally from
+ * {@code -D} system properties; later sources override earlier ones.
+ */
+public final class AppConfig {
+    private static final String CONFIG_FILE = "bank.properties";
+    private static final Properties PROPERTIES = load();
+    
+    private AppConfig() {
+    }
+    
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading classpath " + CONFIG_FILE + ": " + e.getMessage());
+        }
+        Path localFile = Paths.get(CONFIG_FILE);
+        if (Files.isRegularFile(localFile)) {
+            try (InputStream in = Files.newInputStream(localFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Error reading " + localFile.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+    
+    /**
+     * Returns a string setting.
+     * 
+     * @param key Property key
+     * @param defaultValue Value used when the key is not set
+     * @return Configured value or default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, PROPERTIES.getProperty(key));
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+    
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+    
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+    
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+    
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
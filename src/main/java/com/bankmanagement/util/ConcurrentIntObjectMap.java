@@ -0,0 +1,337 @@
+package com.bankmanagement.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+/**
+ * Concurrent hash map keyed by primitive {@code int}.
+ * The key space is split into lock-striped segments, each an open-addressing table
+ * with linear probing, so lookups never box the key or allocate map entries.
+ * Null values are not permitted.
+ *
+ * @param <V> Value type
+ */
+public class ConcurrentIntObjectMap<V> {
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+    
+    public ConcurrentIntObjectMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+    
+    /**
+     * Creates a map with the given number of lock stripes.
+     * 
+     * @param concurrencyLevel Number of segments, rounded up to a power of two
+     */
+    public ConcurrentIntObjectMap(int concurrencyLevel) {
+        int count = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+        this.segments = newSegments(count);
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int count) {
+        return (Segment<V>[]) new Segment<?>[count];
+    }
+    
+    public V get(int key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+    
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * Associates a value with a key.
+     * 
+     * @return Previous value, or null if there was none
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not permitted");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, false);
+    }
+    
+    /**
+     * Associates a value with a key only if the key is not already present.
+     * 
+     * @return Existing value, or null if the value was inserted
+     */
+    public V putIfAbsent(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not permitted");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, true);
+    }
+    
+    /**
+     * Returns the value for a key, creating it atomically if absent.
+     * 
+     * @param key Key
+     * @param factory Creates the value for a missing key
+     * @return Existing or newly created value
+     */
+    public V computeIfAbsent(int key, IntFunction<V> factory) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int hash = hash(key);
+        return segmentFor(hash).computeIfAbsent(key, hash, factory);
+    }
+    
+    /**
+     * Removes a key.
+     * 
+     * @return Removed value, or null if the key was absent
+     */
+    public V remove(int key) {
+        int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Visits every entry. Each segment is visited under its read lock, so the
+     * consumer must not modify this map.
+     * 
+     * @param consumer Entry consumer
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Returns a snapshot of all values.
+     * 
+     * @return List of values in no particular order
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+    
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+    
+    private Segment<V> segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+    
+    private static int hash(int key) {
+        // Murmur3 finalizer spreads sequential IDs across segments and slots
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+    
+    /**
+     * Callback for {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V> Value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+    
+    /**
+     * One lock stripe: an open-addressing table guarded by a {@link StampedLock}.
+     */
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        private int[] keys = new int[INITIAL_SEGMENT_CAPACITY];
+        private Object[] values = new Object[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+        
+        @SuppressWarnings("unchecked")
+        V get(int key, int hash) {
+            long stamp = lock.readLock();
+            try {
+                int slot = find(key, hash);
+                return slot < 0 ? null : (V) values[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        V put(int key, int hash, V value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(key, hash);
+                if (slot >= 0) {
+                    V previous = (V) values[slot];
+                    if (!onlyIfAbsent) {
+                        values[slot] = value;
+                    }
+                    return previous;
+                }
+                insert(key, hash, value);
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        V computeIfAbsent(int key, int hash, IntFunction<V> factory) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(key, hash);
+                if (slot >= 0) {
+                    return (V) values[slot];
+                }
+                V value = factory.apply(key);
+                if (value != null) {
+                    insert(key, hash, value);
+                }
+                return value;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        V remove(int key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                V previous = (V) values[slot];
+                deleteSlot(slot);
+                return previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        void forEach(EntryConsumer<? super V> consumer) {
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        consumer.accept(keys[i], (V) values[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                keys = new int[INITIAL_SEGMENT_CAPACITY];
+                values = new Object[INITIAL_SEGMENT_CAPACITY];
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        private int find(int key, int hash) {
+            int mask = values.length - 1;
+            for (int slot = hash & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+        
+        private void insert(int key, int hash, Object value) {
+            if ((size + 1) * 4 > values.length * 3) {
+                resize();
+            }
+            int mask = values.length - 1;
+            int slot = hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+        
+        private void resize() {
+            int[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new int[oldValues.length * 2];
+            values = new Object[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    insert(oldKeys[i], hash(oldKeys[i]), oldValues[i]);
+                }
+            }
+        }
+        
+        /**
+         * Backward-shift deletion keeps probe sequences intact without tombstones.
+         */
+        private void deleteSlot(int slot) {
+            int mask = values.length - 1;
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (values[next] != null) {
+                int home = hash(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[gap] = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankmanagement.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of JDBC connections for the data access layer.
+ * Connections are expected to have auto-commit disabled.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    
+    /**
+     * Returns the connection to use for the current unit of work.
+     * 
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    Connection getConnection() throws SQLException;
+    
+    /**
+     * Returns a connection for a read-only statement outside a unit of work.
+     * Providers backed by read replicas may return a replica connection, which has
+     * auto-commit enabled; by default it is the same as {@link #getConnection()}.
+     * 
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+}
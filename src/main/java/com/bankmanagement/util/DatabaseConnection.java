@@ -3,12 +3,13 @@ package com.bankmanagement.util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Singleton class for managing database connections.
  * Provides a single point of access to the database connection.
  */
-public class DatabaseConnection {
+public class DatabaseConnection implements ConnectionProvider {
     private static DatabaseConnection instance;
     private Connection connection;
     
@@ -22,6 +23,7 @@ public class DatabaseConnection {
      */
     private DatabaseConnection() {
         // Driver is auto-loaded in JDBC 4.0+, no need for Class.forName
+        MetricsRegistry.getInstance().registerGauge("db.connections.open", this::openConnectionCount);
     }
     
     /**
@@ -46,14 +48,74 @@ public class DatabaseConnection {
      * @return Connection object
      * @throws SQLException if connection fails
      */
+    @Override
     public Connection getConnection() throws SQLException {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.incrementCounter("db.connection.acquisitions");
         if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            connection.setAutoCommit(false);
+            connection = configure(DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD));
+            metrics.incrementCounter("db.connections.opened");
         }
         return connection;
     }
     
+    /**
+     * Opens a new connection that is not shared with the rest of the application.
+     * Used by background jobs whose units of work must not interleave with those
+     * running on the shared connection.
+     * 
+     * @return New connection with auto-commit disabled
+     * @throws SQLException if connection fails
+     */
+    public Connection openConnection() throws SQLException {
+        Connection dedicated = configure(DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD));
+        MetricsRegistry.getInstance().incrementCounter("db.connections.opened");
+        return dedicated;
+    }
+    
+    /**
+     * Opens a connection to a read replica with the primary's credentials. It is
+     * read-only and has auto-commit enabled, so that every query sees the replica's
+     * latest state instead of the snapshot of a long-running transaction.
+     * 
+     * @param url JDBC URL of the replica
+     * @return New replica connection
+     * @throws SQLException if connection fails
+     */
+    public Connection openReplicaConnection(String url) throws SQLException {
+        Connection replica = DriverManager.getConnection(url, DB_USER, DB_PASSWORD);
+        replica.setReadOnly(true);
+        MetricsRegistry.getInstance().incrementCounter("db.connections.opened");
+        return replica;
+    }
+    
+    /**
+     * Applies the session settings shared by all connections: auto-commit off and, if
+     * {@code bank.mysql.lockWaitTimeoutSeconds} is set, a shorter row lock wait, so that a
+     * blocked posting fails fast and is retried instead of waiting out the server default.
+     */
+    private Connection configure(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        int lockWaitTimeout = AppConfig.getInt("bank.mysql.lockWaitTimeoutSeconds", 0);
+        if (lockWaitTimeout > 0) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("SET SESSION innodb_lock_wait_timeout = " + lockWaitTimeout);
+            }
+        }
+        return connection;
+    }
+    
+    /**
+     * Returns the number of currently open shared connections (0 or 1).
+     */
+    private long openConnectionCount() {
+        try {
+            return connection != null && !connection.isClosed() ? 1 : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+    
     /**
      * Closes the database connection.
      */
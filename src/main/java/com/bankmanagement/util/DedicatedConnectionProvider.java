@@ -0,0 +1,43 @@
+package com.bankmanagement.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connection provider that owns one connection, reopening it when it was closed.
+ * Intended for a single background thread.
+ */
+public class DedicatedConnectionProvider implements ConnectionProvider {
+    private final SqlCallable<Connection> opener;
+    private Connection connection;
+    
+    /**
+     * Creates a provider.
+     * 
+     * @param opener Opens a new connection
+     */
+    public DedicatedConnectionProvider(SqlCallable<Connection> opener) {
+        this.opener = opener;
+    }
+    
+    @Override
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = opener.call();
+        }
+        return connection;
+    }
+    
+    /**
+     * Closes the connection if it is open.
+     */
+    public synchronized void close() {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing database connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bankmanagement.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct buffers of one size for network I/O. Direct buffers are read from and
+ * written to sockets without the copy the JDK makes for heap buffers, but are expensive
+ * to allocate and only freed by the garbage collector, so they are reused. At most
+ * {@code maxPooled} idle buffers are kept; beyond that, released buffers are dropped.
+ */
+public class DirectBufferPool {
+    private final int bufferBytes;
+    private final int maxPooled;
+    private final ConcurrentLinkedDeque<ByteBuffer> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+    
+    /**
+     * Creates an empty pool.
+     * 
+     * @param name Name used in the {@code bufferPool.<name>.*} gauges
+     * @param bufferBytes Capacity of every buffer
+     * @param maxPooled Maximum number of idle buffers kept
+     */
+    public DirectBufferPool(String name, int bufferBytes, int maxPooled) {
+        this.bufferBytes = bufferBytes;
+        this.maxPooled = maxPooled;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.registerGauge("bufferPool." + name + ".allocated", allocated::get);
+        metrics.registerGauge("bufferPool." + name + ".idle", idleCount::get);
+    }
+    
+    /**
+     * Takes a buffer from the pool, allocating one if none is idle.
+     * 
+     * @return Cleared buffer
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.pollFirst();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferBytes);
+        }
+        idleCount.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+    
+    /**
+     * Returns a buffer to the pool. The caller must not use it afterwards.
+     * 
+     * @param buffer Buffer taken from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (idleCount.incrementAndGet() <= maxPooled) {
+            // Most recently used first: its memory is the most likely to be in cache
+            idle.offerFirst(buffer);
+        } else {
+            idleCount.decrementAndGet();
+            allocated.decrementAndGet();
+        }
+    }
+    
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+}
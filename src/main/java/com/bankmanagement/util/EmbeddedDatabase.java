@@ -0,0 +1,82 @@
+package com.bankmanagement.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Singleton connection to the local file-backed embedded (H2) database used by
+ * offline branch mode. The schema from {@code database_schema.sql} and the local
+ * tables from {@code offline_schema.sql} are created on first connect. Background
+ * threads open connections of their own with {@link #openConnection()}.
+ */
+public class EmbeddedDatabase implements ConnectionProvider {
+    private static EmbeddedDatabase instance;
+    private Connection connection;
+    private boolean schemaCreated;
+    
+    private final String url;
+    
+    private EmbeddedDatabase(String path) {
+        // Row locks are waited for as long as a posting may take, not H2's default of one second
+        this.url = "jdbc:h2:file:" + path + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000";
+    }
+    
+    /**
+     * Returns the singleton instance, stored at {@code bank.offline.databasePath}.
+     * 
+     * @return EmbeddedDatabase instance
+     */
+    public static synchronized EmbeddedDatabase getInstance() {
+        if (instance == null) {
+            instance = new EmbeddedDatabase(AppConfig.getString("bank.offline.databasePath", "./data/branch"));
+        }
+        return instance;
+    }
+    
+    /**
+     * Returns the local database connection.
+     * 
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    @Override
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = openConnection();
+        }
+        return connection;
+    }
+    
+    /**
+     * Opens a new connection to the local database, e.g. for a background thread whose
+     * commits and rollbacks must not end the terminal's units of work. Its row locks
+     * conflict with those of the other connections, as on MySQL.
+     * 
+     * @return New connection with auto-commit disabled
+     * @throws SQLException if connection fails
+     */
+    public synchronized Connection openConnection() throws SQLException {
+        Connection opened = DriverManager.getConnection(url, "sa", "");
+        opened.setAutoCommit(false);
+        if (!schemaCreated) {
+            SqlScripts.run(opened, "database_schema.sql");
+            SqlScripts.run(opened, "offline_schema.sql");
+            schemaCreated = true;
+        }
+        return opened;
+    }
+    
+    /**
+     * Closes the local database connection.
+     */
+    public synchronized void closeConnection() {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing embedded database connection: " + e.getMessage());
+        }
+    }
+}
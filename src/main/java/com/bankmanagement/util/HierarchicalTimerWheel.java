@@ -0,0 +1,157 @@
+package com.bankmanagement.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: levels of 64 slots each, where a slot of level n spans
+ * 64^n ticks. Scheduling and expiring an item cost O(1) regardless of how many items
+ * are pending; an item moves down at most once per level as its time approaches.
+ * Items due in the same tick are handed out together as one group.
+ * Not thread-safe; the wheel is owned by a single scheduler thread.
+ *
+ * @param <T> Item type
+ */
+public class HierarchicalTimerWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[][] levels;
+    private final List<Entry<T>> expired = new ArrayList<>();
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+    
+    /**
+     * Creates a wheel.
+     * 
+     * @param tickMillis Resolution of the wheel
+     * @param levelCount Number of levels; the wheel spans 64^levelCount ticks
+     * @param startMillis Current time
+     */
+    public HierarchicalTimerWheel(long tickMillis, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = newLevels(levelCount);
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayDeque<Entry<T>>[][] newLevels(int levelCount) {
+        return (ArrayDeque<Entry<T>>[][]) new ArrayDeque<?>[levelCount][SLOTS];
+    }
+    
+    /**
+     * Schedules an item. It is handed out at the first tick boundary at or after its
+     * due time, so never early; items already due are handed out by the next
+     * {@link #advanceTo} call.
+     * 
+     * @param dueMillis Due time
+     * @param item Item to schedule
+     */
+    public void schedule(long dueMillis, T item) {
+        place(new Entry<>(Math.floorDiv(dueMillis + tickMillis - 1, tickMillis), item));
+        size++;
+    }
+    
+    /**
+     * Advances the wheel to a point in time, handing out the items of every expired
+     * tick, one group per tick, in due order.
+     * 
+     * @param nowMillis Current time
+     * @param group Receives the items due in one tick
+     */
+    public void advanceTo(long nowMillis, Consumer<List<T>> group) {
+        if (!expired.isEmpty()) {
+            List<Entry<T>> due = new ArrayList<>(expired);
+            expired.clear();
+            emit(due, group);
+        }
+        long targetTick = nowMillis / tickMillis;
+        if (size == 0) {
+            currentTick = Math.max(currentTick, targetTick);
+            return;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            ArrayDeque<Entry<T>> slot = levels[0][(int) (currentTick & MASK)];
+            if (slot != null && !slot.isEmpty()) {
+                List<Entry<T>> due = new ArrayList<>(slot);
+                slot.clear();
+                emit(due, group);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void emit(List<Entry<T>> entries, Consumer<List<T>> group) {
+        List<T> items = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            items.add(entry.item);
+        }
+        size -= entries.size();
+        group.accept(items);
+    }
+    
+    /**
+     * Moves the entries of the higher-level slots that start at the current tick
+     * down to the levels below.
+     */
+    private void cascade() {
+        for (int level = 1; level < levels.length; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            ArrayDeque<Entry<T>> slot = levels[level][(int) ((currentTick >>> shift) & MASK)];
+            if (slot != null && !slot.isEmpty()) {
+                List<Entry<T>> entries = new ArrayList<>(slot);
+                slot.clear();
+                entries.forEach(this::place);
+            }
+        }
+        // A full revolution of the top level: re-place items scheduled beyond the wheel's span
+        if ((currentTick & ((1L << (SLOT_BITS * levels.length)) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Entry<T>> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            entries.forEach(this::place);
+        }
+    }
+    
+    private void place(Entry<T> entry) {
+        long delta = entry.dueTick - currentTick;
+        if (delta <= 0) {
+            expired.add(entry);
+            return;
+        }
+        for (int level = 0; level < levels.length; level++) {
+            int shift = SLOT_BITS * level;
+            if (delta < 1L << (shift + SLOT_BITS)) {
+                int index = (int) ((entry.dueTick >>> shift) & MASK);
+                if (levels[level][index] == null) {
+                    levels[level][index] = new ArrayDeque<>();
+                }
+                levels[level][index].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+    
+    private static final class Entry<T> {
+        final long dueTick;
+        final T item;
+        
+        Entry(long dueTick, T item) {
+            this.dueTick = dueTick;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bankmanagement.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most frequently touched integer keys (e.g. account IDs) in bounded memory
+ * using the Space-Saving algorithm. Counts are halved periodically so the ranking
+ * follows current activity rather than all-time totals.
+ */
+public class HotKeyTracker {
+    private final int capacity;
+    private final long decayIntervalMillis;
+    private final Map<Integer, long[]> counters;
+    private long lastDecay;
+    
+    /**
+     * Creates a tracker.
+     * 
+     * @param capacity Maximum number of keys tracked at once
+     * @param decayIntervalMillis Interval after which all counts are halved
+     */
+    public HotKeyTracker(int capacity, long decayIntervalMillis) {
+        this.capacity = capacity;
+        this.decayIntervalMillis = decayIntervalMillis;
+        this.counters = new HashMap<>(capacity * 2);
+        this.lastDecay = System.currentTimeMillis();
+    }
+    
+    /**
+     * Records one hit on a key.
+     * 
+     * @param key Key that was touched
+     */
+    public synchronized void record(int key) {
+        decayIfDue();
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{1});
+            return;
+        }
+        // Replace the smallest counter, inheriting its count (Space-Saving)
+        Integer minKey = null;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<Integer, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < minCount) {
+                minCount = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{minCount + 1});
+    }
+    
+    /**
+     * Returns the hottest keys, most active first.
+     * 
+     * @param limit Maximum number of entries
+     * @return List of entries
+     */
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Map.Entry<Integer, long[]> entry : counters.entrySet()) {
+            entries.add(new Entry(entry.getKey(), entry.getValue()[0]));
+        }
+        entries.sort(Comparator.comparingLong(Entry::getCount).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+    
+    private void decayIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastDecay < decayIntervalMillis) {
+            return;
+        }
+        lastDecay = now;
+        counters.values().removeIf(counter -> (counter[0] >>>= 1) == 0);
+    }
+    
+    /**
+     * A key and its (approximate) recent hit count.
+     */
+    public static class Entry {
+        private final int key;
+        private final long count;
+        
+        public Entry(int key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+        
+        public int getKey() {
+            return key;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.bankmanagement.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive {@code int} to primitive {@code long}, for results such as
+ * balances by account ID where boxing every entry would cost more than the data.
+ * An open-addressing table with linear probing; not thread-safe and without removal.
+ */
+public class IntLongMap {
+    /** Returned by {@link #get(int)} for a missing key. */
+    public static final long NOT_FOUND = Long.MIN_VALUE;
+    
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    
+    public IntLongMap() {
+        this(16);
+    }
+    
+    /**
+     * Creates a map that holds the given number of entries without resizing.
+     * 
+     * @param expectedSize Expected number of entries
+     */
+    public IntLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 4 / 3 + 1) - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new long[capacity];
+        this.used = new boolean[capacity];
+    }
+    
+    /**
+     * Returns the value for a key.
+     * 
+     * @return Value, or {@link #NOT_FOUND} if the key is absent
+     */
+    public long get(int key) {
+        int slot = find(key);
+        return slot < 0 ? NOT_FOUND : values[slot];
+    }
+    
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+    
+    /**
+     * Associates a value with a key.
+     * 
+     * @return Previous value, or {@link #NOT_FOUND} if there was none
+     */
+    public long put(int key, long value) {
+        int slot = find(key);
+        if (slot >= 0) {
+            long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize();
+        }
+        insert(key, value);
+        return NOT_FOUND;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns all keys.
+     * 
+     * @return Keys in ascending order
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[count++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    /**
+     * Visits every entry in no particular order.
+     * 
+     * @param consumer Entry consumer
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+    
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    private void insert(int key, long value) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+    }
+    
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    private static int hash(int key) {
+        // Murmur3 finalizer, as in ConcurrentIntObjectMap: sequential IDs must not cluster
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+    
+    @Override
+    public String toString() {
+        return "IntLongMap{size=" + size + '}';
+    }
+    
+    /**
+     * Callback for {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+}
@@ -0,0 +1,106 @@
+package com.bankmanagement.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ * Values are recorded in microseconds; every power of two is split into eight
+ * sub-buckets, which keeps percentile estimates within roughly 12% of the true value.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - 4) * SUB_BUCKETS;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    
+    /**
+     * Records one observation.
+     * 
+     * @param elapsedNanos Elapsed time in nanoseconds
+     */
+    public void record(long elapsedNanos) {
+        buckets.incrementAndGet(indexFor(Math.max(0, elapsedNanos / 1_000)));
+    }
+    
+    /**
+     * Copies the current bucket counts. Two snapshots can be subtracted to get the
+     * distribution of an interval.
+     * 
+     * @return Bucket counts
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+    
+    /**
+     * Estimates a percentile from bucket counts.
+     * 
+     * @param counts Bucket counts from {@link #snapshot()} (or a difference of two snapshots)
+     * @param percentile Percentile between 0 and 100
+     * @return Estimated latency in microseconds, or 0 if there are no observations
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * (percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length - 1);
+    }
+    
+    /**
+     * Subtracts an earlier snapshot from a later one.
+     * 
+     * @param later Later snapshot
+     * @param earlier Earlier snapshot, may be null
+     * @return Per-bucket difference
+     */
+    public static long[] difference(long[] later, long[] earlier) {
+        if (earlier == null) {
+            return later.clone();
+        }
+        long[] diff = new long[later.length];
+        for (int i = 0; i < later.length; i++) {
+            diff[i] = later[i] - earlier[i];
+        }
+        return diff;
+    }
+    
+    private static int indexFor(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+    
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,218 @@
+package com.bankmanagement.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Singleton registry for in-process metrics.
+ * Collects per-operation latency and throughput, named counters, gauges, cache
+ * hit ratios and the most active accounts. Everything is kept in memory so that
+ * reading the metrics never touches the database.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, CacheStats> caches = new ConcurrentHashMap<>();
+    private final HotKeyTracker hotAccounts = new HotKeyTracker(64, 60_000);
+    
+    private MetricsRegistry() {
+    }
+    
+    /**
+     * Returns the singleton instance of MetricsRegistry.
+     * 
+     * @return MetricsRegistry instance
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Records the outcome of one operation.
+     * 
+     * @param operation Operation name
+     * @param elapsedNanos Elapsed time in nanoseconds
+     * @param success Whether the operation completed without an exception
+     */
+    public void recordOperation(String operation, long elapsedNanos, boolean success) {
+        OperationStats stats = operations.computeIfAbsent(operation, name -> new OperationStats());
+        stats.count.increment();
+        if (!success) {
+            stats.errors.increment();
+        }
+        stats.latency.record(elapsedNanos);
+    }
+    
+    /**
+     * Returns a snapshot of all operations, sorted by name.
+     * 
+     * @return Map of operation name to statistics
+     */
+    public Map<String, OperationStats> getOperations() {
+        return new TreeMap<>(operations);
+    }
+    
+    /**
+     * Increments a named counter by one.
+     * 
+     * @param name Counter name
+     */
+    public void incrementCounter(String name) {
+        addToCounter(name, 1);
+    }
+    
+    /**
+     * Adds a value to a named counter.
+     * 
+     * @param name Counter name
+     * @param delta Value to add
+     */
+    public void addToCounter(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+    
+    /**
+     * Returns the current value of a counter.
+     * 
+     * @param name Counter name
+     * @return Counter value, 0 if never incremented
+     */
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+    
+    /**
+     * Returns a snapshot of all counters, sorted by name.
+     * 
+     * @return Map of counter name to value
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return snapshot;
+    }
+    
+    /**
+     * Registers a gauge whose value is sampled whenever metrics are read.
+     * Registering the same name again replaces the previous gauge.
+     * 
+     * @param name Gauge name
+     * @param supplier Supplier of the current value
+     */
+    public void registerGauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+    
+    /**
+     * Samples all gauges, sorted by name.
+     * 
+     * @return Map of gauge name to current value
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        gauges.forEach((name, supplier) -> snapshot.put(name, supplier.getAsLong()));
+        return snapshot;
+    }
+    
+    /**
+     * Records a cache hit.
+     * 
+     * @param cache Cache name
+     */
+    public void recordCacheHit(String cache) {
+        caches.computeIfAbsent(cache, name -> new CacheStats()).hits.increment();
+    }
+    
+    /**
+     * Records a cache miss.
+     * 
+     * @param cache Cache name
+     */
+    public void recordCacheMiss(String cache) {
+        caches.computeIfAbsent(cache, name -> new CacheStats()).misses.increment();
+    }
+    
+    /**
+     * Returns a snapshot of all caches, sorted by name.
+     * 
+     * @return Map of cache name to statistics
+     */
+    public Map<String, CacheStats> getCaches() {
+        return new TreeMap<>(caches);
+    }
+    
+    /**
+     * Records activity on an account for the hot-account ranking.
+     * 
+     * @param accountId Account ID
+     */
+    public void recordAccountActivity(int accountId) {
+        hotAccounts.record(accountId);
+    }
+    
+    /**
+     * Returns the most active accounts.
+     * 
+     * @param limit Maximum number of accounts
+     * @return Hot accounts, most active first
+     */
+    public List<HotKeyTracker.Entry> getHotAccounts(int limit) {
+        return hotAccounts.top(limit);
+    }
+    
+    /**
+     * Throughput, error and latency statistics for one operation.
+     */
+    public static class OperationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        
+        public long getCount() {
+            return count.sum();
+        }
+        
+        public long getErrors() {
+            return errors.sum();
+        }
+        
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+    
+    /**
+     * Hit and miss counts for one cache.
+     */
+    public static class CacheStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        
+        public long getHits() {
+            return hits.sum();
+        }
+        
+        public long getMisses() {
+            return misses.sum();
+        }
+        
+        /**
+         * Returns the hit ratio.
+         * 
+         * @return Hits divided by lookups, 0 if there were no lookups
+         */
+        public double getHitRatio() {
+            long hitCount = getHits();
+            long total = hitCount + getMisses();
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bankmanagement.util;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fixed-point money arithmetic on {@code long} counts of cents (minor units).
+ * Ledger loops, caches and batch jobs keep amounts as cents, which costs no allocation
+ * per operation, and convert to and from {@link BigDecimal} only at the boundaries:
+ * JDBC ({@code DECIMAL(15, 2)} columns), models and views. Conversions are exact;
+ * arithmetic throws {@link ArithmeticException} on overflow instead of wrapping.
+ */
+public final class Money {
+    /** Decimal places of every amount. */
+    public static final int SCALE = 2;
+    
+    private Money() {
+    }
+    
+    /**
+     * Converts an amount to cents.
+     * 
+     * @param amount Amount with at most two significant decimal places
+     * @return Amount in cents
+     * @throws IllegalArgumentException if the amount has fractions of a cent
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toCents(BigDecimal amount) {
+        if (!isWholeCents(amount)) {
+            throw new IllegalArgumentException("Amounts are limited to whole cents: " + amount.toPlainString());
+        }
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+    
+    /**
+     * Converts cents to an amount with two decimal places.
+     * 
+     * @param cents Amount in cents
+     * @return Amount
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+    
+    /**
+     * Checks whether an amount can be converted to cents without rounding.
+     * 
+     * @param amount Amount
+     * @return true if the amount has no fractions of a cent
+     */
+    public static boolean isWholeCents(BigDecimal amount) {
+        return amount.scale() <= SCALE || amount.stripTrailingZeros().scale() <= SCALE;
+    }
+    
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+    
+    /**
+     * Reads a {@code DECIMAL} column as cents.
+     * 
+     * @param rs Result set positioned on a row
+     * @param column Column label
+     * @return Amount in cents, or 0 if the value is SQL NULL
+     * @throws SQLException if the column cannot be read
+     */
+    public static long getCents(ResultSet rs, String column) throws SQLException {
+        BigDecimal amount = rs.getBigDecimal(column);
+        return amount == null ? 0 : toCents(amount);
+    }
+    
+    /**
+     * Binds cents to a {@code DECIMAL} parameter.
+     * 
+     * @param pstmt Statement
+     * @param index Parameter index
+     * @param cents Amount in cents
+     * @throws SQLException if the parameter cannot be set
+     */
+    public static void setCents(PreparedStatement pstmt, int index, long cents) throws SQLException {
+        pstmt.setBigDecimal(index, fromCents(cents));
+    }
+    
+    /**
+     * Appends an amount in plain notation with two decimal places, e.g. {@code -12.05}.
+     * 
+     * @param sb Target
+     * @param cents Amount in cents
+     * @return The target
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        long units = cents / 100;
+        int fraction = (int) Math.abs(cents % 100);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(Math.abs(units)).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+    
+    public static String toString(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+}
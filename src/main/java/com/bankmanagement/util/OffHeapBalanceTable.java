@@ -0,0 +1,407 @@
+package com.bankmanagement.util;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Account balances, versions and feature flags in fixed-width slots outside the Java
+ * heap, indexed by account ID. Ten million accounts take 320 MB and no garbage
+ * collection work, against gigabytes for the same number of {@code Account} objects,
+ * so batch engines and caches can keep whole ledgers in memory; the
+ * {@link com.bankmanagement.controller.LedgerReconciler} keeps the balances of each range
+ * it checks in one.
+ * <p>
+ * Memory is allocated in segments of 2^20 slots (the last one only as large as the
+ * highest account ID needs) when the first account of a segment is stored, either as
+ * direct buffers or, with {@link #mapped}, in a file the operating system can page out.
+ * Reads never lock and never block writers; each slot carries a sequence word that is
+ * odd while a write is in progress, readers retry if it changed, and writers of the
+ * same slot take turns by a compare-and-set on it. Writers of different slots never
+ * contend.
+ */
+public class OffHeapBalanceTable implements AutoCloseable {
+    public static final int SMS_ALERT = 1 << 1;
+    public static final int INTERNET_BANKING = 1 << 2;
+    public static final int ATM_CARD = 1 << 3;
+    
+    /** Returned for accounts that are not in the table. */
+    public static final long NOT_FOUND = Long.MIN_VALUE;
+    
+    private static final int PRESENT = 1;
+    private static final int SLOT_BYTES = 32;
+    private static final int SEQUENCE = 0;
+    private static final int BALANCE = 8;
+    private static final int VERSION = 16;
+    private static final int FLAGS = 24;
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+    private static final int SEGMENT_BYTES = SLOT_BYTES << SEGMENT_SHIFT;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    
+    private final int maxAccountId;
+    private final AtomicReferenceArray<ByteBuffer> segments;
+    private final AtomicInteger size = new AtomicInteger();
+    private final FileChannel file;
+    
+    /**
+     * Creates a table in direct memory.
+     * 
+     * @param maxAccountId Highest account ID the table can hold
+     */
+    public OffHeapBalanceTable(int maxAccountId) {
+        this(maxAccountId, null);
+    }
+    
+    private OffHeapBalanceTable(int maxAccountId, FileChannel file) {
+        if (maxAccountId < 1) {
+            throw new IllegalArgumentException("Maximum account ID must be positive");
+        }
+        this.maxAccountId = maxAccountId;
+        this.segments = new AtomicReferenceArray<>((maxAccountId >>> SEGMENT_SHIFT) + 1);
+        this.file = file;
+    }
+    
+    /**
+     * Creates a table in a memory-mapped file. The file is a scratch area so the table
+     * may exceed physical memory; it is truncated when opened and its contents are not
+     * meant to survive the process.
+     * 
+     * @param path File to map; created if missing
+     * @param maxAccountId Highest account ID the table can hold
+     * @return Table backed by the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static OffHeapBalanceTable mapped(Path path, int maxAccountId) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new OffHeapBalanceTable(maxAccountId, channel);
+    }
+    
+    /**
+     * Stores an account, replacing any previous entry.
+     * 
+     * @param accountId Account ID (1 to the maximum)
+     * @param balanceCents Balance in cents
+     * @param version Account version
+     * @param flags Combination of {@link #SMS_ALERT}, {@link #INTERNET_BANKING} and {@link #ATM_CARD}
+     */
+    public void put(int accountId, long balanceCents, long version, int flags) {
+        ByteBuffer segment = segmentForWrite(accountId);
+        int slot = offset(accountId);
+        long sequence = beginWrite(segment, slot);
+        boolean wasPresent = isPresent(segment, slot);
+        LONGS.setOpaque(segment, slot + BALANCE, balanceCents);
+        LONGS.setOpaque(segment, slot + VERSION, version);
+        LONGS.setOpaque(segment, slot + FLAGS, (long) (flags | PRESENT));
+        endWrite(segment, slot, sequence);
+        if (!wasPresent) {
+            size.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Removes an account.
+     * 
+     * @return true if the account was in the table
+     */
+    public boolean remove(int accountId) {
+        ByteBuffer segment = segment(accountId);
+        if (segment == null) {
+            return false;
+        }
+        int slot = offset(accountId);
+        long sequence = beginWrite(segment, slot);
+        boolean wasPresent = isPresent(segment, slot);
+        LONGS.setOpaque(segment, slot + FLAGS, 0L);
+        endWrite(segment, slot, sequence);
+        if (wasPresent) {
+            size.decrementAndGet();
+        }
+        return wasPresent;
+    }
+    
+    public boolean contains(int accountId) {
+        return flags(accountId) >= 0;
+    }
+    
+    /**
+     * Returns the balance of an account.
+     * 
+     * @return Balance in cents, or {@link #NOT_FOUND}
+     */
+    public long balanceCents(int accountId) {
+        return read(accountId, BALANCE);
+    }
+    
+    /**
+     * Returns the version of an account.
+     * 
+     * @return Version, or {@link #NOT_FOUND}
+     */
+    public long version(int accountId) {
+        return read(accountId, VERSION);
+    }
+    
+    /**
+     * Returns the feature flags of an account.
+     * 
+     * @return Flags, or -1 if the account is not in the table
+     */
+    public int flags(int accountId) {
+        long flags = read(accountId, FLAGS);
+        return flags == NOT_FOUND ? -1 : (int) flags & ~PRESENT;
+    }
+    
+    /**
+     * Adds to the balance of an account and increments its version.
+     * 
+     * @param accountId Account ID
+     * @param deltaCents Cents to add; negative for a debit
+     * @return New balance in cents
+     * @throws IllegalArgumentException if the account is not in the table or the
+     *         balance would become negative (the balance is then unchanged)
+     */
+    public long add(int accountId, long deltaCents) {
+        ByteBuffer segment = segment(accountId);
+        if (segment == null) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+        int slot = offset(accountId);
+        long sequence = beginWrite(segment, slot);
+        try {
+            if (!isPresent(segment, slot)) {
+                throw new IllegalArgumentException("Account not found: " + accountId);
+            }
+            long balance = Money.add((long) LONGS.getOpaque(segment, slot + BALANCE), deltaCents);
+            if (balance < 0) {
+                throw new IllegalArgumentException("Insufficient balance");
+            }
+            LONGS.setOpaque(segment, slot + BALANCE, balance);
+            LONGS.setOpaque(segment, slot + VERSION, (long) LONGS.getOpaque(segment, slot + VERSION) + 1);
+            return balance;
+        } finally {
+            endWrite(segment, slot, sequence);
+        }
+    }
+    
+    /**
+     * Sets the balance of an account if its version is unchanged, and increments the version.
+     * 
+     * @param accountId Account ID
+     * @param expectedVersion Version the new balance was computed from
+     * @param balanceCents New balance in cents
+     * @return false if the account is not in the table or its version changed
+     */
+    public boolean compareAndSetBalance(int accountId, long expectedVersion, long balanceCents) {
+        ByteBuffer segment = segment(accountId);
+        if (segment == null) {
+            return false;
+        }
+        int slot = offset(accountId);
+        long sequence = beginWrite(segment, slot);
+        try {
+            if (!isPresent(segment, slot) || (long) LONGS.getOpaque(segment, slot + VERSION) != expectedVersion) {
+                return false;
+            }
+            LONGS.setOpaque(segment, slot + BALANCE, balanceCents);
+            LONGS.setOpaque(segment, slot + VERSION, expectedVersion + 1);
+            return true;
+        } finally {
+            endWrite(segment, slot, sequence);
+        }
+    }
+    
+    /**
+     * Sets or clears feature flags of an account.
+     * 
+     * @param accountId Account ID
+     * @param flags Flags to change
+     * @param on true to set them, false to clear them
+     * @return false if the account is not in the table
+     */
+    public boolean setFlags(int accountId, int flags, boolean on) {
+        ByteBuffer segment = segment(accountId);
+        if (segment == null) {
+            return false;
+        }
+        int slot = offset(accountId);
+        long sequence = beginWrite(segment, slot);
+        try {
+            long current = (long) LONGS.getOpaque(segment, slot + FLAGS);
+            if ((current & PRESENT) == 0) {
+                return false;
+            }
+            long changed = flags & ~PRESENT;
+            LONGS.setOpaque(segment, slot + FLAGS, on ? current | changed : current & ~changed);
+            return true;
+        } finally {
+            endWrite(segment, slot, sequence);
+        }
+    }
+    
+    /**
+     * Visits every account in ascending ID order. Each slot is read consistently;
+     * concurrent writes to other slots may or may not be seen.
+     * 
+     * @param visitor Receives each account
+     */
+    public void forEach(SlotVisitor visitor) {
+        for (int s = 0; s < segments.length(); s++) {
+            ByteBuffer segment = segments.get(s);
+            if (segment == null) {
+                continue;
+            }
+            for (int slot = 0; slot < segment.capacity(); slot += SLOT_BYTES) {
+                long balance;
+                long version;
+                long flags;
+                long sequence;
+                do {
+                    sequence = awaitStable(segment, slot);
+                    balance = (long) LONGS.getOpaque(segment, slot + BALANCE);
+                    version = (long) LONGS.getOpaque(segment, slot + VERSION);
+                    flags = (long) LONGS.getOpaque(segment, slot + FLAGS);
+                    VarHandle.acquireFence();
+                } while ((long) LONGS.getVolatile(segment, slot + SEQUENCE) != sequence);
+                if ((flags & PRESENT) != 0) {
+                    visitor.accept((s << SEGMENT_SHIFT) | (slot / SLOT_BYTES), balance, version, (int) flags & ~PRESENT);
+                }
+            }
+        }
+    }
+    
+    public int size() {
+        return size.get();
+    }
+    
+    /**
+     * Returns the off-heap memory allocated so far.
+     * 
+     * @return Bytes in allocated segments
+     */
+    public long allocatedBytes() {
+        long bytes = 0;
+        for (int s = 0; s < segments.length(); s++) {
+            ByteBuffer segment = segments.get(s);
+            if (segment != null) {
+                bytes += segment.capacity();
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Closes the mapped file, if any. Direct memory is released when the table is
+     * garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            file.close();
+        }
+    }
+    
+    private long read(int accountId, int field) {
+        ByteBuffer segment = segment(accountId);
+        if (segment == null) {
+            return NOT_FOUND;
+        }
+        int slot = offset(accountId);
+        while (true) {
+            long sequence = awaitStable(segment, slot);
+            long flags = (long) LONGS.getOpaque(segment, slot + FLAGS);
+            long value = (long) LONGS.getOpaque(segment, slot + field);
+            VarHandle.acquireFence();
+            if ((long) LONGS.getVolatile(segment, slot + SEQUENCE) == sequence) {
+                return (flags & PRESENT) == 0 ? NOT_FOUND : value;
+            }
+        }
+    }
+    
+    private static long awaitStable(ByteBuffer segment, int slot) {
+        while (true) {
+            long sequence = (long) LONGS.getAcquire(segment, slot + SEQUENCE);
+            if ((sequence & 1) == 0) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Marks a slot as being written, waiting for a concurrent writer of the same slot.
+     * 
+     * @return Odd sequence value to pass to {@link #endWrite}
+     */
+    private static long beginWrite(ByteBuffer segment, int slot) {
+        while (true) {
+            long sequence = awaitStable(segment, slot);
+            if (LONGS.compareAndSet(segment, slot + SEQUENCE, sequence, sequence + 1)) {
+                return sequence + 1;
+            }
+        }
+    }
+    
+    private static void endWrite(ByteBuffer segment, int slot, long sequence) {
+        LONGS.setRelease(segment, slot + SEQUENCE, sequence + 1);
+    }
+    
+    private static boolean isPresent(ByteBuffer segment, int slot) {
+        return ((long) LONGS.getOpaque(segment, slot + FLAGS) & PRESENT) != 0;
+    }
+    
+    private ByteBuffer segment(int accountId) {
+        if (accountId < 1 || accountId > maxAccountId) {
+            return null;
+        }
+        return segments.get(accountId >>> SEGMENT_SHIFT);
+    }
+    
+    private ByteBuffer segmentForWrite(int accountId) {
+        if (accountId < 1 || accountId > maxAccountId) {
+            throw new IllegalArgumentException("Account ID out of range: " + accountId);
+        }
+        int index = accountId >>> SEGMENT_SHIFT;
+        ByteBuffer segment = segments.get(index);
+        return segment != null ? segment : allocateSegment(index);
+    }
+    
+    private synchronized ByteBuffer allocateSegment(int index) {
+        ByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            long slots = Math.min(1 << SEGMENT_SHIFT, (long) maxAccountId - ((long) index << SEGMENT_SHIFT) + 1);
+            int bytes = (int) slots * SLOT_BYTES;
+            if (file == null) {
+                segment = ByteBuffer.allocateDirect(bytes);
+            } else {
+                try {
+                    segment = file.map(FileChannel.MapMode.READ_WRITE, (long) index * SEGMENT_BYTES, bytes);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot map balance table segment " + index, e);
+                }
+            }
+            segments.set(index, segment);
+        }
+        return segment;
+    }
+    
+    private static int offset(int accountId) {
+        return (accountId & SEGMENT_MASK) * SLOT_BYTES;
+    }
+    
+    /**
+     * Receives one account of {@link #forEach}.
+     */
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void accept(int accountId, long balanceCents, long version, int flags);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bankmanagement.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection provider that gives every thread a connection of its own, reopening it
+ * when it was closed. Used with a fixed pool of worker threads, it is a connection pool
+ * of the pool's size: each unit of work stays on its thread's connection, and the
+ * number of database sessions is bounded by the number of threads.
+ */
+public class PerThreadConnectionProvider implements ConnectionProvider {
+    private final SqlCallable<Connection> opener;
+    private final ThreadLocal<Connection> connections = new ThreadLocal<>();
+    private final List<Connection> opened = new ArrayList<>();
+    
+    /**
+     * Creates a provider.
+     * 
+     * @param opener Opens a new connection with auto-commit disabled
+     */
+    public PerThreadConnectionProvider(SqlCallable<Connection> opener) {
+        this.opener = opener;
+        MetricsRegistry.getInstance().registerGauge("db.connections.perThread", this::openConnectionCount);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = connections.get();
+        if (connection == null || connection.isClosed()) {
+            connection = opener.call();
+            connections.set(connection);
+            synchronized (opened) {
+                opened.add(connection);
+            }
+        }
+        return connection;
+    }
+    
+    /**
+     * Returns the number of connections currently open.
+     */
+    private long openConnectionCount() {
+        synchronized (opened) {
+            opened.removeIf(PerThreadConnectionProvider::isClosed);
+            return opened.size();
+        }
+    }
+    
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+    
+    /**
+     * Closes the connections of all threads.
+     */
+    public void close() {
+        synchronized (opened) {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing database connection: " + e.getMessage());
+                }
+            }
+            opened.clear();
+        }
+    }
+}
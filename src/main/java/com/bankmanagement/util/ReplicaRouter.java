@@ -0,0 +1,206 @@
+package com.bankmanagement.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection provider that sends read-only statements to read replicas.
+ * Units of work and writes always get the primary connection. A read goes to a replica
+ * only if the replica's replication lag, measured in the background, is within
+ * {@code bank.replica.maxLagSeconds} and the primary was not used for longer than that
+ * lag (at least {@code bank.replica.readYourWritesMillis}), so the application reads
+ * its own writes. Reads fall back to the primary whenever no replica qualifies.
+ */
+public class ReplicaRouter implements ConnectionProvider {
+    private final ConnectionProvider primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private ScheduledExecutorService lagChecker;
+    private volatile long lastPrimaryUse;
+    
+    /**
+     * Creates a router.
+     * 
+     * @param primary Provider of the primary connection
+     * @param replicaOpeners Open a new connection to each replica
+     */
+    public ReplicaRouter(ConnectionProvider primary, List<SqlCallable<Connection>> replicaOpeners) {
+        this.primary = primary;
+        for (SqlCallable<Connection> opener : replicaOpeners) {
+            replicas.add(new Replica(opener));
+        }
+        this.maxLagMillis = AppConfig.getLong("bank.replica.maxLagSeconds", 5) * 1000;
+        this.readYourWritesMillis = AppConfig.getLong("bank.replica.readYourWritesMillis", 2000);
+        metrics.registerGauge("db.replicas.usable", this::usableReplicaCount);
+    }
+    
+    /**
+     * Starts measuring the replication lag in the background at a fixed interval.
+     * Until the first measurement all reads go to the primary.
+     * 
+     * @param intervalMillis Delay between measurements
+     */
+    public synchronized void start(long intervalMillis) {
+        if (lagChecker != null) {
+            return;
+        }
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+            lagChecker = null;
+        }
+    }
+    
+    /**
+     * Returns the primary connection and starts the read-your-writes window.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        lastPrimaryUse = System.currentTimeMillis();
+        return primary.getConnection();
+    }
+    
+    /**
+     * Returns a connection to a replica whose lag is acceptable, taking turns among them,
+     * or the primary connection if there is none or the primary was used too recently.
+     */
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        long sincePrimaryUse = System.currentTimeMillis() - lastPrimaryUse;
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            long lag = replica.lagMillis;
+            if (lag < 0 || lag > maxLagMillis || sincePrimaryUse <= Math.max(readYourWritesMillis, lag + 1000)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.getConnection();
+                metrics.incrementCounter("db.reads.replica");
+                return connection;
+            } catch (SQLException e) {
+                replica.lagMillis = -1;
+                metrics.incrementCounter("db.replica.failures");
+            }
+        }
+        metrics.incrementCounter("db.reads.primary");
+        return primary.getConnection();
+    }
+    
+    /**
+     * Returns the provider of the primary connection.
+     * 
+     * @return Primary connection provider
+     */
+    public ConnectionProvider getPrimary() {
+        return primary;
+    }
+    
+    /**
+     * Measures the lag of every replica; a replica that cannot be reached or is not
+     * replicating is not used until a later measurement succeeds.
+     */
+    private void checkLag() {
+        for (Replica replica : replicas) {
+            try {
+                replica.lagMillis = measureLagMillis(replica.getConnection());
+            } catch (SQLException e) {
+                replica.lagMillis = -1;
+                replica.close();
+                metrics.incrementCounter("db.replica.failures");
+                System.err.println("Replica lag check failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Returns how far a replica is behind the primary.
+     * 
+     * @param connection Replica connection
+     * @return Lag in milliseconds, or -1 if the server is not replicating
+     * @throws SQLException if the replica cannot be queried
+     */
+    protected long measureLagMillis(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            ResultSet rs;
+            String column;
+            try {
+                rs = stmt.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (SQLException e) {
+                // Servers before MySQL 8.0.22
+                rs = stmt.executeQuery("SHOW SLAVE STATUS");
+                column = "Seconds_Behind_Master";
+            }
+            try (ResultSet status = rs) {
+                if (!status.next()) {
+                    return -1;
+                }
+                long seconds = status.getLong(column);
+                return status.wasNull() ? -1 : seconds * 1000;
+            }
+        }
+    }
+    
+    private long usableReplicaCount() {
+        long count = 0;
+        for (Replica replica : replicas) {
+            if (replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Creates the router for the configured replicas ({@code bank.mysql.replicaUrls},
+     * comma-separated) and starts its lag checks.
+     * 
+     * @param primary Provider of the primary connection
+     * @return Router, or the primary provider itself if no replicas are configured
+     */
+    public static ConnectionProvider createDefault(DatabaseConnection primary) {
+        List<SqlCallable<Connection>> openers = new ArrayList<>();
+        for (String url : AppConfig.getString("bank.mysql.replicaUrls", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                openers.add(() -> primary.openReplicaConnection(url.trim()));
+            }
+        }
+        if (openers.isEmpty()) {
+            return primary;
+        }
+        ReplicaRouter router = new ReplicaRouter(primary, openers);
+        router.start(AppConfig.getLong("bank.replica.lagCheckMillis", 5000));
+        return router;
+    }
+    
+    /**
+     * One replica with its own connection and last measured lag (-1 = not usable).
+     */
+    private static class Replica extends DedicatedConnectionProvider {
+        private volatile long lagMillis = -1;
+        
+        Replica(SqlCallable<Connection> opener) {
+            super(opener);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bankmanagement.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Configures statements to stream large result sets row by row instead of
+ * buffering them in the heap.
+ */
+public final class ResultStreaming {
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    
+    private ResultStreaming() {
+    }
+    
+    /**
+     * Enables streaming on a statement. MySQL Connector/J only streams when the fetch
+     * size is {@link Integer#MIN_VALUE}; other drivers honour a regular fetch size.
+     * 
+     * @param statement Statement to configure (forward-only, read-only)
+     * @throws SQLException if the driver rejects the setting
+     */
+    public static void enable(Statement statement) throws SQLException {
+        String driver = statement.getConnection().getMetaData().getDriverName();
+        if (driver != null && driver.startsWith("MySQL")) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            statement.setFetchSize(DEFAULT_FETCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bankmanagement.util;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent identical reads: while a load for a key is in flight, further
+ * callers for that key wait for it and share its result instead of querying again.
+ * A load that starts after the previous one finished always queries afresh, so
+ * nothing is cached. Every waiting caller receives its own copy of the result,
+ * because the model classes are mutable. A caller can refuse to share a load that
+ * started before a point in time, e.g. before the latest commit.
+ * 
+ * @param <V> Result type
+ */
+public class SingleFlight<V> {
+    /** Start time limit that accepts any load in flight. */
+    public static final long ANY_START = Long.MIN_VALUE;
+    
+    private final ConcurrentIntObjectMap<Flight<V>> inFlight = new ConcurrentIntObjectMap<>(64);
+    private final UnaryOperator<V> copier;
+    private final String coalescedCounter;
+    
+    /**
+     * Creates a single-flight group.
+     * 
+     * @param name Name of the read, used in the {@code singleFlight.<name>.coalesced} counter
+     * @param copier Copies a non-null result for each caller that shared it
+     */
+    public SingleFlight(String name, UnaryOperator<V> copier) {
+        this.copier = copier;
+        this.coalescedCounter = "singleFlight." + name + ".coalesced";
+    }
+    
+    /**
+     * Loads the value for a key, sharing a load already in flight for the same key.
+     * 
+     * @param key Key, e.g. an account ID
+     * @param loader Query run if no load for the key is in flight
+     * @return Loaded value; possibly null
+     * @throws SQLException if the shared load failed
+     */
+    public V load(int key, SqlCallable<V> loader) throws SQLException {
+        return load(key, ANY_START, loader);
+    }
+    
+    /**
+     * Loads the value for a key, sharing a load already in flight for the same key
+     * only if that load started at or after the given time.
+     * 
+     * @param key Key, e.g. an account ID
+     * @param notStartedBefore {@link System#nanoTime()} before which a shared load is too old,
+     *                         or {@link #ANY_START}
+     * @param loader Query run if no suitable load for the key is in flight
+     * @return Loaded value; possibly null
+     * @throws SQLException if the shared load failed
+     */
+    public V load(int key, long notStartedBefore, SqlCallable<V> loader) throws SQLException {
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (notStartedBefore != ANY_START && existing.startedNanos - notStartedBefore < 0) {
+                // The load in flight may miss what the caller committed; query alone
+                return loader.call();
+            }
+            MetricsRegistry.getInstance().incrementCounter(coalescedCounter);
+            return await(existing);
+        }
+        
+        V value;
+        try {
+            value = loader.call();
+        } catch (Throwable t) {
+            inFlight.remove(key);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+        // Removed before completing: callers arriving from now on start a new load
+        inFlight.remove(key);
+        flight.complete(value);
+        return value;
+    }
+    
+    private V await(Flight<V> flight) throws SQLException {
+        V value;
+        try {
+            value = flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                // A new exception, so the waiting caller's stack trace is kept
+                SQLException failure = (SQLException) cause;
+                throw new SQLException(failure.getMessage(), failure.getSQLState(), failure.getErrorCode(), failure);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return value == null ? null : copier.apply(value);
+    }
+    
+    /**
+     * Returns the number of loads currently in flight.
+     * 
+     * @return Keys being loaded
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    /**
+     * A load in flight and the time it started.
+     */
+    private static final class Flight<V> extends CompletableFuture<V> {
+        private final long startedNanos = System.nanoTime();
+    }
+}
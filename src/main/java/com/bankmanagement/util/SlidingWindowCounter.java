@@ -0,0 +1,85 @@
+package com.bankmanagement.util;
+
+import java.util.Arrays;
+
+/**
+ * Event count and amount total over a rolling time window, kept in a fixed ring of
+ * time buckets backed by primitive arrays. Memory does not grow with traffic and
+ * reading the totals touches only the ring, so a check costs well under a microsecond.
+ * The window slides in steps of one bucket. Not thread-safe; callers synchronize.
+ */
+public class SlidingWindowCounter {
+    private final long bucketMillis;
+    private final long[] bucketIds;
+    private final long[] counts;
+    private final long[] sums;
+    
+    /**
+     * Creates a counter.
+     * 
+     * @param windowMillis Window length
+     * @param buckets Number of buckets the window is divided into
+     */
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.bucketIds = new long[buckets];
+        this.counts = new long[buckets];
+        this.sums = new long[buckets];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+    
+    /**
+     * Records an event. Events older than the window are ignored.
+     * 
+     * @param timeMillis Event time
+     * @param amount Amount carried by the event
+     */
+    public void add(long timeMillis, long amount) {
+        long bucketId = timeMillis / bucketMillis;
+        int slot = (int) Math.floorMod(bucketId, (long) bucketIds.length);
+        if (bucketIds[slot] != bucketId) {
+            if (bucketIds[slot] > bucketId) {
+                return;
+            }
+            bucketIds[slot] = bucketId;
+            counts[slot] = 0;
+            sums[slot] = 0;
+        }
+        counts[slot]++;
+        sums[slot] += amount;
+    }
+    
+    /**
+     * Returns the number of events in the window ending at a given time.
+     * 
+     * @param nowMillis End of the window
+     * @return Event count
+     */
+    public long count(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - bucketIds.length;
+        long total = 0;
+        for (int i = 0; i < bucketIds.length; i++) {
+            if (bucketIds[i] > oldest) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Returns the total amount of the events in the window ending at a given time.
+     * 
+     * @param nowMillis End of the window
+     * @return Amount total
+     */
+    public long sum(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - bucketIds.length;
+        long total = 0;
+        for (int i = 0; i < bucketIds.length; i++) {
+            if (bucketIds[i] > oldest) {
+                total += sums[i];
+            }
+        }
+        return total;
+    }
+}
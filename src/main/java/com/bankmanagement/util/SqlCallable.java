@@ -0,0 +1,20 @@
+package com.bankmanagement.util;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of work that may touch the database and therefore throw {@link SQLException}.
+ *
+ * @param <T> Result type
+ */
+@FunctionalInterface
+public interface SqlCallable<T> {
+    
+    /**
+     * Runs the unit of work.
+     * 
+     * @return Result of the work
+     * @throws SQLException if database operation fails
+     */
+    T call() throws SQLException;
+}
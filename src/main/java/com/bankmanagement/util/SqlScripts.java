@@ -0,0 +1,52 @@
+package com.bankmanagement.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs the SQL scripts shipped in {@code src/main/resources} against a connection.
+ */
+public final class SqlScripts {
+    
+    private SqlScripts() {
+    }
+    
+    /**
+     * Executes every statement of a classpath script and commits.
+     * {@code CREATE DATABASE} and {@code USE} statements are skipped, so the MySQL
+     * schema can be applied to an already selected (e.g. embedded) database.
+     * 
+     * @param connection Target connection
+     * @param resource Classpath resource name, e.g. {@code database_schema.sql}
+     * @throws SQLException if a statement fails
+     */
+    public static void run(Connection connection, String resource) throws SQLException {
+        String script;
+        try (InputStream in = SqlScripts.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("SQL script not found on classpath: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Error reading SQL script " + resource, e);
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            for (String statement : script.split(";")) {
+                String sql = statement.replaceAll("(?m)^\\s*--.*$", "").trim();
+                String upper = sql.toUpperCase();
+                if (sql.isEmpty() || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(sql);
+            }
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+}
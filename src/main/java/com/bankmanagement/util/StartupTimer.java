@@ -0,0 +1,75 @@
+package com.bankmanagement.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how long after the JVM was launched each startup phase finished, e.g. when
+ * the login window became visible. The marks are also published as
+ * {@code startup.<phase>Millis} gauges, and the report is printed or written to a file
+ * when {@code bank.startup.timing} or {@code bank.startup.reportFile} is set.
+ */
+public final class StartupTimer {
+    private static final long LAUNCHED_AT = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    private static final List<String> PHASES = new ArrayList<>();
+    private static final List<Long> MILLIS = new ArrayList<>();
+    
+    private StartupTimer() {
+    }
+    
+    /**
+     * Records that a phase finished now.
+     * 
+     * @param phase Phase name, e.g. {@code loginVisible}
+     * @return Milliseconds since the JVM was launched
+     */
+    public static long mark(String phase) {
+        long millis = System.currentTimeMillis() - LAUNCHED_AT;
+        synchronized (PHASES) {
+            PHASES.add(phase);
+            MILLIS.add(millis);
+        }
+        MetricsRegistry.getInstance().registerGauge("startup." + phase + "Millis", () -> millis);
+        return millis;
+    }
+    
+    /**
+     * Returns the phases recorded so far, one per line in the order they finished.
+     * 
+     * @return Report text
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Startup timing (ms since JVM launch)\n");
+        synchronized (PHASES) {
+            for (int i = 0; i < PHASES.size(); i++) {
+                report.append(String.format("%-24s %6d%n", PHASES.get(i), MILLIS.get(i)));
+            }
+        }
+        return report.toString();
+    }
+    
+    /**
+     * Prints the report and writes it to {@code bank.startup.reportFile}, as far as
+     * either is configured.
+     */
+    public static void publish() {
+        if (AppConfig.getBoolean("bank.startup.timing", false)) {
+            System.out.print(report());
+        }
+        String reportFile = AppConfig.getString("bank.startup.reportFile", null);
+        if (reportFile != null) {
+            try {
+                Files.write(Path.of(reportFile), report().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Error writing startup report: " + e.getMessage());
+            }
+        }
+    }
+}
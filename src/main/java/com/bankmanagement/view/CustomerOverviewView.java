@@ -0,0 +1,200 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.CustomerOverview;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.util.MetricsRegistry;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * View showing a customer, their accounts with balances and each account's latest
+ * transactions. Everything is fetched at once when the customer is opened and kept for
+ * the visit: selecting another account needs no database access. Refresh reloads it.
+ * Account selections served from the visit and loads are recorded as the cache
+ * {@code customer360.visit}.
+ */
+public class CustomerOverviewView extends JInternalFrame {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String VISIT_CACHE = "customer360.visit";
+    
+    private final BankOperations bankController;
+    private CustomerOverview overview;
+    private JTextField customerIdField;
+    private JButton openButton;
+    private JButton refreshButton;
+    private JLabel customerLabel;
+    private JTable accountTable;
+    private DefaultTableModel accountModel;
+    private DefaultTableModel transactionModel;
+    
+    public CustomerOverviewView() {
+        super("Customer 360", true, true, true, true);
+        this.bankController = Backends.bankOperations();
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+    }
+    
+    private void initializeComponents() {
+        setSize(850, 550);
+        customerIdField = new JTextField(10);
+        openButton = new JButton("Open");
+        refreshButton = new JButton("Refresh");
+        refreshButton.setEnabled(false);
+        customerLabel = new JLabel(" ");
+        
+        accountModel = new DefaultTableModel(
+                new String[]{"Account ID", "Account Number", "Type", "Mode", "Balance"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        accountTable = new JTable(accountModel);
+        accountTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        
+        transactionModel = new DefaultTableModel(
+                new String[]{"Transaction ID", "Type", "Amount", "Balance After", "Description", "Date"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout(5, 5));
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Customer ID:"));
+        topPanel.add(customerIdField);
+        topPanel.add(openButton);
+        topPanel.add(refreshButton);
+        
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.add(topPanel, BorderLayout.NORTH);
+        customerLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 5, 10));
+        headerPanel.add(customerLabel, BorderLayout.SOUTH);
+        
+        JTable transactionTable = new JTable(transactionModel);
+        transactionTable.setFillsViewportHeight(true);
+        accountTable.setFillsViewportHeight(true);
+        JScrollPane accountPane = new JScrollPane(accountTable);
+        accountPane.setBorder(BorderFactory.createTitledBorder("Accounts"));
+        JScrollPane transactionPane = new JScrollPane(transactionTable);
+        transactionPane.setBorder(BorderFactory.createTitledBorder("Latest Transactions"));
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, accountPane, transactionPane);
+        splitPane.setResizeWeight(0.4);
+        
+        add(headerPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+    }
+    
+    private void setupListeners() {
+        openButton.addActionListener(e -> openCustomer());
+        refreshButton.addActionListener(e -> loadOverview(overview.getCustomer().getCustomerId()));
+        accountTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showTransactions();
+            }
+        });
+    }
+    
+    private void openCustomer() {
+        try {
+            loadOverview(Integer.parseInt(customerIdField.getText().trim()));
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(),
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void loadOverview(int customerId) {
+        openButton.setEnabled(false);
+        refreshButton.setEnabled(false);
+        customerLabel.setText("Loading...");
+        
+        new SwingWorker<CustomerOverview, Void>() {
+            @Override
+            protected CustomerOverview doInBackground() throws Exception {
+                MetricsRegistry.getInstance().recordCacheMiss(VISIT_CACHE);
+                return bankController.getCustomerOverview(customerId);
+            }
+            
+            @Override
+            protected void done() {
+                openButton.setEnabled(true);
+                try {
+                    CustomerOverview loaded = get();
+                    if (loaded == null) {
+                        customerLabel.setText(" ");
+                        JOptionPane.showMessageDialog(CustomerOverviewView.this, "Customer not found",
+                                                     "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    showOverview(loaded);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    customerLabel.setText("Failed");
+                    JOptionPane.showMessageDialog(CustomerOverviewView.this, "Error: " + cause.getMessage(),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    refreshButton.setEnabled(overview != null);
+                }
+            }
+        }.execute();
+    }
+    
+    private void showOverview(CustomerOverview overview) {
+        this.overview = overview;
+        Customer customer = overview.getCustomer();
+        customerLabel.setText(String.format("%s (%s) | Mobile: %s | Email: %s | City: %s | Total balance: %s | As of %s",
+                customer.getFullName(), customer.getCustomerType(), customer.getMobileNumber(),
+                customer.getEmail() != null ? customer.getEmail() : "-",
+                customer.getCity() != null ? customer.getCity() : "-",
+                overview.getTotalBalance(), DATE_TIME_FORMAT.format(overview.getLoadedAt())));
+        
+        accountModel.setRowCount(0);
+        transactionModel.setRowCount(0);
+        for (Account account : overview.getAccounts()) {
+            accountModel.addRow(new Object[]{
+                account.getAccountId(),
+                account.getAccountNumber(),
+                account.getAccountType(),
+                account.getModeOfOperation(),
+                account.getBalance()
+            });
+        }
+        if (accountModel.getRowCount() > 0) {
+            accountTable.setRowSelectionInterval(0, 0);
+        }
+    }
+    
+    private void showTransactions() {
+        transactionModel.setRowCount(0);
+        int row = accountTable.getSelectedRow();
+        if (overview == null || row < 0) {
+            return;
+        }
+        int accountId = (Integer) accountModel.getValueAt(row, 0);
+        MetricsRegistry.getInstance().recordCacheHit(VISIT_CACHE);
+        for (Transaction transaction : overview.getRecentTransactions(accountId)) {
+            transactionModel.addRow(new Object[]{
+                transaction.getTransactionId(),
+                transaction.getTransactionType(),
+                transaction.getAmount(),
+                transaction.getBalanceAfter(),
+                transaction.getDescription(),
+                DATE_TIME_FORMAT.format(transaction.getTransactionDate())
+            });
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.BankController;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
 
 import javax.swing.*;
 import java.awt.*;
@@ -9,14 +10,14 @@ import java.awt.*;
  * View for deleting a customer.
  */
 public class DeleteCustomerView extends JInternalFrame {
-    private BankController bankController;
+    private BankOperations bankController;
     private JTextField customerIdField;
     private JButton deleteButton, checkButton;
     private JTextArea customerInfoArea;
     
     public DeleteCustomerView() {
         super("Delete Customer", true, true, true, true);
-        this.bankController = new BankController();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
@@ -1,6 +1,7 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.BankController;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
 import com.bankmanagement.model.Account;
 
 import javax.swing.*;
@@ -11,12 +12,12 @@ import java.math.BigDecimal;
  * View for depositing money into an account.
  */
 public class DepositView extends JInternalFrame {
-    private final BankController bankController;
-    private final JTextField accountIdField, amountField, balanceField;
+    private final BankOperations bankController;
+    private JTextField accountIdField, amountField, balanceField;
     
     public DepositView() {
         super("Deposit", true, true, true, true);
-        this.bankController = new BankController();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
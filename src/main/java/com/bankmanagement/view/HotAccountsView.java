@@ -0,0 +1,108 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.util.IntLongMap;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * View for making accounts hot, e.g. the settlement account that receives every card
+ * payment, and listing the accounts that are. A hot account takes concurrent credits
+ * through sub-ledger slots instead of its row lock.
+ */
+public class HotAccountsView extends JInternalFrame {
+    private final BankOperations bankController;
+    private JTextField accountIdField;
+    private JSpinner slotsSpinner;
+    private JButton applyButton;
+    private JButton refreshButton;
+    private DefaultTableModel hotAccountModel;
+    
+    public HotAccountsView() {
+        super("Hot Accounts", true, true, true, true);
+        this.bankController = Backends.bankOperations();
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+        loadHotAccounts();
+    }
+    
+    private void initializeComponents() {
+        setSize(500, 400);
+        accountIdField = new JTextField(10);
+        slotsSpinner = new JSpinner(new SpinnerNumberModel(8, 0, 64, 1));
+        applyButton = new JButton("Apply");
+        refreshButton = new JButton("Refresh");
+        hotAccountModel = new DefaultTableModel(new String[]{"Account ID", "Slots"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout(5, 5));
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Account ID:"));
+        topPanel.add(accountIdField);
+        topPanel.add(new JLabel("Slots (0 = normal):"));
+        topPanel.add(slotsSpinner);
+        topPanel.add(applyButton);
+        topPanel.add(refreshButton);
+        
+        JTable table = new JTable(hotAccountModel);
+        table.setFillsViewportHeight(true);
+        
+        add(topPanel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+    }
+    
+    private void setupListeners() {
+        applyButton.addActionListener(e -> applySlots());
+        refreshButton.addActionListener(e -> loadHotAccounts());
+    }
+    
+    private void applySlots() {
+        try {
+            int accountId = Integer.parseInt(accountIdField.getText().trim());
+            bankController.setHotAccount(accountId, (Integer) slotsSpinner.getValue());
+            loadHotAccounts();
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(),
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void loadHotAccounts() {
+        refreshButton.setEnabled(false);
+        
+        new SwingWorker<IntLongMap, Void>() {
+            @Override
+            protected IntLongMap doInBackground() throws Exception {
+                return bankController.getHotAccounts();
+            }
+            
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    IntLongMap hotAccounts = get();
+                    hotAccountModel.setRowCount(0);
+                    for (int accountId : hotAccounts.keys()) {
+                        hotAccountModel.addRow(new Object[]{accountId, hotAccounts.get(accountId)});
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(HotAccountsView.this, "Error: " + cause.getMessage(),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+}
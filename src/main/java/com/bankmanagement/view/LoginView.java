@@ -1,21 +1,29 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.AuthController;
+import com.bankmanagement.StartupWarmup;
+import com.bankmanagement.audit.AuditContext;
+import com.bankmanagement.controller.AuthOperations;
+import com.bankmanagement.controller.Backends;
 import com.bankmanagement.model.User;
+import com.bankmanagement.util.StartupTimer;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Login view for user authentication.
+ * It is usable while the database connection is still being opened in the background;
+ * signing in waits for it on a worker thread, never on the event dispatch thread.
  */
 public class LoginView extends JFrame {
-    private final JTextField usernameField;
-    private final JPasswordField passwordField;
-    private final AuthController authController;
+    private JTextField usernameField;
+    private JPasswordField passwordField;
+    private JButton loginButton;
+    private JLabel statusLabel;
+    private AuthOperations authController;
     
     public LoginView() {
-        this.authController = new AuthController();
         initializeComponents();
         setupLayout();
         setupListeners();
@@ -30,6 +38,8 @@ public class LoginView extends JFrame {
         
         usernameField = new JTextField(20);
         passwordField = new JPasswordField(20);
+        loginButton = new JButton("Login");
+        statusLabel = new JLabel("Connecting to database...", SwingConstants.CENTER);
     }
     
     private void setupLayout() {
@@ -77,20 +87,29 @@ public class LoginView extends JFrame {
         gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.fill = GridBagConstraints.HORIZONTAL;
-        JButton loginButton = new JButton("Login");
         loginButton.setPreferredSize(new Dimension(150, 30));
         loginButton.addActionListener(e -> performLogin());
         mainPanel.add(loginButton, gbc);
         
         add(mainPanel, BorderLayout.CENTER);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+        add(statusLabel, BorderLayout.SOUTH);
     }
     
     private void setupListeners() {
         // Allow login on Enter key in password field
         passwordField.addActionListener(e -> performLogin());
+        StartupWarmup.connections().whenComplete((ignored, failure) -> SwingUtilities.invokeLater(() -> {
+            if (loginButton.isEnabled()) {
+                statusLabel.setText(failure == null ? "Connected" : "Database not reachable yet");
+            }
+        }));
     }
     
     private void performLogin() {
+        if (!loginButton.isEnabled()) {
+            return;
+        }
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
         
@@ -100,22 +119,45 @@ public class LoginView extends JFrame {
             return;
         }
         
-        try {
-            User user = authController.authenticate(username, password);
-            if (user != null) {
-                // Login successful, open main application window
-                this.dispose();
-                new MainView().setVisible(true);
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid username or password", 
-                                             "Authentication Failed", JOptionPane.ERROR_MESSAGE);
-                passwordField.setText("");
+        loginButton.setEnabled(false);
+        statusLabel.setText("Signing in...");
+        
+        new SwingWorker<User, Void>() {
+            @Override
+            protected User doInBackground() {
+                StartupWarmup.awaitConnections();
+                if (authController == null) {
+                    authController = Backends.authOperations();
+                }
+                return authController.authenticate(username, password);
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error during login: " + e.getMessage(), 
-                                         "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+            
+            @Override
+            protected void done() {
+                loginButton.setEnabled(true);
+                statusLabel.setText(" ");
+                try {
+                    User user = get();
+                    if (user != null) {
+                        // Login successful, open main application window
+                        AuditContext.setTerminalUser(user);
+                        dispose();
+                        new MainView().setVisible(true);
+                        StartupTimer.mark("mainWindowVisible");
+                        StartupTimer.publish();
+                    } else {
+                        JOptionPane.showMessageDialog(LoginView.this, "Invalid username or password", 
+                                                     "Authentication Failed", JOptionPane.ERROR_MESSAGE);
+                        passwordField.setText("");
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(LoginView.this, "Error during login: " + cause.getMessage(), 
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                    cause.printStackTrace();
+                }
+            }
+        }.execute();
     }
 }
 
@@ -1,5 +1,7 @@
 package com.bankmanagement.view;
 
+import com.bankmanagement.StartupWarmup;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -7,12 +9,13 @@ import java.awt.*;
  * Main application window with menu bar and desktop pane.
  */
 public class MainView extends JFrame {
-    private final JDesktopPane desktopPane;
+    private JDesktopPane desktopPane;
     
     public MainView() {
         initializeComponents();
         setupMenuBar();
         setupLayout();
+        StartupWarmup.startBackgroundServices();
     }
     
     private void initializeComponents() {
@@ -34,39 +37,62 @@ public class MainView extends JFrame {
         JMenuItem modifyCustomerItem = new JMenuItem("Modify Customer");
         JMenuItem deleteCustomerItem = new JMenuItem("Delete Customer");
         JMenuItem viewCustomersItem = new JMenuItem("View All Customers");
+        JMenuItem customerOverviewItem = new JMenuItem("Customer 360");
         
         newCustomerItem.addActionListener(e -> openInternalFrame(new NewAccountView()));
         modifyCustomerItem.addActionListener(e -> openInternalFrame(new ModifyCustomerView()));
         deleteCustomerItem.addActionListener(e -> openInternalFrame(new DeleteCustomerView()));
         viewCustomersItem.addActionListener(e -> openInternalFrame(new ViewCustomersView()));
+        customerOverviewItem.addActionListener(e -> openInternalFrame(new CustomerOverviewView()));
         
         customerMenu.add(newCustomerItem);
         customerMenu.add(modifyCustomerItem);
         customerMenu.add(deleteCustomerItem);
         customerMenu.addSeparator();
         customerMenu.add(viewCustomersItem);
+        customerMenu.add(customerOverviewItem);
         
         // Transaction Menu
         JMenu transactionMenu = new JMenu("Transaction");
         JMenuItem depositItem = new JMenuItem("Deposit");
         JMenuItem withdrawItem = new JMenuItem("Withdraw");
         JMenuItem transferItem = new JMenuItem("Transfer");
+        JMenuItem payrollItem = new JMenuItem("Batch Payroll");
+        JMenuItem standingOrdersItem = new JMenuItem("Standing Orders");
         JMenuItem balanceItem = new JMenuItem("Balance Inquiry");
         JMenuItem statementItem = new JMenuItem("Account Statement");
         
         depositItem.addActionListener(e -> openInternalFrame(new DepositView()));
         withdrawItem.addActionListener(e -> openInternalFrame(new WithdrawView()));
         transferItem.addActionListener(e -> openInternalFrame(new TransferView()));
+        payrollItem.addActionListener(e -> openInternalFrame(new PayrollView()));
+        standingOrdersItem.addActionListener(e -> openInternalFrame(new StandingOrdersView()));
         balanceItem.addActionListener(e -> openInternalFrame(new BalanceView()));
         statementItem.addActionListener(e -> openInternalFrame(new StatementView()));
         
         transactionMenu.add(depositItem);
         transactionMenu.add(withdrawItem);
         transactionMenu.add(transferItem);
+        transactionMenu.add(payrollItem);
+        transactionMenu.add(standingOrdersItem);
         transactionMenu.addSeparator();
         transactionMenu.add(balanceItem);
         transactionMenu.add(statementItem);
         
+        // Operations Menu
+        JMenu operationsMenu = new JMenu("Operations");
+        JMenuItem dashboardItem = new JMenuItem("Live Dashboard");
+        JMenuItem reconciliationItem = new JMenuItem("Ledger Reconciliation");
+        JMenuItem hotAccountsItem = new JMenuItem("Hot Accounts");
+        
+        dashboardItem.addActionListener(e -> openInternalFrame(new OperationsDashboardView()));
+        reconciliationItem.addActionListener(e -> openInternalFrame(new ReconciliationView()));
+        hotAccountsItem.addActionListener(e -> openInternalFrame(new HotAccountsView()));
+        
+        operationsMenu.add(dashboardItem);
+        operationsMenu.add(reconciliationItem);
+        operationsMenu.add(hotAccountsItem);
+        
         // Help Menu
         JMenu helpMenu = new JMenu("Help");
         JMenuItem aboutItem = new JMenuItem("About");
@@ -81,6 +107,7 @@ public class MainView extends JFrame {
         
         menuBar.add(customerMenu);
         menuBar.add(transactionMenu);
+        menuBar.add(operationsMenu);
         menuBar.add(helpMenu);
         
         setJMenuBar(menuBar);
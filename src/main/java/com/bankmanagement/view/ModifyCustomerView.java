@@ -1,6 +1,7 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.BankController;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
 import com.bankmanagement.model.Customer;
 
 import javax.swing.*;
@@ -11,7 +12,7 @@ import java.time.LocalDate;
  * View for modifying customer information.
  */
 public class ModifyCustomerView extends JInternalFrame {
-    private BankController bankController;
+    private BankOperations bankController;
     private JTextField customerIdField, fullNameField, fatherNameField, dobField;
     private JTextField addressField, cityField, stateField, mobileField, emailField, nationalityField;
     private JComboBox<String> customerTypeCombo, genderCombo, maritalStatusCombo;
@@ -19,7 +20,7 @@ public class ModifyCustomerView extends JInternalFrame {
     
     public ModifyCustomerView() {
         super("Modify Customer", true, true, true, true);
-        this.bankController = new BankController();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
@@ -1,6 +1,7 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.BankController;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.Customer;
 
@@ -15,7 +16,7 @@ import java.time.LocalDate;
  * View for creating a new customer account.
  */
 public class NewAccountView extends JInternalFrame {
-    private BankController bankController;
+    private BankOperations bankController;
     
     // Form fields
     private JTextField fullNameField, fatherNameField, dobField, addressField;
@@ -29,7 +30,7 @@ public class NewAccountView extends JInternalFrame {
     
     public NewAccountView() {
         super("New Account", true, true, true, true);
-        this.bankController = new BankController();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
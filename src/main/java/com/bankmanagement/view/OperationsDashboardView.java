@@ -0,0 +1,169 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.util.HotKeyTracker;
+import com.bankmanagement.util.LatencyHistogram;
+import com.bankmanagement.util.MetricsRegistry;
+
+import javax.swing.*;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Live operations dashboard.
+ * Refreshes from the in-process {@link MetricsRegistry} on a Swing timer and never
+ * touches the database. Latency percentiles and rates cover the last refresh interval.
+ */
+public class OperationsDashboardView extends JInternalFrame {
+    private static final int REFRESH_INTERVAL_MILLIS = 1000;
+    private static final int HOT_ACCOUNT_LIMIT = 10;
+    
+    private final MetricsRegistry metrics;
+    private final Map<String, long[]> previousLatency = new HashMap<>();
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private long previousRefreshNanos;
+    
+    private JLabel throughputLabel;
+    private DefaultTableModel operationsModel, cachesModel, gaugesModel, hotAccountsModel;
+    private Timer refreshTimer;
+    
+    public OperationsDashboardView() {
+        super("Operations Dashboard", true, true, true, true);
+        this.metrics = MetricsRegistry.getInstance();
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+        refresh();
+        refreshTimer.start();
+    }
+    
+    private void initializeComponents() {
+        setSize(900, 600);
+        throughputLabel = new JLabel("Throughput: 0.0 ops/s");
+        throughputLabel.setFont(throughputLabel.getFont().deriveFont(Font.BOLD, 14f));
+        
+        operationsModel = createModel("Operation", "Total", "Ops/s", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Errors");
+        cachesModel = createModel("Cache", "Hits", "Misses", "Hit Ratio");
+        gaugesModel = createModel("Metric", "Value");
+        hotAccountsModel = createModel("Account ID", "Recent Activity");
+        refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, e -> refresh());
+    }
+    
+    private DefaultTableModel createModel(String... columnNames) {
+        return new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(throughputLabel);
+        
+        JPanel bottomPanel = new JPanel(new GridLayout(1, 3, 5, 5));
+        bottomPanel.add(createTablePanel("Database & Counters", gaugesModel));
+        bottomPanel.add(createTablePanel("Caches", cachesModel));
+        bottomPanel.add(createTablePanel("Hottest Accounts", hotAccountsModel));
+        
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                createTablePanel("Operations", operationsModel), bottomPanel);
+        splitPane.setResizeWeight(0.5);
+        
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+    }
+    
+    private JPanel createTablePanel(String title, DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder(title));
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        return panel;
+    }
+    
+    private void setupListeners() {
+        // Stop sampling once the frame is closed
+        addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                refreshTimer.stop();
+            }
+        });
+    }
+    
+    private void refresh() {
+        long now = System.nanoTime();
+        double intervalSeconds = previousRefreshNanos == 0 ? 0 : (now - previousRefreshNanos) / 1_000_000_000.0;
+        previousRefreshNanos = now;
+        
+        refreshOperations(intervalSeconds);
+        refreshCaches();
+        refreshGauges();
+        refreshHotAccounts();
+    }
+    
+    private void refreshOperations(double intervalSeconds) {
+        operationsModel.setRowCount(0);
+        double totalRate = 0;
+        for (Map.Entry<String, MetricsRegistry.OperationStats> entry : metrics.getOperations().entrySet()) {
+            String name = entry.getKey();
+            MetricsRegistry.OperationStats stats = entry.getValue();
+            
+            long count = stats.getCount();
+            Long previousCount = previousCounts.put(name, count);
+            double rate = intervalSeconds > 0 && previousCount != null ? (count - previousCount) / intervalSeconds : 0;
+            totalRate += rate;
+            
+            long[] latency = stats.getLatency().snapshot();
+            long[] interval = LatencyHistogram.difference(latency, previousLatency.put(name, latency));
+            operationsModel.addRow(new Object[]{
+                name,
+                count,
+                String.format("%.1f", rate),
+                formatMillis(LatencyHistogram.percentile(interval, 50)),
+                formatMillis(LatencyHistogram.percentile(interval, 95)),
+                formatMillis(LatencyHistogram.percentile(interval, 99)),
+                stats.getErrors()
+            });
+        }
+        throughputLabel.setText(String.format("Throughput: %.1f ops/s", totalRate));
+    }
+    
+    private void refreshCaches() {
+        cachesModel.setRowCount(0);
+        for (Map.Entry<String, MetricsRegistry.CacheStats> entry : metrics.getCaches().entrySet()) {
+            MetricsRegistry.CacheStats stats = entry.getValue();
+            cachesModel.addRow(new Object[]{
+                entry.getKey(),
+                stats.getHits(),
+                stats.getMisses(),
+                String.format("%.1f%%", stats.getHitRatio() * 100)
+            });
+        }
+    }
+    
+    private void refreshGauges() {
+        gaugesModel.setRowCount(0);
+        metrics.getGauges().forEach((name, value) -> gaugesModel.addRow(new Object[]{name, value}));
+        metrics.getCounters().forEach((name, value) -> gaugesModel.addRow(new Object[]{name, value}));
+    }
+    
+    private void refreshHotAccounts() {
+        hotAccountsModel.setRowCount(0);
+        for (HotKeyTracker.Entry entry : metrics.getHotAccounts(HOT_ACCOUNT_LIMIT)) {
+            hotAccountsModel.addRow(new Object[]{entry.getKey(), entry.getCount()});
+        }
+    }
+    
+    private String formatMillis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
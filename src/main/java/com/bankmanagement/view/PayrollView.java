@@ -0,0 +1,104 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.PayrollLine;
+import com.bankmanagement.model.PayrollResult;
+
+import javax.swing.*;
+import java.awt.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View for paying many accounts from one debit account (batch payroll).
+ */
+public class PayrollView extends JInternalFrame {
+    private final BankOperations bankController;
+    private JTextField debitAccountField;
+    private JTextArea linesArea;
+    
+    public PayrollView() {
+        super("Batch Payroll", true, true, true, true);
+        this.bankController = Backends.bankOperations();
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+    }
+    
+    private void initializeComponents() {
+        setSize(500, 450);
+        debitAccountField = new JTextField(15);
+        linesArea = new JTextArea(15, 30);
+        linesArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout(5, 5));
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Debit Account ID:"));
+        topPanel.add(debitAccountField);
+        
+        JPanel linesPanel = new JPanel(new BorderLayout());
+        linesPanel.setBorder(BorderFactory.createTitledBorder("Credits (one \"account ID, amount\" per line)"));
+        linesPanel.add(new JScrollPane(linesArea), BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton payButton = new JButton("Run Payroll");
+        payButton.addActionListener(e -> performPayroll());
+        buttonPanel.add(payButton);
+        
+        add(topPanel, BorderLayout.NORTH);
+        add(linesPanel, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    private void setupListeners() {
+        // Listeners set up in setupLayout
+    }
+    
+    private void performPayroll() {
+        try {
+            int debitAccountId = Integer.parseInt(debitAccountField.getText().trim());
+            List<PayrollLine> lines = parseLines();
+            
+            PayrollResult result = bankController.payroll(debitAccountId, lines);
+            if (result.isComplete()) {
+                JOptionPane.showMessageDialog(this,
+                    "Payroll successful!\n\n" +
+                    "Accounts Credited: " + result.getPostedLines() + "\n" +
+                    "Total Paid: " + result.getPostedAmount(),
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                linesArea.setText("");
+            } else {
+                JOptionPane.showMessageDialog(this,
+                    "Payroll stopped at line " + (result.getFailedLine() + 1) + ": " + result.getFailure() + "\n\n" +
+                    "Lines Posted: " + result.getPostedLines() + " of " + result.getTotalLines() + "\n" +
+                    "Total Paid: " + result.getPostedAmount(),
+                    "Partially Posted", JOptionPane.WARNING_MESSAGE);
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private List<PayrollLine> parseLines() {
+        List<PayrollLine> lines = new ArrayList<>();
+        String[] rows = linesArea.getText().split("\\R");
+        for (int i = 0; i < rows.length; i++) {
+            String row = rows[i].trim();
+            if (row.isEmpty()) {
+                continue;
+            }
+            String[] fields = row.split("[,;\\s]+");
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " must be \"account ID, amount\"");
+            }
+            lines.add(new PayrollLine(Integer.parseInt(fields[0]), new BigDecimal(fields[1])));
+        }
+        return lines;
+    }
+}
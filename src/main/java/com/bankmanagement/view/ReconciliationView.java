@@ -0,0 +1,119 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.controller.LedgerReconciler;
+import com.bankmanagement.model.ReconciliationReport;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * View for running the ledger reconciliation on demand and saving its report.
+ * The run happens on a background thread, so the rest of the application stays usable.
+ */
+public class ReconciliationView extends JInternalFrame {
+    private ReconciliationReport report;
+    private JLabel summaryLabel;
+    private JButton runButton;
+    private JButton saveButton;
+    private DefaultTableModel mismatchModel;
+    
+    public ReconciliationView() {
+        super("Ledger Reconciliation", true, true, true, true);
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+    }
+    
+    private void initializeComponents() {
+        setSize(800, 450);
+        summaryLabel = new JLabel("Not run yet");
+        runButton = new JButton("Run Reconciliation");
+        saveButton = new JButton("Save Report...");
+        saveButton.setEnabled(false);
+        mismatchModel = new DefaultTableModel(new String[]{"Account ID", "Type", "Expected", "Actual", "Detail"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout(5, 5));
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(runButton);
+        topPanel.add(saveButton);
+        topPanel.add(summaryLabel);
+        
+        JTable table = new JTable(mismatchModel);
+        table.setFillsViewportHeight(true);
+        
+        add(topPanel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+    }
+    
+    private void setupListeners() {
+        runButton.addActionListener(e -> runReconciliation());
+        saveButton.addActionListener(e -> saveReport());
+    }
+    
+    private void runReconciliation() {
+        runButton.setEnabled(false);
+        saveButton.setEnabled(false);
+        summaryLabel.setText("Running...");
+        mismatchModel.setRowCount(0);
+        
+        new SwingWorker<ReconciliationReport, Void>() {
+            @Override
+            protected ReconciliationReport doInBackground() throws Exception {
+                return LedgerReconciler.createDefault().run();
+            }
+            
+            @Override
+            protected void done() {
+                runButton.setEnabled(true);
+                try {
+                    showReport(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    summaryLabel.setText("Failed");
+                    JOptionPane.showMessageDialog(ReconciliationView.this, "Error: " + cause.getMessage(),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
+    private void showReport(ReconciliationReport report) {
+        this.report = report;
+        saveButton.setEnabled(true);
+        summaryLabel.setText(String.format("%d accounts, %d transactions checked in %.1f s: %d mismatch(es)",
+                report.getAccountsChecked(), report.getTransactionsChecked(),
+                report.getElapsedMillis() / 1000.0, report.getMismatchCount()));
+        for (ReconciliationReport.Mismatch mismatch : report.getMismatches()) {
+            mismatchModel.addRow(new Object[]{
+                mismatch.getAccountId(),
+                mismatch.getType(),
+                mismatch.getExpected(),
+                mismatch.getActual(),
+                mismatch.getDetail()
+            });
+        }
+    }
+    
+    private void saveReport() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            LedgerReconciler.writeReport(report, chooser.getSelectedFile().toPath());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(),
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
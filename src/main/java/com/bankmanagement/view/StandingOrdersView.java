@@ -0,0 +1,182 @@
+package com.bankmanagement.view;
+
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.StandingOrder;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * View for setting up, listing and cancelling standing orders.
+ */
+public class StandingOrdersView extends JInternalFrame {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    private final BankOperations bankController;
+    private JTextField fromAccountField, toAccountField, amountField, firstRunField, endDateField, descriptionField;
+    private JComboBox<String> frequencyCombo;
+    private JTextField listAccountField;
+    private DefaultTableModel tableModel;
+    private JTable ordersTable;
+    
+    public StandingOrdersView() {
+        super("Standing Orders", true, true, true, true);
+        this.bankController = Backends.bankOperations();
+        initializeComponents();
+        setupLayout();
+        setupListeners();
+    }
+    
+    private void initializeComponents() {
+        setSize(850, 550);
+        fromAccountField = new JTextField(10);
+        toAccountField = new JTextField(10);
+        amountField = new JTextField(10);
+        frequencyCombo = new JComboBox<>(new String[]{"MONTHLY", "WEEKLY", "DAILY", "ONCE"});
+        firstRunField = new JTextField(LocalDateTime.now().plusMinutes(5).format(DATE_TIME_FORMAT), 14);
+        endDateField = new JTextField(10);
+        descriptionField = new JTextField(20);
+        listAccountField = new JTextField(10);
+        
+        String[] columnNames = {"Order ID", "To Account", "Amount", "Frequency", "Next Run", "Status", "Last Error"};
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        ordersTable = new JTable(tableModel);
+        ordersTable.setFillsViewportHeight(true);
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout(5, 5));
+        
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBorder(BorderFactory.createTitledBorder("New Standing Order"));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(4, 8, 4, 8);
+        gbc.anchor = GridBagConstraints.WEST;
+        
+        addLabelAndField(formPanel, gbc, 0, 0, "From Account ID:", fromAccountField);
+        addLabelAndField(formPanel, gbc, 0, 2, "To Account ID:", toAccountField);
+        addLabelAndField(formPanel, gbc, 1, 0, "Amount:", amountField);
+        addLabelAndField(formPanel, gbc, 1, 2, "Frequency:", frequencyCombo);
+        addLabelAndField(formPanel, gbc, 2, 0, "First Run (yyyy-MM-dd HH:mm):", firstRunField);
+        addLabelAndField(formPanel, gbc, 2, 2, "End Date (optional):", endDateField);
+        addLabelAndField(formPanel, gbc, 3, 0, "Description:", descriptionField);
+        
+        gbc.gridx = 3;
+        gbc.gridy = 3;
+        JButton createButton = new JButton("Create");
+        createButton.addActionListener(e -> createStandingOrder());
+        formPanel.add(createButton, gbc);
+        
+        JPanel listPanel = new JPanel(new BorderLayout());
+        JPanel listTopPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        listTopPanel.add(new JLabel("Account ID:"));
+        listTopPanel.add(listAccountField);
+        JButton listButton = new JButton("Show Orders");
+        listButton.addActionListener(e -> loadStandingOrders());
+        listTopPanel.add(listButton);
+        JButton cancelButton = new JButton("Cancel Selected");
+        cancelButton.addActionListener(e -> cancelSelected());
+        listTopPanel.add(cancelButton);
+        listPanel.add(listTopPanel, BorderLayout.NORTH);
+        listPanel.add(new JScrollPane(ordersTable), BorderLayout.CENTER);
+        
+        add(formPanel, BorderLayout.NORTH);
+        add(listPanel, BorderLayout.CENTER);
+    }
+    
+    private void addLabelAndField(Container container, GridBagConstraints gbc, int row, int column,
+                                  String labelText, JComponent field) {
+        gbc.gridx = column;
+        gbc.gridy = row;
+        container.add(new JLabel(labelText), gbc);
+        gbc.gridx = column + 1;
+        container.add(field, gbc);
+    }
+    
+    private void setupListeners() {
+        // Listeners set up in setupLayout
+    }
+    
+    private void createStandingOrder() {
+        try {
+            int fromAccountId = Integer.parseInt(fromAccountField.getText().trim());
+            int toAccountId = Integer.parseInt(toAccountField.getText().trim());
+            BigDecimal amount = new BigDecimal(amountField.getText().trim());
+            String frequency = (String) frequencyCombo.getSelectedItem();
+            LocalDateTime firstRun = LocalDateTime.parse(firstRunField.getText().trim(), DATE_TIME_FORMAT);
+            String endDateText = endDateField.getText().trim();
+            LocalDate endDate = endDateText.isEmpty() ? null : LocalDate.parse(endDateText);
+            String description = descriptionField.getText().trim();
+            
+            StandingOrder order = bankController.createStandingOrder(fromAccountId, toAccountId, amount, frequency,
+                    firstRun, endDate, description.isEmpty() ? null : description);
+            JOptionPane.showMessageDialog(this,
+                "Standing order created!\n\n" +
+                "Order ID: " + order.getOrderId() + "\n" +
+                "First Run: " + order.getNextRunAt().format(DATE_TIME_FORMAT),
+                "Success", JOptionPane.INFORMATION_MESSAGE);
+            
+            listAccountField.setText(String.valueOf(fromAccountId));
+            loadStandingOrders();
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void loadStandingOrders() {
+        try {
+            int accountId = Integer.parseInt(listAccountField.getText().trim());
+            List<StandingOrder> orders = bankController.getStandingOrders(accountId);
+            
+            tableModel.setRowCount(0);
+            for (StandingOrder order : orders) {
+                tableModel.addRow(new Object[]{
+                    order.getOrderId(),
+                    order.getToAccountId(),
+                    order.getAmount(),
+                    order.getFrequency(),
+                    "ACTIVE".equals(order.getStatus()) ? order.getDueAt().format(DATE_TIME_FORMAT) : "",
+                    order.getStatus(),
+                    order.getLastError() != null ? order.getLastError() : ""
+                });
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    private void cancelSelected() {
+        int row = ordersTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a standing order", 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            int orderId = (Integer) tableModel.getValueAt(row, 0);
+            if (bankController.cancelStandingOrder(orderId)) {
+                loadStandingOrders();
+            } else {
+                JOptionPane.showMessageDialog(this, "Standing order is no longer active", 
+                                             "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), 
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
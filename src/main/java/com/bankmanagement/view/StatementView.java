@@ -1,27 +1,56 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.controller.BankController;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
+import com.bankmanagement.model.StatementPage;
 import com.bankmanagement.model.Transaction;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.text.SimpleDateFormat;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * View for displaying account statement.
+ * Transactions are loaded a page at a time on a background thread, the next page when
+ * the user scrolls near the end of the table, so long histories open immediately.
  */
 public class StatementView extends JInternalFrame {
-    private BankController bankController;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int PREFETCH_ROWS = 20;
+    
+    private BankOperations bankController;
     private JTextField accountIdField;
+    private JTextField fromField;
+    private JTextField toField;
     private JTable transactionTable;
+    private JScrollPane scrollPane;
     private DefaultTableModel tableModel;
     private JButton viewButton;
+    private JLabel totalsLabel;
+    
+    // Statement being shown; only touched on the Event Dispatch Thread
+    private int accountId;
+    private LocalDateTime from;
+    private LocalDateTime until;
+    private Transaction lastLoaded;
+    private boolean hasMore;
+    private boolean loading;
+    private int generation;
+    private final Map<String, BigDecimal> totals = new LinkedHashMap<>();
     
     public StatementView() {
         super("Account Statement", true, true, true, true);
-        this.bankController = new BankController();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
@@ -29,8 +58,13 @@ public class StatementView extends JInternalFrame {
     
     private void initializeComponents() {
         setSize(800, 500);
-        accountIdField = new JTextField(15);
+        accountIdField = new JTextField(10);
+        fromField = new JTextField(8);
+        toField = new JTextField(8);
+        fromField.setToolTipText("yyyy-MM-dd, empty for the first transaction");
+        toField.setToolTipText("yyyy-MM-dd, empty for today");
         viewButton = new JButton("View Statement");
+        totalsLabel = new JLabel(" ");
         
         String[] columnNames = {"Transaction ID", "Type", "Amount", "Balance After", "Description", "Date"};
         tableModel = new DefaultTableModel(columnNames, 0) {
@@ -41,6 +75,7 @@ public class StatementView extends JInternalFrame {
         };
         transactionTable = new JTable(tableModel);
         transactionTable.setFillsViewportHeight(true);
+        scrollPane = new JScrollPane(transactionTable);
     }
     
     private void setupLayout() {
@@ -49,46 +84,133 @@ public class StatementView extends JInternalFrame {
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         topPanel.add(new JLabel("Account ID:"));
         topPanel.add(accountIdField);
+        topPanel.add(new JLabel("From:"));
+        topPanel.add(fromField);
+        topPanel.add(new JLabel("To:"));
+        topPanel.add(toField);
         topPanel.add(viewButton);
         
+        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        bottomPanel.add(totalsLabel);
+        
         add(topPanel, BorderLayout.NORTH);
-        add(new JScrollPane(transactionTable), BorderLayout.CENTER);
+        add(scrollPane, BorderLayout.CENTER);
+        add(bottomPanel, BorderLayout.SOUTH);
     }
     
     private void setupListeners() {
         viewButton.addActionListener(e -> loadStatement());
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNearEnd());
     }
     
     private void loadStatement() {
         try {
-            int accountId = Integer.parseInt(accountIdField.getText().trim());
-            List<Transaction> transactions = bankController.getTransactionHistory(accountId);
-            
-            // Clear existing rows
-            tableModel.setRowCount(0);
+            accountId = Integer.parseInt(accountIdField.getText().trim());
+            from = parseDate(fromField.getText(), 0);
+            // The To date is inclusive: the statement ends before the next day
+            until = parseDate(toField.getText(), 1);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(),
+                                         "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        // Clear existing rows; pages of an earlier statement still loading are discarded
+        generation++;
+        tableModel.setRowCount(0);
+        totals.clear();
+        lastLoaded = null;
+        hasMore = true;
+        loading = false;
+        totalsLabel.setText("Loading...");
+        loadNextPage();
+    }
+    
+    private static LocalDateTime parseDate(String text, int plusDays) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : LocalDate.parse(trimmed).plusDays(plusDays).atStartOfDay();
+    }
+    
+    private void loadMoreIfNearEnd() {
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        int remaining = bar.getMaximum() - bar.getValue() - bar.getVisibleAmount();
+        if (remaining <= PREFETCH_ROWS * transactionTable.getRowHeight()) {
+            loadNextPage();
+        }
+    }
+    
+    private void loadNextPage() {
+        if (loading || !hasMore) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        int requestAccountId = accountId;
+        LocalDateTime requestFrom = from;
+        LocalDateTime requestUntil = until;
+        Transaction after = lastLoaded;
+        
+        new SwingWorker<List<Object[]>, Void>() {
+            private StatementPage page;
             
-            // Add transactions to table
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            for (Transaction transaction : transactions) {
-                Object[] row = {
-                    transaction.getTransactionId(),
-                    transaction.getTransactionType(),
-                    transaction.getAmount(),
-                    transaction.getBalanceAfter(),
-                    transaction.getDescription(),
-                    dateFormat.format(java.sql.Timestamp.valueOf(transaction.getTransactionDate()))
-                };
-                tableModel.addRow(row);
+            @Override
+            protected List<Object[]> doInBackground() throws Exception {
+                page = bankController.getStatementPage(requestAccountId, requestFrom, requestUntil, after);
+                List<Object[]> rows = new ArrayList<>(page.getTransactions().size());
+                for (Transaction transaction : page.getTransactions()) {
+                    rows.add(new Object[]{
+                        transaction.getTransactionId(),
+                        transaction.getTransactionType(),
+                        transaction.getAmount(),
+                        transaction.getBalanceAfter(),
+                        transaction.getDescription(),
+                        DATE_TIME_FORMAT.format(transaction.getTransactionDate())
+                    });
+                }
+                return rows;
             }
             
-            if (transactions.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "No transactions found for this account", 
-                                             "Info", JOptionPane.INFORMATION_MESSAGE);
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                try {
+                    showPage(page, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    hasMore = false;
+                    totalsLabel.setText("Failed");
+                    JOptionPane.showMessageDialog(StatementView.this, "Error: " + cause.getMessage(),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                }
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage(), 
-                                         "Error", JOptionPane.ERROR_MESSAGE);
+        }.execute();
+    }
+    
+    private void showPage(StatementPage page, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            tableModel.addRow(row);
+        }
+        page.getTotalsByType().forEach((type, total) -> totals.merge(type, total, BigDecimal::add));
+        hasMore = page.hasMore();
+        if (page.getLastTransaction() != null) {
+            lastLoaded = page.getLastTransaction();
+        }
+        
+        if (tableModel.getRowCount() == 0) {
+            totalsLabel.setText(" ");
+            JOptionPane.showMessageDialog(this, "No transactions found for this account",
+                                         "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
+        StringBuilder summary = new StringBuilder();
+        summary.append(tableModel.getRowCount()).append(hasMore ? "+" : "").append(" transactions");
+        totals.forEach((type, total) -> summary.append(" | ").append(type).append(": ").append(total));
+        totalsLabel.setText(summary.toString());
+        
+        // A page that does not fill the viewport produces no scroll events
+        SwingUtilities.invokeLater(this::loadMoreIfNearEnd);
     }
 }
-
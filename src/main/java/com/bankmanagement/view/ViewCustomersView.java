@@ -1,6 +1,7 @@
 package com.bankmanagement.view;
 
-import com.bankmanagement.dao.CustomerDAO;
+import com.bankmanagement.controller.Backends;
+import com.bankmanagement.controller.BankOperations;
 import com.bankmanagement.model.Customer;
 
 import javax.swing.*;
@@ -12,12 +13,12 @@ import java.util.List;
  * View for displaying all customers.
  */
 public class ViewCustomersView extends JInternalFrame {
-    private final CustomerDAO customerDAO;
-    private final DefaultTableModel tableModel;
+    private final BankOperations bankController;
+    private DefaultTableModel tableModel;
     
     public ViewCustomersView() {
         super("View All Customers", true, true, true, true);
-        this.customerDAO = new CustomerDAO();
+        this.bankController = Backends.bankOperations();
         initializeComponents();
         setupLayout();
         setupListeners();
@@ -57,7 +58,7 @@ public class ViewCustomersView extends JInternalFrame {
     
     private void loadCustomers() {
         try {
-            List<Customer> customers = customerDAO.getAllCustomers();
+            List<Customer> customers = bankController.getAllCustomers();
             
             // Clear existing rows
             tableModel.setRowCount(0);
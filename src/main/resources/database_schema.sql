@@ -28,7 +28,9 @@ CREATE TABLE IF NOT EXISTS customers (
     email VARCHAR(100),
     nationality VARCHAR(50),
     customer_type VARCHAR(20) NOT NULL DEFAULT 'PUBLIC',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE', -- ACTIVE or DELETED (waiting to be purged)
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_customer_status (status)
 );
 
 -- Accounts table
@@ -39,13 +41,28 @@ CREATE TABLE IF NOT EXISTS accounts (
     account_type VARCHAR(20) NOT NULL, -- SAVINGS or CURRENT
     mode_of_operation VARCHAR(20) NOT NULL, -- SELF or JOINT
     balance DECIMAL(15, 2) NOT NULL DEFAULT 0.00,
+    version BIGINT NOT NULL DEFAULT 0, -- incremented by every balance update (optimistic concurrency)
+    ledger_slots INT NOT NULL DEFAULT 0, -- sub-ledger slots of a hot account, 0 for a normal account
     sms_alert BOOLEAN DEFAULT FALSE,
     internet_banking BOOLEAN DEFAULT FALSE,
     atm_card BOOLEAN DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE', -- ACTIVE or DELETED (waiting to be purged)
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (customer_id) REFERENCES customers(customer_id) ON DELETE CASCADE,
     INDEX idx_customer_id (customer_id),
-    INDEX idx_account_number (account_number)
+    INDEX idx_account_number (account_number),
+    INDEX idx_account_status (status),
+    INDEX idx_account_ledger_slots (ledger_slots)
+);
+
+-- Sub-ledger slots of hot accounts: credits land in a random slot instead of the account row,
+-- the balance of a hot account is accounts.balance plus the sum of its slots
+CREATE TABLE IF NOT EXISTS account_balance_slots (
+    account_id INT NOT NULL,
+    slot INT NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (account_id, slot),
+    FOREIGN KEY (account_id) REFERENCES accounts(account_id) ON DELETE CASCADE
 );
 
 -- Transactions table
@@ -58,10 +75,42 @@ CREATE TABLE IF NOT EXISTS transactions (
     description TEXT,
     transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     related_account_id INT, -- For transfer transactions
+    debit BOOLEAN NOT NULL DEFAULT FALSE, -- withdrawals and outgoing transfer legs
     FOREIGN KEY (account_id) REFERENCES accounts(account_id) ON DELETE CASCADE,
     FOREIGN KEY (related_account_id) REFERENCES accounts(account_id) ON DELETE SET NULL,
-    INDEX idx_account_id (account_id),
-    INDEX idx_transaction_date (transaction_date)
+    INDEX idx_account_date (account_id, transaction_date), -- statements in date order, no filesort
+    INDEX idx_date_debit (transaction_date, debit, account_id, amount), -- velocity debits
+    INDEX idx_related_type (related_account_id, transaction_type) -- reconciliation counterparts
+);
+
+-- Standing orders table (recurring and future-dated transfers)
+CREATE TABLE IF NOT EXISTS standing_orders (
+    order_id INT AUTO_INCREMENT PRIMARY KEY,
+    from_account_id INT NOT NULL,
+    to_account_id INT NOT NULL,
+    amount DECIMAL(15, 2) NOT NULL,
+    frequency VARCHAR(20) NOT NULL, -- ONCE, DAILY, WEEKLY or MONTHLY
+    first_run_at TIMESTAMP NOT NULL, -- monthly runs keep its day of the month
+    next_run_at TIMESTAMP NOT NULL, -- regular schedule
+    due_at TIMESTAMP NOT NULL, -- next attempt (later than next_run_at while retrying)
+    end_date DATE,
+    description VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE', -- ACTIVE, COMPLETED, FAILED or CANCELLED
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (from_account_id) REFERENCES accounts(account_id) ON DELETE CASCADE,
+    FOREIGN KEY (to_account_id) REFERENCES accounts(account_id) ON DELETE CASCADE,
+    INDEX idx_standing_due (status, due_at, order_id),
+    INDEX idx_standing_from_account (from_account_id)
+);
+
+-- Offline branch units already replayed to this database (makes store-and-forward sync idempotent)
+CREATE TABLE IF NOT EXISTS replicated_units (
+    branch_id VARCHAR(50) NOT NULL,
+    unit_id BIGINT NOT NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (branch_id, unit_id)
 );
 
 -- Insert default admin user (username: admin, password: admin123)
@@ -0,0 +1,21 @@
+-- Offline branch mode: local-only tables of the embedded database
+-- Applied after database_schema.sql
+
+-- Outbound change log: postings made while offline, replayed to the central database
+CREATE TABLE IF NOT EXISTS outbound_changes (
+    change_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    unit_id BIGINT NOT NULL, -- changes of one posting share a unit and are replayed atomically
+    change_type VARCHAR(10) NOT NULL, -- BALANCE or LEDGER
+    account_id INT NOT NULL,
+    amount DECIMAL(15, 2) NOT NULL, -- balance delta (BALANCE) or transaction amount (LEDGER)
+    expected_balance DECIMAL(15, 2), -- local balance before the change (BALANCE)
+    transaction_type VARCHAR(20),
+    balance_after DECIMAL(15, 2),
+    description TEXT,
+    transaction_date TIMESTAMP,
+    related_account_id INT,
+    debit BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING', -- PENDING, SENT or CONFLICT
+    status_detail VARCHAR(255),
+    INDEX idx_outbound_status (status, unit_id)
+);
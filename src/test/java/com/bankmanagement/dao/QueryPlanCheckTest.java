@@ -0,0 +1,556 @@
+package com.bankmanagement.dao;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Customer;
+import com.bankmanagement.model.StandingOrder;
+import com.bankmanagement.model.StatementPage;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.util.AppConfig;
+import com.bankmanagement.util.SqlCallable;
+import com.bankmanagement.util.SqlScripts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the execution plans of all DAO statements on a scratch database seeded with
+ * realistic volumes. Every public DAO method is called inside a unit of work that is
+ * rolled back afterwards, the statements it prepares are captured with their
+ * parameters, and each one is explained. A plan that reads a whole table or index, or
+ * sorts rows instead of reading them in index order, fails the check, and so does a
+ * public DAO method the checker does not call. New queries therefore need an entry
+ * here, and the plan must pass, before they ship.
+ * Understands MySQL (the central database) and H2 (the offline branch database). On H2
+ * only scans are checked: H2 plans do not tell a sort from an ordered index read (see
+ * {@link #h2Problems}), so the default {@code mvn test} run cannot catch a new sort; the
+ * ordered statements it could not check are logged, and only the {@code query-plans}
+ * profile on MySQL fails on sorts.
+ * Violations carry the plan that caused them; all plans are logged at level FINE.
+ * The database is given by {@code plancheck.url}, {@code plancheck.user} and
+ * {@code plancheck.password} ({@code mvn -P query-plans verify} sets them for a local
+ * MySQL); without them a small in-memory H2 database is checked.
+ */
+public class QueryPlanCheckTest {
+    private static final String DEFAULT_URL = "jdbc:h2:mem:plancheck;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+    private static final String SEED_MARKER_USER = "plancheck";
+    
+    /** Methods whose statements read every row by design, with the reason. */
+    private static final Map<String, String> EXPECTED_FULL_SCANS = Map.of(
+            "CustomerDAO.getAllCustomers", "lists every customer");
+    
+    private static final List<Class<?>> CHECKED_DAOS = Arrays.asList(
+            AccountDAO.class, CustomerDAO.class, TransactionDAO.class, UserDAO.class, StandingOrderDAO.class);
+    
+    private static final Pattern H2_PLAN_COMMENT = Pattern.compile("/\\* (.+?) \\*/");
+    private static final Logger LOG = Logger.getLogger(QueryPlanCheckTest.class.getName());
+    
+    private Connection connection;
+    private boolean mysql;
+    private int accountCount;
+    private int transactionsPerAccount;
+    private final List<Probe> probes = new ArrayList<>();
+    private final Set<String> calledMethods = new LinkedHashSet<>();
+    private final Set<String> sortsNotChecked = new LinkedHashSet<>();
+    private String currentMethod;
+    
+    @BeforeEach
+    void openScratchDatabase() throws SQLException {
+        String url = System.getProperty("plancheck.url", DEFAULT_URL);
+        connection = DriverManager.getConnection(url, System.getProperty("plancheck.user", "sa"),
+                                                 System.getProperty("plancheck.password", ""));
+        connection.setAutoCommit(false);
+        mysql = connection.getMetaData().getDatabaseProductName().startsWith("MySQL");
+        accountCount = AppConfig.getInt("bank.planCheck.accounts", url.equals(DEFAULT_URL) ? 1_000 : 20_000);
+        transactionsPerAccount = AppConfig.getInt("bank.planCheck.transactionsPerAccount", 20);
+    }
+    
+    @AfterEach
+    void closeScratchDatabase() throws SQLException {
+        connection.close();
+    }
+    
+    @Test
+    void queryPlansAreAcceptable() throws SQLException {
+        List<String> violations = run();
+        assertTrue(violations.isEmpty(), violations.size() + " query plan violation(s):\n"
+                + String.join("\n", violations));
+    }
+    
+    /**
+     * Creates the schema, seeds it on first use, calls every DAO method and checks the
+     * plans of the captured statements.
+     * 
+     * @return Violations found, empty if all plans are acceptable
+     */
+    private List<String> run() throws SQLException {
+        SqlScripts.run(connection, "database_schema.sql");
+        seedIfEmpty();
+        
+        JdbcDataStore store = new JdbcDataStore(this::recordingConnection);
+        try {
+            store.inTransaction(() -> {
+                callAllMethods(store);
+                throw new RolledBack();
+            });
+        } catch (RolledBack expected) {
+            // Every write of the calls is undone; only the captured statements are kept
+        }
+        
+        List<String> violations = new ArrayList<>();
+        for (Class<?> dao : CHECKED_DAOS) {
+            for (Method method : dao.getDeclaredMethods()) {
+                String name = dao.getSimpleName() + "." + method.getName();
+                if (Modifier.isPublic(method.getModifiers()) && !calledMethods.contains(name)) {
+                    violations.add(name + ": not called by the plan check, add it to QueryPlanCheckTest");
+                }
+            }
+        }
+        for (Probe probe : probes) {
+            violations.addAll(explain(probe));
+        }
+        if (!sortsNotChecked.isEmpty()) {
+            LOG.info("Not checked for sorts on H2, run the query-plans profile on MySQL: " + sortsNotChecked);
+        }
+        return violations;
+    }
+    
+    /**
+     * Calls every public DAO method once with arguments matching the seeded data.
+     */
+    private void callAllMethods(JdbcDataStore store) throws SQLException {
+        AccountDAO accounts = (AccountDAO) store.accounts();
+        CustomerDAO customers = (CustomerDAO) store.customers();
+        TransactionDAO transactions = (TransactionDAO) store.transactions();
+        UserDAO users = (UserDAO) store.users();
+        StandingOrderDAO standingOrders = (StandingOrderDAO) store.standingOrders();
+        int accountId = accountCount / 2;
+        int customerId = customerOf(accountId);
+        int orderAccountId = accountId - accountId % 4;
+        LocalDateTime now = LocalDateTime.now();
+        
+        call("AccountDAO.getAccountById", () -> accounts.getAccountById(accountId));
+        call("AccountDAO.getAccountByIdForUpdate", () -> accounts.getAccountByIdForUpdate(accountId));
+        call("AccountDAO.getBalances",
+                () -> accounts.getBalances(new int[]{accountId, accountId + 1, accountId + 2}));
+        call("AccountDAO.getAccountsByIdsForUpdate",
+                () -> accounts.getAccountsByIdsForUpdate(new int[]{accountId, accountId + 1, accountId + 2}));
+        call("AccountDAO.getAccountByNumber", () -> accounts.getAccountByNumber(accountNumber(accountId)));
+        call("AccountDAO.getAccountsByCustomerId", () -> accounts.getAccountsByCustomerId(customerId));
+        call("AccountDAO.getAccountIdBounds", accounts::getAccountIdBounds);
+        call("AccountDAO.forEachBalanceInRange", () -> {
+            accounts.forEachBalanceInRange(accountId, accountId + 1000, (id, balanceCents) -> { });
+            return null;
+        });
+        call("AccountDAO.updateBalance", () -> accounts.updateBalance(accountId, new BigDecimal("100.00")));
+        call("AccountDAO.updateBalanceIfVersion",
+                () -> accounts.updateBalanceIfVersion(accountId, new BigDecimal("100.00"), 1));
+        call("AccountDAO.updateBalances", () -> {
+            Map<Integer, BigDecimal> balances = new HashMap<>();
+            balances.put(accountId, new BigDecimal("100.00"));
+            balances.put(accountId + 1, new BigDecimal("100.00"));
+            accounts.updateBalances(balances);
+            return null;
+        });
+        call("AccountDAO.setLedgerSlots", () -> accounts.setLedgerSlots(accountId + 3, 4));
+        call("AccountDAO.getLedgerSlotCounts", accounts::getLedgerSlotCounts);
+        call("AccountDAO.creditSlot", () -> accounts.creditSlot(accountId + 3, 1, 10_000));
+        call("AccountDAO.consolidateSlots", () -> accounts.consolidateSlots(accountId + 3));
+        call("AccountDAO.createAccount", () -> {
+            Account account = new Account(customerId, "SAVINGS", "SELF");
+            account.setBalance(BigDecimal.ZERO);
+            return accounts.createAccount(account);
+        });
+        call("AccountDAO.deleteAccount", () -> accounts.deleteAccount(accountCount));
+        call("AccountDAO.markAccountsDeleted", () -> accounts.markAccountsDeleted(customerId));
+        call("AccountDAO.getDeletedAccountIds", accounts::getDeletedAccountIds);
+        
+        call("CustomerDAO.getCustomerById", () -> customers.getCustomerById(customerId));
+        call("CustomerDAO.getCustomerOverview", () -> customers.getCustomerOverview(customerId, 10));
+        call("CustomerDAO.getAllCustomers", customers::getAllCustomers);
+        call("CustomerDAO.createCustomer", () -> customers.createCustomer(newCustomer()));
+        call("CustomerDAO.updateCustomer", () -> {
+            Customer customer = newCustomer();
+            customer.setCustomerId(customerId);
+            return customers.updateCustomer(customer);
+        });
+        call("CustomerDAO.deleteCustomer", () -> customers.deleteCustomer(customerOf(accountCount)));
+        call("CustomerDAO.markCustomerDeleted", () -> customers.markCustomerDeleted(customerId));
+        call("CustomerDAO.getDeletedCustomerIds", () -> customers.getDeletedCustomerIds(100));
+        
+        call("TransactionDAO.getTransactionsByAccountId", () -> transactions.getTransactionsByAccountId(accountId));
+        call("TransactionDAO.getTransactionsByDateRange",
+                () -> transactions.getTransactionsByDateRange(accountId, now.minusDays(30), now));
+        call("TransactionDAO.getStatementPage", () -> {
+            StatementPage first = transactions.getStatementPage(accountId, now.minusDays(30), now, null, 5);
+            return transactions.getStatementPage(accountId, now.minusDays(30), now, first.getLastTransaction(), 5);
+        });
+        call("TransactionDAO.getTransactionById", () -> transactions.getTransactionById(accountId));
+        call("TransactionDAO.forEachDebitSince", () -> {
+            transactions.forEachDebitSince(now.minusDays(1), (id, amount, date) -> { });
+            return null;
+        });
+        call("TransactionDAO.forEachPostingInRange", () -> {
+            transactions.forEachPostingInRange(accountId, accountId + 1000,
+                    (id, type, cents, debit, related, desc) -> { });
+            return null;
+        });
+        call("TransactionDAO.forEachTransferRelatedToRange", () -> {
+            transactions.forEachTransferRelatedToRange(accountId, accountId + 1000,
+                    (id, type, cents, debit, related, desc) -> { });
+            return null;
+        });
+        call("TransactionDAO.deleteTransactionsByAccountId",
+             () -> transactions.deleteTransactionsByAccountId(accountId, 500));
+        call("TransactionDAO.detachTransfersRelatedTo", () -> transactions.detachTransfersRelatedTo(accountId, 500));
+        call("TransactionDAO.createTransaction", () -> transactions.createTransaction(newTransaction(accountId)));
+        call("TransactionDAO.createTransactions", () -> {
+            transactions.createTransactions(Arrays.asList(newTransaction(accountId), newTransaction(accountId + 1)));
+            return null;
+        });
+        
+        call("UserDAO.authenticate", () -> users.authenticate(SEED_MARKER_USER, SEED_MARKER_USER));
+        call("UserDAO.createUser", () -> users.createUser(new User("plancheck-new", "secret", "TELLER")));
+        
+        call("StandingOrderDAO.getStandingOrderById", () -> standingOrders.getStandingOrderById(accountId / 4));
+        call("StandingOrderDAO.getStandingOrdersByAccountId",
+                () -> standingOrders.getStandingOrdersByAccountId(orderAccountId));
+        call("StandingOrderDAO.getDueStandingOrders", () -> {
+            standingOrders.getDueStandingOrders(now.plusHours(1), null, 0, 500);
+            return standingOrders.getDueStandingOrders(now.plusHours(1), now, accountId / 4, 500);
+        });
+        call("StandingOrderDAO.getStandingOrdersByIdsForUpdate",
+                () -> standingOrders.getStandingOrdersByIdsForUpdate(new int[]{1, 2, 3}));
+        call("StandingOrderDAO.updateSchedules", () -> {
+            standingOrders.updateSchedules(standingOrders.getStandingOrdersByIdsForUpdate(new int[]{1, 2, 3}));
+            return null;
+        });
+        call("StandingOrderDAO.cancelStandingOrder", () -> standingOrders.cancelStandingOrder(1));
+        call("StandingOrderDAO.createStandingOrder", () -> standingOrders.createStandingOrder(
+                new StandingOrder(orderAccountId, accountId, BigDecimal.TEN, "MONTHLY", now.plusDays(1))));
+    }
+    
+    private void call(String method, SqlCallable<?> invocation) throws SQLException {
+        currentMethod = method;
+        calledMethods.add(method);
+        invocation.call();
+    }
+    
+    /**
+     * Explains one captured statement and returns its violations.
+     */
+    private List<String> explain(Probe probe) throws SQLException {
+        List<String> violations = new ArrayList<>();
+        if (probe.sql.trim().toUpperCase().startsWith("INSERT")) {
+            LOG.fine(probe.method + ": INSERT ... VALUES, no plan");
+            return violations;
+        }
+        String expectedFullScan = EXPECTED_FULL_SCANS.get(probe.method);
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN " + probe.sql)) {
+            for (Map.Entry<Integer, Object> parameter : probe.parameters.entrySet()) {
+                pstmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                List<String> plan = new ArrayList<>();
+                List<String> problems = mysql ? mysqlProblems(rs, plan) : h2Problems(rs, probe, plan);
+                LOG.fine(probe.method + ":\n  " + String.join("\n  ", plan));
+                for (String problem : problems) {
+                    if (expectedFullScan != null) {
+                        LOG.info(probe.method + ": " + problem + " (expected, " + expectedFullScan + ")");
+                    } else {
+                        violations.add(probe.method + ": " + problem + " in " + probe.sql
+                                + "\n    plan: " + String.join("\n          ", plan));
+                    }
+                }
+            }
+        }
+        connection.rollback();
+        return violations;
+    }
+    
+    /**
+     * Evaluates a MySQL EXPLAIN result: access type {@code ALL} is a full table scan,
+     * {@code index} a full index scan, and "Using filesort" a sort.
+     */
+    private List<String> mysqlProblems(ResultSet rs, List<String> plan) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        while (rs.next()) {
+            String table = rs.getString("table");
+            String type = rs.getString("type");
+            String extra = rs.getString("Extra");
+            plan.add(table + ": type=" + type + ", key=" + rs.getString("key")
+                     + ", rows=" + rs.getString("rows") + ", extra=" + extra);
+            if ("ALL".equals(type)) {
+                problems.add("full table scan on " + table);
+            } else if ("index".equals(type)) {
+                problems.add("full index scan on " + table);
+            }
+            if (extra != null && extra.contains("Using filesort")) {
+                problems.add("filesort on " + table);
+            }
+        }
+        return problems;
+    }
+    
+    /**
+     * Evaluates an H2 plan: every table access is annotated with the index used and,
+     * unless the whole index is read, the condition on it, so {@code tableScan} or an
+     * index without condition is a full scan. H2 reports "index sorted" only when the
+     * ORDER BY columns start the index, not after columns fixed by equality, so sorts
+     * fail the check only on MySQL; the statements are collected in {@link #sortsNotChecked}.
+     */
+    private List<String> h2Problems(ResultSet rs, Probe probe, List<String> planLines) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        while (rs.next()) {
+            String plan = rs.getString(1).replaceAll("\\s+", " ");
+            int from = plan.indexOf(" FROM ");
+            planLines.add(plan.startsWith("SELECT") && from > 0 ? plan.substring(from + 1) : plan);
+            if (plan.contains("/* direct lookup */")) {
+                continue;
+            }
+            Matcher comment = H2_PLAN_COMMENT.matcher(plan);
+            while (comment.find()) {
+                String access = comment.group(1);
+                if (access.endsWith(".tableScan")) {
+                    problems.add("full table scan (" + access + ")");
+                } else if (access.toUpperCase().startsWith("PUBLIC.") && !access.contains(":")) {
+                    problems.add("full index scan (" + access + ")");
+                }
+            }
+            if (probe.sql.toUpperCase().contains("ORDER BY") && !plan.contains("/* index sorted */")) {
+                sortsNotChecked.add(probe.method);
+            }
+        }
+        return problems;
+    }
+    
+    /**
+     * Returns a connection that captures the statements prepared on it.
+     */
+    private Connection recordingConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement")) {
+                        return recordingStatement((PreparedStatement) result, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+    
+    /**
+     * Wraps a prepared statement so that the parameters of its first execution are
+     * captured with its SQL.
+     */
+    private PreparedStatement recordingStatement(PreparedStatement target, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        String method = currentMethod;
+        InvocationHandler handler = (proxy, invoked, args) -> {
+            String name = invoked.getName();
+            if (name.equals("setNull")) {
+                parameters.put((Integer) args[0], null);
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], args[1]);
+            } else if (name.startsWith("execute") && probes.stream().noneMatch(p -> p.sql.equals(sql))) {
+                probes.add(new Probe(method, sql, new TreeMap<>(parameters)));
+            }
+            return invoke(target, invoked, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handler);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Seeds the scratch database unless it was seeded by an earlier run. A database
+     * with other data is refused, so the check never writes to a real one.
+     */
+    private void seedIfEmpty() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE username = '"
+                    + SEED_MARKER_USER + "'")) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM accounts")) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    throw new IllegalStateException("Database already contains accounts; "
+                            + "the plan check needs a scratch database");
+                }
+            }
+        }
+        long start = System.currentTimeMillis();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        
+        batchInsert("INSERT INTO users (username, password, role) VALUES (?, ?, ?)", 1000, (pstmt, i) -> {
+            pstmt.setString(1, i == 1 ? SEED_MARKER_USER : "user" + i);
+            pstmt.setString(2, SEED_MARKER_USER);
+            pstmt.setString(3, i % 10 == 0 ? "ADMIN" : "TELLER");
+        });
+        batchInsert("INSERT INTO customers (customer_id, full_name, date_of_birth, gender, mobile_number, "
+                + "city, customer_type) VALUES (?, ?, ?, ?, ?, ?, ?)", customerOf(accountCount), (pstmt, i) -> {
+            pstmt.setInt(1, i);
+            pstmt.setString(2, "Customer " + i);
+            pstmt.setObject(3, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000)));
+            pstmt.setString(4, i % 2 == 0 ? "FEMALE" : "MALE");
+            pstmt.setString(5, String.valueOf(9_000_000_000L + i));
+            pstmt.setString(6, "City " + i % 500);
+            pstmt.setString(7, "PUBLIC");
+        });
+        batchInsert("INSERT INTO accounts (account_id, customer_id, account_number, account_type, "
+                + "mode_of_operation, balance) VALUES (?, ?, ?, ?, ?, ?)", accountCount, (pstmt, i) -> {
+            pstmt.setInt(1, i);
+            pstmt.setInt(2, customerOf(i));
+            pstmt.setString(3, accountNumber(i));
+            pstmt.setString(4, i % 2 == 0 ? "CURRENT" : "SAVINGS");
+            pstmt.setString(5, "SELF");
+            pstmt.setBigDecimal(6, BigDecimal.valueOf(random.nextInt(10_000_000), 2));
+        });
+        String[] types = {"DEPOSIT", "WITHDRAWAL", "TRANSFER"};
+        batchInsert("INSERT INTO transactions (account_id, transaction_type, amount, balance_after, description, "
+                + "transaction_date, related_account_id, debit) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                accountCount * transactionsPerAccount, (pstmt, i) -> {
+            int accountId = (i - 1) / transactionsPerAccount + 1;
+            String type = types[random.nextInt(types.length)];
+            int related = 1 + random.nextInt(accountCount);
+            boolean outgoing = random.nextBoolean();
+            pstmt.setInt(1, accountId);
+            pstmt.setString(2, type);
+            pstmt.setBigDecimal(3, BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+            pstmt.setBigDecimal(4, BigDecimal.valueOf(random.nextInt(10_000_000), 2));
+            pstmt.setString(5, !type.equals("TRANSFER") ? type.charAt(0) + type.substring(1).toLowerCase()
+                    : outgoing ? "Transfer to account " + accountNumber(related)
+                    : "Transfer from account " + accountNumber(related));
+            pstmt.setTimestamp(6, Timestamp.valueOf(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60))));
+            if (type.equals("TRANSFER")) {
+                pstmt.setInt(7, related);
+            } else {
+                pstmt.setNull(7, java.sql.Types.INTEGER);
+            }
+            pstmt.setBoolean(8, type.equals("WITHDRAWAL") || type.equals("TRANSFER") && outgoing);
+        });
+        batchInsert("INSERT INTO standing_orders (from_account_id, to_account_id, amount, frequency, "
+                + "first_run_at, next_run_at, due_at, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", accountCount / 4,
+                (pstmt, i) -> {
+            Timestamp due = Timestamp.valueOf(now.plusMinutes(random.nextInt(60 * 24 * 60)));
+            pstmt.setInt(1, i * 4);
+            pstmt.setInt(2, 1 + random.nextInt(accountCount));
+            pstmt.setBigDecimal(3, BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+            pstmt.setString(4, "MONTHLY");
+            pstmt.setTimestamp(5, due);
+            pstmt.setTimestamp(6, due);
+            pstmt.setTimestamp(7, due);
+            pstmt.setString(8, i % 5 == 0 ? "COMPLETED" : "ACTIVE");
+        });
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(mysql ? "ANALYZE TABLE users, customers, accounts, transactions, standing_orders" : "ANALYZE");
+        }
+        connection.commit();
+        LOG.info("Seeded " + accountCount + " accounts and " + accountCount * transactionsPerAccount
+                + " transactions in " + (System.currentTimeMillis() - start) + " ms");
+    }
+    
+    private void batchInsert(String sql, int rows, RowBinder binder) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= rows; i++) {
+                binder.bind(pstmt, i);
+                pstmt.addBatch();
+                if (i % 5000 == 0) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                }
+            }
+            pstmt.executeBatch();
+            connection.commit();
+        }
+    }
+    
+    private static int customerOf(int accountId) {
+        return (accountId + 1) / 2;
+    }
+    
+    private static String accountNumber(int accountId) {
+        return "PLAN" + accountId;
+    }
+    
+    private static Customer newCustomer() {
+        return new Customer("Plan Check", null, LocalDate.of(1980, 1, 1), "FEMALE", null, null,
+                null, null, "9000000000", null, null, "PUBLIC");
+    }
+    
+    private static Transaction newTransaction(int accountId) {
+        Transaction transaction = new Transaction(accountId, "DEPOSIT", BigDecimal.TEN, BigDecimal.TEN);
+        transaction.setDescription("Deposit");
+        return transaction;
+    }
+    
+    /**
+     * A statement captured from a DAO method with its parameters.
+     */
+    private static class Probe {
+        private final String method;
+        private final String sql;
+        private final Map<Integer, Object> parameters;
+        
+        Probe(String method, String sql, Map<Integer, Object> parameters) {
+            this.method = method;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement pstmt, int row) throws SQLException;
+    }
+    
+    /**
+     * Ends the unit of work of the DAO calls with a rollback.
+     */
+    private static class RolledBack extends SQLException {
+        RolledBack() {
+            super("Plan check calls rolled back");
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.bankmanagement.dao.memory;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link InMemoryDataStore} keeps the transactional semantics of the MySQL
+ * backend: units of work commit whole or not at all, other threads never see staged or
+ * partly applied writes, and a row lock held too long fails the waiter with error 1205.
+ */
+public class InMemoryDataStoreTest {
+    /** Long enough that contended writers never time out on a busy build machine. */
+    private static final long LOCK_WAIT_MILLIS = 30_000;
+    private static final long SHORT_LOCK_WAIT_MILLIS = 200;
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+    
+    private InMemoryDataStore store;
+    private ExecutorService executor;
+    private int first;
+    private int second;
+    
+    @BeforeEach
+    void createStore() throws SQLException {
+        store = new InMemoryDataStore(LOCK_WAIT_MILLIS);
+        executor = Executors.newCachedThreadPool();
+        first = openAccount();
+        second = openAccount();
+    }
+    
+    @AfterEach
+    void stopThreads() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    void committedUnitIsVisibleToOtherThreads() throws Exception {
+        store.inTransaction(() -> transfer(first, second, new BigDecimal("250.00")));
+        
+        Future<BigDecimal[]> read = executor.submit(() -> new BigDecimal[]{
+                store.accounts().getAccountById(first).getBalance(),
+                store.accounts().getAccountById(second).getBalance()});
+        BigDecimal[] balances = read.get(10, TimeUnit.SECONDS);
+        assertEquals(new BigDecimal("750.00"), balances[0]);
+        assertEquals(new BigDecimal("1250.00"), balances[1]);
+        assertEquals(1, store.transactions().getTransactionsByAccountId(first).size());
+        assertEquals(1, store.transactions().getTransactionsByAccountId(second).size());
+    }
+    
+    @Test
+    void failedUnitLeavesNothingBehind() throws Exception {
+        int[] created = new int[1];
+        SQLException failure = assertThrows(SQLException.class, () -> store.inTransaction(() -> {
+            transfer(first, second, new BigDecimal("250.00"));
+            created[0] = store.accounts().createAccount(new Account(1, "SAVINGS", "SELF"));
+            throw new SQLException("Simulated failure before commit");
+        }));
+        
+        assertEquals("Simulated failure before commit", failure.getMessage());
+        assertEquals(OPENING, store.accounts().getAccountById(first).getBalance());
+        assertEquals(OPENING, store.accounts().getAccountById(second).getBalance());
+        assertTrue(store.transactions().getTransactionsByAccountId(first).isEmpty());
+        assertTrue(store.transactions().getTransactionsByAccountId(second).isEmpty());
+        assertNull(store.accounts().getAccountById(created[0]));
+        
+        // The rolled-back unit released its row locks
+        store.inTransaction(() -> store.accounts().getAccountByIdForUpdate(first));
+    }
+    
+    @Test
+    void stagedWritesAreInvisibleUntilCommit() throws Exception {
+        CountDownLatch staged = new CountDownLatch(1);
+        CountDownLatch checked = new CountDownLatch(1);
+        Future<?> unit = executor.submit(() -> store.inTransaction(() -> {
+            transfer(first, second, new BigDecimal("250.00"));
+            staged.countDown();
+            await(checked);
+            return null;
+        }));
+        
+        assertTrue(staged.await(10, TimeUnit.SECONDS));
+        assertEquals(OPENING, store.accounts().getAccountById(first).getBalance());
+        assertTrue(store.transactions().getTransactionsByAccountId(second).isEmpty());
+        checked.countDown();
+        unit.get(10, TimeUnit.SECONDS);
+        assertEquals(new BigDecimal("750.00"), store.accounts().getAccountById(first).getBalance());
+    }
+    
+    @Test
+    void readersNeverSeePartOfACommit() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(executor.submit(() -> {
+                int reads = 0;
+                while (writing.get() || reads == 0) {
+                    BigDecimal total = store.inSnapshot(() -> store.accounts().getAccountById(first).getBalance()
+                            .add(store.accounts().getAccountById(second).getBalance()));
+                    assertEquals(OPENING.add(OPENING), total, "read saw one side of a transfer");
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2_000; i++) {
+                    boolean forward = random.nextBoolean();
+                    store.inTransaction(() -> transfer(forward ? first : second, forward ? second : first,
+                                                       BigDecimal.ONE));
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(writers)) {
+                result.get();
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (Future<Integer> reader : readers) {
+            assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        }
+    }
+    
+    @Test
+    void lockWaitTimesOutWithMysqlError1205() throws Exception {
+        store = new InMemoryDataStore(SHORT_LOCK_WAIT_MILLIS);
+        first = openAccount();
+        second = openAccount();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> store.inTransaction(() -> {
+            store.accounts().getAccountByIdForUpdate(first);
+            locked.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        
+        long start = System.nanoTime();
+        SQLException timeout = assertThrows(SQLException.class,
+                () -> store.inTransaction(() -> store.accounts().getAccountByIdForUpdate(first)));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(1205, timeout.getErrorCode());
+        assertEquals("HY000", timeout.getSQLState());
+        assertTrue(waitedMillis >= SHORT_LOCK_WAIT_MILLIS, "gave up after " + waitedMillis + " ms");
+        
+        // Other rows are not affected, and the row is available once its holder ends
+        store.inTransaction(() -> store.accounts().getAccountByIdForUpdate(second));
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        store.inTransaction(() -> store.accounts().getAccountByIdForUpdate(first));
+    }
+    
+    /** Waits inside a unit of work, whose work may only throw SQLException. */
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", e);
+        }
+    }
+    
+    private int openAccount() throws SQLException {
+        Account account = new Account(1, "SAVINGS", "SELF");
+        account.setBalance(OPENING);
+        return store.accounts().createAccount(account);
+    }
+    
+    /**
+     * Moves money between two accounts the way the controller does inside a unit of work:
+     * lock both rows, update both balances and write both ledger rows.
+     */
+    private Void transfer(int fromAccountId, int toAccountId, BigDecimal amount) throws SQLException {
+        Account from = store.accounts().getAccountByIdForUpdate(Math.min(fromAccountId, toAccountId));
+        Account to = store.accounts().getAccountByIdForUpdate(Math.max(fromAccountId, toAccountId));
+        if (from.getAccountId() != fromAccountId) {
+            Account swap = from;
+            from = to;
+            to = swap;
+        }
+        BigDecimal fromBalance = from.getBalance().subtract(amount);
+        BigDecimal toBalance = to.getBalance().add(amount);
+        store.accounts().updateBalance(fromAccountId, fromBalance);
+        store.accounts().updateBalance(toAccountId, toBalance);
+        Transaction debit = new Transaction(fromAccountId, "TRANSFER", amount, fromBalance);
+        debit.setDebit(true);
+        store.transactions().createTransaction(debit);
+        store.transactions().createTransaction(new Transaction(toAccountId, "TRANSFER", amount, toBalance));
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.bankmanagement.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link OffHeapBalanceTable} under contention: transfers between a few hot
+ * accounts on many threads must not lose an update, and readers running alongside
+ * must never see a slot with a balance from one write and a version from another.
+ */
+public class OffHeapBalanceTableTest {
+    private static final int ACCOUNTS = 64;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 50_000;
+    /** Every write keeps balance == STEP * version, so a torn slot breaks the equation. */
+    private static final long STEP = 100;
+    
+    private OffHeapBalanceTable table;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void createTable() {
+        table = new OffHeapBalanceTable(ACCOUNTS);
+        executor = Executors.newFixedThreadPool(THREADS * 2);
+    }
+    
+    @AfterEach
+    void closeTable() throws Exception {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        table.close();
+    }
+    
+    @Test
+    void concurrentTransfersLoseNoUpdates() throws Exception {
+        long opening = 1_000;
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            table.put(id, opening, 0, 0);
+        }
+        
+        List<Callable<Long>> transfers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            transfers.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long posted = 0;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    int from = 1 + random.nextInt(ACCOUNTS);
+                    int to = 1 + random.nextInt(ACCOUNTS);
+                    if (from == to) {
+                        continue;
+                    }
+                    try {
+                        table.add(from, -70);
+                    } catch (IllegalArgumentException insufficient) {
+                        continue;
+                    }
+                    table.add(to, 70);
+                    posted++;
+                }
+                return posted;
+            });
+        }
+        long posted = 0;
+        for (Future<Long> result : executor.invokeAll(transfers)) {
+            posted += result.get();
+        }
+        
+        long[] balances = new long[1];
+        long[] versions = new long[1];
+        table.forEach((id, balanceCents, version, flags) -> {
+            assertTrue(balanceCents >= 0, "Account " + id + " overdrawn: " + balanceCents);
+            balances[0] += balanceCents;
+            versions[0] += version;
+        });
+        assertEquals(opening * ACCOUNTS, balances[0], "money created or destroyed");
+        assertEquals(2 * posted, versions[0], "updates lost");
+    }
+    
+    @Test
+    void readersNeverSeeTornSlots() throws Exception {
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            table.put(id, 0, 0, OffHeapBalanceTable.ATM_CARD);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            readers.add(executor.submit(() -> {
+                long scans = 0;
+                while (writing.get() || scans == 0) {
+                    table.forEach((id, balanceCents, version, flags) -> {
+                        assertEquals(STEP * version, balanceCents, "torn slot of account " + id);
+                        assertEquals(OffHeapBalanceTable.ATM_CARD, flags, "torn flags of account " + id);
+                    });
+                    scans++;
+                }
+                return scans;
+            }));
+        }
+        
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean compareAndSet = t % 2 == 0;
+            writers.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    int id = 1 + random.nextInt(ACCOUNTS);
+                    if (compareAndSet) {
+                        long version = table.version(id);
+                        table.compareAndSetBalance(id, version, STEP * (version + 1));
+                    } else {
+                        table.add(id, STEP);
+                    }
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(writers)) {
+                result.get();
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+    }
+    
+    @Test
+    void refusedWritesLeaveTheSlotUnchanged() {
+        table.put(7, 500, 3, OffHeapBalanceTable.SMS_ALERT);
+        
+        assertThrows(IllegalArgumentException.class, () -> table.add(7, -501));
+        assertFalse(table.compareAndSetBalance(7, 2, 0));
+        assertEquals(500, table.balanceCents(7));
+        assertEquals(3, table.version(7));
+        
+        assertTrue(table.compareAndSetBalance(7, 3, 0));
+        assertEquals(0, table.balanceCents(7));
+        assertEquals(4, table.version(7));
+        
+        assertThrows(IllegalArgumentException.class, () -> table.add(8, 1));
+        assertEquals(OffHeapBalanceTable.NOT_FOUND, table.balanceCents(8));
+        assertTrue(table.remove(7));
+        assertFalse(table.contains(7));
+        assertEquals(0, table.size());
+        assertEquals(32L * (ACCOUNTS + 1), table.allocatedBytes(), "segment not trimmed to the highest account ID");
+    }
+}